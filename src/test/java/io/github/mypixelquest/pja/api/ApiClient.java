@@ -0,0 +1,220 @@
+package io.github.mypixelquest.pja.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.APIRequest;
+import com.microsoft.playwright.APIRequestContext;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.Route;
+import com.microsoft.playwright.options.Cookie;
+import com.microsoft.playwright.options.RequestOptions;
+import com.microsoft.playwright.options.SameSiteAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * JSON API client built on Playwright's {@link APIRequestContext}.
+ * A client created with {@link #forContext} shares the cookie jar of a browser context, so
+ * sessions opened through the API are immediately visible to the page and vice versa.
+ * A standalone client can be seeded from a browser's storage state and copy its storage state back.
+ */
+public class ApiClient implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ApiClient.class);
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final APIRequestContext request;
+    private final String baseUrl;
+    private final boolean owned;
+
+    private ApiClient(APIRequestContext request, String baseUrl, boolean owned) {
+        this.request = request;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.owned = owned;
+    }
+
+    /**
+     * Create a client that shares cookies with a browser context
+     *
+     * @param context Browser context of the test
+     * @param baseUrl Base URL that request paths are resolved against
+     * @return ApiClient using the context's request context
+     */
+    public static ApiClient forContext(BrowserContext context, String baseUrl) {
+        return new ApiClient(context.request(), baseUrl, false);
+    }
+
+    /**
+     * Create a standalone client with its own cookie jar
+     *
+     * @param playwright Playwright instance of the current thread
+     * @param baseUrl Base URL that request paths are resolved against
+     * @param storageState Storage state JSON to start from (e.g. a browser context's), or null
+     * @return ApiClient that must be closed by the caller
+     */
+    public static ApiClient create(Playwright playwright, String baseUrl, String storageState) {
+        APIRequest.NewContextOptions options = new APIRequest.NewContextOptions();
+        if (storageState != null) {
+            options.setStorageState(storageState);
+        }
+        return new ApiClient(playwright.request().newContext(options), baseUrl, true);
+    }
+
+    /**
+     * Send a GET request and map the JSON response
+     *
+     * @param path Path relative to the base URL
+     * @param type Type to map the response body to
+     * @return Mapped response body
+     */
+    public <T> T get(String path, Class<T> type) {
+        return send("GET", path, null, type);
+    }
+
+    /**
+     * Send a POST request with a JSON body and map the JSON response
+     *
+     * @param path Path relative to the base URL
+     * @param body Object serialized as the JSON request body
+     * @param type Type to map the response body to
+     * @return Mapped response body
+     */
+    public <T> T post(String path, Object body, Class<T> type) {
+        return send("POST", path, body, type);
+    }
+
+    /**
+     * Send a PUT request with a JSON body and map the JSON response
+     *
+     * @param path Path relative to the base URL
+     * @param body Object serialized as the JSON request body
+     * @param type Type to map the response body to
+     * @return Mapped response body
+     */
+    public <T> T put(String path, Object body, Class<T> type) {
+        return send("PUT", path, body, type);
+    }
+
+    /**
+     * Send a DELETE request
+     *
+     * @param path Path relative to the base URL
+     */
+    public void delete(String path) {
+        send("DELETE", path, null, Void.class);
+    }
+
+    /**
+     * Get the cookies and local storage of this client
+     *
+     * @return Storage state JSON, accepted by Browser.NewContextOptions.setStorageState
+     */
+    public String storageState() {
+        return request.storageState();
+    }
+
+    /**
+     * Copy the storage state of this client into a browser context
+     * Cookies are added to the context, the local storage of each origin is written through a blank page on that origin
+     *
+     * @param context Browser context to add the cookies and local storage to
+     */
+    public void applyStorageStateTo(BrowserContext context) {
+        JsonNode state;
+        try {
+            state = mapper.readTree(storageState());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read API storage state", e);
+        }
+
+        List<Cookie> cookies = new ArrayList<>();
+        for (JsonNode node : state.path("cookies")) {
+            Cookie cookie = new Cookie(node.path("name").asText(), node.path("value").asText())
+                    .setDomain(node.path("domain").asText())
+                    .setPath(node.path("path").asText("/"))
+                    .setExpires(node.path("expires").asDouble(-1))
+                    .setHttpOnly(node.path("httpOnly").asBoolean())
+                    .setSecure(node.path("secure").asBoolean());
+            if (node.hasNonNull("sameSite")) {
+                cookie.setSameSite(SameSiteAttribute.valueOf(node.get("sameSite").asText().toUpperCase(Locale.ROOT)));
+            }
+            cookies.add(cookie);
+        }
+        if (!cookies.isEmpty()) {
+            log.debug("Copying {} API cookies to browser context", cookies.size());
+            context.addCookies(cookies);
+        }
+
+        List<JsonNode> origins = new ArrayList<>();
+        state.path("origins").forEach(origins::add);
+        origins.removeIf(origin -> origin.path("localStorage").isEmpty());
+        if (origins.isEmpty()) {
+            return;
+        }
+        log.debug("Copying local storage of {} API origins to browser context", origins.size());
+        Page page = context.newPage();
+        try {
+            // An empty document on each origin, nothing of the application runs while writing
+            page.route("**/*", route -> route.fulfill(new Route.FulfillOptions()
+                    .setContentType("text/html")
+                    .setBody("")));
+            for (JsonNode origin : origins) {
+                page.navigate(origin.path("origin").asText() + "/");
+                page.evaluate("items => items.forEach(item => localStorage.setItem(item.name, item.value))",
+                        mapper.convertValue(origin.path("localStorage"), List.class));
+            }
+        } finally {
+            page.close();
+        }
+    }
+
+    /**
+     * Dispose the request context if this client created it
+     */
+    @Override
+    public void close() {
+        if (owned) {
+            request.dispose();
+        }
+    }
+
+    private <T> T send(String method, String path, Object body, Class<T> type) {
+        String url = baseUrl + (path.startsWith("/") ? path : "/" + path);
+        RequestOptions options = RequestOptions.create().setMethod(method);
+        try {
+            if (body != null) {
+                options.setHeader("Content-Type", "application/json").setData(mapper.writeValueAsString(body));
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize request body for " + method + " " + path, e);
+        }
+
+        log.debug("{} {}", method, url);
+        APIResponse response = request.fetch(url, options);
+        try {
+            if (!response.ok()) {
+                throw new RuntimeException(String.format("%s %s failed with status %d: %s",
+                        method, path, response.status(), response.text()));
+            }
+            byte[] responseBody = response.body();
+            if (type == Void.class || responseBody == null || responseBody.length == 0) {
+                return null;
+            }
+            return mapper.readValue(responseBody, type);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse response of " + method + " " + path, e);
+        } finally {
+            response.dispose();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.mypixelquest.pja.api;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Order resource, shaped like the entries of orders.json
+ */
+@Data
+public class Order {
+    private String id;
+    private Customer customer;
+    private List<Item> items;
+    private double total;
+    private String status;
+    private String createdAt;
+
+    @Data
+    public static class Customer {
+        private String name;
+        private String email;
+        private String phone;
+        private String address;
+    }
+
+    @Data
+    public static class Item {
+        private String productId;
+        private String name;
+        private int quantity;
+        private double price;
+    }
+}
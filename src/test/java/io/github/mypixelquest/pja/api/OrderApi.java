@@ -0,0 +1,71 @@
+package io.github.mypixelquest.pja.api;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.mypixelquest.pja.data.TestDataManager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order setup and teardown helpers fed by orders.json
+ */
+public class OrderApi {
+    private static final String ORDERS_PATH = "/api/orders";
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final ApiClient client;
+    private final TestDataManager dataManager;
+
+    public OrderApi(ApiClient client, TestDataManager dataManager) {
+        this.client = client;
+        this.dataManager = dataManager;
+    }
+
+    /**
+     * Create an order from its definition in orders.json
+     *
+     * @param orderId Id of the order in orders.json (e.g. "ORD-001")
+     * @return The order as returned by the API
+     */
+    public Order createOrder(String orderId) {
+        return client.post(ORDERS_PATH, loadOrder(orderId), Order.class);
+    }
+
+    /**
+     * Get an order by id
+     *
+     * @param orderId Order id
+     * @return The order as returned by the API
+     */
+    public Order getOrder(String orderId) {
+        return client.get(ORDERS_PATH + "/" + orderId, Order.class);
+    }
+
+    /**
+     * Delete an order by id
+     *
+     * @param orderId Order id
+     */
+    public void deleteOrder(String orderId) {
+        client.delete(ORDERS_PATH + "/" + orderId);
+    }
+
+    /**
+     * Load an order definition from orders.json
+     *
+     * @param orderId Id of the order
+     * @return Order from the test data
+     * @throws IllegalArgumentException if the order is not defined
+     */
+    public Order loadOrder(String orderId) {
+        List<?> orders = (List<?>) dataManager.loadJsonData("orders.json").get("orders");
+        return orders.stream()
+                .map(order -> (Map<?, ?>) order)
+                .filter(order -> orderId.equals(order.get("id")))
+                .findFirst()
+                .map(order -> mapper.convertValue(order, Order.class))
+                .orElseThrow(() -> new IllegalArgumentException("Order not found in orders.json: " + orderId));
+    }
+}
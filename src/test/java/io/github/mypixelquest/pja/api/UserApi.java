@@ -0,0 +1,54 @@
+package io.github.mypixelquest.pja.api;
+
+import io.github.mypixelquest.pja.data.DataLease;
+import io.github.mypixelquest.pja.data.TestDataManager;
+
+import java.util.Map;
+
+/**
+ * Session helpers for the users defined in test-data.yaml
+ */
+public class UserApi {
+    private static final String LOGIN_PATH = "/api/login";
+    private static final String LOGOUT_PATH = "/api/logout";
+
+    private final ApiClient client;
+    private final TestDataManager dataManager;
+
+    public UserApi(ApiClient client, TestDataManager dataManager) {
+        this.client = client;
+        this.dataManager = dataManager;
+    }
+
+    /**
+     * Log in as a user from test-data.yaml, the session cookie lands in the client's cookie jar
+     *
+     * @param user User key under "users" (e.g. "admin", "regular")
+     */
+    public void login(String user) {
+        Map<String, Object> data = dataManager.loadYamlData("test-data.yaml");
+        client.post(LOGIN_PATH, Map.of(
+                "username", dataManager.getValue(data, "users." + user + ".username"),
+                "password", dataManager.getValue(data, "users." + user + ".password")
+        ), Void.class);
+    }
+
+    /**
+     * Log in as a user leased from a pool, so parallel tests never share the account's state
+     *
+     * @param user Lease from a pool in test-data.yaml (e.g. "admins")
+     */
+    public void login(DataLease user) {
+        client.post(LOGIN_PATH, Map.of(
+                "username", user.getString("username"),
+                "password", user.getString("password")
+        ), Void.class);
+    }
+
+    /**
+     * End the current session
+     */
+    public void logout() {
+        client.post(LOGOUT_PATH, Map.of(), Void.class);
+    }
+}
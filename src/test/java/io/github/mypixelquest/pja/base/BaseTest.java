@@ -1,13 +1,27 @@
 package io.github.mypixelquest.pja.base;
 
 import com.microsoft.playwright.*;
+import io.github.mypixelquest.pja.api.ApiClient;
+import io.github.mypixelquest.pja.data.TestDataManager;
 import io.github.mypixelquest.pja.listeners.ScreenshotListener;
+import io.github.mypixelquest.pja.pages.RequestTracker;
+import io.github.mypixelquest.pja.pages.SelectorStats;
+import io.github.mypixelquest.pja.pages.WaitTimings;
 import io.github.mypixelquest.pja.utils.ConfigReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.*;
 
+import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Base test class for all Playwright tests
@@ -21,8 +35,29 @@ public class BaseTest {
     // ThreadLocal variables for parallel execution safety
     private static final ThreadLocal<Playwright> playwrightThreadLocal = new ThreadLocal<>();
     private static final ThreadLocal<Browser> browserThreadLocal = new ThreadLocal<>();
+    // Browser type of the thread's browser, a matrix runs each browser's tests on its own threads
+    private static final ThreadLocal<String> browserNameThreadLocal = new ThreadLocal<>();
+    // Persistent context of the thread's worker profile, kept across tests when browserProfiles are enabled
+    private static final ThreadLocal<BrowserContext> profileThreadLocal = new ThreadLocal<>();
+    // Origins the worker profile visited since its storage was last cleared
+    private static final ThreadLocal<ProfileStorage> profileStorageThreadLocal = new ThreadLocal<>();
     private static final ThreadLocal<BrowserContext> contextThreadLocal = new ThreadLocal<>();
     private static final ThreadLocal<Page> pageThreadLocal = new ThreadLocal<>();
+    // Contexts created by the thread's browser, and its replacement while one is launched in the background
+    private static final ThreadLocal<Integer> contextCountThreadLocal = ThreadLocal.withInitial(() -> 0);
+    private static final ThreadLocal<CompletableFuture<BrowserRecycling.Replacement>> replacementThreadLocal =
+            new ThreadLocal<>();
+    // @SharedPage context/page kept open on this thread, registered so the thread finishing
+    // a class can mark those of the other threads for closing, and suite cleanup close what is left
+    private static final Set<SharedPageSlot> sharedPageSlots = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<SharedPageSlot> sharedPageThreadLocal = ThreadLocal.withInitial(() -> {
+        SharedPageSlot slot = new SharedPageSlot();
+        sharedPageSlots.add(slot);
+        return slot;
+    });
+    
+    // Browsers and worker profiles closed on purpose, killed by the watchdog or crashed
+    private static final BrowserLosses losses = new BrowserLosses();
 
     /**
      * Setup for the test suite - called once before any tests run
@@ -30,71 +65,142 @@ public class BaseTest {
     @BeforeSuite(alwaysRun = true)
     public void setupPlaywright() {
         log.info("Starting Playwright setup for test suite");
+        if (BrowserProfiles.isEnabled() && BrowserRecycling.getInstance().isEnabled()) {
+            log.warn("browserRecycling does not apply to persistent worker profiles, browserProfiles workers keep their browser");
+        }
     }
 
     /**
      * Setup for each test method - creates context, page and navigates to base URL
+     * Classes annotated with {@link SharedPage} reuse the thread's page of the previous method instead
+     *
+     * @param testContext Test context, its "browser" parameter selects the browser of a matrix run
+     * @param method Test method, its recorded durations set the timeouts when they are adaptive
      */
     @BeforeMethod(alwaysRun = true)
-    public void setupBrowserContext() {
+    public void setupBrowserContext(ITestContext testContext, Method method) {
         log.info("Setting up browser for test");
+        // Held until the method's cleanup, suite cleanup skips this thread's shared page meanwhile
+        SharedPageSlot slot = sharedPageThreadLocal.get();
+        slot.busy.lock();
 
         if (playwrightThreadLocal.get() == null) {
             log.debug("Initializing Playwright for thread: {}", Thread.currentThread().getId());
-            Playwright playwright = Playwright.create();
+            Playwright playwright = BrowserProcesses.create();
             playwrightThreadLocal.set(playwright);
         }
 
-        if (browserThreadLocal.get() == null) {
-            log.debug("Creating {} browser for thread: {}", 
-                    configReader.getBrowserType(), Thread.currentThread().getId());
-            
-            Browser browser;
-            BrowserType browserType = getBrowserType(configReader.getBrowserType());
-            BrowserType.LaunchOptions launchOptions = new BrowserType.LaunchOptions()
-                    .setHeadless(configReader.isHeadless())
-                    .setSlowMo(configReader.getConfig().getBrowser().getSlowMo());
+        String browserName = Optional.ofNullable(testContext.getCurrentXmlTest().getParameter("browser"))
+                .orElseGet(configReader::getBrowserType);
+        if (!browserName.equals(browserNameThreadLocal.get())) {
+            // A pooled thread that ran another browser's tests before
+            closeBrowser();
+        } else if (isBrowserLost()) {
+            log.warn("{} browser of thread {} crashed, relaunching it", browserName, Thread.currentThread().getId());
+            closeBrowser();
+        }
+
+        if (BrowserProfiles.isEnabled()) {
+            if (profileThreadLocal.get() == null) {
+                log.debug("Launching {} worker profile for thread: {}", browserName, Thread.currentThread().getId());
+                useProfile(BrowserProfiles.getInstance().launchWorker(getBrowserType(browserName),
+                        new BrowserType.LaunchPersistentContextOptions()
+                                .setHeadless(configReader.isHeadless())
+                                .setSlowMo(configReader.getSlowMo())), browserName);
+            }
+        } else if (browserThreadLocal.get() == null) {
+            log.debug("Creating {} browser for thread: {}", browserName, Thread.currentThread().getId());
+            launchBrowser(browserName);
+        } else {
+            swapToReplacement(browserName);
+        }
+
+        // The deadline starts after the launch, a cold browser is not part of the test's history
+        TestTimeouts timeouts = TestTimeouts.getInstance();
+        if (timeouts.isAdaptive()) {
+            TestDeadline deadline = timeouts.start(getClass().getSimpleName() + "." + method.getName()
+                    + " [" + browserName + "]");
+            log.debug("Test deadline in {} ms", deadline.getBudgetMillis());
+        }
 
-            browser = browserType.launch(launchOptions);
-            browserThreadLocal.set(browser);
+        boolean sharedPage = getClass().isAnnotationPresent(SharedPage.class);
+        // A page of a class that finished is closed below, even if the same class runs again
+        if (sharedPage && slot.owner == getClass() && !slot.closing && resetSharedPage()) {
+            log.debug("Reusing shared page of {}", getClass().getSimpleName());
+            applyTimeouts(pageThreadLocal.get());
+            navigateToBaseUrl(true);
+            return;
         }
+        
+        // A page left behind by another shared class, a finished class (or a failed reset) is not reusable
+        closeContext();
 
-        // Create a new browser context for each test (for isolation)
-        BrowserContext context = browserThreadLocal.get().newContext();
+        // Create a new browser context for each test (for isolation), or reuse the cleared worker profile
+        BrowserContext context = Optional.ofNullable(profileThreadLocal.get())
+                .orElseGet(() -> newContext(browserName));
         contextThreadLocal.set(context);
 
-        // Create a new page and set default timeout
+        // Create a new page and set default timeout, its requests are tracked for network waits from the start
         Page page = context.newPage();
-        page.setDefaultTimeout(configReader.getTimeout());
+        RequestTracker.of(page);
+        applyTimeouts(page);
         pageThreadLocal.set(page);
         
-        // Navigate to the base URL if configured
-        try {
-            String baseUrl = configReader.getBaseUrl();
-            if (baseUrl != null && !baseUrl.isEmpty()) {
-                log.info("Navigating to base URL: {}", baseUrl);
-                page.navigate(baseUrl);
-            }
-        } catch (RuntimeException e) {
-            log.warn("Base URL not configured, skipping initial navigation");
+        if (sharedPage) {
+            slot.keep(getClass(), context, page, context == profileThreadLocal.get());
         }
+        navigateToBaseUrl(false);
     }
 
     /**
      * Cleanup after each test method - close page and context
+     * A shared page is kept for the next method of its class unless the test failed
+     *
+     * @param result Result of the test method
      */
     @AfterMethod(alwaysRun = true)
-    public void cleanupBrowserContext() {
-        log.info("Cleaning up browser context after test");
-        
-        if (pageThreadLocal.get() != null) {
-            pageThreadLocal.get().close();
-            pageThreadLocal.remove();
+    public void cleanupBrowserContext(ITestResult result) {
+        SharedPageSlot slot = sharedPageThreadLocal.get();
+        try {
+            TestDeadline.current().ifPresent(deadline -> {
+                if (result.isSuccess()) {
+                    TestTimeouts.getInstance().record(deadline.getTest(), deadline.elapsedMillis());
+                }
+                TestDeadline.clear();
+            });
+            
+            if (slot.owner == getClass() && result.isSuccess()) {
+                log.info("Keeping shared page for next test of {}", getClass().getSimpleName());
+                return;
+            }
+            
+            log.info("Cleaning up browser context after test");
+            closeContext();
+        } finally {
+            while (slot.busy.isHeldByCurrentThread()) {
+                slot.busy.unlock();
+            }
         }
-        
-        if (contextThreadLocal.get() != null) {
-            contextThreadLocal.get().close();
-            contextThreadLocal.remove();
+    }
+    
+    /**
+     * Cleanup after each test class - close the shared page the class left open on this thread
+     * Pages of other threads are only marked, as Playwright objects are used by one thread at a time:
+     * the owning thread closes its page in its next setup, or suite cleanup closes it
+     */
+    @AfterClass(alwaysRun = true)
+    public void cleanupSharedPage() {
+        SharedPageSlot current = sharedPageThreadLocal.get();
+        for (SharedPageSlot slot : sharedPageSlots) {
+            if (slot.owner != getClass()) {
+                continue;
+            }
+            if (slot == current) {
+                log.debug("Closing shared page of {}", getClass().getSimpleName());
+                closeContext();
+            } else {
+                slot.closing = true;
+            }
         }
     }
 
@@ -105,17 +211,56 @@ public class BaseTest {
     public void cleanupPlaywright() {
         log.info("Cleaning up Playwright resources");
         
-        if (browserThreadLocal.get() != null) {
-            browserThreadLocal.get().close();
-            browserThreadLocal.remove();
+        String waitSummary = WaitTimings.summary();
+        if (!waitSummary.isEmpty()) {
+            log.info("Page wait timings:\n{}", waitSummary);
+        }
+        
+        SelectorStats selectorStats = SelectorStats.getInstance();
+        selectorStats.deadSelectors().forEach((chain, selectors) ->
+                log.warn("Fallback selectors that never matched in {}: {}", chain, selectors));
+        selectorStats.save();
+        TestTimeouts.getInstance().save();
+        
+        log.info("Test data cache: {}", TestDataManager.cacheStats());
+        
+        Map<String, Integer> crashes = getBrowserCrashes();
+        if (!crashes.isEmpty()) {
+            log.warn("Browser crashes during the run: {}", crashes);
         }
         
+        closeLeftOverSharedPages();
+        closeBrowser();
+        
         if (playwrightThreadLocal.get() != null) {
-            playwrightThreadLocal.get().close();
+            BrowserRecycling.close(playwrightThreadLocal.get());
             playwrightThreadLocal.remove();
         }
     }
 
+    /**
+     * Close the shared pages whose threads ran no further test after their class finished
+     * All tests are done, so the worker threads no longer use their Playwright objects
+     */
+    private void closeLeftOverSharedPages() {
+        SharedPageSlot current = sharedPageThreadLocal.get();
+        for (SharedPageSlot slot : sharedPageSlots) {
+            if (slot.owner == null || !slot.busy.tryLock()) {
+                continue;
+            }
+            try {
+                if (slot == current) {
+                    closeContext();
+                } else if (slot.owner != null) {
+                    log.debug("Closing shared page of {} left open by another thread", slot.owner.getSimpleName());
+                    slot.closeLeftOver();
+                }
+            } finally {
+                slot.busy.unlock();
+            }
+        }
+    }
+
     /**
      * Get the current thread's Page object
      * Used by tests and listeners (e.g., for screenshots)
@@ -126,6 +271,58 @@ public class BaseTest {
         return Optional.ofNullable(pageThreadLocal.get());
     }
 
+    /**
+     * Get the browser type the current thread's tests run on
+     *
+     * @return Browser type (chromium, firefox, webkit), the configured one before a browser is launched
+     */
+    public String getBrowserName() {
+        return Optional.ofNullable(browserNameThreadLocal.get()).orElseGet(configReader::getBrowserType);
+    }
+
+    /**
+     * Check whether the current thread's browser or worker profile crashed since it was launched
+     * Used by the retry analyzer to re-run the test that was in flight
+     *
+     * @return True if the thread has a browser or worker profile and it is no longer usable
+     */
+    public static boolean isBrowserLost() {
+        Browser browser = browserThreadLocal.get();
+        if (browser != null && (losses.isLost(browser) || !browser.isConnected())) {
+            return true;
+        }
+        BrowserContext profile = profileThreadLocal.get();
+        return profile != null && losses.isLost(profile);
+    }
+    
+    /**
+     * Prepare an OS-level kill of the current thread's browser or worker profile
+     * Lets a watchdog unblock a Playwright call hung on the browser without calling Playwright from its own thread.
+     * The kill is not counted as a crash, and the browser is relaunched for the thread's next test.
+     *
+     * @return Kills the browser processes when run from any thread, empty without a browser or a known driver
+     */
+    public Optional<Runnable> prepareBrowserKill() {
+        Object browser = Optional.<Object>ofNullable(browserThreadLocal.get()).orElseGet(profileThreadLocal::get);
+        if (browser == null) {
+            return Optional.empty();
+        }
+        String browserName = browserNameThreadLocal.get();
+        return BrowserProcesses.driver(playwrightThreadLocal.get()).map(driver -> () -> {
+            losses.killing(browser);
+            log.warn("Killed {} {} browser process(es) of a stopped test", BrowserProcesses.kill(driver), browserName);
+        });
+    }
+    
+    /**
+     * Get the number of browser crashes of the run so far, by browser type
+     *
+     * @return Crash counts sorted by browser type, empty if no browser crashed
+     */
+    public static Map<String, Integer> getBrowserCrashes() {
+        return losses.crashes();
+    }
+    
     /**
      * Get the current thread's BrowserContext object
      *
@@ -135,6 +332,298 @@ public class BaseTest {
         return Optional.ofNullable(contextThreadLocal.get());
     }
     
+    /**
+     * Get an API client that shares cookies with the current thread's BrowserContext
+     * Sessions created through the API are visible to the page and vice versa
+     *
+     * @return ApiClient for the configured API base URL
+     * @throws IllegalStateException if no browser context is active
+     */
+    public ApiClient getApiClient() {
+        BrowserContext context = getCurrentContext()
+                .orElseThrow(() -> new IllegalStateException("No active browser context for API client"));
+        return ApiClient.forContext(context, configReader.getApiBaseUrl());
+    }
+    
+    /**
+     * Set the page's default and navigation timeouts, from the test deadline when timeouts are adaptive
+     */
+    private void applyTimeouts(Page page) {
+        TestDeadline.current().ifPresentOrElse(deadline -> deadline.apply(page, null), () -> {
+            page.setDefaultTimeout(configReader.getTimeout());
+            page.setDefaultNavigationTimeout(configReader.getTimeout());
+        });
+    }
+    
+    /**
+     * Navigate the current page to the base URL if configured
+     *
+     * @param onlyIfDifferent Skip the navigation when the page is already on the base URL
+     */
+    private void navigateToBaseUrl(boolean onlyIfDifferent) {
+        Page page = pageThreadLocal.get();
+        try {
+            String baseUrl = configReader.getBaseUrl();
+            if (baseUrl == null || baseUrl.isEmpty()) {
+                return;
+            }
+            if (onlyIfDifferent && baseUrl.equals(page.url())) {
+                log.debug("Shared page already on base URL, skipping navigation");
+                return;
+            }
+            log.info("Navigating to base URL: {}", baseUrl);
+            page.navigate(baseUrl);
+        } catch (RuntimeException e) {
+            log.warn("Base URL not configured, skipping initial navigation");
+        }
+    }
+    
+    /**
+     * Reset the shared page between test methods
+     * Closes extra pages, clears cookies and the storage of the current origin
+     *
+     * @return true if the page can be reused, false if a new context is needed
+     */
+    private boolean resetSharedPage() {
+        BrowserContext context = contextThreadLocal.get();
+        Page page = pageThreadLocal.get();
+        if (context == null || page == null || page.isClosed()) {
+            return false;
+        }
+        
+        try {
+            for (Page other : context.pages()) {
+                if (other != page) {
+                    other.close();
+                }
+            }
+            context.clearCookies();
+            page.evaluate("() => { try { localStorage.clear(); sessionStorage.clear(); } catch (e) {} }");
+            return true;
+        } catch (PlaywrightException e) {
+            log.warn("Failed to reset shared page, creating a new context", e);
+            return false;
+        }
+    }
+    
+    /**
+     * Close the current page and context of this thread, if any
+     * A worker profile stays open: its pages are closed and its cookies and storage cleared instead
+     */
+    private void closeContext() {
+        sharedPageThreadLocal.get().release();
+        
+        BrowserContext context = contextThreadLocal.get();
+        if (context != null && context == profileThreadLocal.get()) {
+            clearProfile(context);
+            pageThreadLocal.remove();
+            contextThreadLocal.remove();
+            return;
+        }
+        
+        pageThreadLocal.remove();
+        contextThreadLocal.remove();
+        if (context != null) {
+            try {
+                // Closes its pages too
+                context.close();
+            } catch (PlaywrightException e) {
+                // Already closed, e.g. by the watchdog of a hung test
+                log.debug("Failed to close browser context", e);
+            }
+        }
+    }
+    
+    /**
+     * Reset a worker profile for the next test, keeping the browser's caches and service workers
+     * Storage, IndexedDB included, is cleared for every origin the test navigated to
+     */
+    private void clearProfile(BrowserContext profile) {
+        try {
+            for (Page page : profile.pages()) {
+                page.close();
+            }
+            profileStorageThreadLocal.get().clear(profile, browserNameThreadLocal.get());
+            profile.clearCookies();
+            profile.clearPermissions();
+        } catch (PlaywrightException e) {
+            log.warn("Failed to clear worker profile, relaunching it for the next test", e);
+            closeProfile();
+        }
+    }
+    
+    /**
+     * Launch the thread's browser, restarting Playwright first if its driver is gone
+     */
+    private void launchBrowser(String browserName) {
+        Browser browser;
+        try {
+            browser = getBrowserType(browserName).launch(launchOptions());
+        } catch (PlaywrightException e) {
+            log.warn("Failed to launch {}, restarting Playwright for thread: {}", browserName,
+                    Thread.currentThread().getId(), e);
+            restartPlaywright();
+            browser = getBrowserType(browserName).launch(launchOptions());
+        }
+        useBrowser(browser, browserName);
+    }
+    
+    private BrowserType.LaunchOptions launchOptions() {
+        return new BrowserType.LaunchOptions()
+                .setHeadless(configReader.isHeadless())
+                .setSlowMo(configReader.getSlowMo());
+    }
+    
+    /**
+     * Make a launched browser the thread's browser, watching it for crashes
+     */
+    private void useBrowser(Browser browser, String browserName) {
+        browser.onDisconnected(disconnected -> {
+            switch (losses.disconnected(disconnected, browserName)) {
+                case KILLED -> log.warn("{} browser killed by the watchdog", browserName);
+                case CRASHED -> log.error("{} browser disconnected unexpectedly, {} crash(es) so far", browserName,
+                        losses.crashes().get(browserName));
+                default -> {
+                }
+            }
+        });
+        browserThreadLocal.set(browser);
+        browserNameThreadLocal.set(browserName);
+        contextCountThreadLocal.set(0);
+    }
+    
+    /**
+     * Make a launched worker profile the thread's profile, watching it for crashes
+     * A persistent context has no Browser, its browser's crash closes the context itself
+     */
+    private void useProfile(BrowserContext profile, String browserName) {
+        profile.onClose(closed -> {
+            switch (losses.disconnected(closed, browserName)) {
+                case KILLED -> log.warn("{} worker profile killed by the watchdog", browserName);
+                case CRASHED -> log.error("{} worker profile closed unexpectedly, {} crash(es) so far", browserName,
+                        losses.crashes().get(browserName));
+                default -> {
+                }
+            }
+        });
+        profileThreadLocal.set(profile);
+        profileStorageThreadLocal.set(ProfileStorage.track(profile));
+        browserNameThreadLocal.set(browserName);
+    }
+    
+    /**
+     * Swap the thread's browser for its background replacement once that is ready
+     * The old browser and its Playwright instance are closed in the background
+     */
+    private void swapToReplacement(String browserName) {
+        CompletableFuture<BrowserRecycling.Replacement> replacement = replacementThreadLocal.get();
+        if (replacement == null || !replacement.isDone()) {
+            return;
+        }
+        replacementThreadLocal.remove();
+        
+        BrowserRecycling.Replacement next;
+        try {
+            next = replacement.join();
+        } catch (CompletionException e) {
+            log.warn("Failed to launch replacement {} browser, keeping the current one", browserName, e.getCause());
+            return;
+        }
+        closeContext();
+        Browser retired = browserThreadLocal.get();
+        losses.closing(retired);
+        BrowserRecycling.retire(playwrightThreadLocal.get(), retired);
+        playwrightThreadLocal.set(next.getPlaywright());
+        useBrowser(next.getBrowser(), browserName);
+        log.info("Swapped to replacement {} browser for thread: {}", browserName, Thread.currentThread().getId());
+    }
+    
+    /**
+     * Create a context in the thread's browser, relaunching the browser once if it no longer responds
+     * A browser that reached the recycling thresholds gets its replacement launched in the background
+     */
+    private BrowserContext newContext(String browserName) {
+        BrowserContext context = createContext(browserName);
+        int contexts = contextCountThreadLocal.get() + 1;
+        contextCountThreadLocal.set(contexts);
+        
+        BrowserRecycling recycling = BrowserRecycling.getInstance();
+        if (recycling.isEnabled() && replacementThreadLocal.get() == null
+                && recycling.isDue(playwrightThreadLocal.get(), contexts)) {
+            replacementThreadLocal.set(recycling.launch(browserName, launchOptions()));
+        }
+        return context;
+    }
+    
+    private BrowserContext createContext(String browserName) {
+        try {
+            return browserThreadLocal.get().newContext();
+        } catch (PlaywrightException e) {
+            Browser lost = browserThreadLocal.get();
+            if (!losses.isLost(lost)) {
+                losses.countCrash(browserName);
+            }
+            log.warn("{} browser of thread {} does not respond, relaunching it", browserName,
+                    Thread.currentThread().getId(), e);
+            closeBrowser();
+            launchBrowser(browserName);
+            return browserThreadLocal.get().newContext();
+        }
+    }
+    
+    private void restartPlaywright() {
+        closeBrowser();
+        Playwright playwright = playwrightThreadLocal.get();
+        if (playwright != null) {
+            BrowserRecycling.close(playwright);
+        }
+        playwrightThreadLocal.set(BrowserProcesses.create());
+    }
+    
+    /**
+     * Close this thread's browser or worker profile, if any
+     */
+    private void closeBrowser() {
+        closeContext();
+        closeProfile();
+        CompletableFuture<BrowserRecycling.Replacement> replacement = replacementThreadLocal.get();
+        replacementThreadLocal.remove();
+        if (replacement != null) {
+            // Not needed anymore, e.g. for another browser of a matrix
+            replacement.thenAccept(unused -> BrowserRecycling.retire(unused.getPlaywright(), unused.getBrowser()));
+        }
+        Browser browser = browserThreadLocal.get();
+        browserThreadLocal.remove();
+        browserNameThreadLocal.remove();
+        if (browser != null) {
+            losses.forget(browser);
+            if (browser.isConnected()) {
+                // Classified as closed by the disconnect handler
+                losses.closing(browser);
+                try {
+                    browser.close();
+                } catch (PlaywrightException e) {
+                    log.debug("Failed to close browser", e);
+                }
+            }
+        }
+    }
+    
+    private void closeProfile() {
+        BrowserContext profile = profileThreadLocal.get();
+        profileThreadLocal.remove();
+        profileStorageThreadLocal.remove();
+        if (profile != null && !losses.forget(profile)) {
+            // Classified as closed by the close handler
+            losses.closing(profile);
+            try {
+                profile.close();
+            } catch (PlaywrightException e) {
+                log.warn("Failed to close worker profile", e);
+            }
+        }
+    }
+    
     /**
      * Get browser type based on configuration
      *
@@ -142,11 +631,66 @@ public class BaseTest {
      * @return BrowserType instance
      */
     private BrowserType getBrowserType(String browserType) {
-        Playwright playwright = playwrightThreadLocal.get();
+        return browserType(playwrightThreadLocal.get(), browserType);
+    }
+    
+    /**
+     * Get a browser type of a Playwright instance by name
+     *
+     * @param playwright Playwright instance
+     * @param browserType Browser type name, chromium when unknown
+     * @return BrowserType instance
+     */
+    static BrowserType browserType(Playwright playwright, String browserType) {
         return switch (browserType.toLowerCase()) {
             case "firefox" -> playwright.firefox();
             case "webkit" -> playwright.webkit();
             default -> playwright.chromium();
         };
     }
-}
\ No newline at end of file
+    
+    /**
+     * The @SharedPage context/page a thread keeps open for the next method of its class
+     * The owning thread holds the lock from a method's setup to its cleanup
+     */
+    private static final class SharedPageSlot {
+        private final ReentrantLock busy = new ReentrantLock();
+        // Test class whose shared page is open, written by the owning thread
+        private volatile Class<?> owner;
+        // Set when the class finished on another thread, the page is no longer reused
+        private volatile boolean closing;
+        private BrowserContext context;
+        private Page page;
+        private boolean profile;
+        
+        private void keep(Class<?> owner, BrowserContext context, Page page, boolean profile) {
+            this.owner = owner;
+            this.closing = false;
+            this.context = context;
+            this.page = page;
+            this.profile = profile;
+        }
+        
+        private void release() {
+            keep(null, null, null, false);
+        }
+        
+        /**
+         * Close the shared page of an owning thread that no longer runs tests
+         * A worker profile stays open with only the page closed
+         */
+        private void closeLeftOver() {
+            try {
+                if (profile) {
+                    page.close();
+                } else {
+                    context.close();
+                }
+            } catch (PlaywrightException e) {
+                log.debug("Failed to close shared page of another thread", e);
+            } finally {
+                release();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.mypixelquest.pja.base;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Why the browsers and worker profiles of the workers went away.
+ * A browser closed on purpose is expected, one killed by the watchdog is lost without having
+ * crashed, and any other disconnect is a crash, counted per browser type. Browsers are the
+ * Browser of a worker or the persistent context of its worker profile.
+ * Used from the worker threads, the watchdog and the Playwright event handlers.
+ */
+public final class BrowserLosses {
+    private final Set<Object> closing = ConcurrentHashMap.newKeySet();
+    private final Set<Object> killing = ConcurrentHashMap.newKeySet();
+    private final Set<Object> lost = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> crashCounts = new ConcurrentHashMap<>();
+
+    /**
+     * How a browser went away
+     */
+    public enum Loss {
+        CLOSED,
+        KILLED,
+        CRASHED
+    }
+
+    /**
+     * Record that a browser is about to be closed on purpose
+     *
+     * @param browser Browser or worker profile
+     */
+    public void closing(Object browser) {
+        closing.add(browser);
+    }
+
+    /**
+     * Record that a browser is about to be killed by the watchdog
+     *
+     * @param browser Browser or worker profile
+     */
+    public void killing(Object browser) {
+        killing.add(browser);
+    }
+
+    /**
+     * Classify a browser that disconnected, called from its disconnect or close handler
+     * A killed or crashed browser is lost until it is forgotten, a crash is counted
+     *
+     * @param browser Browser or worker profile that went away
+     * @param browserName Browser type the crash is counted for
+     * @return How the browser went away
+     */
+    public Loss disconnected(Object browser, String browserName) {
+        boolean killed = killing.remove(browser);
+        if (closing.remove(browser)) {
+            return Loss.CLOSED;
+        }
+        lost.add(browser);
+        if (killed) {
+            return Loss.KILLED;
+        }
+        countCrash(browserName);
+        return Loss.CRASHED;
+    }
+
+    /**
+     * Count a crash of a browser that stopped responding without disconnecting
+     *
+     * @param browserName Browser type of the browser
+     * @return Crashes of the browser type so far
+     */
+    public int countCrash(String browserName) {
+        return crashCounts.computeIfAbsent(browserName, name -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Check whether a browser was killed or crashed
+     *
+     * @param browser Browser or worker profile
+     * @return True if the browser disconnected without being closed on purpose
+     */
+    public boolean isLost(Object browser) {
+        return lost.contains(browser);
+    }
+
+    /**
+     * Forget a browser the worker no longer uses
+     *
+     * @param browser Browser or worker profile
+     * @return True if the browser was lost
+     */
+    public boolean forget(Object browser) {
+        return lost.remove(browser);
+    }
+
+    /**
+     * Get the number of crashes so far, by browser type
+     *
+     * @return Crash counts sorted by browser type, empty if no browser crashed
+     */
+    public Map<String, Integer> crashes() {
+        Map<String, Integer> crashes = new TreeMap<>();
+        crashCounts.forEach((browserName, count) -> crashes.put(browserName, count.get()));
+        return crashes;
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.mypixelquest.pja.base;
+
+import com.microsoft.playwright.Playwright;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * OS processes of a Playwright instance: its driver and the browsers the driver launched.
+ * The Java client does not expose its driver process. Instances created through {@link #create()}
+ * are matched with the child process of the JVM that appeared while they were created.
+ * None of these methods call Playwright, they may be used from any thread.
+ */
+public final class BrowserProcesses {
+    private static final Logger log = LoggerFactory.getLogger(BrowserProcesses.class);
+    private static final AtomicBoolean warned = new AtomicBoolean();
+    // Driver processes by Playwright instance, dropped with closed instances
+    private static final Map<Playwright, ProcessHandle> drivers = Collections.synchronizedMap(new WeakHashMap<>());
+    // Creations take turns, so the new child process of the JVM is the driver of the new instance
+    private static final Object creating = new Object();
+
+    private BrowserProcesses() {
+    }
+
+    /**
+     * Create a Playwright instance whose driver process is known
+     * Logs an error if the driver cannot be told apart from the other child processes of the JVM,
+     * the watchdog then cannot kill the browsers of hung tests and recycling cannot sample memory
+     *
+     * @return Playwright instance
+     */
+    public static Playwright create() {
+        synchronized (creating) {
+            Set<Long> before = ProcessHandle.current().children()
+                    .map(ProcessHandle::pid)
+                    .collect(Collectors.toSet());
+            Playwright playwright = Playwright.create();
+            List<ProcessHandle> started = ProcessHandle.current().children()
+                    .filter(process -> !before.contains(process.pid()))
+                    .toList();
+            if (started.size() > 1) {
+                // Another thread started a process meanwhile, the driver runs node
+                started = started.stream().filter(BrowserProcesses::isNode).toList();
+            }
+            if (started.size() == 1) {
+                drivers.put(playwright, started.get(0));
+            } else {
+                log.error("Failed to identify the Playwright driver process among {} new child processes, "
+                        + "hung tests cannot be stopped by killing their browser", started.size());
+            }
+            return playwright;
+        }
+    }
+
+    /**
+     * Get the driver process of a Playwright instance
+     *
+     * @param playwright Playwright instance, or null
+     * @return Optional containing the driver process, empty if it was not created through {@link #create()}
+     */
+    public static Optional<ProcessHandle> driver(Playwright playwright) {
+        if (playwright == null) {
+            return Optional.empty();
+        }
+        ProcessHandle driver = drivers.get(playwright);
+        if (driver == null && warned.compareAndSet(false, true)) {
+            log.warn("Playwright instance was not created through BrowserProcesses.create(), its browser processes are unknown");
+        }
+        return Optional.ofNullable(driver);
+    }
+
+    /**
+     * Get the browser processes launched by a driver
+     * The driver may run node through a wrapper script, node processes are the driver's own
+     *
+     * @param driver Driver process
+     * @return Live browser processes, empty if no browser is running
+     */
+    public static List<ProcessHandle> browsers(ProcessHandle driver) {
+        return driver.descendants()
+                .filter(process -> !isNode(process))
+                .toList();
+    }
+
+    /**
+     * Get the resident memory of a driver's browser processes
+     *
+     * @param driver Driver process
+     * @return Total RSS in megabytes, empty if the platform has no /proc
+     */
+    public static OptionalLong rssMegabytes(ProcessHandle driver) {
+        if (!Files.isDirectory(Path.of("/proc"))) {
+            return OptionalLong.empty();
+        }
+        long kilobytes = browsers(driver).stream()
+                .mapToLong(process -> rssKilobytes(process.pid()))
+                .sum();
+        return OptionalLong.of(kilobytes / 1024);
+    }
+
+    /**
+     * Kill a driver's browser processes, the driver itself keeps running
+     * Playwright calls waiting on the browsers fail once the driver notices they are gone
+     *
+     * @param driver Driver process
+     * @return Number of processes killed
+     */
+    public static int kill(ProcessHandle driver) {
+        List<ProcessHandle> browsers = browsers(driver);
+        browsers.forEach(ProcessHandle::destroyForcibly);
+        return browsers.size();
+    }
+
+    private static boolean isNode(ProcessHandle process) {
+        return process.info().command()
+                .map(command -> Path.of(command).getFileName().toString().startsWith("node"))
+                .orElse(false);
+    }
+
+    private static long rssKilobytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // The process exited while sampling
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,333 @@
+package io.github.mypixelquest.pja.base;
+
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitUntilState;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Persistent browser profiles for worker threads, so tests run with the browser's HTTP cache,
+ * compiled script cache and service workers already warm.
+ * A template profile per browser is built by visiting the warm-up URLs and is rebuilt when the
+ * base URL, the warm-up URLs or the browser build change. Each worker launches a persistent
+ * context on its own copy of the template and keeps it for all of its tests.
+ */
+public class BrowserProfiles {
+    private static final Logger log = LoggerFactory.getLogger(BrowserProfiles.class);
+    private static final String STAMP_FILE = "pja-template.properties";
+    // Lock files of a running browser, stale in a closed template
+    private static final Set<String> LOCK_FILES = Set.of("SingletonLock", "SingletonSocket", "SingletonCookie",
+            "lock", ".parentlock", "parent.lock");
+    private static final long PID = ProcessHandle.current().pid();
+
+    private final Path rootDir;
+    private final String baseUrl;
+    private final List<String> warmUpUrls;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final AtomicBoolean staleWorkersDeleted = new AtomicBoolean();
+    private final AtomicInteger workerCounter = new AtomicInteger();
+
+    /**
+     * Creates profiles under a directory
+     *
+     * @param rootDir Directory of the templates and worker profiles
+     * @param baseUrl Base URL the tests run against
+     * @param warmUpUrls Absolute URLs visited to warm up the template
+     */
+    public BrowserProfiles(Path rootDir, String baseUrl, List<String> warmUpUrls) {
+        this.rootDir = rootDir;
+        this.baseUrl = baseUrl;
+        this.warmUpUrls = List.copyOf(warmUpUrls);
+    }
+
+    private static final class Holder {
+        private static final BrowserProfiles INSTANCE = fromConfig();
+    }
+
+    /**
+     * Get the profiles of the configured directory, shared by all workers of the JVM
+     *
+     * @return BrowserProfiles instance
+     */
+    public static BrowserProfiles getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Check whether tests run in persistent worker profiles instead of a new context each
+     *
+     * @return True if browserProfiles.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().isBrowserProfilesEnabled();
+    }
+
+    private static BrowserProfiles fromConfig() {
+        ConfigReader configReader = ConfigReader.getInstance();
+        ConfigModel.BrowserProfileConfig config = Optional.ofNullable(configReader.copyConfig().getBrowserProfiles())
+                .orElseGet(ConfigModel.BrowserProfileConfig::new);
+        URI baseUrl = URI.create(configReader.getBaseUrl());
+        List<String> warmUpUrls = Optional.ofNullable(config.getWarmUpUrls())
+                .filter(urls -> !urls.isEmpty())
+                .map(urls -> urls.stream().map(url -> baseUrl.resolve(url).toString()).toList())
+                .orElse(List.of(baseUrl.toString()));
+        return new BrowserProfiles(Paths.get(config.getDir()), baseUrl.toString(), warmUpUrls);
+    }
+
+    /**
+     * Launch a persistent context for a worker on a fresh copy of the browser's template profile
+     * The template is built first if it is missing or out of date
+     *
+     * @param browserType Browser to launch, from the worker's Playwright instance
+     * @param options Launch options of the worker
+     * @return The worker's persistent context, to keep until the worker ends
+     */
+    public BrowserContext launchWorker(BrowserType browserType, BrowserType.LaunchPersistentContextOptions options) {
+        Template template = templates.computeIfAbsent(browserType.name(), Template::new);
+        Path workerDir = rootDir.resolve("workers").resolve(PID + "-" + browserType.name() + "-"
+                + workerCounter.incrementAndGet());
+        try {
+            Files.createDirectories(rootDir);
+            if (staleWorkersDeleted.compareAndSet(false, true)) {
+                deleteStaleWorkers();
+            }
+            deleteRecursively(workerDir);
+            template.copyTo(workerDir, browserType, options);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create worker profile " + workerDir, e);
+        }
+        log.debug("Launching {} with worker profile {}", browserType.name(), workerDir);
+        return browserType.launchPersistentContext(workerDir, options);
+    }
+
+    /**
+     * Template profile of one browser and the locks guarding it.
+     * Workers copy it under a shared file lock so no other JVM rebuilds it meanwhile, and it is
+     * rebuilt under an exclusive one. A JVM cannot lock the same file twice, so its copying
+     * workers share one file lock and the JVM's own rebuild waits for them on a read-write lock.
+     */
+    private final class Template {
+        private final String browserName;
+        private final Path dir;
+        private final Path lockFile;
+        private final ReadWriteLock jvmLock = new ReentrantReadWriteLock();
+        private int copiers;
+        private FileChannel sharedChannel;
+
+        Template(String browserName) {
+            this.browserName = browserName;
+            this.dir = rootDir.resolve("template-" + browserName);
+            this.lockFile = rootDir.resolve("template-" + browserName + ".lock");
+        }
+
+        /**
+         * Copy the template to a worker profile, building it first unless it is up to date
+         */
+        void copyTo(Path workerDir, BrowserType browserType, BrowserType.LaunchPersistentContextOptions options)
+                throws IOException {
+            Properties stamp = stamp(browserType.executablePath());
+            jvmLock.readLock().lock();
+            try {
+                lockShared();
+                try {
+                    if (isCurrent(dir, stamp)) {
+                        copyProfile(dir, workerDir);
+                        return;
+                    }
+                } finally {
+                    unlockShared();
+                }
+            } finally {
+                jvmLock.readLock().unlock();
+            }
+
+            jvmLock.writeLock().lock();
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock lock = channel.lock()) {
+                // Another worker or JVM may have built it while this one waited
+                if (!isCurrent(dir, stamp)) {
+                    build(browserType, options, stamp);
+                }
+                copyProfile(dir, workerDir);
+            } finally {
+                jvmLock.writeLock().unlock();
+            }
+        }
+
+        private synchronized void lockShared() throws IOException {
+            if (copiers == 0) {
+                FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                try {
+                    channel.lock(0, Long.MAX_VALUE, true);
+                } catch (IOException | RuntimeException e) {
+                    channel.close();
+                    throw e;
+                }
+                sharedChannel = channel;
+            }
+            copiers++;
+        }
+
+        private synchronized void unlockShared() throws IOException {
+            if (--copiers == 0) {
+                FileChannel channel = sharedChannel;
+                sharedChannel = null;
+                // Closing the channel releases its lock
+                channel.close();
+            }
+        }
+
+        private void build(BrowserType browserType, BrowserType.LaunchPersistentContextOptions options,
+                           Properties stamp) {
+            log.info("Building {} template profile from {}", browserName, warmUpUrls);
+            long start = System.nanoTime();
+            try {
+                deleteRecursively(dir);
+                try (BrowserContext context = browserType.launchPersistentContext(dir, options)) {
+                    ProfileStorage storage = ProfileStorage.track(context);
+                    Page page = context.pages().isEmpty() ? context.newPage() : context.pages().get(0);
+                    for (String url : warmUpUrls) {
+                        page.navigate(url, new Page.NavigateOptions().setWaitUntil(WaitUntilState.LOAD));
+                    }
+                    // Keep the caches, not the session of any origin the warm-up visited
+                    page.close();
+                    storage.clear(context, browserName);
+                    context.clearCookies();
+                }
+                writeStamp(dir, stamp);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to build template profile " + dir, e);
+            }
+            log.info("Built {} template profile in {} ms", browserName, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Inputs the template profile is built from, it is rebuilt when they change
+     *
+     * @param browserExecutable Executable path of the browser, naming the revision Playwright installed
+     * @return Stamp to compare with the one stored in the template
+     */
+    Properties stamp(String browserExecutable) {
+        Properties stamp = new Properties();
+        stamp.setProperty("baseUrl", baseUrl);
+        stamp.setProperty("warmUpUrls", String.join(" ", warmUpUrls));
+        stamp.setProperty("browser", browserExecutable);
+        return stamp;
+    }
+
+    static boolean isCurrent(Path template, Properties stamp) throws IOException {
+        return stamp.equals(readStamp(template));
+    }
+
+    static void writeStamp(Path template, Properties stamp) throws IOException {
+        try (OutputStream out = Files.newOutputStream(template.resolve(STAMP_FILE))) {
+            stamp.store(out, "Template profile inputs, the profile is rebuilt when they change");
+        }
+    }
+
+    private static Properties readStamp(Path template) throws IOException {
+        Path stampFile = template.resolve(STAMP_FILE);
+        Properties stamp = new Properties();
+        if (Files.exists(stampFile)) {
+            try (InputStream in = Files.newInputStream(stampFile)) {
+                stamp.load(in);
+            }
+        }
+        return stamp;
+    }
+
+    /**
+     * Remove the worker profiles of JVMs that are no longer running
+     */
+    void deleteStaleWorkers() throws IOException {
+        Path workers = rootDir.resolve("workers");
+        if (!Files.isDirectory(workers)) {
+            return;
+        }
+        try (Stream<Path> dirs = Files.list(workers)) {
+            for (Path dir : dirs.toList()) {
+                String name = dir.getFileName().toString();
+                int dash = name.indexOf('-');
+                long pid = dash > 0 && name.substring(0, dash).chars().allMatch(Character::isDigit)
+                        ? Long.parseLong(name.substring(0, dash)) : -1;
+                if (pid <= 0 || pid != PID && !ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false)) {
+                    deleteRecursively(dir);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copy a profile without the lock files of the browser that last used it
+     */
+    static void copyProfile(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                String name = file.getFileName().toString();
+                if (attrs.isRegularFile() && !LOCK_FILES.contains(name) && !name.equals(STAMP_FILE)) {
+                    Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.mypixelquest.pja.base;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates the template bookkeeping of persistent worker profiles, without launching a browser
+ */
+public class BrowserProfilesTest {
+    private static final String BASE_URL = "https://shop.example.com/";
+    private static final String CHROMIUM = "/ms-playwright/chromium-1105/chrome-linux/chrome";
+
+    @Test(description = "The template is rebuilt when its inputs change")
+    @Description("A template is current only for the base URL, warm-up URLs and browser build it was built from")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Browser Profiles")
+    public void testTemplateStamp() throws IOException {
+        Path rootDir = Files.createTempDirectory("pja-profiles");
+        BrowserProfiles profiles = new BrowserProfiles(rootDir, BASE_URL, List.of(BASE_URL, BASE_URL + "cart"));
+        Path template = Files.createDirectories(rootDir.resolve("template-chromium"));
+
+        assertThat(BrowserProfiles.isCurrent(template, profiles.stamp(CHROMIUM))).as("no stamp").isFalse();
+
+        BrowserProfiles.writeStamp(template, profiles.stamp(CHROMIUM));
+        assertThat(BrowserProfiles.isCurrent(template, profiles.stamp(CHROMIUM))).isTrue();
+        assertThat(BrowserProfiles.isCurrent(template, profiles.stamp(CHROMIUM.replace("1105", "1112"))))
+                .as("browser upgrade").isFalse();
+
+        Properties otherBaseUrl = new BrowserProfiles(rootDir, "https://staging.example.com/",
+                List.of(BASE_URL, BASE_URL + "cart")).stamp(CHROMIUM);
+        Properties otherWarmUp = new BrowserProfiles(rootDir, BASE_URL, List.of(BASE_URL)).stamp(CHROMIUM);
+        assertThat(BrowserProfiles.isCurrent(template, otherBaseUrl)).as("other base URL").isFalse();
+        assertThat(BrowserProfiles.isCurrent(template, otherWarmUp)).as("other warm-up URLs").isFalse();
+    }
+
+    @Test(description = "Worker profiles of ended JVMs are removed")
+    @Description("Worker profiles are named after the PID of their JVM, those of JVMs no longer running are deleted")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Browser Profiles")
+    public void testStaleWorkersAreDeleted() throws IOException {
+        Path rootDir = Files.createTempDirectory("pja-profiles");
+        Path workers = rootDir.resolve("workers");
+        long parentPid = ProcessHandle.current().parent().orElseThrow().pid();
+        Path own = createProfile(workers.resolve(ProcessHandle.current().pid() + "-chromium-1"));
+        Path running = createProfile(workers.resolve(parentPid + "-chromium-1"));
+        Path ended = createProfile(workers.resolve(Integer.MAX_VALUE + "-chromium-1"));
+        Path unknown = createProfile(workers.resolve("chromium-1"));
+
+        new BrowserProfiles(rootDir, BASE_URL, List.of(BASE_URL)).deleteStaleWorkers();
+
+        assertThat(own).exists();
+        assertThat(running).exists();
+        assertThat(ended).doesNotExist();
+        assertThat(unknown).doesNotExist();
+    }
+
+    @Test(description = "Worker profiles are copied without the template's lock files")
+    @Description("Lock files and the stamp of the template are not copied, so the worker's browser starts on a clean profile")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Browser Profiles")
+    public void testLockFilesAreSkipped() throws IOException {
+        Path rootDir = Files.createTempDirectory("pja-profiles");
+        Path template = createProfile(rootDir.resolve("template-chromium"));
+        Files.writeString(template.resolve("Default/Cookies"), "cookies");
+        Files.writeString(template.resolve("lock"), "");
+        Files.writeString(template.resolve(".parentlock"), "");
+        Files.writeString(template.resolve("Default/parent.lock"), "");
+        Files.createSymbolicLink(template.resolve("SingletonLock"), Path.of("host-4242"));
+        BrowserProfiles.writeStamp(template, new BrowserProfiles(rootDir, BASE_URL, List.of(BASE_URL)).stamp(CHROMIUM));
+
+        Path worker = rootDir.resolve("workers/" + ProcessHandle.current().pid() + "-chromium-1");
+        BrowserProfiles.copyProfile(template, worker);
+
+        try (Stream<Path> files = Files.walk(worker)) {
+            assertThat(files.filter(Files::isRegularFile).map(file -> worker.relativize(file).toString()))
+                    .containsExactlyInAnyOrder("Default/Cache/data_0", "Default/Cookies");
+        }
+        assertThat(worker.resolve("SingletonLock")).doesNotExist();
+    }
+
+    private static Path createProfile(Path dir) throws IOException {
+        Files.createDirectories(dir.resolve("Default/Cache"));
+        Files.writeString(dir.resolve("Default/Cache/data_0"), "cached");
+        return dir;
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.mypixelquest.pja.base;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recycling policy of the worker browsers of long runs.
+ * A worker's browser is replaced after maxContexts contexts, or when the sampled resident memory
+ * of its processes exceeds maxRssMegabytes. The replacement is launched in the background with
+ * its own Playwright driver, and the worker swaps to it once it is ready.
+ * Persistent worker profiles of {@link BrowserProfiles} are not recycled, a warning is logged
+ * at the start of the suite when both are configured.
+ */
+public final class BrowserRecycling {
+    private static final Logger log = LoggerFactory.getLogger(BrowserRecycling.class);
+    private static final AtomicInteger launcherCounter = new AtomicInteger();
+    // Launches replacements and closes retired browsers, off the worker threads
+    private static final ExecutorService launcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "pja-browser-launcher-" + launcherCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConfigModel.BrowserRecyclingConfig config;
+
+    /**
+     * Creates the policy for a given configuration
+     *
+     * @param config Recycling thresholds
+     */
+    public BrowserRecycling(ConfigModel.BrowserRecyclingConfig config) {
+        this.config = config;
+    }
+
+    private static final class Holder {
+        private static final BrowserRecycling INSTANCE = new BrowserRecycling(
+                Optional.ofNullable(ConfigReader.getInstance().copyConfig().getBrowserRecycling())
+                        .orElseGet(ConfigModel.BrowserRecyclingConfig::new));
+    }
+
+    /**
+     * Get the configured policy
+     *
+     * @return BrowserRecycling instance
+     */
+    public static BrowserRecycling getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Check whether any recycling threshold is configured
+     *
+     * @return True if maxContexts or maxRssMegabytes is set
+     */
+    public boolean isEnabled() {
+        return config.getMaxContexts() > 0 || config.getMaxRssMegabytes() > 0;
+    }
+
+    /**
+     * Check whether a browser should be replaced, called after it created a context
+     * Memory is only sampled every sampleEveryContexts contexts
+     *
+     * @param playwright Playwright instance the browser was launched with
+     * @param contexts Contexts the browser has created so far
+     * @return True if the browser reached a threshold
+     */
+    public boolean isDue(Playwright playwright, int contexts) {
+        if (config.getMaxContexts() > 0 && contexts >= config.getMaxContexts()) {
+            log.info("Recycling browser after {} contexts", contexts);
+            return true;
+        }
+        if (config.getMaxRssMegabytes() <= 0 || contexts % Math.max(1, config.getSampleEveryContexts()) != 0) {
+            return false;
+        }
+        OptionalLong rss = browserRssMegabytes(playwright);
+        if (rss.isPresent() && rss.getAsLong() > config.getMaxRssMegabytes()) {
+            log.info("Recycling browser using {} MB after {} contexts", rss.getAsLong(), contexts);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the resident memory of the browser processes of a Playwright instance
+     *
+     * @param playwright Playwright instance, or null
+     * @return Total RSS in megabytes, empty if the driver is unknown or the platform has no /proc
+     */
+    public static OptionalLong browserRssMegabytes(Playwright playwright) {
+        return BrowserProcesses.driver(playwright)
+                .map(BrowserProcesses::rssMegabytes)
+                .orElseGet(OptionalLong::empty);
+    }
+
+    /**
+     * Launch a replacement browser with its own Playwright driver in the background
+     *
+     * @param browserName Browser type (chromium, firefox, webkit)
+     * @param options Launch options of the worker
+     * @return Future of the replacement, to hand over to the worker thread once done
+     */
+    public CompletableFuture<Replacement> launch(String browserName, BrowserType.LaunchOptions options) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            Playwright playwright = BrowserProcesses.create();
+            try {
+                Browser browser = BaseTest.browserType(playwright, browserName).launch(options);
+                log.debug("Launched replacement {} browser in {} ms", browserName, (System.nanoTime() - start) / 1_000_000L);
+                return new Replacement(playwright, browser);
+            } catch (RuntimeException e) {
+                close(playwright);
+                throw e;
+            }
+        }, launcher);
+    }
+
+    /**
+     * Close a browser and its Playwright instance in the background
+     * Neither may be used by the caller afterwards
+     *
+     * @param playwright Playwright instance of the browser
+     * @param browser Browser to close, or null
+     */
+    public static void retire(Playwright playwright, Browser browser) {
+        launcher.execute(() -> {
+            if (browser != null) {
+                try {
+                    browser.close();
+                } catch (PlaywrightException e) {
+                    log.debug("Failed to close retired browser", e);
+                }
+            }
+            close(playwright);
+        });
+    }
+
+    /**
+     * Close a Playwright instance, ignoring a driver that is already gone
+     *
+     * @param playwright Playwright instance to close
+     */
+    public static void close(Playwright playwright) {
+        try {
+            playwright.close();
+        } catch (PlaywrightException e) {
+            log.debug("Failed to close Playwright", e);
+        }
+    }
+
+    /**
+     * A browser launched in the background with its own Playwright instance
+     */
+    public static final class Replacement {
+        private final Playwright playwright;
+        private final Browser browser;
+
+        private Replacement(Playwright playwright, Browser browser) {
+            this.playwright = playwright;
+            this.browser = browser;
+        }
+
+        public Playwright getPlaywright() {
+            return playwright;
+        }
+
+        public Browser getBrowser() {
+            return browser;
+        }
+    }
+}
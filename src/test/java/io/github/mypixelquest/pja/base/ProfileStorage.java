@@ -0,0 +1,110 @@
+package io.github.mypixelquest.pja.base;
+
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Route;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Origins a persistent profile navigated to, so their storage can be cleared between tests.
+ * Chromium clears each origin through CDP, keeping its cache storage. Other browsers load a stub
+ * page on each origin that clears web storage and IndexedDB.
+ * Used on the thread that owns the profile.
+ */
+final class ProfileStorage {
+    // Everything an origin stores for a test except the caches the profile keeps warm
+    private static final String CHROMIUM_STORAGE_TYPES = "file_systems,indexeddb,local_storage,websql";
+    private static final String CLEAR_SCRIPT = """
+            async () => {
+                try { localStorage.clear(); sessionStorage.clear(); } catch (e) {}
+                try {
+                    for (const db of await indexedDB.databases()) {
+                        await new Promise(resolve => {
+                            const request = indexedDB.deleteDatabase(db.name);
+                            request.onsuccess = request.onerror = request.onblocked = resolve;
+                        });
+                    }
+                } catch (e) {}
+            }""";
+
+    private final Set<String> origins = ConcurrentHashMap.newKeySet();
+
+    private ProfileStorage() {
+    }
+
+    /**
+     * Start recording the origins of a profile's top-level and frame navigations
+     *
+     * @param profile Persistent context to track
+     * @return Tracker of the profile's visited origins
+     */
+    static ProfileStorage track(BrowserContext profile) {
+        ProfileStorage storage = new ProfileStorage();
+        profile.onRequest(request -> {
+            if (request.isNavigationRequest()) {
+                origin(request.url()).ifPresent(storage.origins::add);
+            }
+        });
+        return storage;
+    }
+
+    /**
+     * Clear the storage of every origin visited since the last clear
+     * Cookies are cleared separately with the context's cookie API
+     *
+     * @param profile Persistent context being tracked, its test pages already closed
+     * @param browserName Browser type of the profile
+     */
+    void clear(BrowserContext profile, String browserName) {
+        List<String> visited = List.copyOf(origins);
+        if (visited.isEmpty()) {
+            return;
+        }
+        Page page = profile.newPage();
+        try {
+            if ("chromium".equalsIgnoreCase(browserName)) {
+                CDPSession session = profile.newCDPSession(page);
+                for (String origin : visited) {
+                    JsonObject params = new JsonObject();
+                    params.addProperty("origin", origin);
+                    params.addProperty("storageTypes", CHROMIUM_STORAGE_TYPES);
+                    session.send("Storage.clearDataForOrigin", params);
+                }
+                session.detach();
+            } else {
+                // An empty document on each origin, nothing of the application runs while clearing
+                page.route("**/*", route -> route.fulfill(new Route.FulfillOptions()
+                        .setContentType("text/html")
+                        .setBody("")));
+                for (String origin : visited) {
+                    page.navigate(origin + "/");
+                    page.evaluate(CLEAR_SCRIPT);
+                }
+            }
+        } finally {
+            page.close();
+        }
+        // Includes the navigations of the clear itself
+        origins.clear();
+    }
+
+    private static Optional<String> origin(String url) {
+        try {
+            URI uri = URI.create(url);
+            String scheme = uri.getScheme();
+            if (uri.getHost() == null || !("http".equals(scheme) || "https".equals(scheme))) {
+                return Optional.empty();
+            }
+            return Optional.of(scheme + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
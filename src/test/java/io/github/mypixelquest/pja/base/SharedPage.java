@@ -0,0 +1,22 @@
+package io.github.mypixelquest.pja.base;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opt-in for test classes whose methods can share one navigated page.
+ * {@link BaseTest} keeps the context and page of a worker thread between the methods of the
+ * class, resets cookies and storage before each method and only navigates when the page is
+ * no longer on the base URL. A failed method always gets a fresh context for the next one.
+ * Meant for read-only UI suites; state kept in the DOM (open dialogs, form input) is not reset.
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SharedPage {
+}
@@ -0,0 +1,103 @@
+package io.github.mypixelquest.pja.base;
+
+import com.microsoft.playwright.Page;
+
+import java.util.Optional;
+
+/**
+ * Overall time budget of the test running on the current thread.
+ * Every step gets its own timeout from {@link TestTimeouts}, cut down to what is left of
+ * the budget, so the Playwright timeouts shrink as the test proceeds.
+ */
+public final class TestDeadline {
+    private static final ThreadLocal<TestDeadline> current = new ThreadLocal<>();
+
+    private final TestTimeouts timeouts;
+    private final String test;
+    private final long budgetMillis;
+    private final long startNanos = System.nanoTime();
+
+    TestDeadline(TestTimeouts timeouts, String test, long budgetMillis) {
+        this.timeouts = timeouts;
+        this.test = test;
+        this.budgetMillis = budgetMillis;
+    }
+
+    /**
+     * Get the deadline of the test running on this thread
+     *
+     * @return The deadline, empty when timeouts are not adaptive or no test is running
+     */
+    public static Optional<TestDeadline> current() {
+        return Optional.ofNullable(current.get());
+    }
+
+    static void set(TestDeadline deadline) {
+        current.set(deadline);
+    }
+
+    /**
+     * End the deadline of the test running on this thread
+     */
+    public static void clear() {
+        current.remove();
+    }
+
+    /**
+     * Get the test key the budget was derived for
+     *
+     * @return Test key
+     */
+    public String getTest() {
+        return test;
+    }
+
+    /**
+     * Get the overall budget of the test
+     *
+     * @return Budget in milliseconds
+     */
+    public long getBudgetMillis() {
+        return budgetMillis;
+    }
+
+    /**
+     * Get the time since the test started
+     *
+     * @return Elapsed time in milliseconds
+     */
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    /**
+     * Get the time left of the budget
+     *
+     * @return Remaining time in milliseconds, negative once the deadline has passed
+     */
+    public long remainingMillis() {
+        return budgetMillis - elapsedMillis();
+    }
+
+    /**
+     * Get the timeout of a step, never longer than the rest of the budget
+     *
+     * @param step Step key, or null for actions without history
+     * @return Timeout in milliseconds, at least 1 since 0 disables Playwright timeouts
+     */
+    public long timeout(String step) {
+        return Math.max(1, Math.min(timeouts.stepTimeout(step), remainingMillis()));
+    }
+
+    /**
+     * Set the default and navigation timeouts of a page for a step
+     *
+     * @param page Page of the test
+     * @param step Step key, or null for actions without history
+     */
+    public void apply(Page page, String step) {
+        long timeout = timeout(step);
+        page.setDefaultTimeout(timeout);
+        page.setDefaultNavigationTimeout(timeout);
+    }
+}
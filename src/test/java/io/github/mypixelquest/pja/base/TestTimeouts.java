@@ -0,0 +1,251 @@
+package io.github.mypixelquest.pja.base;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timeouts derived from the recorded durations of passing tests and page waits.
+ * A test gets a deadline of its percentile duration times a factor, and each step the
+ * same for its own history, both clamped to configured bounds. Keys without enough
+ * history fall back to the upper test bound and the configured browser timeout.
+ * Parallel JVMs and CI shards sharing the history file each add their own durations to it.
+ */
+public final class TestTimeouts {
+    private static final Logger log = LoggerFactory.getLogger(TestTimeouts.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Path file;
+    private final ConfigModel.TimeoutConfig config;
+    private final long defaultStepMillis;
+    private final Map<String, Deque<Long>> durations = new ConcurrentHashMap<>();
+    // Durations recorded since loading or the last save, appended to the file by the next save
+    private final Map<String, Deque<Long>> unsaved = new ConcurrentHashMap<>();
+
+    /**
+     * Creates timeouts from a history file
+     *
+     * @param file History file, loaded now and written by {@link #save()}
+     * @param config Percentile, factor and bounds
+     * @param defaultStepMillis Step timeout without history, usually browser.timeout
+     */
+    public TestTimeouts(Path file, ConfigModel.TimeoutConfig config, long defaultStepMillis) {
+        this.file = file;
+        this.config = config;
+        this.defaultStepMillis = defaultStepMillis;
+        load();
+    }
+
+    /**
+     * Get the shared instance, loaded from the configured history file on first use
+     *
+     * @return TestTimeouts instance
+     */
+    public static TestTimeouts getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Check whether timeouts are derived from history instead of browser.timeout
+     *
+     * @return True if timeouts.adaptive is set
+     */
+    public boolean isAdaptive() {
+        return config.isAdaptive();
+    }
+
+    /**
+     * Start the deadline of a test on the current thread
+     *
+     * @param test Test key, e.g. "ExampleTest.testSearch [chromium]"
+     * @return The deadline, also available through {@link TestDeadline#current()}
+     */
+    public TestDeadline start(String test) {
+        TestDeadline deadline = new TestDeadline(this, test, testBudget(test));
+        TestDeadline.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * Record the duration of a passing test or step
+     *
+     * @param key Test or step key
+     * @param millis Duration in milliseconds
+     */
+    public void record(String key, long millis) {
+        add(durations, key, millis);
+        add(unsaved, key, millis);
+    }
+
+    private void add(Map<String, Deque<Long>> window, String key, long millis) {
+        Deque<Long> samples = window.computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (samples) {
+            samples.addLast(millis);
+            while (samples.size() > config.getMaxSamples()) {
+                samples.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Get the configured percentile of the recorded durations
+     *
+     * @param key Test or step key
+     * @return Percentile in milliseconds, empty with fewer than minSamples durations
+     */
+    public OptionalLong percentile(String key) {
+        Deque<Long> samples = durations.get(key);
+        if (samples == null) {
+            return OptionalLong.empty();
+        }
+        List<Long> sorted;
+        synchronized (samples) {
+            sorted = new ArrayList<>(samples);
+        }
+        if (sorted.isEmpty() || sorted.size() < config.getMinSamples()) {
+            return OptionalLong.empty();
+        }
+        sorted.sort(null);
+        int rank = (int) Math.ceil(config.getPercentile() / 100 * sorted.size());
+        return OptionalLong.of(sorted.get(Math.min(sorted.size(), Math.max(1, rank)) - 1));
+    }
+
+    /**
+     * Get the overall time a test may take
+     *
+     * @param test Test key
+     * @return Budget in milliseconds
+     */
+    public long testBudget(String test) {
+        OptionalLong percentile = percentile(test);
+        if (percentile.isEmpty()) {
+            return config.getMaxTestMillis();
+        }
+        return clamp(percentile.getAsLong(), config.getMinTestMillis(), config.getMaxTestMillis());
+    }
+
+    /**
+     * Get the timeout of a single step, before the test deadline is taken into account
+     *
+     * @param step Step key, e.g. "ExamplePage/load", or null for actions without history
+     * @return Timeout in milliseconds
+     */
+    public long stepTimeout(String step) {
+        OptionalLong percentile = step == null ? OptionalLong.empty() : percentile(step);
+        if (percentile.isEmpty()) {
+            return Math.min(defaultStepMillis, config.getMaxStepMillis());
+        }
+        return clamp(percentile.getAsLong(), config.getMinStepMillis(), config.getMaxStepMillis());
+    }
+
+    /**
+     * Add the durations recorded since loading or the last save to the history file
+     * The file is read again and merged under a file lock, so JVMs saving the same file keep each other's durations
+     */
+    public synchronized void save() {
+        Map<String, List<Long>> recorded = new TreeMap<>();
+        unsaved.forEach((key, samples) -> {
+            synchronized (samples) {
+                if (!samples.isEmpty()) {
+                    recorded.put(key, new ArrayList<>(samples));
+                }
+            }
+        });
+        if (recorded.isEmpty()) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            // A JVM cannot lock the same file twice, instances on the same file take turns
+            synchronized (TestTimeouts.class) {
+                try (FileChannel channel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock lock = channel.lock()) {
+                    Map<String, List<Long>> merged = new TreeMap<>(read());
+                    recorded.forEach((key, samples) -> {
+                        List<Long> history = new ArrayList<>(merged.getOrDefault(key, List.of()));
+                        history.addAll(samples);
+                        merged.put(key, history.subList(Math.max(0, history.size() - config.getMaxSamples()),
+                                history.size()));
+                    });
+
+                    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                    mapper.writeValue(temp.toFile(), merged);
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    log.debug("Saved durations of {} tests and steps to {}", merged.size(), file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to save test durations to {}", file, e);
+            return;
+        }
+        // Durations recorded while saving stay for the next save
+        recorded.forEach((key, samples) -> {
+            Deque<Long> pending = unsaved.get(key);
+            synchronized (pending) {
+                for (int i = 0; i < samples.size() && !pending.isEmpty(); i++) {
+                    pending.removeFirst();
+                }
+            }
+        });
+    }
+
+    private long clamp(long percentile, long min, long max) {
+        long timeout = (long) Math.ceil(percentile * config.getFactor());
+        return Math.max(min, Math.min(max, timeout));
+    }
+
+    private void load() {
+        read().forEach((key, samples) -> samples.forEach(millis -> add(durations, key, millis)));
+        if (!durations.isEmpty()) {
+            log.debug("Loaded durations of {} tests and steps from {}", durations.size(), file);
+        }
+    }
+
+    private Map<String, List<Long>> read() {
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+
+        try {
+            return mapper.readValue(file.toFile(), new TypeReference<Map<String, List<Long>>>() { });
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable test durations file {}", file, e);
+            return Map.of();
+        }
+    }
+
+    private static final class Holder {
+        private static final TestTimeouts INSTANCE = create();
+
+        private static TestTimeouts create() {
+            ConfigReader configReader = ConfigReader.getInstance();
+            ConfigModel.TimeoutConfig config = Optional.ofNullable(configReader.copyConfig().getTimeouts())
+                    .orElseGet(ConfigModel.TimeoutConfig::new);
+            return new TestTimeouts(Paths.get(config.getHistoryFile()), config, configReader.getTimeout());
+        }
+    }
+}
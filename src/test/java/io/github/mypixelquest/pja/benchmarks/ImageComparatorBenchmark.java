@@ -0,0 +1,120 @@
+package io.github.mypixelquest.pja.benchmarks;
+
+import io.github.mypixelquest.pja.visual.ComparisonResult;
+import io.github.mypixelquest.pja.visual.ImageComparator;
+import io.github.mypixelquest.pja.visual.PixelImage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of comparing a full-page capture (1280x8000) against its baseline.
+ * The naive benchmark is the single-threaded per-pixel loop over BufferedImage that the
+ * tiled comparison replaces; decodePng shows the PNG decoding cost every comparison pays.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ImageComparatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageComparatorBenchmark {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 8000;
+
+    private final ImageComparator comparator = new ImageComparator(8, 0.001, 64);
+    private PixelImage baseline;
+    private PixelImage antiAliased;
+    private PixelImage shifted;
+    private BufferedImage baselineImage;
+    private BufferedImage antiAliasedImage;
+    private byte[] png;
+
+    @Setup
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] pixels = new int[WIDTH * HEIGHT];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                // Flat background with blocks of "text"
+                boolean text = (y / 24) % 3 != 0 && (x / 8) % 9 != 0 && random.nextInt(4) == 0;
+                pixels[y * WIDTH + x] = text ? 0xFF202020 : 0xFFF8F8F8 - (y / 400);
+            }
+        }
+
+        // Rendering noise within the channel tolerance, so every pixel has to be compared
+        int[] noisy = pixels.clone();
+        for (int i = 0; i < noisy.length; i += 7) {
+            noisy[i] += 0x00030303;
+        }
+
+        // Layout shifted by one row, differences everywhere from the top
+        int[] moved = new int[pixels.length];
+        System.arraycopy(pixels, 0, moved, WIDTH, pixels.length - WIDTH);
+
+        baseline = new PixelImage(WIDTH, HEIGHT, pixels);
+        antiAliased = new PixelImage(WIDTH, HEIGHT, noisy);
+        shifted = new PixelImage(WIDTH, HEIGHT, moved);
+        baselineImage = toImage(pixels);
+        antiAliasedImage = toImage(noisy);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(baselineImage, "png", out);
+        png = out.toByteArray();
+    }
+
+    @Benchmark
+    public ComparisonResult tiledMatching() {
+        return comparator.compare(baseline, antiAliased, List.of());
+    }
+
+    @Benchmark
+    public ComparisonResult tiledMismatchEarlyExit() {
+        return comparator.compare(baseline, shifted, List.of());
+    }
+
+    @Benchmark
+    public long naiveMatching() {
+        long differing = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int p = baselineImage.getRGB(x, y);
+                int q = antiAliasedImage.getRGB(x, y);
+                if (Math.abs(((p >> 16) & 0xFF) - ((q >> 16) & 0xFF)) > 8
+                        || Math.abs(((p >> 8) & 0xFF) - ((q >> 8) & 0xFF)) > 8
+                        || Math.abs((p & 0xFF) - (q & 0xFF)) > 8) {
+                    differing++;
+                }
+            }
+        }
+        return differing;
+    }
+
+    @Benchmark
+    public PixelImage decodePng() {
+        return ImageComparator.decode(png);
+    }
+
+    private static BufferedImage toImage(int[] pixels) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, WIDTH, HEIGHT, pixels, 0, WIDTH);
+        return image;
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.mypixelquest.pja.benchmarks;
+
+import io.github.mypixelquest.pja.data.TestDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of generated test data with 16 parallel test threads.
+ * The legacy methods are the previous implementation: one Random shared by all threads,
+ * String.format and StringBuilder based strings.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TestDataGeneratorBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class TestDataGeneratorBenchmark {
+    private static final Random legacyRandom = new Random();
+    private static final String ALPHA_NUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final String SPECIAL_CHARS = "!@#$%^&*()_+-=[]{}|;:,.<>?";
+
+    @Benchmark
+    public String password() {
+        return TestDataGenerator.generatePassword(16, true);
+    }
+
+    @Benchmark
+    public String legacyPassword() {
+        StringBuilder password = new StringBuilder();
+        String chars = ALPHA_NUMERIC + SPECIAL_CHARS;
+        for (int i = 0; i < 16; i++) {
+            password.append(chars.charAt(legacyRandom.nextInt(chars.length())));
+        }
+        return password.toString();
+    }
+
+    @Benchmark
+    public String phoneNumber() {
+        return TestDataGenerator.generatePhoneNumber();
+    }
+
+    @Benchmark
+    public String legacyPhoneNumber() {
+        return String.format("+1%03d%03d%04d", legacyNumber(100, 999), legacyNumber(100, 999), legacyNumber(1000, 9999));
+    }
+
+    @Benchmark
+    public String email() {
+        return TestDataGenerator.generateEmail();
+    }
+
+    @Benchmark
+    public String legacyEmail() {
+        // Not unique: threads in the same millisecond get the same address
+        return "user" + System.currentTimeMillis() + "@example.com";
+    }
+
+    private static int legacyNumber(int min, int max) {
+        return legacyRandom.nextInt(max - min + 1) + min;
+    }
+}
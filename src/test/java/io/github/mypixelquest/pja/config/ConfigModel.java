@@ -2,6 +2,9 @@ package io.github.mypixelquest.pja.config;
 
 import lombok.Data;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration model class that maps to the YAML configuration structure
  */
@@ -9,24 +12,52 @@ import lombok.Data;
 public class ConfigModel {
     private EnvironmentConfig environment;
     private BrowserConfig browser;
+    private BrowserProfileConfig browserProfiles;
+    private BrowserRecyclingConfig browserRecycling;
     private ScreenshotConfig screenshot;
     private TestExecutionConfig testExecution;
     private RetryConfig retry;
+    private TimeoutConfig timeouts;
+    private WatchdogConfig watchdog;
+    private CookieConsentConfig cookieConsent;
+    private WaitConfig wait;
+    private LinkCheckConfig linkCheck;
+    private FallbackLocatorConfig fallbackLocators;
+    private VisualConfig visual;
+    private DataCacheConfig dataCache;
+    private DataLeaseConfig dataLease;
     
     @Data
     public static class EnvironmentConfig {
         private String name;
         private String baseUrl;
+        private String apiBaseUrl; // defaults to baseUrl
     }
     
     @Data
     public static class BrowserConfig {
         private String type;
+        private List<String> types;           // browser matrix, every browser test runs once per type
+        private Map<String, Double> weights;  // share of the matrix workers per type, 1 when missing
         private boolean headless;
         private int slowMo;
         private int timeout;
     }
     
+    @Data
+    public static class BrowserProfileConfig {
+        private boolean enabled;                        // a persistent context per worker instead of one per test
+        private String dir = "target/browser-profiles"; // template and worker profiles
+        private List<String> warmUpUrls;                // visited to build the template, relative to baseUrl
+    }
+
+    @Data
+    public static class BrowserRecyclingConfig {
+        private int maxContexts;             // replace a worker's browser after this many contexts, 0 for never
+        private int maxRssMegabytes;         // or when its processes use more memory, 0 for never
+        private int sampleEveryContexts = 10; // memory is sampled every this many contexts
+    }
+
     @Data
     public static class ScreenshotConfig {
         private boolean takeOnFailure;
@@ -37,6 +68,7 @@ public class ConfigModel {
     public static class TestExecutionConfig {
         private boolean parallel;
         private int threadCount;
+        private int dataProviderThreadCount; // for parallel data providers, 0 keeps the TestNG default
     }
 
     @Data
@@ -44,5 +76,80 @@ public class ConfigModel {
         private boolean enabled;
         private int maxRetries;
         private long delayBetweenRetries; // in milliseconds
+        private int maxCrashRetries = 1;  // re-runs of a test whose browser crashed, not counted in maxRetries
+    }
+
+    @Data
+    public static class TimeoutConfig {
+        private boolean adaptive;                           // derive timeouts from recorded durations
+        private String historyFile = ".pja/test-durations.json";
+        private int maxSamples = 50;        // most recent passing durations kept per test and step
+        private int minSamples = 5;         // fewer samples fall back to the configured timeouts
+        private double percentile = 99;
+        private double factor = 3;          // headroom over the percentile
+        private long minTestMillis = 10000;
+        private long maxTestMillis = 180000;  // also the deadline of tests without history
+        private long minStepMillis = 2000;
+        private long maxStepMillis = 30000;
+    }
+
+    @Data
+    public static class WatchdogConfig {
+        private boolean enabled;
+        private int timeoutSeconds = 300; // for tests without an adaptive deadline
+        private int graceSeconds = 5;     // past the deadline, so Playwright's own timeouts fire first
+        private String dumpDir = "target/watchdog"; // thread dumps, screenshots and logs of stopped tests
+    }
+
+    @Data
+    public static class CookieConsentConfig {
+        private List<String> selectors; // in priority order, falls back to BasePage defaults when empty
+    }
+
+    @Data
+    public static class WaitConfig {
+        private String strategy;       // load, domcontentloaded, networkidle, networkquiet or element
+        private String selector;       // element to wait for with the "element" strategy
+        private long quietPeriod = 500; // in milliseconds, for the "networkquiet" strategy
+        private List<String> ignoreUrls; // URL regexes not tracked by the "networkquiet" strategy
+        private Map<String, WaitConfig> pages; // overrides keyed by page object simple class name
+    }
+
+    @Data
+    public static class LinkCheckConfig {
+        private int concurrency = 8;
+        private double requestsPerSecondPerHost = 5;
+        private int timeout = 10000; // in milliseconds
+    }
+
+    @Data
+    public static class FallbackLocatorConfig {
+        private String statsFile = ".pja/selector-stats.json";
+        private double halfLifeDays = 7;   // a hit counts half as much after this many days
+        private int deadAfterMisses = 20;  // report selectors that never matched in this many probes
+    }
+
+    @Data
+    public static class VisualConfig {
+        private String baselineDir = "target/visual-baselines";
+        private String diffDir = "target/visual-diffs";
+        private int channelTolerance = 8;      // per color channel, 0-255
+        private double maxDiffRatio = 0.001;   // share of compared pixels allowed to differ
+        private int tileSize = 64;             // in pixels, unit of parallel comparison
+        private boolean updateBaselines;       // overwrite baselines with the captured screenshots
+    }
+
+    @Data
+    public static class DataCacheConfig {
+        private int maxEntries = 64;
+        private int maxMegabytes = 64; // total size of the cached data files on disk
+        private String snapshotFile = "target/data-snapshot.bin"; // compiled at build time, used while up to date
+    }
+
+    @Data
+    public static class DataLeaseConfig {
+        private String lockDir = "target/data-leases"; // shared by the JVMs of a run on one machine
+        private int leaseSeconds = 600;  // a lease not returned or renewed in time is taken over
+        private int waitSeconds = 120;   // maximum wait for a free record of a pool
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,825 @@
+package io.github.mypixelquest.pja.data;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Generates large volumes of records from a {@link DataSchema} and streams them to CSV or JSON.
+ * Every field value is a pure function of the seed, the entity, the field and the record number.
+ * Records can therefore be generated in parallel partitions, a reference to another entity's
+ * record is computed instead of stored, and the output is byte-for-byte the same for a seed
+ * however the work is split. Memory use is constant: each partition writes through a fixed
+ * buffer to its own file, and the partitions are concatenated in order.
+ * <pre>
+ * java ... BulkDataGenerator src/test/resources/schemas/shop.yaml target/generated-data csv [seed]
+ * </pre>
+ */
+@Slf4j
+public class BulkDataGenerator {
+    private static final int BUFFER_CHARS = 32 * 1024;
+    private static final char[] ALPHA_NUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+    private static final char[] LOWERCASE = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final long seed;
+    private final Map<String, Entity> entities = new LinkedHashMap<>();
+    private int partitionSize = 50_000;
+
+    /**
+     * Creates a generator with the schema's seed, or the test data master seed if it has none
+     *
+     * @param schema The schema
+     */
+    public BulkDataGenerator(DataSchema schema) {
+        this(schema, schema.getSeed() != null ? schema.getSeed() : TestDataGenerator.getMasterSeed());
+    }
+
+    /**
+     * Creates a generator
+     *
+     * @param schema The schema
+     * @param seed Seed of all generated values
+     */
+    public BulkDataGenerator(DataSchema schema, long seed) {
+        this.seed = seed;
+        schema.getEntities().forEach((name, entity) -> entities.put(name, new Entity(name, entity.getCount())));
+        schema.getEntities().forEach((name, entity) -> entity.getFields()
+                .forEach((field, fieldSchema) -> entities.get(name).fields.add(compile(name, field, fieldSchema))));
+        for (Entity entity : entities.values()) {
+            for (Field field : entity.fields) {
+                if (field instanceof ReferenceField reference) {
+                    reference.resolve();
+                }
+            }
+        }
+        entities.values().forEach(entity -> entity.fields.forEach(field -> checkReferences(field, new ArrayList<>())));
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 4) {
+            throw new IllegalArgumentException("Usage: BulkDataGenerator <schema.yaml> <output directory> [csv|json] [seed]");
+        }
+        DataSchema schema = DataSchema.load(Paths.get(args[0]));
+        BulkDataGenerator generator = args.length == 4
+                ? new BulkDataGenerator(schema, Long.parseLong(args[3]))
+                : new BulkDataGenerator(schema);
+        String format = args.length >= 3 ? args[2] : "csv";
+        for (String entity : generator.entities.keySet()) {
+            generator.write(entity, Paths.get(args[1], entity + "." + format));
+        }
+    }
+
+    /**
+     * Set the number of records per partition, partitions are generated in parallel
+     *
+     * @param records Records per partition
+     * @return This generator
+     */
+    public BulkDataGenerator partitionSize(int records) {
+        if (records < 1) {
+            throw new IllegalArgumentException("Partition size must be positive: " + records);
+        }
+        this.partitionSize = records;
+        return this;
+    }
+
+    /**
+     * Get the seed of the generated values
+     *
+     * @return The seed, pass it to replay the same data
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Write all records of an entity
+     *
+     * @param entity Entity name
+     * @param output CSV file, or JSON file holding {"entity": [records]}
+     */
+    public void write(String entity, Path output) {
+        write(entity, output, entity(entity).count);
+    }
+
+    /**
+     * Write the first records of an entity
+     *
+     * @param entity Entity name
+     * @param output CSV file, or JSON file holding {"entity": [records]}
+     * @param count Number of records, references still use the schema counts
+     */
+    public void write(String entity, Path output, long count) {
+        Entity source = entity(entity);
+        String format = TestDataManager.formatOf(output);
+        if (!"csv".equals(format) && !"json".equals(format)) {
+            throw new IllegalArgumentException("Output must be a .csv or .json file: " + output);
+        }
+
+        long started = System.nanoTime();
+        int partitions = (int) Math.max(1, (count + partitionSize - 1) / partitionSize);
+        Path[] parts = new Path[partitions];
+        try {
+            Path directory = Files.createDirectories(output.toAbsolutePath().getParent());
+            IntStream.range(0, partitions).parallel().forEach(partition -> {
+                long from = partition * (long) partitionSize;
+                long to = Math.min(count, from + partitionSize);
+                parts[partition] = writePartition(source, format, from, to, directory);
+            });
+
+            Path temp = Files.createTempFile(directory, output.getFileName().toString(), ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeText(out, "csv".equals(format) ? csvHeader(source) : "{\"" + escapeJson(entity) + "\":[\n");
+                for (Path part : parts) {
+                    try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                        long size = in.size();
+                        for (long position = 0; position < size; ) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    }
+                }
+                if ("json".equals(format)) {
+                    writeText(out, "\n]}\n");
+                }
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to write generated " + entity + " data to " + output, e);
+        } finally {
+            for (Path part : parts) {
+                if (part != null) {
+                    part.toFile().delete();
+                }
+            }
+        }
+        log.info("Generated {} {} records into {} in {} ms", count, entity, output, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Generate the records of an entity lazily for a TestNG data provider
+     *
+     * @param entity Entity name
+     * @param columns Fields passed as test parameters, or none to pass each record as a Map
+     * @return Lazy data provider rows
+     */
+    public RowIterator<Map<String, Object>> rows(String entity, String... columns) {
+        return rows(entity, entity(entity).count, columns);
+    }
+
+    /**
+     * Generate the first records of an entity lazily for a TestNG data provider
+     *
+     * @param entity Entity name
+     * @param count Number of records, references still use the schema counts
+     * @param columns Fields passed as test parameters, or none to pass each record as a Map
+     * @return Lazy data provider rows
+     */
+    public RowIterator<Map<String, Object>> rows(String entity, long count, String... columns) {
+        Entity source = entity(entity);
+        RecordRandom random = new RecordRandom();
+        RowIterator.RowSource<Map<String, Object>> records = new RowIterator.RowSource<>() {
+            private long next;
+
+            @Override
+            public Map<String, Object> read() {
+                return next < count ? source.record(next++, random) : null;
+            }
+
+            @Override
+            public void close() {
+                next = count;
+            }
+        };
+        return new RowIterator<>(entity, records, record -> true, columns);
+    }
+
+    private Path writePartition(Entity entity, String format, long from, long to, Path directory) {
+        try {
+            Path part = Files.createTempFile(directory, entity.name, ".part");
+            try (PartitionWriter writer = new PartitionWriter(part)) {
+                RecordRandom random = new RecordRandom();
+                StringBuilder text = writer.text;
+                boolean json = "json".equals(format);
+                for (long index = from; index < to; index++) {
+                    if (json) {
+                        if (index > 0) {
+                            text.append(",\n");
+                        }
+                        text.append('{');
+                        for (int f = 0; f < entity.fields.size(); f++) {
+                            Field field = entity.fields.get(f);
+                            text.append(f == 0 ? "\"" : ",\"").append(field.jsonName).append("\":");
+                            appendJson(text, field.generate(index, random));
+                        }
+                        text.append('}');
+                    } else {
+                        for (int f = 0; f < entity.fields.size(); f++) {
+                            if (f > 0) {
+                                text.append(',');
+                            }
+                            appendCsv(text, entity.fields.get(f).generate(index, random));
+                        }
+                        text.append('\n');
+                    }
+                    writer.flushIfFull();
+                }
+            }
+            return part;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Entity entity(String name) {
+        Entity entity = entities.get(name);
+        if (entity == null) {
+            throw new IllegalArgumentException("Unknown entity " + name + ", entities are " + entities.keySet());
+        }
+        return entity;
+    }
+
+    private Field compile(String entity, String name, DataSchema.FieldSchema schema) {
+        String id = entity + "." + name;
+        String type = schema.getType() == null ? "" : schema.getType();
+        long base = Seeds.mix(seed, Seeds.hash(id));
+        Field field = switch (type) {
+            case "sequence" -> new SequenceField(id, base, schema);
+            case "integer" -> new IntegerField(id, base, schema, entities.get(entity).count);
+            case "decimal" -> new DecimalField(id, base, schema);
+            case "string" -> new StringField(id, base, schema, entities.get(entity).count);
+            case "email" -> new EmailField(id, base, schema);
+            case "choice" -> new ChoiceField(id, base, schema);
+            case "boolean" -> new BooleanField(id, base, schema);
+            case "timestamp" -> new TimestampField(id, base, schema);
+            case "uuid" -> new UuidField(id, base);
+            case "reference" -> new ReferenceField(id, base, schema);
+            default -> throw new IllegalArgumentException("Unknown type '" + type + "' of field " + id);
+        };
+        if (schema.isUnique() && !field.canBeUnique()) {
+            throw new IllegalArgumentException("Field " + id + " of type " + type + " cannot be unique");
+        }
+        return field;
+    }
+
+    private void checkReferences(Field field, List<String> path) {
+        if (!(field instanceof ReferenceField reference)) {
+            return;
+        }
+        if (path.contains(field.id)) {
+            throw new IllegalArgumentException("Circular reference " + String.join(" -> ", path) + " -> " + field.id);
+        }
+        path.add(field.id);
+        checkReferences(reference.target, path);
+    }
+
+    private static String csvHeader(Entity entity) {
+        StringBuilder header = new StringBuilder();
+        for (Field field : entity.fields) {
+            if (header.length() > 0) {
+                header.append(',');
+            }
+            appendCsv(header, field.name);
+        }
+        return header.append('\n').toString();
+    }
+
+    private static void appendCsv(StringBuilder text, Object value) {
+        String plain = plain(value);
+        boolean quote = false;
+        for (int i = 0; i < plain.length() && !quote; i++) {
+            char c = plain.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            text.append(plain);
+            return;
+        }
+        text.append('"');
+        for (int i = 0; i < plain.length(); i++) {
+            char c = plain.charAt(i);
+            text.append(c == '"' ? "\"\"" : String.valueOf(c));
+        }
+        text.append('"');
+    }
+
+    private static void appendJson(StringBuilder text, Object value) {
+        if (value instanceof String string) {
+            text.append('"').append(escapeJson(string)).append('"');
+        } else {
+            text.append(plain(value));
+        }
+    }
+
+    private static String plain(Object value) {
+        if (value instanceof Double decimal) {
+            return BigDecimal.valueOf(decimal).toPlainString();
+        }
+        return String.valueOf(value);
+    }
+
+    private static String escapeJson(String text) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                if (escaped == null) {
+                    escaped = new StringBuilder(text.length() + 8).append(text, 0, i);
+                }
+                escaped.append(c == '"' ? "\\\"" : c == '\\' ? "\\\\" : String.format("\\u%04x", (int) c));
+            } else if (escaped != null) {
+                escaped.append(c);
+            }
+        }
+        return escaped == null ? text : escaped.toString();
+    }
+
+    private static void writeText(FileChannel channel, String text) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * Buffered UTF-8 output of one partition through a reused direct buffer
+     */
+    private static final class PartitionWriter implements Closeable {
+        private final FileChannel channel;
+        private final StringBuilder text = new StringBuilder(BUFFER_CHARS + 1024);
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_CHARS * 2);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+        private PartitionWriter(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        private void flushIfFull() throws IOException {
+            if (text.length() >= BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, bytes, true);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                bytes.flip();
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                bytes.clear();
+                if (result.isUnderflow()) {
+                    break;
+                }
+            }
+            encoder.reset();
+            text.setLength(0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * SplitMix64 generator that is re-seeded for every value instead of allocated
+     */
+    private static final class RecordRandom {
+        private long state;
+
+        private void reset(long seed) {
+            state = seed;
+        }
+
+        private long nextLong() {
+            long z = (state += 0x9e3779b97f4a7c15L);
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        private double nextDouble() {
+            return (nextLong() >>> 11) * 0x1.0p-53;
+        }
+
+        /**
+         * Uniform value in [0, bound) without modulo bias
+         */
+        private long nextLong(long bound) {
+            long limit = Long.MAX_VALUE - Long.MAX_VALUE % bound;
+            long value;
+            do {
+                value = nextLong() >>> 1;
+            } while (value >= limit);
+            return value % bound;
+        }
+
+        private double nextGaussian() {
+            return Math.sqrt(-2 * Math.log(1 - nextDouble())) * Math.cos(2 * Math.PI * nextDouble());
+        }
+    }
+
+    private final class Entity {
+        private final String name;
+        private final long count;
+        private final List<Field> fields = new ArrayList<>();
+
+        private Entity(String name, long count) {
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count of entity " + name);
+            }
+            this.name = name;
+            this.count = count;
+        }
+
+        private Map<String, Object> record(long index, RecordRandom random) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            for (Field field : fields) {
+                record.put(field.name, field.generate(index, random));
+            }
+            return record;
+        }
+    }
+
+    private abstract static class Field {
+        protected final String id;
+        protected final String name;
+        protected final String jsonName;
+        private final long base;
+
+        private Field(String id, long base) {
+            this.id = id;
+            this.name = id.substring(id.indexOf('.') + 1);
+            this.jsonName = escapeJson(name);
+            this.base = base;
+        }
+
+        /**
+         * Value of this field in a record, the same for the same seed and record number
+         */
+        final Object generate(long index, RecordRandom random) {
+            random.reset(Seeds.mix(base, index));
+            return value(index, random);
+        }
+
+        abstract Object value(long index, RecordRandom random);
+
+        boolean canBeUnique() {
+            return false;
+        }
+
+        protected static double required(Double value, String setting, String id) {
+            if (value == null) {
+                throw new IllegalArgumentException("Field " + id + " needs " + setting);
+            }
+            return value;
+        }
+    }
+
+    private static final class SequenceField extends Field {
+        private final String prefix;
+        private final int width;
+        private final long start;
+
+        private SequenceField(String id, long base, DataSchema.FieldSchema schema) {
+            super(id, base);
+            this.prefix = schema.getPrefix() == null ? "" : schema.getPrefix();
+            this.width = schema.getWidth();
+            this.start = schema.getStart();
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            long number = start + index;
+            if (prefix.isEmpty() && width == 0) {
+                return number;
+            }
+            String digits = Long.toString(number);
+            StringBuilder value = new StringBuilder(prefix.length() + Math.max(width, digits.length())).append(prefix);
+            for (int i = digits.length(); i < width; i++) {
+                value.append('0');
+            }
+            return value.append(digits).toString();
+        }
+
+        @Override
+        boolean canBeUnique() {
+            return true;
+        }
+    }
+
+    private static final class IntegerField extends Field {
+        private final long min;
+        private final long range;
+        private final boolean unique;
+        private final boolean normal;
+        private final double mean;
+        private final double stddev;
+        private final long stride;
+        private final long offset;
+
+        private IntegerField(String id, long base, DataSchema.FieldSchema schema, long count) {
+            super(id, base);
+            this.min = (long) required(schema.getMin(), "min", id);
+            long max = (long) required(schema.getMax(), "max", id);
+            this.range = max - min + 1;
+            if (range < 1) {
+                throw new IllegalArgumentException("Field " + id + " has max below min");
+            }
+            this.unique = schema.isUnique();
+            if (unique && count > range) {
+                throw new IllegalArgumentException("Field " + id + " cannot hold " + count + " unique values in " + range);
+            }
+            this.normal = "normal".equals(schema.getDistribution());
+            this.mean = schema.getMean() != null ? schema.getMean() : min + (max - min) / 2.0;
+            this.stddev = schema.getStddev() != null ? schema.getStddev() : (max - min) / 6.0;
+            this.stride = coprimeStride(range, base);
+            this.offset = Math.floorMod(base >>> 1, range);
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            if (unique) {
+                // Record numbers map one to one onto the range, in a scattered order
+                return min + (mulMod(index, stride, range) + offset) % range;
+            }
+            if (normal) {
+                long value = Math.round(mean + random.nextGaussian() * stddev);
+                return Math.max(min, Math.min(min + range - 1, value));
+            }
+            return min + random.nextLong(range);
+        }
+
+        @Override
+        boolean canBeUnique() {
+            return true;
+        }
+
+        private static long coprimeStride(long range, long base) {
+            long stride = Math.floorMod(base, range) | 1;
+            while (gcd(stride, range) != 1) {
+                stride += 2;
+            }
+            return stride % range;
+        }
+
+        private static long gcd(long a, long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+
+        private static long mulMod(long a, long b, long modulus) {
+            if (modulus <= Integer.MAX_VALUE) {
+                return a * b % modulus;
+            }
+            return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(BigInteger.valueOf(modulus)).longValue();
+        }
+    }
+
+    private static final class DecimalField extends Field {
+        private final double min;
+        private final double max;
+        private final double factor;
+        private final boolean normal;
+        private final double mean;
+        private final double stddev;
+
+        private DecimalField(String id, long base, DataSchema.FieldSchema schema) {
+            super(id, base);
+            this.min = required(schema.getMin(), "min", id);
+            this.max = required(schema.getMax(), "max", id);
+            this.factor = Math.pow(10, schema.getScale());
+            this.normal = "normal".equals(schema.getDistribution());
+            this.mean = schema.getMean() != null ? schema.getMean() : (min + max) / 2;
+            this.stddev = schema.getStddev() != null ? schema.getStddev() : (max - min) / 6;
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            double value = normal
+                    ? Math.max(min, Math.min(max, mean + random.nextGaussian() * stddev))
+                    : min + random.nextDouble() * (max - min);
+            return Math.round(value * factor) / factor;
+        }
+    }
+
+    private static final class StringField extends Field {
+        private final int minLength;
+        private final int maxLength;
+        private final int uniqueDigits;
+
+        private StringField(String id, long base, DataSchema.FieldSchema schema, long count) {
+            super(id, base);
+            this.maxLength = schema.getLength();
+            this.minLength = schema.getMinLength() != null ? schema.getMinLength() : maxLength;
+            if (minLength < 0 || minLength > maxLength) {
+                throw new IllegalArgumentException("Field " + id + " has an invalid length range");
+            }
+            // Unique strings start with the record number in base 36
+            this.uniqueDigits = schema.isUnique() ? Long.toString(Math.max(count - 1, 0), 36).length() : 0;
+            if (uniqueDigits > minLength) {
+                throw new IllegalArgumentException("Field " + id + " is too short for " + count + " unique values");
+            }
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            int length = minLength + (int) random.nextLong(maxLength - minLength + 1);
+            char[] chars = new char[length];
+            String number = Long.toString(index, 36);
+            int offset = uniqueDigits - number.length();
+            for (int i = 0; i < uniqueDigits; i++) {
+                chars[i] = i < offset ? '0' : number.charAt(i - offset);
+            }
+            for (int i = uniqueDigits; i < length; i++) {
+                chars[i] = ALPHA_NUMERIC[(int) random.nextLong(ALPHA_NUMERIC.length)];
+            }
+            return new String(chars);
+        }
+
+        @Override
+        boolean canBeUnique() {
+            return true;
+        }
+    }
+
+    private static final class EmailField extends Field {
+        private final String domain;
+        private final boolean unique;
+
+        private EmailField(String id, long base, DataSchema.FieldSchema schema) {
+            super(id, base);
+            this.domain = schema.getDomain();
+            this.unique = schema.isUnique();
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            StringBuilder email = new StringBuilder(32);
+            for (int i = 0; i < 8; i++) {
+                email.append(LOWERCASE[(int) random.nextLong(LOWERCASE.length)]);
+            }
+            if (unique) {
+                email.append('.').append(Long.toString(index, 36));
+            }
+            return email.append('@').append(domain).toString();
+        }
+
+        @Override
+        boolean canBeUnique() {
+            return true;
+        }
+    }
+
+    private static final class ChoiceField extends Field {
+        private final String[] values;
+        private final double[] cumulativeWeights;
+
+        private ChoiceField(String id, long base, DataSchema.FieldSchema schema) {
+            super(id, base);
+            if (schema.getValues() == null || schema.getValues().isEmpty()) {
+                throw new IllegalArgumentException("Field " + id + " needs values");
+            }
+            this.values = schema.getValues().toArray(new String[0]);
+            List<Double> weights = schema.getWeights();
+            if (weights != null && weights.size() != values.length) {
+                throw new IllegalArgumentException("Field " + id + " needs one weight per value");
+            }
+            this.cumulativeWeights = new double[values.length];
+            double total = 0;
+            for (int i = 0; i < values.length; i++) {
+                total += weights == null ? 1 : weights.get(i);
+                cumulativeWeights[i] = total;
+            }
+            for (int i = 0; i < values.length; i++) {
+                cumulativeWeights[i] /= total;
+            }
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            int position = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+            return values[Math.min(values.length - 1, position >= 0 ? position + 1 : -position - 1)];
+        }
+    }
+
+    private static final class BooleanField extends Field {
+        private final double probability;
+
+        private BooleanField(String id, long base, DataSchema.FieldSchema schema) {
+            super(id, base);
+            this.probability = schema.getProbability();
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            return random.nextDouble() < probability;
+        }
+    }
+
+    private static final class TimestampField extends Field {
+        private final long from;
+        private final long range;
+
+        private TimestampField(String id, long base, DataSchema.FieldSchema schema) {
+            super(id, base);
+            this.from = Instant.parse(schema.getFrom()).getEpochSecond();
+            this.range = Instant.parse(schema.getTo()).getEpochSecond() - from;
+            if (range <= 0) {
+                throw new IllegalArgumentException("Field " + id + " has to before from");
+            }
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            return Instant.ofEpochSecond(from + random.nextLong(range)).toString();
+        }
+    }
+
+    private static final class UuidField extends Field {
+        private UuidField(String id, long base) {
+            super(id, base);
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            // Version 4 layout, random bits from the seeded generator
+            long high = (random.nextLong() & ~0xF000L) | 0x4000L;
+            long low = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+            return new UUID(high, low).toString();
+        }
+
+        @Override
+        boolean canBeUnique() {
+            return true;
+        }
+    }
+
+    private final class ReferenceField extends Field {
+        private final String targetEntity;
+        private final String targetField;
+        private Field target;
+        private long targetCount;
+
+        private ReferenceField(String id, long base, DataSchema.FieldSchema schema) {
+            super(id, base);
+            this.targetEntity = schema.getEntity();
+            this.targetField = schema.getField();
+            if (targetEntity == null || targetField == null) {
+                throw new IllegalArgumentException("Field " + id + " needs entity and field");
+            }
+        }
+
+        private void resolve() {
+            Entity entity = entities.get(targetEntity);
+            if (entity == null) {
+                throw new IllegalArgumentException("Field " + id + " references unknown entity " + targetEntity);
+            }
+            if (entity.count == 0) {
+                throw new IllegalArgumentException("Field " + id + " references entity " + targetEntity + " without records");
+            }
+            this.targetCount = entity.count;
+            this.target = entity.fields.stream()
+                    .filter(field -> field.name.equals(targetField))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Field " + id + " references unknown field "
+                            + targetEntity + "." + targetField));
+        }
+
+        @Override
+        Object value(long index, RecordRandom random) {
+            // The referenced value is recomputed from the target's record number instead of stored
+            return target.generate(random.nextLong(targetCount), random);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package io.github.mypixelquest.pja.data;
+
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe cache of parsed data files.
+ * Entries are keyed by environment, format and resolved path. Concurrent requests for the
+ * same file wait for a single load (single-flight), entries are invalidated when the file's
+ * modification time or size changes, and the least recently used entries are evicted when
+ * the entry count or the total size of the cached files exceeds the limits.
+ */
+public final class DataCache {
+    private static final Logger log = LoggerFactory.getLogger(DataCache.class);
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final Object evictionLock = new Object();
+
+    /**
+     * Creates a new DataCache
+     *
+     * @param maxEntries Maximum number of cached files
+     * @param maxBytes Maximum total size of the cached files on disk
+     */
+    public DataCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get the parsed content of a file, loading it if it is not cached or changed on disk
+     *
+     * @param key Cache key, its path is passed to the loader
+     * @param loader Parses the file, may throw RuntimeException
+     * @return Parsed content, shared between all callers
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key key, Loader<T> loader) {
+        FileVersion version = FileVersion.of(key.getPath());
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.version.equals(version)) {
+                    hits.increment();
+                    entry.lastAccess = clock.incrementAndGet();
+                    return (T) await(entry.value);
+                }
+                if (entries.remove(key, entry)) {
+                    invalidations.increment();
+                    cachedBytes.addAndGet(-entry.version.getSize());
+                    log.debug("Invalidated cached {} after it changed on disk", key);
+                }
+                continue;
+            }
+
+            Entry created = new Entry(version, new CompletableFuture<>(), clock.incrementAndGet());
+            if (entries.putIfAbsent(key, created) != null) {
+                continue;
+            }
+
+            misses.increment();
+            cachedBytes.addAndGet(version.getSize());
+            try {
+                T value = loader.load(key.getPath());
+                created.value.complete(value);
+                evictIfNeeded(key);
+                return value;
+            } catch (RuntimeException | Error e) {
+                if (entries.remove(key, created)) {
+                    cachedBytes.addAndGet(-version.getSize());
+                }
+                created.value.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Remove all entries, statistics are kept
+     */
+    public void clear() {
+        entries.forEach((key, entry) -> {
+            if (entries.remove(key, entry)) {
+                cachedBytes.addAndGet(-entry.version.getSize());
+            }
+        });
+    }
+
+    /**
+     * Get the cache statistics since the start of the run
+     *
+     * @return Snapshot of the statistics
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(),
+                entries.size(), cachedBytes.get());
+    }
+
+    private static Object await(CompletableFuture<Object> value) {
+        try {
+            return value.join();
+        } catch (CompletionException e) {
+            // Waiters of a failed load see the loader's own exception
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictIfNeeded(Key loaded) {
+        synchronized (evictionLock) {
+            while (entries.size() > maxEntries || cachedBytes.get() > maxBytes) {
+                Key oldest = null;
+                long oldestAccess = Long.MAX_VALUE;
+                for (Map.Entry<Key, Entry> candidate : entries.entrySet()) {
+                    Entry entry = candidate.getValue();
+                    // Loads in flight have waiters and the entry just loaded is about to be used
+                    if (!candidate.getKey().equals(loaded) && entry.value.isDone() && entry.lastAccess < oldestAccess) {
+                        oldest = candidate.getKey();
+                        oldestAccess = entry.lastAccess;
+                    }
+                }
+                if (oldest == null) {
+                    return;
+                }
+                Entry evicted = entries.remove(oldest);
+                if (evicted != null) {
+                    cachedBytes.addAndGet(-evicted.version.getSize());
+                    evictions.increment();
+                    log.debug("Evicted cached {}", oldest);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a data file
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(Path path);
+    }
+
+    /**
+     * Identity of a cached file
+     */
+    @Value
+    public static class Key {
+        String environment;
+        String format;
+        Path path;
+
+        public Key(String environment, String format, Path path) {
+            this.environment = environment;
+            this.format = format;
+            this.path = path.toAbsolutePath().normalize();
+        }
+    }
+
+    /**
+     * Snapshot of the cache statistics
+     */
+    @Value
+    public static class CacheStats {
+        long hits;
+        long misses;
+        long evictions;
+        long invalidations;
+        int entries;
+        long cachedBytes; // total size of the cached files on disk
+
+        /**
+         * Get the share of requests served from the cache
+         *
+         * @return Hit rate between 0.0 and 1.0
+         */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Entry {
+        private final FileVersion version;
+        private final CompletableFuture<Object> value;
+        private volatile long lastAccess;
+
+        private Entry(FileVersion version, CompletableFuture<Object> value, long lastAccess) {
+            this.version = version;
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    @Value
+    private static class FileVersion {
+        long modified;
+        long size;
+
+        private static FileVersion of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileVersion(attributes.lastModifiedTime().toMillis(), attributes.size());
+            } catch (IOException e) {
+                // Missing files are reported by the loader
+                return new FileVersion(-1, 0);
+            }
+        }
+    }
+}
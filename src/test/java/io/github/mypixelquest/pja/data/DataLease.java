@@ -0,0 +1,104 @@
+package io.github.mypixelquest.pja.data;
+
+import java.util.Map;
+
+/**
+ * Exclusive use of one record of a {@link DataLeasePool}, returned to the pool on close
+ * <pre>
+ * try (DataLease admin = dataManager.lease("test-data.yaml", "admins")) {
+ *     loginPage.login(admin.getString("username"), admin.getString("password"));
+ * }
+ * </pre>
+ */
+public final class DataLease implements AutoCloseable {
+    private final DataLeasePool pool;
+    private final int slot;
+    private long deadline;
+    private boolean closed;
+
+    DataLease(DataLeasePool pool, int slot, long deadline) {
+        this.pool = pool;
+        this.slot = slot;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Get the leased record
+     *
+     * @return The record's fields, read-only
+     */
+    public Map<String, Object> getRecord() {
+        return pool.record(slot);
+    }
+
+    /**
+     * Gets a value of the leased record
+     *
+     * @param path The path to the value (e.g., "username" or "permissions[0]")
+     * @return The value, null if it is missing
+     */
+    public Object get(String path) {
+        return DataPath.compile(path).get(getRecord());
+    }
+
+    /**
+     * Gets a value of the leased record as text
+     *
+     * @param path The path to the value
+     * @return The value as a String, null if it is missing
+     */
+    public String getString(String path) {
+        return DataPath.compile(path).getString(getRecord());
+    }
+
+    /**
+     * Get the position of the record in its pool
+     *
+     * @return The record index
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Check that the lease is still held, it is lost when it expires and another test takes it over
+     *
+     * @return Whether the record is still exclusively leased
+     */
+    public synchronized boolean isValid() {
+        return !closed && pool.holds(slot, deadline);
+    }
+
+    /**
+     * Extend the lease by the pool's lease time, for tests that use a record longer than that
+     *
+     * @return Whether the lease was extended, false if it was already lost
+     */
+    public synchronized boolean renew() {
+        if (closed) {
+            return false;
+        }
+        long renewed = pool.renew(slot, deadline);
+        if (renewed == 0) {
+            return false;
+        }
+        deadline = renewed;
+        return true;
+    }
+
+    /**
+     * Return the record to the pool, closing again has no effect
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            pool.release(slot, deadline);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return pool.getName() + "[" + slot + "]";
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.mypixelquest.pja.data;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pool of interchangeable test data records (e.g. accounts), each leased by one test at a time.
+ * Threads claim records with compare-and-set on a slot array, so leasing takes no lock in the JVM.
+ * JVMs of the same run (forks, or CI shards on one machine) exclude each other with a byte-range
+ * file lock per record. Leases of crashed tests expire: the OS drops the file locks of a JVM that
+ * dies, and a lease not returned or renewed within the lease time is taken over by the next test.
+ */
+@Slf4j
+public class DataLeasePool {
+    private static final long FREE = 0;
+    private static final long RELEASING = -1;
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final String name;
+    private final List<Map<String, Object>> records;
+    private final long leaseMillis;
+    private final long waitMillis;
+    // FREE, RELEASING, or the deadline of the lease in epoch milliseconds
+    private final AtomicLongArray slots;
+    // File locks are held by the JVM, a lease taken over after it expired keeps the previous one
+    private final AtomicReferenceArray<FileLock> locks;
+    private final FileChannel lockChannel;
+
+    /**
+     * Creates a pool over a list of records
+     *
+     * @param name Name of the pool, used in logs and errors
+     * @param records The interchangeable records, each a map of fields
+     * @param lockFile File shared by the JVMs leasing from the same pool
+     * @param leaseMillis Time after which a lease that was not returned or renewed expires
+     * @param waitMillis Maximum time to wait for a free record
+     */
+    @SuppressWarnings("unchecked")
+    public DataLeasePool(String name, List<?> records, Path lockFile, long leaseMillis, long waitMillis) {
+        if (records == null || records.isEmpty()) {
+            throw new IllegalArgumentException("Pool " + name + " has no records");
+        }
+        List<Map<String, Object>> copy = new ArrayList<>(records.size());
+        for (Object record : records) {
+            if (!(record instanceof Map)) {
+                throw new IllegalArgumentException("Pool " + name + " must be a list of records, found " + record);
+            }
+            copy.add((Map<String, Object>) record);
+        }
+        this.name = name;
+        this.records = Collections.unmodifiableList(copy);
+        this.leaseMillis = leaseMillis;
+        this.waitMillis = waitMillis;
+        this.slots = new AtomicLongArray(copy.size());
+        this.locks = new AtomicReferenceArray<>(copy.size());
+        try {
+            Files.createDirectories(lockFile.toAbsolutePath().getParent());
+            // Kept open for the life of the JVM, closing a channel releases all of its locks
+            this.lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open lease lock file " + lockFile, e);
+        }
+    }
+
+    /**
+     * Leases a free record, waiting up to the pool's wait time
+     *
+     * @return The lease, to close when the test no longer uses the record
+     */
+    public DataLease lease() {
+        long waitUntil = System.currentTimeMillis() + waitMillis;
+        long backoffNanos = TimeUnit.MILLISECONDS.toNanos(1);
+        while (true) {
+            DataLease lease = tryLease();
+            if (lease != null) {
+                return lease;
+            }
+            if (System.currentTimeMillis() >= waitUntil) {
+                throw new RuntimeException("Failed to lease a record from pool " + name + " within "
+                        + waitMillis + " ms, all " + records.size() + " records are in use");
+            }
+            LockSupport.parkNanos(backoffNanos);
+            backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+        }
+    }
+
+    /**
+     * Leases a free record without waiting
+     *
+     * @return The lease, or null if all records are in use
+     */
+    public DataLease tryLease() {
+        int size = records.size();
+        // Threads start at random slots, so they rarely race for the same one
+        int start = ThreadLocalRandom.current().nextInt(size);
+        long now = System.currentTimeMillis();
+        long deadline = now + leaseMillis;
+        for (int i = 0; i < size; i++) {
+            int slot = (start + i) % size;
+            long state = slots.get(slot);
+            if (state == FREE) {
+                if (slots.compareAndSet(slot, FREE, deadline)) {
+                    if (lockSlot(slot)) {
+                        return new DataLease(this, slot, deadline);
+                    }
+                    slots.set(slot, FREE);
+                }
+            } else if (state > FREE && state < now && slots.compareAndSet(slot, state, deadline)) {
+                log.warn("Lease on {}[{}] expired without being returned, taking it over", name, slot);
+                return new DataLease(this, slot, deadline);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the name of the pool
+     *
+     * @return The pool name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of records in the pool
+     *
+     * @return The pool size
+     */
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Get the number of records currently leased by this JVM
+     *
+     * @return Leased records, including expired leases not yet taken over
+     */
+    public int leased() {
+        int leased = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != FREE) {
+                leased++;
+            }
+        }
+        return leased;
+    }
+
+    Map<String, Object> record(int slot) {
+        return records.get(slot);
+    }
+
+    boolean holds(int slot, long deadline) {
+        return slots.get(slot) == deadline;
+    }
+
+    /**
+     * Extend a lease, fails if it expired and another test took it over
+     *
+     * @return The new deadline, or 0 if the lease was lost
+     */
+    long renew(int slot, long deadline) {
+        long renewed = Math.max(System.currentTimeMillis() + leaseMillis, deadline + 1);
+        return slots.compareAndSet(slot, deadline, renewed) ? renewed : FREE;
+    }
+
+    /**
+     * Return a record, unless its lease expired and another test took it over
+     */
+    boolean release(int slot, long deadline) {
+        // Other threads skip the slot until the file lock is gone, so they never overlap it
+        if (!slots.compareAndSet(slot, deadline, RELEASING)) {
+            log.warn("Lease on {}[{}] expired before it was returned", name, slot);
+            return false;
+        }
+        try {
+            locks.getAndSet(slot, null).release();
+        } catch (IOException e) {
+            log.warn("Failed to release the file lock of {}[{}]", name, slot, e);
+        } finally {
+            slots.set(slot, FREE);
+        }
+        return true;
+    }
+
+    /**
+     * Lock the slot's byte of the lock file, fails if another JVM or another pool of this JVM holds it
+     */
+    private boolean lockSlot(int slot) {
+        try {
+            FileLock lock = lockChannel.tryLock(slot, 1, false);
+            if (lock == null) {
+                return false;
+            }
+            locks.set(slot, lock);
+            return true;
+        } catch (OverlappingFileLockException e) {
+            // Another pool of this JVM on the same lock file holds the record
+            log.debug("{}[{}] is locked by another pool on the same lock file", name, slot);
+            return false;
+        } catch (IOException e) {
+            slots.set(slot, FREE);
+            throw new RuntimeException("Failed to lock " + name + "[" + slot + "]", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + leased() + "/" + records.size() + " leased)";
+    }
+}
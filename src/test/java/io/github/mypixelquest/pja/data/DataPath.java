@@ -0,0 +1,399 @@
+package io.github.mypixelquest.pja.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled path expression into loaded test data, e.g. {@code users.admin.username},
+ * {@code orders[0].customer.email} or {@code orders[*].total}.
+ * Expressions are parsed once and cached, so lookups only walk the data. A missing key or
+ * index resolves to null; typed getters convert numbers and numeric text (as read from CSV).
+ * A {@code [*]} segment projects over all list elements. Numbers in a {@link DataSnapshot} are
+ * read as primitives, so numeric lookups on snapshot data neither box nor format values.
+ */
+public final class DataPath {
+    // Bounds the cache for paths built from changing values
+    private static final int MAX_CACHED = 4096;
+    private static final Map<String, DataPath> cache = new ConcurrentHashMap<>();
+
+    private static final int KEY = -1;
+    private static final int WILDCARD = -2;
+
+    private final String expression;
+    private final String[] keys;
+    private final int[] indexes;  // list index, KEY or WILDCARD per segment
+    private final boolean projection;
+
+    private DataPath(String expression, String[] keys, int[] indexes) {
+        this.expression = expression;
+        this.keys = keys;
+        this.indexes = indexes;
+        this.projection = Arrays.stream(indexes).anyMatch(index -> index == WILDCARD);
+    }
+
+    /**
+     * Get the compiled form of a path expression
+     *
+     * @param expression Dot-separated keys with optional [index] or [*] suffixes
+     * @return Cached DataPath
+     */
+    public static DataPath compile(String expression) {
+        DataPath path = cache.get(expression);
+        if (path == null) {
+            path = parse(expression);
+            if (cache.size() < MAX_CACHED) {
+                cache.putIfAbsent(expression, path);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Resolve the path
+     *
+     * @param root Loaded data
+     * @return Value at the path, null if a key or index is missing, a List for [*] paths
+     */
+    public Object get(Object root) {
+        return resolve(root, 0);
+    }
+
+    /**
+     * Resolve the path to text
+     *
+     * @param root Loaded data
+     * @return Value as a String, null if missing
+     */
+    public String getString(Object root) {
+        Object value = single(root);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Resolve the path to a double, parsing text values
+     *
+     * @param root Loaded data
+     * @return Numeric value
+     * @throws IllegalArgumentException if the value is missing or not numeric
+     */
+    public double getDouble(Object root) {
+        Object parent = parent(root);
+        int last = indexes.length - 1;
+        if (parent instanceof DataSnapshot.NumericView view
+                && view.numberType(keys[last], indexes[last]) != DataSnapshot.NULL) {
+            return view.getDouble(keys[last], indexes[last]);
+        }
+        return toDouble(resolve(parent, last));
+    }
+
+    /**
+     * Resolve the path to a long, parsing text values
+     *
+     * @param root Loaded data
+     * @return Integral value
+     * @throws IllegalArgumentException if the value is missing or not integral
+     */
+    public long getLong(Object root) {
+        Object parent = parent(root);
+        int last = indexes.length - 1;
+        if (parent instanceof DataSnapshot.NumericView view
+                && view.numberType(keys[last], indexes[last]) == DataSnapshot.LONG) {
+            return view.getLong(keys[last], indexes[last]);
+        }
+        return toLong(resolve(parent, last));
+    }
+
+    /**
+     * Resolve the path to an int, parsing text values
+     *
+     * @param root Loaded data
+     * @return Integral value
+     * @throws IllegalArgumentException if the value is missing, not integral or out of int range
+     */
+    public int getInt(Object root) {
+        long value = getLong(root);
+        if (value != (int) value) {
+            throw new IllegalArgumentException("Value at " + expression + " does not fit an int: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Resolve the path to a boolean, parsing text values
+     *
+     * @param root Loaded data
+     * @return Boolean value
+     * @throws IllegalArgumentException if the value is missing or not a boolean
+     */
+    public boolean getBoolean(Object root) {
+        Object value = single(root);
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if ("true".equals(value) || "false".equals(value)) {
+            return Boolean.parseBoolean((String) value);
+        }
+        throw typeError(value, "boolean");
+    }
+
+    /**
+     * Resolve the path to a list
+     *
+     * @param root Loaded data
+     * @return List at the path, or the projected values for [*] paths, null if missing
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> getList(Object root) {
+        Object value = get(root);
+        if (value == null || value instanceof List) {
+            return (List<Object>) value;
+        }
+        throw typeError(value, "list");
+    }
+
+    /**
+     * Resolve the path to a map
+     *
+     * @param root Loaded data
+     * @return Map at the path, null if missing
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getMap(Object root) {
+        Object value = single(root);
+        if (value == null || value instanceof Map) {
+            return (Map<String, Object>) value;
+        }
+        throw typeError(value, "map");
+    }
+
+    /**
+     * Project a [*] path to doubles, parsing text values
+     *
+     * @param root Loaded data
+     * @return One value per matched element, elements without the value are skipped
+     */
+    public double[] getDoubles(Object root) {
+        DoubleSink sink = new DoubleSink();
+        collect(root, 0, sink);
+        return Arrays.copyOf(sink.values, sink.size);
+    }
+
+    /**
+     * Project a [*] path to longs, parsing text values
+     *
+     * @param root Loaded data
+     * @return One value per matched element, elements without the value are skipped
+     */
+    public long[] getLongs(Object root) {
+        LongSink sink = new LongSink();
+        collect(root, 0, sink);
+        return Arrays.copyOf(sink.values, sink.size);
+    }
+
+    /**
+     * Project a [*] path to text
+     *
+     * @param root Loaded data
+     * @return One value per matched element, elements without the value are skipped
+     */
+    public String[] getStrings(Object root) {
+        List<String> values = new ArrayList<>();
+        collect(root, 0, value -> values.add(value.toString()));
+        return values.toArray(new String[0]);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private Object single(Object root) {
+        return resolve(parent(root), indexes.length - 1);
+    }
+
+    /**
+     * Resolve all segments but the last one of a single-valued path
+     */
+    private Object parent(Object root) {
+        if (projection) {
+            throw new IllegalArgumentException("Path " + expression + " projects several values, use a list or array getter");
+        }
+        return resolve(root, 0, indexes.length - 1);
+    }
+
+    private Object resolve(Object current, int from) {
+        return resolve(current, from, indexes.length);
+    }
+
+    private Object resolve(Object current, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (current == null) {
+                return null;
+            }
+            int index = indexes[i];
+            if (index == KEY) {
+                if (!(current instanceof Map<?, ?> map)) {
+                    throw invalid(i);
+                }
+                current = map.get(keys[i]);
+            } else if (!(current instanceof List<?> list)) {
+                throw invalid(i);
+            } else if (index == WILDCARD) {
+                List<Object> values = new ArrayList<>(list.size());
+                for (Object element : list) {
+                    values.add(resolve(element, i + 1));
+                }
+                return values;
+            } else {
+                current = index < list.size() ? list.get(index) : null;
+            }
+        }
+        return current;
+    }
+
+    private void collect(Object current, int from, Sink sink) {
+        for (int i = from; i < indexes.length; i++) {
+            if (current == null) {
+                return;
+            }
+            int index = indexes[i];
+            if (index == KEY) {
+                if (!(current instanceof Map<?, ?> map)) {
+                    throw invalid(i);
+                }
+                current = map.get(keys[i]);
+            } else if (!(current instanceof List<?> list)) {
+                throw invalid(i);
+            } else if (index == WILDCARD) {
+                for (int e = 0; e < list.size(); e++) {
+                    collect(list.get(e), i + 1, sink);
+                }
+                return;
+            } else {
+                current = index < list.size() ? list.get(index) : null;
+            }
+        }
+        if (current != null) {
+            sink.accept(current);
+        }
+    }
+
+    private double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                throw typeError(value, "number");
+            }
+        }
+        throw typeError(value, "number");
+    }
+
+    private long toLong(Object value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw typeError(value, "integer");
+            }
+        }
+        throw typeError(value, "integer");
+    }
+
+    private IllegalArgumentException typeError(Object value, String type) {
+        return value == null
+                ? new IllegalArgumentException("No value at " + expression)
+                : new IllegalArgumentException("Value at " + expression + " is not a " + type + ": " + value);
+    }
+
+    private IllegalArgumentException invalid(int segment) {
+        String expected = indexes[segment] == KEY ? "a map" : "a list";
+        return new IllegalArgumentException("Invalid path: " + expression + " (segment " + (segment + 1) + " is not " + expected + ")");
+    }
+
+    private static DataPath parse(String expression) {
+        List<String> keys = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int position = 0;
+        int length = expression.length();
+        while (position < length) {
+            char c = expression.charAt(position);
+            if (c == '[') {
+                int end = expression.indexOf(']', position);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed [ in path: " + expression);
+                }
+                String index = expression.substring(position + 1, end);
+                keys.add(null);
+                indexes.add("*".equals(index) ? WILDCARD : parseIndex(index, expression));
+                position = end + 1;
+            } else if (c == '.') {
+                position++;
+            } else {
+                int end = position;
+                while (end < length && expression.charAt(end) != '.' && expression.charAt(end) != '[') {
+                    end++;
+                }
+                keys.add(expression.substring(position, end));
+                indexes.add(KEY);
+                position = end;
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Empty path");
+        }
+        return new DataPath(expression, keys.toArray(new String[0]), indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static int parseIndex(String index, String expression) {
+        try {
+            int value = Integer.parseInt(index.trim());
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid index [" + index + "] in path: " + expression);
+    }
+
+    @FunctionalInterface
+    private interface Sink {
+        void accept(Object value);
+    }
+
+    private final class DoubleSink implements Sink {
+        private double[] values = new double[16];
+        private int size;
+
+        @Override
+        public void accept(Object value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = toDouble(value);
+        }
+    }
+
+    private final class LongSink implements Sink {
+        private long[] values = new long[16];
+        private int size;
+
+        @Override
+        public void accept(Object value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = toLong(value);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package io.github.mypixelquest.pja.data;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Composable condition on the columns of a {@link DataTable}, e.g.
+ * <pre>
+ * DataQuery.eq("category", "Electronics").and(DataQuery.gte("rating", 4.6)).and(DataQuery.gt("stock", 0))
+ * </pre>
+ * Query values are converted to the column type, so {@code gte("rating", "4.6")} and
+ * {@code gte("rating", 4.6)} are the same. Equality and range conditions are answered from the
+ * column indexes; in a conjunction only the most selective condition uses its index and the
+ * others are checked on its matches. Rows without a value never match a comparison.
+ */
+public abstract class DataQuery {
+    private static final int[] NO_ROWS = new int[0];
+
+    DataQuery() {
+    }
+
+    /**
+     * Match rows where a column equals a value
+     *
+     * @param column Column name
+     * @param value Value, converted to the column type
+     * @return Query
+     */
+    public static DataQuery eq(String column, Object value) {
+        return new In(column, Arrays.asList(value));
+    }
+
+    /**
+     * Match rows where a column equals any of the values
+     *
+     * @param column Column name
+     * @param values Values, converted to the column type
+     * @return Query
+     */
+    public static DataQuery in(String column, Object... values) {
+        return new In(column, Arrays.asList(values));
+    }
+
+    /**
+     * Match rows where a column is greater than a value
+     *
+     * @param column Column name
+     * @param value Exclusive lower bound
+     * @return Query
+     */
+    public static DataQuery gt(String column, Object value) {
+        return new Range(column, value, false, null, false);
+    }
+
+    /**
+     * Match rows where a column is greater than or equal to a value
+     *
+     * @param column Column name
+     * @param value Inclusive lower bound
+     * @return Query
+     */
+    public static DataQuery gte(String column, Object value) {
+        return new Range(column, value, true, null, false);
+    }
+
+    /**
+     * Match rows where a column is less than a value
+     *
+     * @param column Column name
+     * @param value Exclusive upper bound
+     * @return Query
+     */
+    public static DataQuery lt(String column, Object value) {
+        return new Range(column, null, false, value, false);
+    }
+
+    /**
+     * Match rows where a column is less than or equal to a value
+     *
+     * @param column Column name
+     * @param value Inclusive upper bound
+     * @return Query
+     */
+    public static DataQuery lte(String column, Object value) {
+        return new Range(column, null, false, value, true);
+    }
+
+    /**
+     * Match rows where a column is within a range
+     *
+     * @param column Column name
+     * @param from Inclusive lower bound
+     * @param to Inclusive upper bound
+     * @return Query
+     */
+    public static DataQuery between(String column, Object from, Object to) {
+        return new Range(column, from, true, to, true);
+    }
+
+    /**
+     * Match rows where a column's value passes a test, checked row by row without an index
+     *
+     * @param column Column name
+     * @param test Condition on the typed value, null for rows without a value
+     * @return Query
+     */
+    public static DataQuery matches(String column, Predicate<Object> test) {
+        return new Matches(column, test);
+    }
+
+    /**
+     * Match all rows
+     *
+     * @return Query
+     */
+    public static DataQuery all() {
+        return new Matches(null, value -> true);
+    }
+
+    /**
+     * Match rows matching this and another query
+     *
+     * @param other Other query
+     * @return Query
+     */
+    public DataQuery and(DataQuery other) {
+        return new And(this, other);
+    }
+
+    /**
+     * Match rows matching this or another query
+     *
+     * @param other Other query
+     * @return Query
+     */
+    public DataQuery or(DataQuery other) {
+        return new Or(this, other);
+    }
+
+    /**
+     * Match rows not matching this query
+     *
+     * @return Query
+     */
+    public DataQuery not() {
+        return new Not(this);
+    }
+
+    /**
+     * Find the matching rows
+     *
+     * @return Row numbers in ascending order, callers must not modify the array
+     */
+    abstract int[] select(DataTable table);
+
+    /**
+     * Check a single row
+     */
+    abstract boolean test(DataTable table, int row);
+
+    /**
+     * Get an upper bound of the matching rows, cheap enough to plan a conjunction
+     */
+    abstract int estimate(DataTable table);
+
+    /**
+     * Merge two ascending row arrays
+     */
+    private static int[] union(int[] left, int[] right) {
+        if (left.length == 0) {
+            return right;
+        }
+        if (right.length == 0) {
+            return left;
+        }
+        int[] rows = new int[left.length + right.length];
+        int count = 0;
+        int l = 0;
+        int r = 0;
+        while (l < left.length || r < right.length) {
+            int next = r == right.length || (l < left.length && left[l] <= right[r]) ? left[l] : right[r];
+            if (l < left.length && left[l] == next) {
+                l++;
+            }
+            if (r < right.length && right[r] == next) {
+                r++;
+            }
+            rows[count++] = next;
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    private static final class In extends DataQuery {
+        private final String column;
+        private final List<Object> values;
+
+        private In(String column, List<Object> values) {
+            this.column = column;
+            this.values = values;
+        }
+
+        @Override
+        int[] select(DataTable table) {
+            DataTable.Column data = table.column(column);
+            int[] rows = NO_ROWS;
+            for (Object value : values) {
+                Object normalized = data.normalize(value);
+                if (normalized != null) {
+                    rows = union(rows, data.rowsEqualTo(normalized));
+                }
+            }
+            return rows;
+        }
+
+        @Override
+        boolean test(DataTable table, int row) {
+            DataTable.Column data = table.column(column);
+            if (data.isNull(row)) {
+                return false;
+            }
+            Object value = data.value(row);
+            for (Object candidate : values) {
+                Object normalized = data.normalize(candidate);
+                if (value.equals(normalized)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int estimate(DataTable table) {
+            DataTable.Column data = table.column(column);
+            int count = 0;
+            for (Object value : values) {
+                Object normalized = data.normalize(value);
+                if (normalized != null) {
+                    count += data.rowsEqualTo(normalized).length;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return values.size() == 1 ? column + " = " + values.get(0) : column + " in " + values;
+        }
+    }
+
+    private static final class Range extends DataQuery {
+        private final String column;
+        private final Object from;
+        private final boolean fromInclusive;
+        private final Object to;
+        private final boolean toInclusive;
+
+        private Range(String column, Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+            this.column = column;
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+        }
+
+        @Override
+        int[] select(DataTable table) {
+            DataTable.Column data = table.column(column);
+            int start = start(data);
+            int end = end(data);
+            if (start >= end) {
+                return NO_ROWS;
+            }
+            int[] rows = Arrays.copyOfRange(data.sortedIndex(), start, end);
+            Arrays.sort(rows);
+            return rows;
+        }
+
+        @Override
+        boolean test(DataTable table, int row) {
+            DataTable.Column data = table.column(column);
+            if (data.isNull(row)) {
+                return false;
+            }
+            if (from != null) {
+                int comparison = data.compare(row, data.normalize(from));
+                if (comparison < 0 || (comparison == 0 && !fromInclusive)) {
+                    return false;
+                }
+            }
+            if (to != null) {
+                int comparison = data.compare(row, data.normalize(to));
+                return comparison < 0 || (comparison == 0 && toInclusive);
+            }
+            return true;
+        }
+
+        @Override
+        int estimate(DataTable table) {
+            DataTable.Column data = table.column(column);
+            return Math.max(0, end(data) - start(data));
+        }
+
+        private int start(DataTable.Column data) {
+            return from == null ? 0 : data.search(data.normalize(from), fromInclusive);
+        }
+
+        private int end(DataTable.Column data) {
+            return to == null ? data.sortedIndex().length : data.search(data.normalize(to), !toInclusive);
+        }
+
+        @Override
+        public String toString() {
+            String lower = from == null ? "" : from + (fromInclusive ? " <= " : " < ");
+            String upper = to == null ? "" : (toInclusive ? " <= " : " < ") + to;
+            return lower + column + upper;
+        }
+    }
+
+    private static final class Matches extends DataQuery {
+        private final String column;
+        private final Predicate<Object> test;
+
+        private Matches(String column, Predicate<Object> test) {
+            this.column = column;
+            this.test = test;
+        }
+
+        @Override
+        int[] select(DataTable table) {
+            int[] rows = new int[table.size()];
+            int count = 0;
+            for (int row = 0; row < table.size(); row++) {
+                if (test(table, row)) {
+                    rows[count++] = row;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        @Override
+        boolean test(DataTable table, int row) {
+            return test.test(column == null ? null : table.column(column).value(row));
+        }
+
+        @Override
+        int estimate(DataTable table) {
+            return table.size();
+        }
+
+        @Override
+        public String toString() {
+            return "matches(" + column + ")";
+        }
+    }
+
+    private static final class And extends DataQuery {
+        private final DataQuery left;
+        private final DataQuery right;
+
+        private And(DataQuery left, DataQuery right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int[] select(DataTable table) {
+            boolean leftFirst = left.estimate(table) <= right.estimate(table);
+            DataQuery driving = leftFirst ? left : right;
+            DataQuery filter = leftFirst ? right : left;
+            int[] candidates = driving.select(table);
+            int[] rows = new int[candidates.length];
+            int count = 0;
+            for (int row : candidates) {
+                if (filter.test(table, row)) {
+                    rows[count++] = row;
+                }
+            }
+            return Arrays.copyOf(rows, count);
+        }
+
+        @Override
+        boolean test(DataTable table, int row) {
+            return left.test(table, row) && right.test(table, row);
+        }
+
+        @Override
+        int estimate(DataTable table) {
+            return Math.min(left.estimate(table), right.estimate(table));
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " and " + right + ")";
+        }
+    }
+
+    private static final class Or extends DataQuery {
+        private final DataQuery left;
+        private final DataQuery right;
+
+        private Or(DataQuery left, DataQuery right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        int[] select(DataTable table) {
+            return union(left.select(table), right.select(table));
+        }
+
+        @Override
+        boolean test(DataTable table, int row) {
+            return left.test(table, row) || right.test(table, row);
+        }
+
+        @Override
+        int estimate(DataTable table) {
+            return Math.min(table.size(), left.estimate(table) + right.estimate(table));
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " or " + right + ")";
+        }
+    }
+
+    private static final class Not extends DataQuery {
+        private final DataQuery query;
+
+        private Not(DataQuery query) {
+            this.query = query;
+        }
+
+        @Override
+        int[] select(DataTable table) {
+            int[] excluded = query.select(table);
+            int[] rows = new int[table.size() - excluded.length];
+            int count = 0;
+            int next = 0;
+            for (int row = 0; row < table.size(); row++) {
+                if (next < excluded.length && excluded[next] == row) {
+                    next++;
+                } else {
+                    rows[count++] = row;
+                }
+            }
+            return rows;
+        }
+
+        @Override
+        boolean test(DataTable table, int row) {
+            return !query.test(table, row);
+        }
+
+        @Override
+        int estimate(DataTable table) {
+            return table.size();
+        }
+
+        @Override
+        public String toString() {
+            return "not " + query;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.mypixelquest.pja.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import lombok.Data;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative YAML schema of generated entities, read by {@link BulkDataGenerator}
+ */
+@Data
+public class DataSchema {
+    private Long seed; // defaults to the test data master seed (-DdataSeed)
+    private Map<String, EntitySchema> entities = new LinkedHashMap<>();
+
+    /**
+     * Reads a schema from a YAML file
+     *
+     * @param file The schema file
+     * @return The schema
+     */
+    public static DataSchema load(Path file) {
+        try {
+            return new ObjectMapper(new YAMLFactory()).readValue(file.toFile(), DataSchema.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load data schema " + file, e);
+        }
+    }
+
+    @Data
+    public static class EntitySchema {
+        private long count;
+        private Map<String, FieldSchema> fields = new LinkedHashMap<>(); // in output column order
+    }
+
+    @Data
+    public static class FieldSchema {
+        private String type;           // sequence, integer, decimal, string, email, choice, boolean, timestamp, uuid, reference
+        private boolean unique;
+        // sequence
+        private String prefix = "";
+        private int width;             // zero-padded digits
+        private long start = 1;
+        // integer, decimal
+        private Double min;
+        private Double max;
+        private int scale = 2;         // decimal places
+        private String distribution = "uniform"; // uniform or normal
+        private Double mean;           // defaults to the middle of min and max
+        private Double stddev;         // defaults to a sixth of max - min
+        // string
+        private int length = 10;
+        private Integer minLength;     // random length between minLength and length
+        // email
+        private String domain = "example.com";
+        // choice
+        private List<String> values;
+        private List<Double> weights;
+        // boolean
+        private double probability = 0.5;
+        // timestamp, ISO-8601 instants
+        private String from = "2024-01-01T00:00:00Z";
+        private String to = "2025-01-01T00:00:00Z";
+        // reference
+        private String entity;
+        private String field;
+    }
+}
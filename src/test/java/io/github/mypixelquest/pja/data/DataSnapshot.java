@@ -0,0 +1,586 @@
+package io.github.mypixelquest.pja.data;
+
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Memory-mapped binary snapshot of the data directory, written by {@link DataSnapshotCompiler}.
+ * Values are decoded lazily: maps and lists are read-only views over the mapped file, so
+ * loading a file costs neither parsing nor an object graph. Strings come from an interned
+ * string table, CSV files are stored as typed columns. The view of a nested map, list or table row
+ * is created once and kept by its parent, and {@link NumericView} lets {@link DataPath} read numbers
+ * without boxing them, so repeated lookups allocate nothing.
+ *
+ * <pre>
+ * header      magic, version, string table / node section / file index offsets
+ * strings     count, count + 1 offsets, UTF-8 bytes
+ * nodes       map:   count, count x (key id, slot), count x entry index sorted by key
+ *             list:  count, count x slot
+ *             table: rows, columns, columns x (name id, type, column offset)
+ * file index  count, count x (name id, size, modified, slot)
+ * slot        tag byte + 8 byte payload (scalar value, string id or node offset)
+ * </pre>
+ */
+public final class DataSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(DataSnapshot.class);
+
+    static final int MAGIC = 0x504A4144; // "PJAD"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 32;
+
+    static final byte NULL = 0;
+    static final byte TRUE = 1;
+    static final byte FALSE = 2;
+    static final byte INT = 3;
+    static final byte LONG = 4;
+    static final byte DOUBLE = 5;
+    static final byte STRING = 6;
+    static final byte BIG_INTEGER = 7;
+    static final byte MAP = 8;
+    static final byte LIST = 9;
+    static final byte TABLE = 10;
+
+    private static final int SLOT_SIZE = 9;
+    private static final int MAP_ENTRY_SIZE = 4 + SLOT_SIZE;
+    private static final int COLUMN_SIZE = 4 + 1 + 8;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int stringOffsets;
+    private final int stringBytes;
+    private final int nodes;
+    private final String[] strings;
+    private final Map<String, FileEntry> files = new HashMap<>();
+
+    private DataSnapshot(Path file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a data snapshot of version " + VERSION + ": " + file);
+        }
+
+        int stringTable = (int) buffer.getLong(8);
+        this.nodes = (int) buffer.getLong(16);
+        int fileIndex = (int) buffer.getLong(24);
+        this.stringCount = buffer.getInt(stringTable);
+        this.stringOffsets = stringTable + 4;
+        this.stringBytes = stringOffsets + 4 * (stringCount + 1);
+        this.strings = new String[stringCount];
+
+        int count = buffer.getInt(fileIndex);
+        for (int i = 0, position = fileIndex + 4; i < count; i++, position += 4 + 8 + 8 + SLOT_SIZE) {
+            files.put(string(buffer.getInt(position)),
+                    new FileEntry(buffer.getLong(position + 4), buffer.getLong(position + 12), position + 20));
+        }
+    }
+
+    /**
+     * Map a snapshot file
+     *
+     * @param file Snapshot written by DataSnapshotCompiler
+     * @return DataSnapshot reading from the mapped file
+     */
+    public static DataSnapshot open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new DataSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open data snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Get the snapshot configured for this run
+     *
+     * @return Shared snapshot, empty if none is configured or the file does not exist
+     */
+    public static Optional<DataSnapshot> shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * A snapshot view whose numbers can be read as primitives
+     * A child is named like a {@link DataPath} segment: a key for maps and table rows, an index for lists.
+     */
+    interface NumericView {
+
+        /**
+         * Get the type of a child that is a number
+         *
+         * @param key Key of the child, null in a list
+         * @param index Index of the child in a list
+         * @return LONG for integral values, DOUBLE for floating-point values, NULL if missing or not a number
+         */
+        byte numberType(String key, int index);
+
+        /**
+         * Read an integral child
+         *
+         * @param key Key of the child, null in a list
+         * @param index Index of the child in a list
+         * @return Value of a child whose numberType is LONG
+         */
+        long getLong(String key, int index);
+
+        /**
+         * Read a numeric child as a double
+         *
+         * @param key Key of the child, null in a list
+         * @param index Index of the child in a list
+         * @return Value of a child whose numberType is LONG or DOUBLE
+         */
+        double getDouble(String key, int index);
+    }
+
+    /**
+     * Get the content of a data file if the snapshot has it and the file is unchanged
+     *
+     * @param dataDir Data directory the snapshot was compiled from
+     * @param dataFile Data file within the directory
+     * @return Read-only view of the file's data, empty if not in the snapshot or out of date
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<Map<String, Object>> find(Path dataDir, Path dataFile) {
+        Path base = dataDir.toAbsolutePath().normalize();
+        Path path = dataFile.toAbsolutePath().normalize();
+        if (!path.startsWith(base)) {
+            return Optional.empty();
+        }
+
+        FileEntry entry = files.get(base.relativize(path).toString().replace('\\', '/'));
+        if (entry == null || !entry.matches(path)) {
+            if (entry != null) {
+                log.debug("Snapshot {} is out of date for {}", file, path);
+            }
+            return Optional.empty();
+        }
+        if (entry.root == null) {
+            // Racing threads create equivalent views, either may be kept
+            entry.root = value(entry.slot);
+        }
+        return Optional.of((Map<String, Object>) entry.root);
+    }
+
+    private Object value(int slot) {
+        long payload = buffer.getLong(slot + 1);
+        return switch (buffer.get(slot)) {
+            case NULL -> null;
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case INT -> (int) payload;
+            case LONG -> payload;
+            case DOUBLE -> Double.longBitsToDouble(payload);
+            case STRING -> string((int) payload);
+            case BIG_INTEGER -> new BigInteger(string((int) payload));
+            case MAP -> new SnapshotMap(nodes + (int) payload);
+            case LIST -> new SnapshotList(nodes + (int) payload);
+            case TABLE -> new SnapshotTable(nodes + (int) payload);
+            default -> throw new IllegalStateException("Corrupt data snapshot " + file + " at " + slot);
+        };
+    }
+
+    /**
+     * Get the value of a child slot, reusing the view its parent keeps for a map, list or table
+     *
+     * @param views Views kept by the parent, one per child
+     */
+    private Object child(Object[] views, int index, int slot) {
+        byte tag = buffer.get(slot);
+        if (tag != MAP && tag != LIST && tag != TABLE) {
+            return value(slot);
+        }
+        Object view = views[index];
+        if (view == null) {
+            // Racing threads create equivalent views, either may be kept
+            view = value(slot);
+            views[index] = view;
+        }
+        return view;
+    }
+
+    private byte numberType(int slot) {
+        return switch (buffer.get(slot)) {
+            case INT, LONG -> LONG;
+            case DOUBLE -> DOUBLE;
+            default -> NULL;
+        };
+    }
+
+    private long longValue(int slot) {
+        return buffer.getLong(slot + 1);
+    }
+
+    private double doubleValue(int slot) {
+        long payload = buffer.getLong(slot + 1);
+        return buffer.get(slot) == DOUBLE ? Double.longBitsToDouble(payload) : payload;
+    }
+
+    private String string(int id) {
+        String text = strings[id];
+        if (text == null) {
+            // Racing threads decode the same immutable string, either result may be kept
+            int start = buffer.getInt(stringOffsets + 4 * id);
+            int end = buffer.getInt(stringOffsets + 4 * (id + 1));
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringBytes + start, bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = text;
+        }
+        return text;
+    }
+
+    /**
+     * Read-only map over a map node, iterating in document order and looking keys up by binary search
+     */
+    private final class SnapshotMap extends AbstractMap<String, Object> implements NumericView {
+        private final int node;
+        private final int size;
+        private Object[] views;
+
+        private SnapshotMap(int node) {
+            this.node = node;
+            this.size = buffer.getInt(node);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int entry = find(key);
+            if (entry < 0) {
+                return null;
+            }
+            if (views == null) {
+                views = new Object[size];
+            }
+            return child(views, (entry - node - 4) / MAP_ENTRY_SIZE, entry + 4);
+        }
+
+        @Override
+        public byte numberType(String key, int index) {
+            int entry = find(key);
+            return entry < 0 ? NULL : DataSnapshot.this.numberType(entry + 4);
+        }
+
+        @Override
+        public long getLong(String key, int index) {
+            return longValue(find(key) + 4);
+        }
+
+        @Override
+        public double getDouble(String key, int index) {
+            return doubleValue(find(key) + 4);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return find(key) >= 0;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < size;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (index >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            int entry = node + 4 + MAP_ENTRY_SIZE * index++;
+                            return new SimpleImmutableEntry<>(string(buffer.getInt(entry)), value(entry + 4));
+                        }
+                    };
+                }
+            };
+        }
+
+        private int find(Object key) {
+            if (!(key instanceof String text)) {
+                return -1;
+            }
+            int sorted = node + 4 + MAP_ENTRY_SIZE * size;
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int entry = node + 4 + MAP_ENTRY_SIZE * buffer.getInt(sorted + 4 * middle);
+                int comparison = string(buffer.getInt(entry)).compareTo(text);
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else if (comparison > 0) {
+                    high = middle - 1;
+                } else {
+                    return entry;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Read-only list over a list node
+     */
+    private final class SnapshotList extends AbstractList<Object> implements NumericView {
+        private final int node;
+        private final int size;
+        private Object[] views;
+
+        private SnapshotList(int node) {
+            this.node = node;
+            this.size = buffer.getInt(node);
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            if (views == null) {
+                views = new Object[size];
+            }
+            return child(views, index, node + 4 + SLOT_SIZE * index);
+        }
+
+        @Override
+        public byte numberType(String key, int index) {
+            return index >= 0 && index < size ? DataSnapshot.this.numberType(node + 4 + SLOT_SIZE * index) : NULL;
+        }
+
+        @Override
+        public long getLong(String key, int index) {
+            return longValue(node + 4 + SLOT_SIZE * index);
+        }
+
+        @Override
+        public double getDouble(String key, int index) {
+            return doubleValue(node + 4 + SLOT_SIZE * index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Read-only list of rows over a table node, values are read from the typed columns
+     */
+    private final class SnapshotTable extends AbstractList<Object> {
+        private final int rows;
+        private final String[] names;
+        private final byte[] types;
+        private final int[] columns;
+        private Row[] views;
+
+        private SnapshotTable(int node) {
+            this.rows = buffer.getInt(node);
+            int count = buffer.getInt(node + 4);
+            this.names = new String[count];
+            this.types = new byte[count];
+            this.columns = new int[count];
+            for (int c = 0; c < count; c++) {
+                int column = node + 8 + COLUMN_SIZE * c;
+                names[c] = string(buffer.getInt(column));
+                types[c] = buffer.get(column + 4);
+                columns[c] = nodes + (int) buffer.getLong(column + 5);
+            }
+        }
+
+        @Override
+        public Object get(int row) {
+            if (row < 0 || row >= rows) {
+                throw new IndexOutOfBoundsException("Index " + row + " out of bounds for length " + rows);
+            }
+            if (views == null) {
+                views = new Row[rows];
+            }
+            Row view = views[row];
+            if (view == null) {
+                // Racing threads create equivalent rows, either may be kept
+                view = new Row(row);
+                views[row] = view;
+            }
+            return view;
+        }
+
+        @Override
+        public int size() {
+            return rows;
+        }
+
+        private int column(Object name) {
+            for (int c = 0; c < names.length; c++) {
+                if (names[c].equals(name)) {
+                    return c;
+                }
+            }
+            return -1;
+        }
+
+        private String cell(int row, int column) {
+            return switch (types[column]) {
+                case LONG -> Long.toString(buffer.getLong(columns[column] + 8 * row));
+                case DOUBLE -> Double.toString(Double.longBitsToDouble(buffer.getLong(columns[column] + 8 * row)));
+                default -> string(buffer.getInt(columns[column] + 4 * row));
+            };
+        }
+
+        private final class Row extends AbstractMap<String, String> implements NumericView {
+            private final int row;
+
+            private Row(int row) {
+                this.row = row;
+            }
+
+            @Override
+            public int size() {
+                return names.length;
+            }
+
+            @Override
+            public String get(Object key) {
+                int c = column(key);
+                return c < 0 ? null : cell(row, c);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return column(key) >= 0;
+            }
+
+            @Override
+            public byte numberType(String key, int index) {
+                int c = column(key);
+                return c >= 0 && (types[c] == LONG || types[c] == DOUBLE) ? types[c] : NULL;
+            }
+
+            @Override
+            public long getLong(String key, int index) {
+                return buffer.getLong(columns[column(key)] + 8 * row);
+            }
+
+            @Override
+            public double getDouble(String key, int index) {
+                int c = column(key);
+                long bits = buffer.getLong(columns[c] + 8 * row);
+                return types[c] == DOUBLE ? Double.longBitsToDouble(bits) : bits;
+            }
+
+            @Override
+            public Set<Entry<String, String>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public int size() {
+                        return names.length;
+                    }
+
+                    @Override
+                    public Iterator<Entry<String, String>> iterator() {
+                        return new Iterator<>() {
+                            private int column;
+
+                            @Override
+                            public boolean hasNext() {
+                                return column < names.length;
+                            }
+
+                            @Override
+                            public Entry<String, String> next() {
+                                if (column >= names.length) {
+                                    throw new NoSuchElementException();
+                                }
+                                int c = column++;
+                                return new SimpleImmutableEntry<>(names[c], cell(row, c));
+                            }
+                        };
+                    }
+                };
+            }
+        }
+    }
+
+    private static final class FileEntry {
+        private final long size;
+        private final long modified;
+        private final int slot;
+        // View of the file's data, created on first use
+        private volatile Object root;
+
+        private FileEntry(long size, long modified, int slot) {
+            this.size = size;
+            this.modified = modified;
+            this.slot = slot;
+        }
+
+        private boolean matches(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return attributes.size() == size && attributes.lastModifiedTime().toMillis() == modified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    private static final class Holder {
+        private static final Optional<DataSnapshot> INSTANCE = load();
+
+        private static Optional<DataSnapshot> load() {
+            String snapshotFile = Optional.ofNullable(ConfigReader.getInstance().copyConfig().getDataCache())
+                    .orElseGet(ConfigModel.DataCacheConfig::new)
+                    .getSnapshotFile();
+            if (snapshotFile == null || snapshotFile.isBlank() || !Files.exists(Paths.get(snapshotFile))) {
+                return Optional.empty();
+            }
+
+            try {
+                DataSnapshot snapshot = open(Paths.get(snapshotFile));
+                log.info("Using data snapshot {} with {} files", snapshotFile, snapshot.files.size());
+                return Optional.of(snapshot);
+            } catch (RuntimeException e) {
+                log.warn("Ignoring unreadable data snapshot {}", snapshotFile, e);
+                return Optional.empty();
+            }
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package io.github.mypixelquest.pja.data;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static io.github.mypixelquest.pja.data.DataSnapshot.BIG_INTEGER;
+import static io.github.mypixelquest.pja.data.DataSnapshot.DOUBLE;
+import static io.github.mypixelquest.pja.data.DataSnapshot.FALSE;
+import static io.github.mypixelquest.pja.data.DataSnapshot.HEADER_SIZE;
+import static io.github.mypixelquest.pja.data.DataSnapshot.INT;
+import static io.github.mypixelquest.pja.data.DataSnapshot.LIST;
+import static io.github.mypixelquest.pja.data.DataSnapshot.LONG;
+import static io.github.mypixelquest.pja.data.DataSnapshot.MAGIC;
+import static io.github.mypixelquest.pja.data.DataSnapshot.MAP;
+import static io.github.mypixelquest.pja.data.DataSnapshot.NULL;
+import static io.github.mypixelquest.pja.data.DataSnapshot.STRING;
+import static io.github.mypixelquest.pja.data.DataSnapshot.TABLE;
+import static io.github.mypixelquest.pja.data.DataSnapshot.TRUE;
+import static io.github.mypixelquest.pja.data.DataSnapshot.VERSION;
+
+/**
+ * Compiles a data directory into the binary snapshot read by {@link DataSnapshot}.
+ * Files are parsed with the same Jackson code as {@link TestDataManager}, so the snapshot
+ * holds exactly the values the runtime would parse. Runs during the build:
+ * <pre>
+ * java ... DataSnapshotCompiler src/test/resources/data target/data-snapshot.bin
+ * </pre>
+ */
+@Slf4j
+public class DataSnapshotCompiler {
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final ByteArrayOutputStream nodeBytes = new ByteArrayOutputStream();
+    private final DataOutputStream nodes = new DataOutputStream(nodeBytes);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: DataSnapshotCompiler <data directory> <snapshot file>");
+        }
+        new DataSnapshotCompiler().compile(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+    /**
+     * Compile all YAML, JSON and CSV files of a data directory, including environment subdirectories
+     *
+     * @param dataDir Data directory
+     * @param output Snapshot file to write
+     */
+    public void compile(Path dataDir, Path output) throws IOException {
+        TestDataManager parser = new TestDataManager("snapshot");
+        List<String> names = new ArrayList<>();
+        List<long[]> entries = new ArrayList<>();
+
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dataDir)) {
+            files = walk.filter(Files::isRegularFile).sorted().toList();
+        }
+        for (Path file : files) {
+            String format = TestDataManager.formatOf(file);
+            if (format == null) {
+                continue;
+            }
+
+            Map<String, Object> data;
+            try {
+                data = parser.parse(format, file);
+            } catch (IOException | RuntimeException e) {
+                // Left to the runtime, which reports the error when the file is used
+                log.warn("Not adding unparsable data file {} to the snapshot", file, e);
+                continue;
+            }
+
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long[] slot = slot(data);
+            names.add(dataDir.relativize(file).toString().replace('\\', '/'));
+            entries.add(new long[] {attributes.size(), attributes.lastModifiedTime().toMillis(), slot[0], slot[1]});
+        }
+
+        write(output, names, entries);
+        log.info("Compiled {} data files into {} ({} bytes)", names.size(), output, Files.size(output));
+    }
+
+    /**
+     * Encode a value as a slot: {tag, payload}, writing containers to the node section first
+     */
+    private long[] slot(Object value) throws IOException {
+        if (value == null) {
+            return new long[] {NULL, 0};
+        }
+        if (value instanceof Boolean bool) {
+            return new long[] {bool ? TRUE : FALSE, 0};
+        }
+        if (value instanceof Integer number) {
+            return new long[] {INT, number};
+        }
+        if (value instanceof Long number) {
+            return new long[] {LONG, number};
+        }
+        if (value instanceof Double number) {
+            return new long[] {DOUBLE, Double.doubleToRawLongBits(number)};
+        }
+        if (value instanceof BigInteger number) {
+            return new long[] {BIG_INTEGER, string(number.toString())};
+        }
+        if (value instanceof String text) {
+            return new long[] {STRING, string(text)};
+        }
+        if (value instanceof Map<?, ?> map) {
+            return new long[] {MAP, writeMap(map)};
+        }
+        if (value instanceof List<?> list) {
+            List<String> columns = tableColumns(list);
+            return columns != null
+                    ? new long[] {TABLE, writeTable(list, columns)}
+                    : new long[] {LIST, writeList(list)};
+        }
+        throw new IllegalArgumentException("Unsupported data type " + value.getClass().getName());
+    }
+
+    /**
+     * Write a map's entries in document order, followed by their positions sorted by key for lookups
+     */
+    private long writeMap(Map<?, ?> map) throws IOException {
+        List<long[]> slots = new ArrayList<>(map.size());
+        List<String> keys = new ArrayList<>(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            keys.add(String.valueOf(entry.getKey()));
+            slots.add(slot(entry.getValue()));
+        }
+        List<Integer> sorted = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            sorted.add(i);
+        }
+        sorted.sort(Comparator.comparing(keys::get));
+
+        long offset = nodes.size();
+        nodes.writeInt(map.size());
+        for (int i = 0; i < keys.size(); i++) {
+            nodes.writeInt(string(keys.get(i)));
+            writeSlot(slots.get(i));
+        }
+        for (int index : sorted) {
+            nodes.writeInt(index);
+        }
+        return offset;
+    }
+
+    private long writeList(List<?> list) throws IOException {
+        List<long[]> slots = new ArrayList<>(list.size());
+        for (Object element : list) {
+            slots.add(slot(element));
+        }
+
+        long offset = nodes.size();
+        nodes.writeInt(list.size());
+        for (long[] slot : slots) {
+            writeSlot(slot);
+        }
+        return offset;
+    }
+
+    /**
+     * Write rows with identical string columns as one typed column per field
+     * A column is stored as longs or doubles only if every value prints back to the same text
+     */
+    private long writeTable(List<?> rows, List<String> columns) throws IOException {
+        int count = rows.size();
+        long[] columnOffsets = new long[columns.size()];
+        byte[] columnTypes = new byte[columns.size()];
+        for (int c = 0; c < columns.size(); c++) {
+            String[] values = new String[count];
+            for (int r = 0; r < count; r++) {
+                values[r] = (String) ((Map<?, ?>) rows.get(r)).get(columns.get(c));
+            }
+
+            columnTypes[c] = columnType(values);
+            columnOffsets[c] = nodes.size();
+            for (String text : values) {
+                switch (columnTypes[c]) {
+                    case LONG -> nodes.writeLong(Long.parseLong(text));
+                    case DOUBLE -> nodes.writeLong(Double.doubleToRawLongBits(Double.parseDouble(text)));
+                    default -> nodes.writeInt(string(text));
+                }
+            }
+        }
+
+        long offset = nodes.size();
+        nodes.writeInt(count);
+        nodes.writeInt(columns.size());
+        for (int c = 0; c < columns.size(); c++) {
+            nodes.writeInt(string(columns.get(c)));
+            nodes.writeByte(columnTypes[c]);
+            nodes.writeLong(columnOffsets[c]);
+        }
+        return offset;
+    }
+
+    private static byte columnType(String[] values) {
+        boolean longs = true;
+        boolean doubles = true;
+        for (String text : values) {
+            if (longs) {
+                try {
+                    longs = Long.toString(Long.parseLong(text)).equals(text);
+                } catch (NumberFormatException e) {
+                    longs = false;
+                }
+            }
+            if (doubles) {
+                try {
+                    doubles = Double.toString(Double.parseDouble(text)).equals(text);
+                } catch (NumberFormatException e) {
+                    doubles = false;
+                }
+            }
+        }
+        return longs ? LONG : doubles ? DOUBLE : STRING;
+    }
+
+    /**
+     * Get the columns if all elements are maps with the same keys in the same order and only string values
+     */
+    private static List<String> tableColumns(List<?> list) {
+        if (list.isEmpty() || !(list.get(0) instanceof Map<?, ?> first) || first.isEmpty()) {
+            return null;
+        }
+
+        List<String> columns = new ArrayList<>();
+        for (Object key : first.keySet()) {
+            if (!(key instanceof String column)) {
+                return null;
+            }
+            columns.add(column);
+        }
+        for (Object element : list) {
+            if (!(element instanceof Map<?, ?> row) || row.size() != columns.size()) {
+                return null;
+            }
+            Iterator<? extends Map.Entry<?, ?>> entries = row.entrySet().iterator();
+            for (String column : columns) {
+                Map.Entry<?, ?> entry = entries.next();
+                if (!column.equals(entry.getKey()) || !(entry.getValue() instanceof String)) {
+                    return null;
+                }
+            }
+        }
+        return columns;
+    }
+
+    private void writeSlot(long[] slot) throws IOException {
+        nodes.writeByte((int) slot[0]);
+        nodes.writeLong(slot[1]);
+    }
+
+    private int string(String text) {
+        return strings.computeIfAbsent(text, t -> strings.size());
+    }
+
+    private void write(Path output, List<String> names, List<long[]> entries) throws IOException {
+        List<Integer> nameIds = new ArrayList<>();
+        for (String name : names) {
+            nameIds.add(string(name));
+        }
+
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        List<Integer> stringOffsets = new ArrayList<>(strings.size() + 1);
+        for (String text : strings.keySet()) {
+            stringOffsets.add(stringBytes.size());
+            stringBytes.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        stringOffsets.add(stringBytes.size());
+
+        long stringTable = HEADER_SIZE;
+        long nodeSection = stringTable + 4 + 4L * stringOffsets.size() + stringBytes.size();
+        long fileIndex = nodeSection + nodes.size();
+
+        Path parent = output.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, output.getFileName().toString(), ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(stringTable);
+            out.writeLong(nodeSection);
+            out.writeLong(fileIndex);
+
+            out.writeInt(strings.size());
+            for (int offset : stringOffsets) {
+                out.writeInt(offset);
+            }
+            stringBytes.writeTo(out);
+
+            nodeBytes.writeTo(out);
+
+            out.writeInt(names.size());
+            for (int i = 0; i < names.size(); i++) {
+                long[] entry = entries.get(i);
+                out.writeInt(nameIds.get(i));
+                out.writeLong(entry[0]);
+                out.writeLong(entry[1]);
+                out.writeByte((int) entry[2]);
+                out.writeLong(entry[3]);
+            }
+        }
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
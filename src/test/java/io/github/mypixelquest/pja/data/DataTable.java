@@ -0,0 +1,497 @@
+package io.github.mypixelquest.pja.data;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only, column-oriented copy of a list of records (CSV rows or a YAML/JSON array of objects)
+ * that can be queried with {@link DataQuery}.
+ * Each column gets the narrowest type that holds all its values exactly: whole numbers, decimals,
+ * text or, for nested values, objects. Numeric CSV text is stored as numbers. Equality and sorted
+ * indexes are built per column on the first query that needs them, so repeated lookups take
+ * O(1) or O(log n) instead of a scan. Tables are immutable and safe to query from parallel tests.
+ */
+public final class DataTable {
+    /**
+     * Storage type of a column
+     */
+    public enum ColumnType {
+        LONG, DOUBLE, STRING, OBJECT
+    }
+
+    private final String name;
+    private final int size;
+    private final List<String> columnNames;
+    private final Map<String, Column> columns;
+
+    private DataTable(String name, int size, Map<String, Column> columns) {
+        this.name = name;
+        this.size = size;
+        this.columns = columns;
+        this.columnNames = List.copyOf(columns.keySet());
+    }
+
+    /**
+     * Copy records into a table, columns are the union of all record keys in first-seen order
+     *
+     * @param name Name used in error messages, e.g. the file name
+     * @param records Maps with column names as keys
+     * @return Table with one row per record
+     */
+    public static DataTable of(String name, List<?> records) {
+        Map<String, Object[]> values = new LinkedHashMap<>();
+        int size = records.size();
+        for (int row = 0; row < size; row++) {
+            if (!(records.get(row) instanceof Map<?, ?> record)) {
+                throw new IllegalArgumentException("Row " + row + " of " + name + " is not an object");
+            }
+            for (Map.Entry<?, ?> entry : record.entrySet()) {
+                values.computeIfAbsent(String.valueOf(entry.getKey()), column -> new Object[size])[row] = entry.getValue();
+            }
+        }
+
+        Map<String, Column> columns = new LinkedHashMap<>();
+        values.forEach((column, columnValues) -> columns.put(column, Column.of(column, columnValues)));
+        return new DataTable(name, size, columns);
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return Row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the column names
+     *
+     * @return Column names in the order of the source records
+     */
+    public List<String> columns() {
+        return columnNames;
+    }
+
+    /**
+     * Get the storage type of a column
+     *
+     * @param column Column name
+     * @return Type inferred from the column's values
+     */
+    public ColumnType columnType(String column) {
+        return column(column).type;
+    }
+
+    /**
+     * Find the rows matching a query
+     *
+     * @param query Conditions on the columns
+     * @return Matching rows in table order, as read-only maps
+     */
+    public List<Map<String, Object>> select(DataQuery query) {
+        return rows(query.select(this));
+    }
+
+    /**
+     * Find the rows matching a query, sorted by a column
+     *
+     * @param query Conditions on the columns
+     * @param orderBy Column to sort by in ascending order, rows without a value come last
+     * @return Matching rows, as read-only maps
+     */
+    public List<Map<String, Object>> select(DataQuery query, String orderBy) {
+        Column column = column(orderBy);
+        int[] rows = Arrays.stream(query.select(this)).boxed()
+                .sorted(column::compareRows)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        return rows(rows);
+    }
+
+    /**
+     * Find the first row matching a query
+     *
+     * @param query Conditions on the columns
+     * @return First matching row in table order, empty if none matches
+     */
+    public Optional<Map<String, Object>> findFirst(DataQuery query) {
+        int[] rows = query.select(this);
+        return rows.length == 0 ? Optional.empty() : Optional.of(new Row(rows[0]));
+    }
+
+    /**
+     * Count the rows matching a query
+     *
+     * @param query Conditions on the columns
+     * @return Number of matching rows
+     */
+    public int count(DataQuery query) {
+        return query.select(this).length;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + size + " rows)";
+    }
+
+    Column column(String column) {
+        Column found = columns.get(column);
+        if (found == null) {
+            throw new IllegalArgumentException("Unknown column " + column + " in " + name + ", columns are " + columnNames);
+        }
+        return found;
+    }
+
+    private List<Map<String, Object>> rows(int[] rows) {
+        return new AbstractList<>() {
+            @Override
+            public Map<String, Object> get(int index) {
+                return new Row(rows[index]);
+            }
+
+            @Override
+            public int size() {
+                return rows.length;
+            }
+        };
+    }
+
+    /**
+     * Read-only view of one row
+     */
+    private final class Row extends AbstractMap<String, Object> {
+        private final int row;
+
+        private Row(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Column column = columns.get(key);
+            return column == null ? null : column.value(row);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return columns.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<Column> iterator = columns.values().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            Column column = iterator.next();
+                            return new SimpleImmutableEntry<>(column.name, column.value(row));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return columns.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * Values of one column in a primitive array for numeric types, with lazily built indexes
+     */
+    static final class Column {
+        private static final int[] NO_ROWS = new int[0];
+        private static final Pattern DECIMAL = Pattern.compile("-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+        private final String name;
+        private final ColumnType type;
+        private final BitSet nulls;
+        private final long[] longs;
+        private final double[] doubles;
+        private final Object[] objects;  // strings or nested values
+        private volatile Map<Object, int[]> equalityIndex;
+        private volatile int[] sortedIndex;
+
+        private Column(String name, ColumnType type, BitSet nulls, long[] longs, double[] doubles, Object[] objects) {
+            this.name = name;
+            this.type = type;
+            this.nulls = nulls;
+            this.longs = longs;
+            this.doubles = doubles;
+            this.objects = objects;
+        }
+
+        private static Column of(String name, Object[] values) {
+            BitSet nulls = new BitSet(values.length);
+            for (int row = 0; row < values.length; row++) {
+                if (values[row] == null) {
+                    nulls.set(row);
+                }
+            }
+
+            ColumnType type = typeOf(values);
+            switch (type) {
+                case LONG -> {
+                    long[] longs = new long[values.length];
+                    for (int row = 0; row < values.length; row++) {
+                        Object value = values[row];
+                        longs[row] = value == null ? 0 : value instanceof String text ? Long.parseLong(text) : ((Number) value).longValue();
+                    }
+                    return new Column(name, type, nulls, longs, null, null);
+                }
+                case DOUBLE -> {
+                    double[] doubles = new double[values.length];
+                    for (int row = 0; row < values.length; row++) {
+                        Object value = values[row];
+                        doubles[row] = value == null ? 0 : value instanceof String text ? Double.parseDouble(text) : ((Number) value).doubleValue();
+                    }
+                    return new Column(name, type, nulls, null, doubles, null);
+                }
+                default -> {
+                    return new Column(name, type, nulls, null, null, values);
+                }
+            }
+        }
+
+        /**
+         * Text is stored as whole numbers only if it prints back unchanged, so IDs like 007 stay text
+         */
+        private static ColumnType typeOf(Object[] values) {
+            boolean longs = true;
+            boolean doubles = true;
+            boolean strings = true;
+            for (Object value : values) {
+                if (value == null) {
+                    continue;
+                }
+                if (value instanceof Integer || value instanceof Long) {
+                    strings = false;
+                } else if (value instanceof Double) {
+                    longs = false;
+                    strings = false;
+                } else if (value instanceof String text) {
+                    longs = longs && isLong(text);
+                    doubles = doubles && isDouble(text);
+                } else {
+                    return ColumnType.OBJECT;
+                }
+            }
+            if (longs) {
+                return ColumnType.LONG;
+            }
+            if (doubles) {
+                return ColumnType.DOUBLE;
+            }
+            return strings ? ColumnType.STRING : ColumnType.OBJECT;
+        }
+
+        private static boolean isLong(String text) {
+            try {
+                return Long.toString(Long.parseLong(text)).equals(text);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        private static boolean isDouble(String text) {
+            return DECIMAL.matcher(text).matches();
+        }
+
+        boolean isNull(int row) {
+            return nulls.get(row);
+        }
+
+        Object value(int row) {
+            if (nulls.get(row)) {
+                return null;
+            }
+            return switch (type) {
+                case LONG -> longs[row];
+                case DOUBLE -> doubles[row];
+                default -> objects[row];
+            };
+        }
+
+        /**
+         * Convert a query value to this column's representation
+         *
+         * @return Long, Double or String for typed columns, null if the value cannot occur in the column
+         */
+        Object normalize(Object value) {
+            if (value == null) {
+                return null;
+            }
+            switch (type) {
+                case LONG, DOUBLE -> {
+                    if (value instanceof String text) {
+                        try {
+                            value = isLong(text) ? (Object) Long.parseLong(text) : (Object) Double.parseDouble(text);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Column " + name + " is numeric, cannot compare to " + text);
+                        }
+                    }
+                    if (!(value instanceof Number number)) {
+                        throw new IllegalArgumentException("Column " + name + " is numeric, cannot compare to " + value);
+                    }
+                    if (type == ColumnType.DOUBLE) {
+                        return number.doubleValue();
+                    }
+                    if (number instanceof Double || number instanceof Float) {
+                        double decimal = number.doubleValue();
+                        return decimal == Math.rint(decimal) && Math.abs(decimal) < 0x1p63 ? (Object) (long) decimal : (Object) decimal;
+                    }
+                    return number.longValue();
+                }
+                case STRING -> {
+                    return value.toString();
+                }
+                default -> {
+                    return value;
+                }
+            }
+        }
+
+        /**
+         * Compare a non-null value to a normalized bound
+         */
+        int compare(int row, Object bound) {
+            return switch (type) {
+                case LONG -> bound instanceof Long whole
+                        ? Long.compare(longs[row], whole)
+                        : Double.compare(longs[row], (Double) bound);
+                case DOUBLE -> Double.compare(doubles[row], (Double) bound);
+                case STRING -> ((String) objects[row]).compareTo((String) bound);
+                case OBJECT -> throw new IllegalArgumentException("Column " + name + " holds nested values and cannot be ordered");
+            };
+        }
+
+        /**
+         * Order two rows by value, rows without a value last
+         */
+        int compareRows(int a, int b) {
+            if (nulls.get(a) || nulls.get(b)) {
+                return Boolean.compare(nulls.get(a), nulls.get(b));
+            }
+            return switch (type) {
+                case LONG -> Long.compare(longs[a], longs[b]);
+                case DOUBLE -> Double.compare(doubles[a], doubles[b]);
+                case STRING -> ((String) objects[a]).compareTo((String) objects[b]);
+                case OBJECT -> throw new IllegalArgumentException("Column " + name + " holds nested values and cannot be ordered");
+            };
+        }
+
+        /**
+         * Get the rows holding a normalized value, in table order
+         */
+        int[] rowsEqualTo(Object value) {
+            if (type == ColumnType.LONG && !(value instanceof Long)) {
+                return NO_ROWS;
+            }
+            return equalityIndex().getOrDefault(value, NO_ROWS);
+        }
+
+        /**
+         * Get the non-null rows sorted by value, ties in table order
+         */
+        int[] sortedIndex() {
+            int[] index = sortedIndex;
+            if (index == null) {
+                synchronized (this) {
+                    index = sortedIndex;
+                    if (index == null) {
+                        index = buildSortedIndex();
+                        sortedIndex = index;
+                    }
+                }
+            }
+            return index;
+        }
+
+        private Map<Object, int[]> equalityIndex() {
+            Map<Object, int[]> index = equalityIndex;
+            if (index == null) {
+                synchronized (this) {
+                    index = equalityIndex;
+                    if (index == null) {
+                        index = buildEqualityIndex();
+                        equalityIndex = index;
+                    }
+                }
+            }
+            return index;
+        }
+
+        private Map<Object, int[]> buildEqualityIndex() {
+            int rows = longs != null ? longs.length : doubles != null ? doubles.length : objects.length;
+            // Count first, then fill arrays of the exact size
+            Map<Object, int[]> counts = new HashMap<>();
+            for (int row = nulls.nextClearBit(0); row < rows; row = nulls.nextClearBit(row + 1)) {
+                counts.computeIfAbsent(value(row), value -> new int[1])[0]++;
+            }
+            Map<Object, int[]> index = new HashMap<>(counts.size() * 2);
+            counts.forEach((value, count) -> index.put(value, new int[count[0]]));
+            counts.values().forEach(count -> count[0] = 0);
+            for (int row = nulls.nextClearBit(0); row < rows; row = nulls.nextClearBit(row + 1)) {
+                Object value = value(row);
+                index.get(value)[counts.get(value)[0]++] = row;
+            }
+            return Collections.unmodifiableMap(index);
+        }
+
+        private int[] buildSortedIndex() {
+            if (type == ColumnType.OBJECT) {
+                throw new IllegalArgumentException("Column " + name + " holds nested values and cannot be ordered");
+            }
+            int rows = longs != null ? longs.length : doubles != null ? doubles.length : objects.length;
+            List<Integer> order = new ArrayList<>(rows - nulls.cardinality());
+            for (int row = nulls.nextClearBit(0); row < rows; row = nulls.nextClearBit(row + 1)) {
+                order.add(row);
+            }
+            // Stable sort keeps table order for equal values
+            order.sort(this::compareRows);
+            return order.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Get the position of the first sorted row not below the bound (inclusive) or above it
+         */
+        int search(Object bound, boolean inclusive) {
+            int[] index = sortedIndex();
+            int low = 0;
+            int high = index.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int comparison = compare(index[middle], bound);
+                if (comparison < 0 || (!inclusive && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.mypixelquest.pja.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Lazy TestNG data provider rows read from a data file one at a time.
+ * Rows that fail the filter are skipped while reading. Without projected columns each
+ * invocation gets the whole row as a single Map parameter, otherwise one parameter per
+ * column in the given order. The file is closed when the last row has been read.
+ * Safe for data providers with parallel = true.
+ *
+ * @param <T> Row type produced by the underlying reader
+ */
+public final class RowIterator<T extends Map<String, ?>> implements Iterator<Object[]>, Closeable {
+    private final String description;
+    private final RowSource<T> source;
+    private final Predicate<? super T> filter;
+    private final String[] columns;
+    private Object[] next;
+    private boolean exhausted;
+
+    RowIterator(String description, RowSource<T> source, Predicate<? super T> filter, String[] columns) {
+        this.description = description;
+        this.source = source;
+        this.filter = filter;
+        this.columns = columns;
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        if (next == null && !exhausted) {
+            advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public synchronized Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in " + description);
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Stop reading and release the file, for callers that do not consume all rows
+     */
+    @Override
+    public synchronized void close() {
+        exhausted = true;
+        try {
+            source.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close " + description, e);
+        }
+    }
+
+    private void advance() {
+        try {
+            T row;
+            while ((row = source.read()) != null) {
+                if (filter.test(row)) {
+                    next = project(row);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw new RuntimeException("Failed to read row from " + description, e);
+        }
+        close();
+    }
+
+    private Object[] project(T row) {
+        if (columns.length == 0) {
+            return new Object[] {row};
+        }
+
+        Object[] values = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (!row.containsKey(columns[i])) {
+                throw new IllegalArgumentException("Unknown column " + columns[i] + " in " + description);
+            }
+            values[i] = row.get(columns[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Reads rows from an open data file
+     */
+    interface RowSource<T> extends Closeable {
+        /**
+         * Read the next row
+         *
+         * @return Next row, or null at the end of the data
+         */
+        T read() throws IOException;
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.mypixelquest.pja.data;
+
+/**
+ * Seed derivation shared by the test data generators, so equal inputs give equal data in both
+ */
+final class Seeds {
+
+    private Seeds() {
+    }
+
+    /**
+     * 64-bit FNV-1a hash, test names collide far less often than with the 32-bit String.hashCode
+     */
+    static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * SplitMix64 finalizer over both inputs, so close seeds give unrelated sequences
+     */
+    static long mix(long seed, long value) {
+        long z = seed + 0x9e3779b97f4a7c15L * (value + 1);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
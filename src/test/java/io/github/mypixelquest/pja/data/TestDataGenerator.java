@@ -1,89 +1,133 @@
 package io.github.mypixelquest.pja.data;
 
-import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Generates dynamic test data for testing purposes
+ * Generates dynamic test data for testing purposes.
+ * Each thread has its own generator, so parallel tests never contend. Random values are
+ * reproducible: a test's generator is seeded from the run's master seed and the test's identity
+ * (see {@link #reseed(String)}), and a run is replayed with {@code -DdataSeed=<seed>}. Identifiers
+ * ({@link #generateUniqueId()}, emails, UUIDs) are unique instead of reproducible: unique across
+ * threads within the JVM, and across JVM shards through the process id or {@code -Dshard=<n>}.
  */
+@Slf4j
 public class TestDataGenerator {
-    private static final Random random = new Random();
-    private static final String ALPHA_NUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-    private static final String SPECIAL_CHARS = "!@#$%^&*()_+-=[]{}|;:,.<>?";
-    
+    private static final byte[] ALPHA_NUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WITH_SPECIAL_CHARS = ("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789"
+            + "!@#$%^&*()_+-=[]{}|;:,.<>?").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DIGITS = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final int[] PHONE_DIGITS = {3, 4, 6, 7, 9, 10, 11};
+    // Identifiers are handed out to threads in blocks, so the shared counter is rarely touched
+    private static final int ID_BLOCK = 1024;
+
+    private static final long masterSeed = masterSeed();
+    private static final String idPrefix = idPrefix();
+    private static final AtomicLong nextIdBlock = new AtomicLong();
+    private static final AtomicLong threadSequence = new AtomicLong();
+    private static final ThreadLocal<Generator> generator = ThreadLocal.withInitial(
+            () -> new Generator(Seeds.mix(masterSeed, threadSequence.incrementAndGet())));
+
+    /**
+     * Get the master seed of this run
+     *
+     * @return Seed to pass as -DdataSeed to replay the generated data
+     */
+    public static long getMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * Restart the current thread's random values for a test, called when each test starts
+     * The same master seed and test identity always produce the same values
+     *
+     * @param testIdentity Stable name of the test invocation, e.g. class, method and parameters
+     */
+    public static void reseed(String testIdentity) {
+        generator.get().random = new SplittableRandom(Seeds.mix(masterSeed, Seeds.hash(testIdentity)));
+    }
+
     /**
-     * Generates a random email address
-     * 
-     * @return A random email address
+     * Generates an identifier that is unique across threads and JVM shards of the run
+     *
+     * @return A unique identifier of lowercase letters, digits and dashes
+     */
+    public static String generateUniqueId() {
+        Generator current = generator.get();
+        if (current.nextId == current.idLimit) {
+            current.nextId = nextIdBlock.getAndIncrement() * ID_BLOCK;
+            current.idLimit = current.nextId + ID_BLOCK;
+        }
+        return idPrefix + Long.toString(current.nextId++, 36);
+    }
+
+    /**
+     * Generates a unique email address
+     *
+     * @return A unique email address
      */
     public static String generateEmail() {
-        return "user" + System.currentTimeMillis() + "@example.com";
+        return "user" + generateUniqueId() + "@example.com";
     }
-    
+
     /**
      * Generates a random password
-     * 
+     *
      * @param length The length of the password
      * @param includeSpecialChars Whether to include special characters
      * @return A random password
      */
     public static String generatePassword(int length, boolean includeSpecialChars) {
-        StringBuilder password = new StringBuilder();
-        String chars = includeSpecialChars ? ALPHA_NUMERIC + SPECIAL_CHARS : ALPHA_NUMERIC;
-        
-        for (int i = 0; i < length; i++) {
-            password.append(chars.charAt(random.nextInt(chars.length())));
-        }
-        
-        return password.toString();
+        return randomString(length, includeSpecialChars ? WITH_SPECIAL_CHARS : ALPHA_NUMERIC);
     }
-    
+
     /**
      * Generates a random string
-     * 
+     *
      * @param length The length of the string
      * @return A random string
      */
     public static String generateString(int length) {
-        StringBuilder result = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            result.append(ALPHA_NUMERIC.charAt(random.nextInt(ALPHA_NUMERIC.length())));
-        }
-        return result.toString();
+        return randomString(length, ALPHA_NUMERIC);
     }
-    
+
     /**
      * Generates a random number between min and max (inclusive)
-     * 
+     *
      * @param min The minimum value
      * @param max The maximum value
      * @return A random number
      */
     public static int generateNumber(int min, int max) {
-        return random.nextInt(max - min + 1) + min;
+        return generator.get().random.nextInt(min, max + 1);
     }
-    
+
     /**
-     * Generates a random UUID
-     * 
+     * Generates a random UUID, unique rather than reproducible
+     *
      * @return A random UUID
      */
     public static String generateUUID() {
         return UUID.randomUUID().toString();
     }
-    
+
     /**
      * Generates a random boolean
-     * 
+     *
      * @return A random boolean
      */
     public static boolean generateBoolean() {
-        return random.nextBoolean();
+        return generator.get().random.nextBoolean();
     }
-    
+
     /**
      * Generates a random date in the future
-     * 
+     *
      * @param daysInFuture The number of days in the future
      * @return A random date in the future
      */
@@ -92,30 +136,73 @@ public class TestDataGenerator {
         long futureTime = currentTime + (daysInFuture * 24L * 60L * 60L * 1000L);
         return new java.util.Date(futureTime).toString();
     }
-    
+
     /**
      * Generates a random phone number
-     * 
+     *
      * @return A random phone number
      */
     public static String generatePhoneNumber() {
-        return String.format("+1%03d%03d%04d", 
-            generateNumber(100, 999),
-            generateNumber(100, 999),
-            generateNumber(1000, 9999));
+        SplittableRandom random = generator.get().random;
+        byte[] phone = new byte[12];
+        phone[0] = '+';
+        phone[1] = '1';
+        // Area code and exchange start with 1-9, like the previous 100-999 ranges
+        phone[2] = DIGITS[random.nextInt(1, 10)];
+        phone[5] = DIGITS[random.nextInt(1, 10)];
+        phone[8] = DIGITS[random.nextInt(1, 10)];
+        for (int i : PHONE_DIGITS) {
+            phone[i] = DIGITS[random.nextInt(10)];
+        }
+        return new String(phone, StandardCharsets.US_ASCII);
     }
-    
+
     /**
      * Generates a random address
-     * 
+     *
      * @return A random address
      */
     public static String generateAddress() {
-        return String.format("%d %s %s, %s %s",
-            generateNumber(1, 9999),
-            generateString(10),
-            generateString(8),
-            generateString(10),
-            generateNumber(10000, 99999));
-    }
-} 
\ No newline at end of file
+        return new StringBuilder(48)
+                .append(generateNumber(1, 9999)).append(' ')
+                .append(generateString(10)).append(' ')
+                .append(generateString(8)).append(", ")
+                .append(generateString(10)).append(' ')
+                .append(generateNumber(10000, 99999))
+                .toString();
+    }
+
+    private static String randomString(int length, byte[] alphabet) {
+        SplittableRandom random = generator.get().random;
+        byte[] chars = new byte[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet[random.nextInt(alphabet.length)];
+        }
+        return new String(chars, StandardCharsets.US_ASCII);
+    }
+
+    private static long masterSeed() {
+        Long configured = Long.getLong("dataSeed");
+        long seed = configured != null ? configured : new SplittableRandom().nextLong();
+        log.info("Test data seed: {} (replay with -DdataSeed={})", seed, seed);
+        return seed;
+    }
+
+    /**
+     * Run start and shard make the identifiers of this JVM differ from other runs and shards
+     */
+    private static String idPrefix() {
+        long shard = Long.getLong("shard", ProcessHandle.current().pid());
+        return Long.toString(System.currentTimeMillis(), 36) + "-" + Long.toString(shard, 36) + "-";
+    }
+
+    private static final class Generator {
+        private SplittableRandom random;
+        private long nextId;
+        private long idLimit;
+
+        private Generator(long seed) {
+            this.random = new SplittableRandom(seed);
+        }
+    }
+}
@@ -1,20 +1,27 @@
 package io.github.mypixelquest.pja.data;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * Manages test data loading and access from various sources (YAML, JSON, CSV)
@@ -22,7 +29,8 @@ import java.util.Map;
 @Slf4j
 public class TestDataManager {
     private static final String DATA_DIR = "src/test/resources/data";
-    private static final Map<String, Object> dataCache = new HashMap<>();
+    private static final DataCache dataCache = createCache();
+    private static final Map<String, DataLeasePool> leasePools = new ConcurrentHashMap<>();
     
     private final ObjectMapper yamlMapper;
     private final ObjectMapper jsonMapper;
@@ -47,26 +55,8 @@ public class TestDataManager {
      * @param fileName The name of the YAML file
      * @return The loaded data as a Map
      */
-    @SuppressWarnings("unchecked")
     public Map<String, Object> loadYamlData(String fileName) {
-        String cacheKey = "yaml:" + fileName;
-        if (dataCache.containsKey(cacheKey)) {
-            return (Map<String, Object>) dataCache.get(cacheKey);
-        }
-        
-        try {
-            Path filePath = Paths.get(DATA_DIR, environment, fileName);
-            if (!Files.exists(filePath)) {
-                filePath = Paths.get(DATA_DIR, fileName);
-            }
-            
-            Map<String, Object> data = yamlMapper.readValue(filePath.toFile(), Map.class);
-            dataCache.put(cacheKey, data);
-            return data;
-        } catch (IOException e) {
-            log.error("Failed to load YAML data from file: {}", fileName, e);
-            throw new RuntimeException("Failed to load YAML data", e);
-        }
+        return load("yaml", fileName);
     }
     
     /**
@@ -75,67 +65,199 @@ public class TestDataManager {
      * @param fileName The name of the JSON file
      * @return The loaded data as a Map
      */
-    @SuppressWarnings("unchecked")
     public Map<String, Object> loadJsonData(String fileName) {
-        String cacheKey = "json:" + fileName;
-        if (dataCache.containsKey(cacheKey)) {
-            return (Map<String, Object>) dataCache.get(cacheKey);
+        return load("json", fileName);
+    }
+    
+    /**
+     * Loads data from a CSV file
+     * 
+     * @param fileName The name of the CSV file
+     * @return The loaded data as a Map with a "data" key containing a list of rows
+     */
+    public Map<String, Object> loadCsvData(String fileName) {
+        return load("csv", fileName);
+    }
+    
+    /**
+     * Loads the rows of a CSV file into a queryable, column-oriented table
+     * 
+     * @param fileName The name of the CSV file
+     * @return The cached table, indexes are built on the first query that needs them
+     */
+    public DataTable loadTable(String fileName) {
+        return loadTable(fileName, "data");
+    }
+    
+    /**
+     * Loads a list of objects from a data file into a queryable, column-oriented table
+     * 
+     * @param fileName The name of the YAML, JSON or CSV file
+     * @param path The path to the list (e.g., "orders"), "data" for CSV rows
+     * @return The cached table, indexes are built on the first query that needs them
+     */
+    public DataTable loadTable(String fileName, String path) {
+        Path filePath = resolve(fileName);
+        String format = formatOf(filePath);
+        if (format == null) {
+            throw new IllegalArgumentException("Unsupported data file: " + fileName);
         }
         
-        try {
-            Path filePath = Paths.get(DATA_DIR, environment, fileName);
-            if (!Files.exists(filePath)) {
-                filePath = Paths.get(DATA_DIR, fileName);
+        // Cached apart from the parsed file, so a table holds only its columns
+        DataCache.Key cacheKey = new DataCache.Key(environment, format + "-table:" + path, filePath);
+        return dataCache.get(cacheKey, file -> {
+            List<Object> records = DataPath.compile(path).getList(read(format, fileName, file));
+            if (records == null) {
+                throw new IllegalArgumentException("No list at " + path + " in " + fileName);
+            }
+            return DataTable.of(fileName, records);
+        });
+    }
+    
+    /**
+     * Leases a record of a pool declared under "pools" in a data file, e.g. one of several admin accounts
+     * The record is exclusive to the caller across threads and JVMs of the run until the lease is closed
+     * 
+     * @param fileName The name of the YAML or JSON file
+     * @param pool The pool name (e.g., "admins")
+     * @return The lease, to close when the test no longer uses the record
+     */
+    public DataLease lease(String fileName, String pool) {
+        return leasePool(fileName, pool).lease();
+    }
+    
+    /**
+     * Gets the pool of interchangeable records declared under "pools" in a data file
+     * The pool is shared by all instances and keeps the records read when it was first used
+     * 
+     * @param fileName The name of the YAML or JSON file
+     * @param pool The pool name (e.g., "admins")
+     * @return The lease pool
+     */
+    public DataLeasePool leasePool(String fileName, String pool) {
+        Path filePath = resolve(fileName);
+        String key = environment + ":" + filePath.toAbsolutePath().normalize() + "#" + pool;
+        return leasePools.computeIfAbsent(key, ignored -> {
+            String format = formatOf(filePath);
+            if (format == null) {
+                throw new IllegalArgumentException("Unsupported data file: " + fileName);
+            }
+            List<Object> records = DataPath.compile("pools." + pool).getList(load(format, fileName));
+            if (records == null) {
+                throw new IllegalArgumentException("No pool " + pool + " in " + fileName);
             }
             
-            Map<String, Object> data = jsonMapper.readValue(filePath.toFile(), Map.class);
-            dataCache.put(cacheKey, data);
-            return data;
-        } catch (IOException e) {
-            log.error("Failed to load JSON data from file: {}", fileName, e);
-            throw new RuntimeException("Failed to load JSON data", e);
-        }
+            ConfigModel.DataLeaseConfig config = Optional
+                    .ofNullable(ConfigReader.getInstance().copyConfig().getDataLease())
+                    .orElseGet(ConfigModel.DataLeaseConfig::new);
+            // Named after the resolved path, data files of the same name in other directories are other pools
+            Path absolutePath = filePath.toAbsolutePath().normalize();
+            String baseName = filePath.getFileName().toString().replaceFirst("\\.[^.]+$", "");
+            Path lockFile = Paths.get(config.getLockDir(), environment + "-" + baseName + "-" + pool + "-"
+                    + Long.toHexString(Seeds.hash(absolutePath.toString())) + ".lock");
+            return new DataLeasePool(pool, records, lockFile,
+                    config.getLeaseSeconds() * 1000L, config.getWaitSeconds() * 1000L);
+        });
     }
     
     /**
-     * Loads data from a CSV file
+     * Streams the rows of a CSV file for a TestNG data provider
+     * Rows are read on demand and are not cached, so large files use constant memory
      * 
      * @param fileName The name of the CSV file
-     * @return The loaded data as a Map with a "data" key containing a list of rows
+     * @param columns Columns passed as test parameters, or none to pass each row as a Map
+     * @return Lazy data provider rows
+     */
+    public RowIterator<Map<String, String>> streamCsvRows(String fileName, String... columns) {
+        return streamCsvRows(fileName, row -> true, columns);
+    }
+    
+    /**
+     * Streams the rows of a CSV file for a TestNG data provider, skipping rows while reading
+     * 
+     * @param fileName The name of the CSV file
+     * @param filter Condition on the full row (column name to value)
+     * @param columns Columns passed as test parameters, or none to pass each row as a Map
+     * @return Lazy data provider rows
      */
     @SuppressWarnings("unchecked")
-    public Map<String, Object> loadCsvData(String fileName) {
-        String cacheKey = "csv:" + fileName;
-        if (dataCache.containsKey(cacheKey)) {
-            return (Map<String, Object>) dataCache.get(cacheKey);
+    public RowIterator<Map<String, String>> streamCsvRows(String fileName, Predicate<? super Map<String, String>> filter,
+                                                         String... columns) {
+        try {
+            MappingIterator<Map<String, String>> rows = csvMapper.readerFor(Map.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(resolve(fileName).toFile());
+            RowIterator.RowSource<Map<String, String>> source = new RowIterator.RowSource<>() {
+                @Override
+                public Map<String, String> read() throws IOException {
+                    return rows.hasNextValue() ? rows.nextValue() : null;
+                }
+                
+                @Override
+                public void close() throws IOException {
+                    rows.close();
+                }
+            };
+            return new RowIterator<>(fileName, source, filter, columns);
+        } catch (IOException e) {
+            log.error("Failed to open CSV data file: {}", fileName, e);
+            throw new RuntimeException("Failed to open CSV data", e);
         }
-        
+    }
+    
+    /**
+     * Streams the elements of a JSON array for a TestNG data provider
+     * Elements are parsed on demand and are not cached, so large files use constant memory
+     * 
+     * @param fileName The name of the JSON file
+     * @param arrayField Top-level field holding the array (e.g. "orders"), or null if the root is an array
+     * @param columns Fields passed as test parameters, or none to pass each element as a Map
+     * @return Lazy data provider rows
+     */
+    public RowIterator<Map<String, Object>> streamJsonRows(String fileName, String arrayField, String... columns) {
+        return streamJsonRows(fileName, arrayField, row -> true, columns);
+    }
+    
+    /**
+     * Streams the elements of a JSON array for a TestNG data provider, skipping elements while reading
+     * 
+     * @param fileName The name of the JSON file
+     * @param arrayField Top-level field holding the array (e.g. "orders"), or null if the root is an array
+     * @param filter Condition on the full element
+     * @param columns Fields passed as test parameters, or none to pass each element as a Map
+     * @return Lazy data provider rows
+     */
+    public RowIterator<Map<String, Object>> streamJsonRows(String fileName, String arrayField,
+                                                           Predicate<? super Map<String, Object>> filter,
+                                                           String... columns) {
         try {
-            Path filePath = Paths.get(DATA_DIR, environment, fileName);
-            if (!Files.exists(filePath)) {
-                filePath = Paths.get(DATA_DIR, fileName);
+            JsonParser parser = jsonMapper.getFactory().createParser(resolve(fileName).toFile());
+            try {
+                moveToArray(parser, arrayField, fileName);
+            } catch (IOException | RuntimeException e) {
+                parser.close();
+                throw e;
             }
-            
-            // Create schema with headers auto-detected
-            CsvSchema csvSchema = CsvSchema.emptySchema().withHeader();
-            
-            // Read CSV data into a list of maps (each map is a row)
-            MappingIterator<Map<String, String>> mappingIterator = 
-                csvMapper.readerFor(Map.class)
-                         .with(csvSchema)
-                         .readValues(filePath.toFile());
-            
-            List<Map<String, String>> rows = mappingIterator.readAll();
-            
-            // Create a map with a "data" key containing all the rows
-            Map<String, Object> data = new HashMap<>();
-            data.put("data", rows);
-            
-            dataCache.put(cacheKey, data);
-            return data;
+            RowIterator.RowSource<Map<String, Object>> source = new RowIterator.RowSource<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Map<String, Object> read() throws IOException {
+                    JsonToken token = parser.nextToken();
+                    if (token == null || token == JsonToken.END_ARRAY) {
+                        return null;
+                    }
+                    return jsonMapper.readValue(parser, Map.class);
+                }
+                
+                @Override
+                public void close() throws IOException {
+                    parser.close();
+                }
+            };
+            return new RowIterator<>(fileName, source, filter, columns);
         } catch (IOException e) {
-            log.error("Failed to load CSV data from file: {}", fileName, e);
-            throw new RuntimeException("Failed to load CSV data", e);
+            log.error("Failed to open JSON data file: {}", fileName, e);
+            throw new RuntimeException("Failed to open JSON data", e);
         }
     }
     
@@ -143,23 +265,56 @@ public class TestDataManager {
      * Gets a specific value from the loaded data
      * 
      * @param data The data map
-     * @param path The path to the value (e.g., "users.admin.username")
-     * @return The value at the specified path
+     * @param path The path to the value (e.g., "users.admin.username" or "orders[0].customer.email")
+     * @return The value at the specified path, null if it is missing
+     * @see DataPath
      */
-    @SuppressWarnings("unchecked")
     public Object getValue(Map<String, Object> data, String path) {
-        String[] keys = path.split("\\.");
-        Object current = data;
-        
-        for (String key : keys) {
-            if (current instanceof Map) {
-                current = ((Map<String, Object>) current).get(key);
-            } else {
-                throw new RuntimeException("Invalid path: " + path);
-            }
-        }
-        
-        return current;
+        return DataPath.compile(path).get(data);
+    }
+
+    /**
+     * Gets a value from the loaded data as text
+     *
+     * @param data The data map
+     * @param path The path to the value
+     * @return The value as a String, null if it is missing
+     */
+    public String getString(Map<String, Object> data, String path) {
+        return DataPath.compile(path).getString(data);
+    }
+
+    /**
+     * Gets a numeric value from the loaded data, parsing text values such as CSV fields
+     *
+     * @param data The data map
+     * @param path The path to the value
+     * @return The numeric value
+     */
+    public double getDouble(Map<String, Object> data, String path) {
+        return DataPath.compile(path).getDouble(data);
+    }
+
+    /**
+     * Gets an integral value from the loaded data, parsing text values such as CSV fields
+     *
+     * @param data The data map
+     * @param path The path to the value
+     * @return The integral value
+     */
+    public long getLong(Map<String, Object> data, String path) {
+        return DataPath.compile(path).getLong(data);
+    }
+
+    /**
+     * Gets a list from the loaded data
+     *
+     * @param data The data map
+     * @param path The path to the list, or a [*] projection (e.g., "orders[*].id")
+     * @return The list, null if it is missing
+     */
+    public List<Object> getList(Map<String, Object> data, String path) {
+        return DataPath.compile(path).getList(data);
     }
     
     /**
@@ -168,4 +323,140 @@ public class TestDataManager {
     public void clearCache() {
         dataCache.clear();
     }
+    
+    /**
+     * Get the statistics of the data cache shared by all instances
+     * 
+     * @return Cache statistics since the start of the run
+     */
+    public static DataCache.CacheStats cacheStats() {
+        return dataCache.stats();
+    }
+    
+    /**
+     * Parses a data file with Jackson
+     * The data snapshot compiler uses the same parsing, so snapshot values match exactly
+     * 
+     * @param format yaml, json or csv
+     * @param filePath The data file
+     * @return The parsed data, CSV rows are under a "data" key
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> parse(String format, Path filePath) throws IOException {
+        switch (format) {
+            case "yaml":
+                return yamlMapper.readValue(filePath.toFile(), Map.class);
+            case "json":
+                return jsonMapper.readValue(filePath.toFile(), Map.class);
+            case "csv":
+                // Create schema with headers auto-detected
+                CsvSchema csvSchema = CsvSchema.emptySchema().withHeader();
+                
+                // Read CSV data into a list of maps (each map is a row)
+                MappingIterator<Map<String, String>> mappingIterator = 
+                    csvMapper.readerFor(Map.class)
+                             .with(csvSchema)
+                             .readValues(filePath.toFile());
+                
+                List<Map<String, String>> rows = mappingIterator.readAll();
+                
+                // Create a map with a "data" key containing all the rows
+                Map<String, Object> data = new HashMap<>();
+                data.put("data", rows);
+                return data;
+            default:
+                throw new IllegalArgumentException("Unsupported data format: " + format);
+        }
+    }
+    
+    /**
+     * Get the data format of a file from its extension
+     * 
+     * @param file The data file
+     * @return yaml, json or csv, null for other files
+     */
+    static String formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+            return "yaml";
+        }
+        if (name.endsWith(".json")) {
+            return "json";
+        }
+        return name.endsWith(".csv") ? "csv" : null;
+    }
+    
+    /**
+     * Load a data file through the cache, from the data snapshot if it is up to date
+     */
+    private Map<String, Object> load(String format, String fileName) {
+        DataCache.Key cacheKey = new DataCache.Key(environment, format, resolve(fileName));
+        return dataCache.get(cacheKey, filePath -> read(format, fileName, filePath));
+    }
+    
+    /**
+     * Read a data file from the data snapshot if it is up to date, otherwise parse it
+     */
+    private Map<String, Object> read(String format, String fileName, Path filePath) {
+        return DataSnapshot.shared()
+                .flatMap(snapshot -> snapshot.find(Paths.get(DATA_DIR), filePath))
+                .orElseGet(() -> {
+                    try {
+                        return parse(format, filePath);
+                    } catch (IOException e) {
+                        String type = format.toUpperCase(Locale.ROOT);
+                        log.error("Failed to load {} data from file: {}", type, fileName, e);
+                        throw new RuntimeException("Failed to load " + type + " data", e);
+                    }
+                });
+    }
+    
+    /**
+     * Resolve a data file, preferring the environment-specific directory
+     * Absolute paths (e.g. generated files) are used as they are
+     */
+    private Path resolve(String fileName) {
+        if (Paths.get(fileName).isAbsolute()) {
+            return Paths.get(fileName);
+        }
+        
+        Path filePath = Paths.get(DATA_DIR, environment, fileName);
+        if (!Files.exists(filePath)) {
+            filePath = Paths.get(DATA_DIR, fileName);
+        }
+        return filePath;
+    }
+    
+    /**
+     * Position the parser on the start of the array to stream
+     */
+    private static void moveToArray(JsonParser parser, String arrayField, String fileName) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (arrayField == null) {
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Root of " + fileName + " is not an array");
+            }
+            return;
+        }
+        
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Root of " + fileName + " is not an object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            token = parser.nextToken();
+            if (field.equals(arrayField) && token == JsonToken.START_ARRAY) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw new IllegalArgumentException("No array field " + arrayField + " in " + fileName);
+    }
+    
+    private static DataCache createCache() {
+        ConfigModel.DataCacheConfig config = Optional
+                .ofNullable(ConfigReader.getInstance().copyConfig().getDataCache())
+                .orElseGet(ConfigModel.DataCacheConfig::new);
+        return new DataCache(config.getMaxEntries(), config.getMaxMegabytes() * 1024L * 1024L);
+    }
 }
\ No newline at end of file
@@ -6,10 +6,18 @@ import org.slf4j.LoggerFactory;
 import org.testng.IAlterSuiteListener;
 import org.testng.xml.XmlSuite;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Properties;
 
 /**
  * TestNG listener that configures test parameters based on YAML configuration
+ * The resolved configuration is also written to the Allure results as the report's environment
  */
 public class ConfigurationListener implements IAlterSuiteListener {
     private static final Logger log = LoggerFactory.getLogger(ConfigurationListener.class);
@@ -20,18 +28,50 @@ public class ConfigurationListener implements IAlterSuiteListener {
         for (XmlSuite suite : suites) {
             configureSuiteParameters(suite);
         }
+        writeAllureEnvironment();
     }
 
     private void configureSuiteParameters(XmlSuite suite) {
-        var browser = configReader.getConfig().getBrowser();
-        var environment = configReader.getConfig().getEnvironment();
+        var config = configReader.copyConfig();
+        var browser = config.getBrowser();
+        var environment = config.getEnvironment();
 
         // Set parameters from YAML configuration
         suite.getParameters().put("browser", browser.getType());
         suite.getParameters().put("headless", String.valueOf(browser.isHeadless()));
         suite.getParameters().put("environment", environment.getName());
 
-        log.info("Configured suite parameters from YAML - browser: {}, headless: {}, environment: {}", 
+        log.info("Configured suite parameters from YAML - browser: {}, headless: {}, environment: {}",
                 browser.getType(), browser.isHeadless(), environment.getName());
     }
-}
\ No newline at end of file
+
+    /**
+     * Write the values that make a run reproducible, with the layer that supplied each of them
+     */
+    private void writeAllureEnvironment() {
+        String resultsDir = System.getProperty("allure.results.directory");
+        if (resultsDir == null) {
+            return;
+        }
+        Properties environment = new Properties();
+        environment.setProperty("environment", configReader.getEnvironment());
+        environment.setProperty("baseUrl", configReader.getBaseUrl());
+        environment.setProperty("browser", String.join(", ", configReader.getBrowserTypes()));
+        environment.setProperty("headless", String.valueOf(configReader.isHeadless()));
+        configReader.getSources().forEach((path, source) -> {
+            if (!source.startsWith("config/")) {
+                environment.setProperty("override." + path, source);
+            }
+        });
+
+        Path file = Paths.get(resultsDir, "environment.properties");
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                environment.store(writer, null);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write the Allure environment to {}", file, e);
+        }
+    }
+}
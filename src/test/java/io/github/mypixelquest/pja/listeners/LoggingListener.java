@@ -0,0 +1,74 @@
+package io.github.mypixelquest.pja.listeners;
+
+import io.github.mypixelquest.pja.logging.TestLogBufferAppender;
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TestNG listener that tags log events with the running test and attaches
+ * the buffered log of a test to the Allure report only when it fails
+ */
+public class LoggingListener implements ITestListener {
+    private static final Logger log = LoggerFactory.getLogger(LoggingListener.class);
+    private static final AtomicLong invocationCounter = new AtomicLong();
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        // Retries get their own id so each attempt has its own buffer
+        String testId = result.getTestClass().getRealClass().getSimpleName() + "."
+                + result.getMethod().getMethodName() + "#" + invocationCounter.incrementAndGet();
+        result.setAttribute(TestLogBufferAppender.MDC_KEY, testId);
+        MDC.put(TestLogBufferAppender.MDC_KEY, testId);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finish(result, false);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finish(result, true);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        finish(result, false);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        finish(result, false);
+    }
+
+    private void finish(ITestResult result, boolean attach) {
+        Object testId = result.getAttribute(TestLogBufferAppender.MDC_KEY);
+        MDC.remove(TestLogBufferAppender.MDC_KEY);
+        if (testId == null) {
+            return;
+        }
+
+        if (!attach) {
+            TestLogBufferAppender.discard(testId.toString());
+            return;
+        }
+
+        TestLogBufferAppender.drain(testId.toString()).ifPresent(content -> {
+            log.debug("Attaching {} characters of log output for test: {}", content.length(), result.getName());
+            Allure.addAttachment(
+                result.getName() + "_log",
+                "text/plain",
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                "log"
+            );
+        });
+    }
+}
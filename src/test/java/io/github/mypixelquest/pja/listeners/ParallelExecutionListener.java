@@ -1,30 +1,56 @@
 package io.github.mypixelquest.pja.listeners;
 
+import io.github.mypixelquest.pja.base.BaseTest;
 import io.github.mypixelquest.pja.utils.ConfigReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlPackage;
 import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * TestNG listener that configures parallel execution based on configuration settings
+ * With a browser matrix (browser.types), each test that holds browser tests is split into one
+ * test per browser with its own worker pool, and the browsers run concurrently
  */
 public class ParallelExecutionListener implements IAlterSuiteListener {
     private static final Logger log = LoggerFactory.getLogger(ParallelExecutionListener.class);
-    private final ConfigReader configReader = ConfigReader.getInstance();
+    private final ConfigReader configReader;
+
+    public ParallelExecutionListener() {
+        this(ConfigReader.getInstance());
+    }
+
+    /**
+     * Creates the listener for a given configuration
+     *
+     * @param configReader Resolved configuration, e.g. from {@link ConfigReader#resolve}
+     */
+    public ParallelExecutionListener(ConfigReader configReader) {
+        this.configReader = configReader;
+    }
 
     @Override
     public void alter(List<XmlSuite> suites) {
         for (XmlSuite suite : suites) {
             configureParallelExecution(suite);
+            if (configReader.getBrowserTypes().size() > 1) {
+                configureBrowserMatrix(suite);
+            }
         }
     }
 
     private void configureParallelExecution(XmlSuite suite) {
-        var testExecution = configReader.getConfig().getTestExecution();
-        
+        var testExecution = configReader.copyConfig().getTestExecution();
+
         if (testExecution != null && testExecution.isParallel()) {
             log.info("Enabling parallel execution with {} threads", testExecution.getThreadCount());
             suite.setParallel(XmlSuite.ParallelMode.METHODS);
@@ -33,5 +59,93 @@ public class ParallelExecutionListener implements IAlterSuiteListener {
             log.info("Parallel execution is disabled");
             suite.setParallel(XmlSuite.ParallelMode.NONE);
         }
+
+        if (testExecution != null && testExecution.getDataProviderThreadCount() > 0) {
+            log.info("Running parallel data providers with {} threads", testExecution.getDataProviderThreadCount());
+            suite.setDataProviderThreadCount(testExecution.getDataProviderThreadCount());
+        }
+    }
+
+    /**
+     * Split the browser tests of each test into one test per browser, the other classes run once
+     * The browser tests share threadCount workers per browser, divided by the browser weights
+     */
+    private void configureBrowserMatrix(XmlSuite suite) {
+        List<String> browsers = configReader.getBrowserTypes();
+        boolean parallel = suite.getParallel() != XmlSuite.ParallelMode.NONE;
+        int threadCount = Math.max(1, suite.getThreadCount());
+        Map<String, Integer> workers = workers(browsers, threadCount * browsers.size());
+
+        List<XmlTest> originals = new ArrayList<>(suite.getTests());
+        suite.getTests().clear();
+        for (XmlTest original : originals) {
+            List<XmlClass> browserClasses = new ArrayList<>();
+            List<XmlClass> otherClasses = new ArrayList<>();
+            for (XmlClass xmlClass : classesOf(original)) {
+                boolean browserTest = BaseTest.class.isAssignableFrom(xmlClass.getSupportClass());
+                (browserTest ? browserClasses : otherClasses).add(xmlClass);
+            }
+            if (browserClasses.isEmpty()) {
+                suite.getTests().add(original);
+                continue;
+            }
+            if (!otherClasses.isEmpty()) {
+                copy(suite, original, original.getName(), Map.of(), otherClasses, parallel, threadCount);
+            }
+            for (String browser : browsers) {
+                copy(suite, original, original.getName() + " [" + browser + "]", Map.of("browser", browser),
+                        browserClasses, parallel, workers.get(browser));
+            }
+        }
+
+        // Every test gets its own thread, the browsers run side by side
+        suite.setParallel(parallel ? XmlSuite.ParallelMode.TESTS : XmlSuite.ParallelMode.NONE);
+        suite.setThreadCount(suite.getTests().size());
+        log.info("Running browser matrix {} with workers {}", browsers, parallel ? workers : "disabled");
+    }
+
+    /**
+     * Divide the workers by the browser weights, every browser gets at least one
+     */
+    private Map<String, Integer> workers(List<String> browsers, int total) {
+        double totalWeight = browsers.stream().mapToDouble(configReader::getBrowserWeight).sum();
+        Map<String, Integer> workers = new LinkedHashMap<>();
+        for (String browser : browsers) {
+            long share = Math.round(total * configReader.getBrowserWeight(browser) / totalWeight);
+            workers.put(browser, (int) Math.max(1, share));
+        }
+        return workers;
+    }
+
+    private static List<XmlClass> classesOf(XmlTest test) {
+        List<XmlClass> classes = new ArrayList<>(test.getXmlClasses());
+        for (XmlPackage xmlPackage : test.getXmlPackages()) {
+            classes.addAll(xmlPackage.getXmlClasses());
+        }
+        return classes;
+    }
+
+    private static void copy(XmlSuite suite, XmlTest original, String name, Map<String, String> parameters,
+                             List<XmlClass> classes, boolean parallel, int threadCount) {
+        XmlTest copy = new XmlTest(suite); // adds itself to the suite
+        copy.setName(name);
+        Map<String, String> allParameters = new HashMap<>(original.getLocalParameters());
+        allParameters.putAll(parameters);
+        copy.setParameters(allParameters);
+        copy.setIncludedGroups(original.getIncludedGroups());
+        copy.setExcludedGroups(original.getExcludedGroups());
+        copy.setPreserveOrder(original.getPreserveOrder());
+        if (original.getTimeOut() != null) {
+            copy.setTimeOut(Long.parseLong(original.getTimeOut()));
+        }
+        List<XmlClass> copies = new ArrayList<>();
+        for (XmlClass xmlClass : classes) {
+            XmlClass classCopy = (XmlClass) xmlClass.clone();
+            classCopy.setXmlTest(copy);
+            copies.add(classCopy);
+        }
+        copy.setXmlClasses(copies);
+        copy.setParallel(parallel ? XmlSuite.ParallelMode.METHODS : XmlSuite.ParallelMode.NONE);
+        copy.setThreadCount(threadCount);
     }
-}
\ No newline at end of file
+}
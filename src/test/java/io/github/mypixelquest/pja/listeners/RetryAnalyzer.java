@@ -1,34 +1,63 @@
 package io.github.mypixelquest.pja.listeners;
 
+import io.github.mypixelquest.pja.base.BaseTest;
 import io.github.mypixelquest.pja.utils.ConfigReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.IRetryAnalyzer;
 import org.testng.ITestResult;
 
+import java.util.function.BooleanSupplier;
+
 /**
  * TestNG retry analyzer that handles test retries based on configuration
+ * A test whose browser crashed is re-run on a relaunched browser, even with retries disabled
+ * A test stopped by the watchdog lost its browser on purpose and is not re-run as a crash
  */
 public class RetryAnalyzer implements IRetryAnalyzer {
     private static final Logger log = LoggerFactory.getLogger(RetryAnalyzer.class);
-    private final ConfigReader configReader = ConfigReader.getInstance();
+    private final ConfigReader configReader;
+    private final BooleanSupplier browserLost;
     private int retryCount = 0;
+    private int crashRetryCount = 0;
+
+    /**
+     * Creates the analyzer TestNG attaches to each test, using the run's configuration
+     */
+    public RetryAnalyzer() {
+        this(ConfigReader.getInstance(), BaseTest::isBrowserLost);
+    }
+
+    /**
+     * Creates an analyzer with its own configuration and crash check
+     *
+     * @param configReader Configuration of the retry limits
+     * @param browserLost Tells whether the current thread's browser was lost during the test
+     */
+    public RetryAnalyzer(ConfigReader configReader, BooleanSupplier browserLost) {
+        this.configReader = configReader;
+        this.browserLost = browserLost;
+    }
 
     @Override
     public boolean retry(ITestResult result) {
-        var retryConfig = configReader.getConfig().getRetry();
-        if (retryConfig == null || !retryConfig.isEnabled()) {
-            return false;
+        boolean stopped = result.getAttribute(WatchdogListener.STOPPED_ATTRIBUTE) != null;
+        if (!stopped && result.getInstance() instanceof BaseTest && browserLost.getAsBoolean()
+                && crashRetryCount < configReader.getMaxCrashRetries()) {
+            crashRetryCount++;
+            log.warn("Re-running test '{}' after a browser crash", result.getName());
+            return true;
         }
 
-        if (retryCount < retryConfig.getMaxRetries()) {
+        if (retryCount < configReader.getMaxRetries()) {
             retryCount++;
             log.info("Retrying test '{}' for the {} time", result.getName(), retryCount);
             
             // Wait between retries if configured
-            if (retryConfig.getDelayBetweenRetries() > 0) {
+            long delay = configReader.getRetryDelay();
+            if (delay > 0) {
                 try {
-                    Thread.sleep(retryConfig.getDelayBetweenRetries());
+                    Thread.sleep(delay);
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     log.warn("Retry delay was interrupted", e);
@@ -40,4 +69,4 @@ public class RetryAnalyzer implements IRetryAnalyzer {
         
         return false;
     }
-}
\ No newline at end of file
+}
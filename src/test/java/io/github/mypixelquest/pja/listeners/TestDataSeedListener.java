@@ -0,0 +1,34 @@
+package io.github.mypixelquest.pja.listeners;
+
+import io.github.mypixelquest.pja.data.TestDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+
+/**
+ * TestNG listener that seeds the generated test data of each test from the run's master seed
+ * and the test's identity, so a failing test gets the same data when the run is replayed
+ */
+public class TestDataSeedListener implements ITestListener {
+    private static final Logger log = LoggerFactory.getLogger(TestDataSeedListener.class);
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        TestDataGenerator.reseed(identity(result));
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        log.info("Replay the test data of {} with -DdataSeed={}", identity(result), TestDataGenerator.getMasterSeed());
+    }
+
+    /**
+     * Class, method and parameters identify an invocation independently of thread and execution order
+     */
+    private static String identity(ITestResult result) {
+        return result.getMethod().getQualifiedName() + Arrays.deepToString(result.getParameters());
+    }
+}
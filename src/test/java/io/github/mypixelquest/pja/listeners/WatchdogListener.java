@@ -0,0 +1,309 @@
+package io.github.mypixelquest.pja.listeners;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import io.github.mypixelquest.pja.base.BaseTest;
+import io.github.mypixelquest.pja.base.TestDeadline;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.logging.TestLogBufferAppender;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * TestNG listener that stops test methods running past their deadline.
+ * A watchdog thread tracks every running test against its {@link TestDeadline} plus a grace
+ * period, or watchdog.timeoutSeconds without one. On expiry it captures a thread dump and the
+ * test's last log lines, then kills the test's browser processes if the thread is blocked in
+ * Playwright, or interrupts it otherwise, so the test fails and the worker moves on.
+ * The watchdog never calls Playwright itself: Playwright objects may only be used by one thread
+ * at a time, the screenshot is taken by the test's thread once it returns.
+ */
+public class WatchdogListener implements IInvokedMethodListener {
+    private static final Logger log = LoggerFactory.getLogger(WatchdogListener.class);
+    // Set on the result of a stopped test, which is not re-run as a browser crash
+    public static final String STOPPED_ATTRIBUTE = "pja.watchdog.stopped";
+    // Time killed browsers get to unblock the test before the thread is interrupted
+    private static final long INTERRUPT_DELAY_MS = 1000;
+    private static final double SCREENSHOT_TIMEOUT_MS = 5000;
+    // Maximum wait of a returning test for the watchdog to finish its capture
+    private static final long CAPTURE_WAIT_MS = 30000;
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pja-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ThreadLocal<Watch> current = new ThreadLocal<>();
+
+    private final ConfigModel.WatchdogConfig config;
+
+    public WatchdogListener() {
+        this(Optional.ofNullable(ConfigReader.getInstance().copyConfig().getWatchdog())
+                .orElseGet(ConfigModel.WatchdogConfig::new));
+    }
+
+    /**
+     * Creates the listener for a given configuration
+     *
+     * @param config Watchdog configuration
+     */
+    public WatchdogListener(ConfigModel.WatchdogConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        if (!config.isEnabled() || !method.isTestMethod()) {
+            return;
+        }
+
+        long timeoutMillis = TestDeadline.current()
+                .map(deadline -> Math.max(0, deadline.remainingMillis()) + config.getGraceSeconds() * 1000L)
+                .orElse(config.getTimeoutSeconds() * 1000L);
+        Runnable browserKill = result.getInstance() instanceof BaseTest test
+                ? test.prepareBrowserKill().orElse(null)
+                : null;
+        current.set(watch(result.getTestClass().getRealClass().getSimpleName() + "." + result.getName(),
+                timeoutMillis, browserKill,
+                () -> Objects.toString(result.getAttribute(TestLogBufferAppender.MDC_KEY), null)));
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        Watch watch = current.get();
+        if (watch == null || !method.isTestMethod()) {
+            return;
+        }
+        current.remove();
+
+        if (watch.finish()) {
+            if (result.getInstance() instanceof BaseTest test) {
+                test.getCurrentPage().filter(page -> !page.isClosed()).ifPresent(page -> screenshot(page, watch));
+            }
+            attach(result.getName(), watch);
+            result.setAttribute(STOPPED_ATTRIBUTE, true);
+            result.setThrowable(new RuntimeException("Test exceeded its deadline of " + watch.timeoutMillis
+                    + " ms and was stopped by the watchdog", result.getThrowable()));
+            result.setStatus(ITestResult.FAILURE);
+        }
+    }
+
+    /**
+     * Start watching the current thread
+     *
+     * @param name Test name for logs and dump files
+     * @param timeoutMillis Time the test may run from now
+     * @param browserKill Kills the test's browser processes on expiry, or null
+     * @param testId Supplies the id the test's log lines are buffered under, or null
+     * @return The watch, to {@link Watch#finish() finish} when the test returns
+     */
+    public Watch watch(String name, long timeoutMillis, Runnable browserKill, Supplier<String> testId) {
+        Watch watch = new Watch(Thread.currentThread(), name, timeoutMillis, browserKill, testId);
+        watch.future = scheduler.schedule(() -> expire(watch), timeoutMillis, TimeUnit.MILLISECONDS);
+        return watch;
+    }
+
+    private void expire(Watch watch) {
+        synchronized (watch) {
+            if (watch.returned) {
+                return;
+            }
+            watch.expired = true;
+        }
+
+        boolean inPlaywright;
+        try {
+            log.error("Test {} on thread {} exceeded its deadline of {} ms, stopping it",
+                    watch.name, watch.thread.getName(), watch.timeoutMillis);
+            watch.threadDump = threadDump(watch.thread);
+            inPlaywright = Arrays.stream(watch.thread.getStackTrace())
+                    .anyMatch(frame -> frame.getClassName().startsWith("com.microsoft.playwright."));
+            watch.logLines = Optional.ofNullable(watch.testId.get())
+                    .flatMap(TestLogBufferAppender::peek)
+                    .orElse(null);
+            write(watch);
+        } finally {
+            watch.captured.countDown();
+        }
+
+        if (inPlaywright && watch.browserKill != null) {
+            // The blocked call fails once the driver sees the browser gone, BaseTest relaunches it
+            synchronized (watch) {
+                if (!watch.returned) {
+                    watch.browserKill.run();
+                }
+            }
+            scheduler.schedule(() -> interrupt(watch), INTERRUPT_DELAY_MS, TimeUnit.MILLISECONDS);
+        } else {
+            interrupt(watch);
+        }
+    }
+
+    private static void interrupt(Watch watch) {
+        synchronized (watch) {
+            if (!watch.returned) {
+                log.warn("Interrupting thread {} of stopped test {}", watch.thread.getName(), watch.name);
+                watch.thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Capture the page of a stopped test, on the test's thread after the watchdog unblocked it
+     */
+    private void screenshot(Page page, Watch watch) {
+        try {
+            watch.screenshot = page.screenshot(new Page.ScreenshotOptions().setTimeout(SCREENSHOT_TIMEOUT_MS));
+            Files.write(Paths.get(config.getDumpDir()).resolve(watch.prefix + ".png"), watch.screenshot);
+        } catch (PlaywrightException e) {
+            log.warn("Failed to capture screenshot of stopped test {}", watch.name, e);
+        } catch (IOException e) {
+            log.warn("Failed to save screenshot of stopped test {}", watch.name, e);
+        }
+    }
+
+    private void write(Watch watch) {
+        Path dir = Paths.get(config.getDumpDir());
+        watch.prefix = watch.name + "_" + System.currentTimeMillis();
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve(watch.prefix + "_threads.txt"), watch.threadDump);
+            if (watch.logLines != null) {
+                Files.writeString(dir.resolve(watch.prefix + "_log.txt"), watch.logLines);
+            }
+            log.info("Saved watchdog capture of {} to {}", watch.name, dir);
+        } catch (IOException e) {
+            log.warn("Failed to save watchdog capture of {} to {}", watch.name, dir, e);
+        }
+    }
+
+    private static void attach(String testName, Watch watch) {
+        Allure.addAttachment(testName + "_threads", "text/plain",
+                new ByteArrayInputStream(watch.threadDump.getBytes(StandardCharsets.UTF_8)), "txt");
+        if (watch.screenshot != null) {
+            Allure.addAttachment(testName + "_watchdog", "image/png", new ByteArrayInputStream(watch.screenshot), "png");
+        }
+        if (watch.logLines != null) {
+            Allure.addAttachment(testName + "_watchdog_log", "text/plain",
+                    new ByteArrayInputStream(watch.logLines.getBytes(StandardCharsets.UTF_8)), "log");
+        }
+    }
+
+    /**
+     * Dump the stacks of all threads, the stopped test's thread first
+     */
+    private static String threadDump(Thread stopped) {
+        ThreadInfo[] infos = ManagementFactory.getThreadMXBean().dumpAllThreads(true, true);
+        Arrays.sort(infos, Comparator.comparing(info -> info.getThreadId() != stopped.getId()));
+        StringBuilder dump = new StringBuilder();
+        for (ThreadInfo info : infos) {
+            dump.append('"').append(info.getThreadName()).append("\" #").append(info.getThreadId())
+                    .append(' ').append(info.getThreadState());
+            if (info.getLockName() != null) {
+                dump.append(" on ").append(info.getLockName());
+            }
+            if (info.getLockOwnerName() != null) {
+                dump.append(" owned by \"").append(info.getLockOwnerName()).append('"');
+            }
+            dump.append(System.lineSeparator());
+            for (StackTraceElement frame : info.getStackTrace()) {
+                dump.append("\tat ").append(frame).append(System.lineSeparator());
+            }
+            dump.append(System.lineSeparator());
+        }
+        return dump.toString();
+    }
+
+    /**
+     * A running test tracked by the watchdog
+     */
+    public static final class Watch {
+        private final Thread thread;
+        private final String name;
+        private final long timeoutMillis;
+        private final Runnable browserKill;
+        private final Supplier<String> testId;
+        private final CountDownLatch captured = new CountDownLatch(1);
+        private ScheduledFuture<?> future;
+        private boolean returned;
+        private volatile boolean expired;
+        private volatile String threadDump;
+        private volatile String logLines;
+        private volatile String prefix;
+        // Taken by the test's thread after it returned
+        private byte[] screenshot;
+
+        private Watch(Thread thread, String name, long timeoutMillis, Runnable browserKill, Supplier<String> testId) {
+            this.thread = thread;
+            this.name = name;
+            this.timeoutMillis = timeoutMillis;
+            this.browserKill = browserKill;
+            this.testId = testId;
+        }
+
+        /**
+         * Stop watching, called by the test's thread when the test returns
+         * A stopped test waits for the capture to complete and its interrupt is cleared
+         *
+         * @return True if the watchdog stopped the test
+         */
+        public boolean finish() {
+            future.cancel(false);
+            synchronized (this) {
+                returned = true;
+            }
+            if (expired) {
+                try {
+                    if (!captured.await(CAPTURE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                        log.warn("Watchdog capture of {} did not complete in {} ms", name, CAPTURE_WAIT_MS);
+                    }
+                } catch (InterruptedException e) {
+                    // The watchdog's own interrupt, cleared below
+                }
+            }
+            Thread.interrupted();
+            return expired;
+        }
+
+        /**
+         * Get the thread dump taken when the test was stopped
+         *
+         * @return Optional containing the dump, empty if the test was not stopped
+         */
+        public Optional<String> getThreadDump() {
+            return Optional.ofNullable(threadDump);
+        }
+
+        /**
+         * Get the test's log lines up to when it was stopped
+         *
+         * @return Optional containing the log lines, empty if none were buffered
+         */
+        public Optional<String> getLogLines() {
+            return Optional.ofNullable(logLines);
+        }
+    }
+}
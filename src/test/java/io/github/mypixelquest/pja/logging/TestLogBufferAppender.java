@@ -0,0 +1,136 @@
+package io.github.mypixelquest.pja.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Logback appender that keeps the log lines of each running test in a bounded in-memory buffer.
+ * Events are routed by the {@link #MDC_KEY} MDC value set by {@code LoggingListener}; events
+ * without a test id are ignored. Buffered events are only encoded when a buffer is drained,
+ * so passing tests never pay for formatting or I/O.
+ */
+public class TestLogBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+    public static final String MDC_KEY = "testId";
+
+    private static final Map<String, Deque<ILoggingEvent>> buffers = new ConcurrentHashMap<>();
+    private static volatile TestLogBufferAppender active;
+
+    private Encoder<ILoggingEvent> encoder;
+    private int maxLines = 500;
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "]");
+            return;
+        }
+        super.start();
+        active = this;
+    }
+
+    @Override
+    public void stop() {
+        if (active == this) {
+            active = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String testId = event.getMDCPropertyMap().get(MDC_KEY);
+        if (testId == null) {
+            return;
+        }
+
+        // Freeze message arguments and thread name, the event is formatted much later
+        event.prepareForDeferredProcessing();
+        Deque<ILoggingEvent> buffer = buffers.computeIfAbsent(testId, id -> new ArrayDeque<>());
+        synchronized (buffer) {
+            if (buffer.size() >= maxLines) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(event);
+        }
+    }
+
+    /**
+     * Remove the buffer of a test and render it with the configured encoder
+     *
+     * @param testId Test id the events were logged under
+     * @return Optional containing the formatted log lines, or empty if nothing was buffered
+     */
+    public static Optional<String> drain(String testId) {
+        return render(buffers.remove(testId));
+    }
+
+    /**
+     * Render the buffer of a running test without removing it
+     *
+     * @param testId Test id the events were logged under
+     * @return Optional containing the formatted log lines so far, or empty if nothing was buffered
+     */
+    public static Optional<String> peek(String testId) {
+        return render(buffers.get(testId));
+    }
+
+    private static Optional<String> render(Deque<ILoggingEvent> buffer) {
+        TestLogBufferAppender appender = active;
+        if (buffer == null || appender == null) {
+            return Optional.empty();
+        }
+
+        List<ILoggingEvent> events;
+        synchronized (buffer) {
+            events = List.copyOf(buffer);
+        }
+        if (events.isEmpty()) {
+            return Optional.empty();
+        }
+
+        StringBuilder content = new StringBuilder();
+        for (ILoggingEvent event : events) {
+            content.append(new String(appender.encoder.encode(event), StandardCharsets.UTF_8));
+        }
+        return Optional.of(content.toString());
+    }
+
+    /**
+     * Drop the buffer of a test without formatting it
+     *
+     * @param testId Test id the events were logged under
+     */
+    public static void discard(String testId) {
+        buffers.remove(testId);
+    }
+
+    public Encoder<ILoggingEvent> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * Set the maximum number of events kept per test, oldest events are dropped first
+     *
+     * @param maxLines Maximum number of buffered events per test
+     */
+    public void setMaxLines(int maxLines) {
+        this.maxLines = Math.max(1, maxLines);
+    }
+}
@@ -1,16 +1,96 @@
 package io.github.mypixelquest.pja.pages;
 
+import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.ScreenshotAnimations;
+import com.microsoft.playwright.options.ScreenshotCaret;
+import io.github.mypixelquest.pja.base.TestDeadline;
+import io.github.mypixelquest.pja.base.TestTimeouts;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import io.github.mypixelquest.pja.visual.VisualBaseline;
 import io.qameta.allure.Step;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Base class for all Page Objects
  */
 public abstract class BasePage {
+    // State of the matches of one element: their count, and visibility, text and attributes of the first
+    private static final String ELEMENT_STATE_SCRIPT = """
+        (nodes, attributes) => {
+            const first = nodes[0];
+            const values = {};
+            for (const attribute of attributes) values[attribute] = first ? first.getAttribute(attribute) : null;
+            if (!first) return { count: 0, visible: false, text: null, attributes: values };
+            const rect = first.getBoundingClientRect();
+            const visible = rect.width > 0 && rect.height > 0 && getComputedStyle(first).visibility !== 'hidden';
+            return { count: nodes.length, visible: visible, text: first.textContent, attributes: values };
+        }
+        """;
+    // Resolves [selectors, attributes] in one evaluation, null for selectors the browser cannot parse as CSS
+    private static final String SNAPSHOT_SCRIPT = """
+        ([selectors, attributes]) => {
+            const state = %s;
+            return selectors.map(selector => {
+                if (selector === null) return null;
+                let nodes;
+                try {
+                    nodes = document.querySelectorAll(selector);
+                } catch (e) {
+                    return null;
+                }
+                return state(nodes, attributes);
+            });
+        }
+        """.formatted(ELEMENT_STATE_SCRIPT);
+    
+    // Common cookie consent button selectors
+    private static final List<String> DEFAULT_CONSENT_SELECTORS = List.of(
+        "button[id*='cookie'][id*='accept']",
+        "button[id*='cookie'][id*='agree']",
+        "button[id*='consent'][id*='accept']",
+        "button[id*='consent'][id*='agree']",
+        "button[id*='cookie-consent']",
+        "button[id*='accept-cookies']",
+        "button[class*='cookie'][class*='accept']",
+        "button[class*='cookie'][class*='agree']",
+        "a[id*='cookie'][id*='accept']",
+        "a[id*='cookie'][id*='agree']",
+        "div[id*='cookie-banner'] button",
+        "#cookieConsentAgree",
+        "#acceptCookies",
+        "button:has-text('Accept')",
+        "button:has-text('Accept All')",
+        "button:has-text('Accept Cookies')",
+        "button:has-text('Allow')",
+        "button:has-text('Allow All')",
+        "button:has-text('I Agree')",
+        "button:has-text('Agree')",
+        "button:has-text('Got it')"
+    );
+    
+    // YAML wait strategy of each page class, empty when the page object's default applies
+    private static final Map<Class<?>, Optional<WaitStrategy>> configuredWaitStrategies = new ConcurrentHashMap<>();
+    
     protected final Page page;
     protected final Logger log;
+    private Map<PageElement, Locator> locators;
+    private WaitStrategy waitStrategy;
     
     /**
      * Constructor for BasePage
@@ -20,9 +100,114 @@ public abstract class BasePage {
     public BasePage(Page page) {
         this.page = page;
         this.log = LoggerFactory.getLogger(getClass());
+        // No-op for pages BaseTest created, attaches to others such as popups
+        RequestTracker.of(page);
         log.debug("Initializing {}", getClass().getSimpleName());
     }
     
+    /**
+     * Get the Locator for an element of this page's locator table.
+     * Locators are created on first access and reused for the lifetime of the page object.
+     *
+     * @param element Element declared in one of the page's PageElement enums
+     * @return Locator for the element
+     */
+    protected Locator locator(PageElement element) {
+        if (locators == null) {
+            locators = new IdentityHashMap<>();
+        }
+        return locators.computeIfAbsent(element, e -> e.spec().locate(page));
+    }
+    
+    /**
+     * Resolve a user-facing key (e.g. "trace-viewer") to an element of a locator table
+     *
+     * @param group PageElement enum to search
+     * @param key Element key or alias, case-insensitive
+     * @param description Description of the group used in the error message
+     * @return The matching element
+     * @throws IllegalArgumentException if the key is not part of the group
+     */
+    protected <E extends Enum<E> & PageElement> E element(Class<E> group, String key, String description) {
+        E element = LocatorRegistry.find(group, key);
+        if (element == null) {
+            throw new IllegalArgumentException("Unsupported " + description + ": " + key);
+        }
+        return element;
+    }
+    
+    /**
+     * Capture count, visibility, text and attributes of several elements at once.
+     * Elements whose selector is plain CSS are resolved together in a single in-page evaluation;
+     * role-based specs and Playwright-only selectors (text=, :has-text(), ...) are read with one
+     * evaluation of all matches per element. Plain CSS is matched against the light DOM only.
+     *
+     * @param elements Elements to capture
+     * @param attributes Attribute names to read from the first match of each element
+     * @return Immutable snapshot of the element states
+     */
+    @Step("Capture state of page elements")
+    public PageSnapshot snapshot(Collection<? extends PageElement> elements, String... attributes) {
+        List<PageElement> requested = List.copyOf(elements);
+        List<String> selectors = new ArrayList<>(requested.size());
+        for (PageElement element : requested) {
+            selectors.add(element.spec().getSelector());
+        }
+        
+        List<?> results = (List<?>) page.evaluate(SNAPSHOT_SCRIPT, List.of(selectors, List.of(attributes)));
+        
+        Map<PageElement, ElementState> states = new LinkedHashMap<>();
+        for (int i = 0; i < requested.size(); i++) {
+            PageElement element = requested.get(i);
+            Object result = results.get(i);
+            states.put(element, result instanceof Map<?, ?> state
+                    ? toElementState(state)
+                    : queryElementState(element, attributes));
+        }
+        
+        log.debug("Captured state of {} elements", states.size());
+        return new PageSnapshot(states);
+    }
+    
+    /**
+     * Collect the absolute link targets of elements from the page's locator table
+     * All hrefs are read in one snapshot; elements missing from the page are left out
+     *
+     * @param elements Link elements to collect
+     * @return Map of element to absolute URL, in the requested order
+     */
+    @Step("Collect link targets")
+    public Map<PageElement, String> collectLinks(Collection<? extends PageElement> elements) {
+        PageSnapshot snapshot = snapshot(elements, "href");
+        URI base = URI.create(page.url());
+        Map<PageElement, String> links = new LinkedHashMap<>();
+        snapshot.getStates().forEach((element, state) -> {
+            String href = state.getAttribute("href");
+            if (href == null) {
+                log.warn("No link found for element: {}", element.name());
+                return;
+            }
+            links.put(element, base.resolve(href.trim()).toString());
+        });
+        return links;
+    }
+    
+    private static ElementState toElementState(Map<?, ?> state) {
+        Map<String, String> attributes = new HashMap<>();
+        ((Map<?, ?>) state.get("attributes")).forEach((name, value) ->
+                attributes.put((String) name, (String) value));
+        return new ElementState(
+                ((Number) state.get("count")).intValue(),
+                Boolean.TRUE.equals(state.get("visible")),
+                (String) state.get("text"),
+                Collections.unmodifiableMap(attributes));
+    }
+    
+    private ElementState queryElementState(PageElement element, String... attributes) {
+        log.debug("Selector of {} is not plain CSS, evaluating its matches separately", element.name());
+        return toElementState((Map<?, ?>) locator(element).evaluateAll(ELEMENT_STATE_SCRIPT, List.of(attributes)));
+    }
+    
     /**
      * Get the page title
      *
@@ -47,9 +232,40 @@ public abstract class BasePage {
         return url;
     }
     
+    /**
+     * Assert that the page looks like its stored baseline screenshot
+     * Masked elements are painted over in the capture, so dynamic content does not cause
+     * differences. A missing baseline is recorded from this capture.
+     *
+     * @param name Baseline name, unique per page object class
+     * @param masks Elements to exclude from the comparison
+     * @return The page object for method chaining
+     */
+    @Step("Verify page matches visual baseline {name}")
+    public BasePage assertMatchesBaseline(String name, PageElement... masks) {
+        List<Locator> maskLocators = new ArrayList<>(masks.length);
+        for (PageElement mask : masks) {
+            maskLocators.add(locator(mask));
+        }
+        
+        byte[] screenshot = page.screenshot(new Page.ScreenshotOptions()
+                .setFullPage(ConfigReader.getInstance().isFullPageScreenshot())
+                .setAnimations(ScreenshotAnimations.DISABLED)
+                .setCaret(ScreenshotCaret.HIDE)
+                .setMask(maskLocators));
+        // Baselines are kept per browser, the page may belong to one browser of a matrix
+        String browserType = Optional.ofNullable(page.context().browser())
+                .map(browser -> browser.browserType().name())
+                .orElseGet(ConfigReader.getInstance()::getBrowserType);
+        VisualBaseline.fromConfig(browserType).assertMatches(getClass().getSimpleName() + "/" + name, screenshot, List.of());
+        return this;
+    }
+    
     /**
      * Try to accept cookie consent dialog if it appears
-     * This method attempts to locate and click common cookie consent buttons
+     * All candidate selectors are probed with a single combined selector, so the common
+     * case of no banner costs one browser round trip. Only when a banner is present are
+     * the candidates checked, starting with the one that matched most often on this host.
      * 
      * @return true if cookies were accepted, false if no dialog was found
      */
@@ -57,57 +273,164 @@ public abstract class BasePage {
     public boolean acceptCookieConsentIfPresent() {
         log.debug("Attempting to accept cookie consent dialog if present");
         
-        // Common cookie consent button selectors
-        String[] consentSelectors = {
-            "button[id*='cookie'][id*='accept']",
-            "button[id*='cookie'][id*='agree']",
-            "button[id*='consent'][id*='accept']",
-            "button[id*='consent'][id*='agree']",
-            "button[id*='cookie-consent']",
-            "button[id*='accept-cookies']",
-            "button[class*='cookie'][class*='accept']",
-            "button[class*='cookie'][class*='agree']",
-            "a[id*='cookie'][id*='accept']",
-            "a[id*='cookie'][id*='agree']",
-            "div[id*='cookie-banner'] button",
-            "#cookieConsentAgree",
-            "#acceptCookies",
-            "button:has-text('Accept')",
-            "button:has-text('Accept All')",
-            "button:has-text('Accept Cookies')",
-            "button:has-text('Allow')",
-            "button:has-text('Allow All')",
-            "button:has-text('I Agree')",
-            "button:has-text('Agree')",
-            "button:has-text('Got it')"
-        };
+        List<String> consentSelectors = cookieConsentSelectors();
+        try {
+            if (page.locator(String.join(", ", consentSelectors)).count() == 0) {
+                log.debug("No cookie consent dialog found or it was already accepted");
+                return false;
+            }
+        } catch (Exception e) {
+            // An invalid configured selector breaks the combined query, probe one by one instead
+            log.debug("Combined cookie consent probe failed, probing selectors individually", e);
+        }
+        
+        Optional<Locator> consentButton = firstMatching("cookie-consent", consentSelectors);
+        if (consentButton.isEmpty()) {
+            log.debug("No cookie consent dialog found or it was already accepted");
+            return false;
+        }
+        
+        consentButton.get().click();
+        log.info("Cookie consent accepted");
+        return true;
+    }
+    
+    /**
+     * Find the first matching alternative of a fallback selector chain
+     * Alternatives are probed in the order learned from earlier runs on the same host and page
+     * class, so the usual winner costs a single probe. Use it when the element is expected,
+     * since every non-matching probe counts towards the dead selector report. Every
+     * {@value SelectorStats#AUDIT_EVERY_HITS}th hit also probes the alternatives after the
+     * winner, which lookups otherwise never reach, so they can be reported dead too.
+     *
+     * @param chain Name of the chain, unique within the page class
+     * @param selectors Alternatives in declared priority order
+     * @return Optional containing the first match, or empty if no alternative matches
+     */
+    protected Optional<Locator> firstMatching(String chain, List<String> selectors) {
+        SelectorStats stats = SelectorStats.getInstance();
+        String host = Optional.ofNullable(URI.create(page.url()).getHost()).orElse("");
+        String chainKey = host + "|" + getClass().getSimpleName() + "|" + chain;
         
-        for (String selector : consentSelectors) {
-            try {
-                if (page.locator(selector).count() > 0) {
-                    log.info("Found cookie consent button with selector: {}", selector);
-                    page.locator(selector).first().click();
-                    log.info("Cookie consent accepted");
-                    return true;
+        List<String> ordered = stats.order(chainKey, selectors);
+        for (int i = 0; i < ordered.size(); i++) {
+            String selector = ordered.get(i);
+            Optional<Locator> matches = probe(chain, selector);
+            if (matches.isPresent()) {
+                log.info("Found {} with selector: {}", chain, selector);
+                stats.recordHit(chainKey, selector);
+                if (stats.isAuditDue(chainKey)) {
+                    audit(chain, chainKey, ordered.subList(i + 1, ordered.size()));
                 }
-            } catch (Exception e) {
-                log.debug("No cookie consent found for selector: {}", selector);
+                return Optional.of(matches.get().first());
             }
+            stats.recordMiss(chainKey, selector);
         }
-        
-        log.debug("No cookie consent dialog found or it was already accepted");
-        return false;
+        return Optional.empty();
+    }
+    
+    /**
+     * Probe the alternatives after a chain's winner, recording which of them still match
+     */
+    private void audit(String chain, String chainKey, List<String> remaining) {
+        SelectorStats stats = SelectorStats.getInstance();
+        for (String selector : remaining) {
+            if (probe(chain, selector).isPresent()) {
+                stats.recordMatch(chainKey, selector);
+            } else {
+                stats.recordMiss(chainKey, selector);
+            }
+        }
+    }
+    
+    private Optional<Locator> probe(String chain, String selector) {
+        try {
+            Locator matches = page.locator(selector);
+            if (matches.count() > 0) {
+                return Optional.of(matches);
+            }
+        } catch (Exception e) {
+            log.debug("Selector of {} failed: {}", chain, selector, e);
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Get the cookie consent button selectors in priority order
+     * Uses the environment's cookieConsent.selectors when configured, otherwise the built-in list
+     *
+     * @return Candidate selectors
+     */
+    protected List<String> cookieConsentSelectors() {
+        List<String> configured = ConfigReader.getInstance().getCookieConsentSelectors();
+        return configured.isEmpty() ? DEFAULT_CONSENT_SELECTORS : configured;
     }
     
     /**
-     * Wait for page load state to be complete
+     * Wait until the page is ready according to its wait strategy
+     * The time spent is recorded in {@link WaitTimings}, and for a successful wait in {@link TestTimeouts}
+     * With a test deadline the wait gets its step timeout, and later actions what is left of the budget
      *
      * @return The page object for method chaining
      */
     @Step("Wait for page to load completely")
     public BasePage waitForPageLoad() {
-        log.debug("Waiting for page to load completely");
-        page.waitForLoadState();
+        if (waitStrategy == null) {
+            waitStrategy = resolveWaitStrategy();
+        }
+        
+        log.debug("Waiting for page to load using strategy: {}", waitStrategy.name());
+        String step = getClass().getSimpleName() + "/" + waitStrategy.name();
+        Optional<TestDeadline> deadline = TestDeadline.current();
+        deadline.ifPresent(d -> d.apply(page, step));
+        long start = System.nanoTime();
+        try {
+            waitStrategy.await(page);
+            if (deadline.isPresent()) {
+                TestTimeouts.getInstance().record(step, (System.nanoTime() - start) / 1_000_000L);
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            WaitTimings.record(step, elapsed);
+            log.debug("Waited {} ms for strategy: {}", elapsed / 1_000_000L, waitStrategy.name());
+            deadline.ifPresent(d -> d.apply(page, null));
+        }
         return this;
     }
+    
+    /**
+     * Get the wait strategy this page object uses when YAML does not override it
+     * Subclasses override this to pick a cheaper readiness condition than the load event
+     *
+     * @return Default WaitStrategy of the page object
+     */
+    protected WaitStrategy defaultWaitStrategy() {
+        return WaitStrategy.loadState(LoadState.LOAD);
+    }
+    
+    /**
+     * Resolve the wait strategy: YAML override for this page class, then the YAML default,
+     * then the page object's own default
+     */
+    private WaitStrategy resolveWaitStrategy() {
+        return configuredWaitStrategies.computeIfAbsent(getClass(), BasePage::configuredWaitStrategy)
+                .orElseGet(this::defaultWaitStrategy);
+    }
+    
+    /**
+     * Read the YAML wait strategy of a page class, once per class
+     */
+    private static Optional<WaitStrategy> configuredWaitStrategy(Class<?> pageClass) {
+        ConfigReader configReader = ConfigReader.getInstance();
+        ConfigModel.WaitConfig waitConfig = configReader.copyConfig().getWait();
+        long timeout = configReader.getTimeout();
+        if (waitConfig == null) {
+            return Optional.empty();
+        }
+        
+        Optional<WaitStrategy> pageOverride = Optional.ofNullable(waitConfig.getPages())
+                .map(pages -> pages.get(pageClass.getSimpleName()))
+                .flatMap(pageConfig -> WaitStrategy.fromConfig(pageConfig, timeout));
+        return pageOverride.or(() -> WaitStrategy.fromConfig(waitConfig, timeout));
+    }
 }
\ No newline at end of file
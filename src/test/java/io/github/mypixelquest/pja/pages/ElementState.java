@@ -0,0 +1,36 @@
+package io.github.mypixelquest.pja.pages;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Immutable state of a page element captured by {@link BasePage#snapshot}.
+ * Visibility, text and attributes describe the first matching element.
+ */
+@Value
+public class ElementState {
+    int count;
+    boolean visible;
+    String text;
+    Map<String, String> attributes;
+
+    /**
+     * Check if at least one element matched
+     *
+     * @return true if the element is present in the DOM
+     */
+    public boolean isPresent() {
+        return count > 0;
+    }
+
+    /**
+     * Get an attribute of the first matching element
+     *
+     * @param name Attribute name, must have been requested when taking the snapshot
+     * @return Attribute value, or null if absent
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+}
@@ -3,9 +3,12 @@ package io.github.mypixelquest.pja.pages;
 import com.microsoft.playwright.Locator;
 import com.microsoft.playwright.Page;
 import com.microsoft.playwright.options.AriaRole;
+import com.microsoft.playwright.options.LoadState;
 import com.microsoft.playwright.options.WaitForSelectorState;
 import io.qameta.allure.Step;
 
+import java.util.List;
+
 /**
  * Page Object for the Playwright Documentation Homepage
  */
@@ -14,96 +17,136 @@ public class ExamplePage extends BasePage {
     private static final String BASE_URL = "https://playwright.dev/";
 
     // Navigation and Header Elements
-    private final Locator navbar;
-    private final Locator docs;
-    private final Locator api;
-    private final Locator community;
-    private final Locator search;
-    private final Locator searchModal;
-    private final Locator skipToContent;
-    private final Locator getStartedButton;
-    private final Locator languageDropdown;
+    private enum Navigation implements PageElement {
+        NAVBAR(LocatorSpec.selector("nav.navbar")),
+        DOCS(LocatorSpec.role(AriaRole.LINK, "Docs")),
+        API(LocatorSpec.selector("a[href='/docs/api/class-playwright']")),
+        COMMUNITY(LocatorSpec.selector("a[href='/community/welcome']")),
+        SEARCH(LocatorSpec.selector("button.DocSearch")),
+        SEARCH_MODAL(LocatorSpec.selector("div.DocSearch-Modal")),
+        SKIP_TO_CONTENT(LocatorSpec.selector("a.skipToContent_fXgn")),
+        GET_STARTED(LocatorSpec.selector("a.getStarted_Sjon")),
+        LANGUAGE_DROPDOWN(LocatorSpec.selector("div.navbar__item.dropdown.dropdown--hoverable"));
+
+        private final LocatorSpec spec;
+
+        Navigation(LocatorSpec spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        public LocatorSpec spec() {
+            return spec;
+        }
+    }
 
     // Language Links
-    private final Locator javaLink;
-    private final Locator pythonLink;
-    private final Locator javascriptLink;
-    private final Locator typescriptLink;
-    private final Locator dotnetLink;
-    private final Locator nodejsLink;
+    public enum Language implements PageElement {
+        JAVA(LocatorSpec.selector("a[href='/java/']")),
+        PYTHON(LocatorSpec.selector("a[href='/python/']")),
+        JAVASCRIPT(LocatorSpec.selector("text=JavaScript")),
+        TYPESCRIPT(LocatorSpec.selector("text=TypeScript")),
+        DOTNET(LocatorSpec.selector("a[href='/dotnet/']"), ".net"),
+        NODEJS(LocatorSpec.selector("a[href='#']"), "node.js");
+
+        private final LocatorSpec spec;
+        private final String[] aliases;
+
+        Language(LocatorSpec spec, String... aliases) {
+            this.spec = spec;
+            this.aliases = aliases;
+        }
+
+        @Override
+        public LocatorSpec spec() {
+            return spec;
+        }
+
+        @Override
+        public String[] aliases() {
+            return aliases;
+        }
+    }
 
     // Tool Links
-    private final Locator codegenLink;
-    private final Locator playwrightInspectorLink;
-    private final Locator traceViewerLink;
+    public enum Tool implements PageElement {
+        CODEGEN(LocatorSpec.selector("a[href='docs/codegen']")),
+        INSPECTOR(LocatorSpec.selector("a[href='docs/debug#playwright-inspector']")),
+        TRACE_VIEWER(LocatorSpec.selector("a[href='docs/trace-viewer-intro']"));
+
+        private final LocatorSpec spec;
+
+        Tool(LocatorSpec spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        public LocatorSpec spec() {
+            return spec;
+        }
+    }
 
     // Community Links
-    private final Locator discordLink;
-    private final Locator githubLink;
-    private final Locator twitterLink;
-    private final Locator linkedinLink;
-    private final Locator youtubeLink;
-    private final Locator stackOverflowLink;
+    public enum CommunityLink implements PageElement {
+        DISCORD(LocatorSpec.selector("a[href*='discord']")),
+        GITHUB(LocatorSpec.selector("footer a[href*='github.com/microsoft/playwright']")),
+        TWITTER(LocatorSpec.selector("a[href='https://twitter.com/playwrightweb']")),
+        LINKEDIN(LocatorSpec.selector("a[href='https://www.linkedin.com/company/playwrightweb']")),
+        YOUTUBE(LocatorSpec.selector("a[href*='youtube.com']")),
+        STACKOVERFLOW(LocatorSpec.selector("a[href*='stackoverflow.com']"));
+
+        private final LocatorSpec spec;
+
+        CommunityLink(LocatorSpec spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        public LocatorSpec spec() {
+            return spec;
+        }
+    }
 
     // Example Links
-    private final Locator accessibilityInsightsLink;
-    private final Locator adobeLink;
-    private final Locator bingLink;
-    private final Locator disneyHotstarLink;
-    private final Locator outlookLink;
-    private final Locator vsCodeLink;
-    private final Locator materialUiLink;
-    private final Locator reactNavigationLink;
+    public enum ExampleSite implements PageElement {
+        ACCESSIBILITY_INSIGHTS(LocatorSpec.selector("a[href='https://accessibilityinsights.io/']")),
+        ADOBE(LocatorSpec.selector("a[href*='github.com/adobe']")),
+        BING(LocatorSpec.selector("a[href='https://bing.com']")),
+        DISNEY_HOTSTAR(LocatorSpec.selector("a[href='https://www.hotstar.com/']")),
+        OUTLOOK(LocatorSpec.selector("a[href='https://outlook.com']")),
+        VSCODE(LocatorSpec.selector("a[href='https://code.visualstudio.com']")),
+        MATERIAL_UI(LocatorSpec.selector("a[href*='material-ui']")),
+        REACT_NAVIGATION(LocatorSpec.selector("a[href*='react-navigation']"));
+
+        private final LocatorSpec spec;
+
+        ExampleSite(LocatorSpec spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        public LocatorSpec spec() {
+            return spec;
+        }
+    }
 
     /**
      * Constructor for ExamplePage
+     * Locators are resolved lazily from the locator tables above
      *
      * @param page Playwright Page object
      */
     public ExamplePage(Page page) {
         super(page);
+    }
 
-        // Initialize navigation elements
-        this.navbar = page.locator("nav.navbar");
-        this.docs = page.getByRole(AriaRole.LINK, new Page.GetByRoleOptions().setName("Docs"));
-        this.api = page.locator("a[href='/docs/api/class-playwright']");
-        this.community = page.locator("a[href='/community/welcome']");
-        this.search = page.locator("button.DocSearch");
-        this.searchModal = page.locator("div.DocSearch-Modal");
-        this.skipToContent = page.locator("a.skipToContent_fXgn");
-        this.getStartedButton = page.locator("a.getStarted_Sjon");
-        this.languageDropdown = page.locator("div.navbar__item.dropdown.dropdown--hoverable");
-
-        // Initialize language links
-        this.javaLink = page.locator("a[href='/java/']");
-        this.pythonLink = page.locator("a[href='/python/']");
-        this.javascriptLink = page.locator("text=JavaScript");
-        this.typescriptLink = page.locator("text=TypeScript");
-        this.dotnetLink = page.locator("a[href='/dotnet/']");
-        this.nodejsLink = page.locator("a[href='#']");
-
-        // Initialize tool links
-        this.codegenLink = page.locator("a[href='docs/codegen']");
-        this.playwrightInspectorLink = page.locator("a[href='docs/debug#playwright-inspector']");
-        this.traceViewerLink = page.locator("a[href='docs/trace-viewer-intro']");
-
-        // Initialize community links
-        this.discordLink = page.locator("a[href*='discord']");
-        this.githubLink = page.locator("footer a[href*='github.com/microsoft/playwright']");
-        this.twitterLink = page.locator("a[href='https://twitter.com/playwrightweb']");
-        this.linkedinLink = page.locator("a[href='https://www.linkedin.com/company/playwrightweb']");
-        this.youtubeLink = page.locator("a[href*='youtube.com']");
-        this.stackOverflowLink = page.locator("a[href*='stackoverflow.com']");
-
-        // Initialize example links
-        this.accessibilityInsightsLink = page.locator("a[href='https://accessibilityinsights.io/']");
-        this.adobeLink = page.locator("a[href*='github.com/adobe']");
-        this.bingLink = page.locator("a[href='https://bing.com']");
-        this.disneyHotstarLink = page.locator("a[href='https://www.hotstar.com/']");
-        this.outlookLink = page.locator("a[href='https://outlook.com']");
-        this.vsCodeLink = page.locator("a[href='https://code.visualstudio.com']");
-        this.materialUiLink = page.locator("a[href*='material-ui']");
-        this.reactNavigationLink = page.locator("a[href*='react-navigation']");
+    /**
+     * The documentation site is statically rendered, so the navbar is usable at DOMContentLoaded
+     * without waiting for images and third-party scripts
+     */
+    @Override
+    protected WaitStrategy defaultWaitStrategy() {
+        return WaitStrategy.loadState(LoadState.DOMCONTENTLOADED);
     }
 
     /**
@@ -124,7 +167,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Click Get Started button")
     public ExamplePage clickGetStarted() {
-        getStartedButton.click();
+        locator(Navigation.GET_STARTED).click();
         return this;
     }
 
@@ -135,9 +178,9 @@ public class ExamplePage extends BasePage {
      */
     @Step("Open search dialog")
     public ExamplePage openSearch() {
-        search.click();
+        locator(Navigation.SEARCH).click();
         // Wait for the search modal to be visible
-        searchModal.waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE));
+        locator(Navigation.SEARCH_MODAL).waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE));
         return this;
     }
 
@@ -148,7 +191,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Check if search modal is visible")
     public boolean isSearchModalVisible() {
-        return searchModal.isVisible();
+        return locator(Navigation.SEARCH_MODAL).isVisible();
     }
 
     /**
@@ -158,7 +201,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Click language dropdown")
     public ExamplePage clickLanguageDropdown() {
-        languageDropdown.click();
+        locator(Navigation.LANGUAGE_DROPDOWN).click();
         return this;
     }
 
@@ -174,30 +217,7 @@ public class ExamplePage extends BasePage {
         clickLanguageDropdown();
         
         // Then select the specific language
-        switch (language.toLowerCase()) {
-            case "java":
-                javaLink.click();
-                break;
-            case "python":
-                pythonLink.click();
-                break;
-            case "javascript":
-                javascriptLink.click();
-                break;
-            case "typescript":
-                typescriptLink.click();
-                break;
-            case "dotnet":
-            case ".net":
-                dotnetLink.click();
-                break;
-            case "nodejs":
-            case "node.js":
-                nodejsLink.click();
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported language: " + language);
-        }
+        locator(element(Language.class, language, "language")).click();
         return this;
     }
 
@@ -209,19 +229,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Navigate to {tool}")
     public ExamplePage navigateToTool(String tool) {
-        switch (tool.toLowerCase()) {
-            case "codegen":
-                codegenLink.click();
-                break;
-            case "inspector":
-                playwrightInspectorLink.click();
-                break;
-            case "trace-viewer":
-                traceViewerLink.click();
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported tool: " + tool);
-        }
+        locator(element(Tool.class, tool, "tool")).click();
         return this;
     }
 
@@ -233,28 +241,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Navigate to {platform}")
     public ExamplePage navigateToCommunity(String platform) {
-        switch (platform.toLowerCase()) {
-            case "discord":
-                discordLink.click();
-                break;
-            case "github":
-                githubLink.click();
-                break;
-            case "twitter":
-                twitterLink.click();
-                break;
-            case "linkedin":
-                linkedinLink.click();
-                break;
-            case "youtube":
-                youtubeLink.click();
-                break;
-            case "stackoverflow":
-                stackOverflowLink.click();
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported platform: " + platform);
-        }
+        locator(element(CommunityLink.class, platform, "platform")).click();
         return this;
     }
 
@@ -266,34 +253,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Navigate to example site: {site}")
     public ExamplePage navigateToExample(String site) {
-        switch (site.toLowerCase()) {
-            case "accessibility-insights":
-                accessibilityInsightsLink.click();
-                break;
-            case "adobe":
-                adobeLink.click();
-                break;
-            case "bing":
-                bingLink.click();
-                break;
-            case "disney-hotstar":
-                disneyHotstarLink.click();
-                break;
-            case "outlook":
-                outlookLink.click();
-                break;
-            case "vscode":
-                vsCodeLink.click();
-                break;
-            case "material-ui":
-                materialUiLink.click();
-                break;
-            case "react-navigation":
-                reactNavigationLink.click();
-                break;
-            default:
-                throw new IllegalArgumentException("Unsupported example site: " + site);
-        }
+        locator(element(ExampleSite.class, site, "example site")).click();
         return this;
     }
 
@@ -304,7 +264,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Check if page is loaded")
     public boolean isLoaded() {
-        return navbar.isVisible() && getStartedButton.isVisible();
+        return snapshot(List.of(Navigation.NAVBAR, Navigation.GET_STARTED)).allVisible();
     }
 
     /**
@@ -324,7 +284,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Click Docs link")
     public ExamplePage clickDocs() {
-        docs.click();
+        locator(Navigation.DOCS).click();
         return this;
     }
 
@@ -335,7 +295,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Click API link")
     public ExamplePage clickApi() {
-        api.click();
+        locator(Navigation.API).click();
         return this;
     }
 
@@ -346,7 +306,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Click Community link")
     public ExamplePage clickCommunity() {
-        community.click();
+        locator(Navigation.COMMUNITY).click();
         return this;
     }
 
@@ -357,7 +317,7 @@ public class ExamplePage extends BasePage {
      */
     @Step("Click Skip to Content link")
     public ExamplePage clickSkipToContent() {
-        skipToContent.click();
+        locator(Navigation.SKIP_TO_CONTENT).click();
         return this;
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package io.github.mypixelquest.pja.pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Class-level cache of page object locator tables.
+ * Each table is resolved once per class through {@link ClassValue} and then shared
+ * by all threads and page instances.
+ */
+public final class LocatorRegistry {
+
+    // Lookup keys of each PageElement enum, e.g. TRACE_VIEWER -> "trace-viewer"
+    private static final ClassValue<Map<String, PageElement>> KEYS = new ClassValue<>() {
+        @Override
+        protected Map<String, PageElement> computeValue(Class<?> type) {
+            Map<String, PageElement> keys = new HashMap<>();
+            for (Object constant : type.getEnumConstants()) {
+                PageElement element = (PageElement) constant;
+                keys.put(normalize(element.name().replace('_', '-')), element);
+                for (String alias : element.aliases()) {
+                    keys.put(normalize(alias), element);
+                }
+            }
+            return Collections.unmodifiableMap(keys);
+        }
+    };
+
+    // All PageElement enums declared by a page class and its superclasses
+    private static final ClassValue<List<PageElement>> ELEMENTS = new ClassValue<>() {
+        @Override
+        protected List<PageElement> computeValue(Class<?> type) {
+            List<PageElement> elements = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class;
+                 current = current.getSuperclass()) {
+                for (Class<?> nested : current.getDeclaredClasses()) {
+                    if (nested.isEnum() && PageElement.class.isAssignableFrom(nested)) {
+                        for (Object constant : nested.getEnumConstants()) {
+                            elements.add((PageElement) constant);
+                        }
+                    }
+                }
+            }
+            return List.copyOf(elements);
+        }
+    };
+
+    private LocatorRegistry() {
+    }
+
+    /**
+     * Find an element of a locator table by key, ignoring case
+     *
+     * @param group PageElement enum to search
+     * @param key Normalized element name (e.g. "trace-viewer") or one of its aliases
+     * @return The matching element, or null if the key is unknown
+     */
+    public static <E extends Enum<E> & PageElement> E find(Class<E> group, String key) {
+        return group.cast(KEYS.get(group).get(normalize(key)));
+    }
+
+    /**
+     * Get every element declared by a page class, including inherited tables
+     *
+     * @param pageClass Page object class
+     * @return Immutable list of elements
+     */
+    public static List<PageElement> elementsOf(Class<?> pageClass) {
+        return ELEMENTS.get(pageClass);
+    }
+
+    private static String normalize(String key) {
+        return key.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.mypixelquest.pja.pages;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.AriaRole;
+
+/**
+ * Immutable description of how to locate an element on a page.
+ * Specs are declared once per page class and turned into {@link Locator}s on demand.
+ */
+public final class LocatorSpec {
+    private final String selector;
+    private final AriaRole role;
+    private final String name;
+
+    private LocatorSpec(String selector, AriaRole role, String name) {
+        this.selector = selector;
+        this.role = role;
+        this.name = name;
+    }
+
+    /**
+     * Create a spec from a Playwright selector (CSS, text=, xpath=, ...)
+     *
+     * @param selector Playwright selector string
+     * @return LocatorSpec for the selector
+     */
+    public static LocatorSpec selector(String selector) {
+        return new LocatorSpec(selector, null, null);
+    }
+
+    /**
+     * Create a spec that locates an element by its ARIA role and accessible name
+     *
+     * @param role ARIA role of the element
+     * @param name Accessible name of the element
+     * @return LocatorSpec for the role
+     */
+    public static LocatorSpec role(AriaRole role, String name) {
+        return new LocatorSpec(null, role, name);
+    }
+
+    /**
+     * Build a Locator for this spec on the given page
+     *
+     * @param page Playwright Page object
+     * @return Locator for this spec
+     */
+    public Locator locate(Page page) {
+        if (role != null) {
+            return page.getByRole(role, new Page.GetByRoleOptions().setName(name));
+        }
+        return page.locator(selector);
+    }
+
+    /**
+     * Get the Playwright selector of this spec
+     *
+     * @return Selector string, or null for role-based specs
+     */
+    public String getSelector() {
+        return selector;
+    }
+
+    @Override
+    public String toString() {
+        return role != null ? "role=" + role.name().toLowerCase() + "[name='" + name + "']" : selector;
+    }
+}
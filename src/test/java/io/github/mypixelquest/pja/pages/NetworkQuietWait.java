@@ -0,0 +1,94 @@
+package io.github.mypixelquest.pja.pages;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.TimeoutError;
+import com.microsoft.playwright.options.LoadState;
+import io.github.mypixelquest.pja.base.TestDeadline;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Network-quiet wait that ignores requests matching configured URL patterns.
+ * Unlike {@link LoadState#NETWORKIDLE}, long-polling and analytics beacons do not keep the page busy.
+ * Requests started before the wait are taken from the page's {@link RequestTracker}.
+ */
+class NetworkQuietWait implements WaitStrategy {
+    private static final long POLL_INTERVAL_MS = 50;
+
+    private final long quietPeriodMs;
+    private final long timeoutMs;
+    private final List<Pattern> ignoreUrls;
+
+    NetworkQuietWait(long quietPeriodMs, long timeoutMs, List<Pattern> ignoreUrls) {
+        this.quietPeriodMs = quietPeriodMs;
+        this.timeoutMs = timeoutMs;
+        this.ignoreUrls = ignoreUrls;
+    }
+
+    @Override
+    public void await(Page page) {
+        page.waitForLoadState(LoadState.DOMCONTENTLOADED);
+
+        // Playwright dispatches events on this thread while it waits, so no synchronization is needed
+        Set<Request> inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Request request : RequestTracker.of(page).inFlight()) {
+            if (!isIgnored(request.url())) {
+                inFlight.add(request);
+            }
+        }
+        long[] lastActivity = {System.nanoTime()};
+        Consumer<Request> onStart = request -> {
+            if (!isIgnored(request.url())) {
+                inFlight.add(request);
+                lastActivity[0] = System.nanoTime();
+            }
+        };
+        Consumer<Request> onEnd = request -> {
+            if (inFlight.remove(request)) {
+                lastActivity[0] = System.nanoTime();
+            }
+        };
+
+        page.onRequest(onStart);
+        page.onRequestFinished(onEnd);
+        page.onRequestFailed(onEnd);
+        try {
+            // Never beyond the test's own deadline
+            long timeout = TestDeadline.current()
+                    .map(testDeadline -> Math.min(timeoutMs, Math.max(1, testDeadline.remainingMillis())))
+                    .orElse(timeoutMs);
+            long deadline = System.nanoTime() + timeout * 1_000_000L;
+            while (!inFlight.isEmpty() || System.nanoTime() - lastActivity[0] < quietPeriodMs * 1_000_000L) {
+                if (System.nanoTime() > deadline) {
+                    throw new TimeoutError("Timeout " + timeout + "ms exceeded waiting for network quiet, "
+                            + inFlight.size() + " request(s) still in flight");
+                }
+                page.waitForTimeout(POLL_INTERVAL_MS);
+            }
+        } finally {
+            page.offRequest(onStart);
+            page.offRequestFinished(onEnd);
+            page.offRequestFailed(onEnd);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "networkquiet";
+    }
+
+    private boolean isIgnored(String url) {
+        for (Pattern pattern : ignoreUrls) {
+            if (pattern.matcher(url).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
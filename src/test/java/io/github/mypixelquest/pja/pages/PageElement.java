@@ -0,0 +1,32 @@
+package io.github.mypixelquest.pja.pages;
+
+/**
+ * An entry of a page object's locator table.
+ * Page objects declare their elements as nested enums implementing this interface,
+ * so the table is built once per class and shared by every page instance.
+ */
+public interface PageElement {
+
+    /**
+     * Get the enum constant name of this element
+     *
+     * @return Element name
+     */
+    String name();
+
+    /**
+     * Get the spec used to locate this element
+     *
+     * @return LocatorSpec of the element
+     */
+    LocatorSpec spec();
+
+    /**
+     * Get additional lookup keys for this element besides its normalized name
+     *
+     * @return Alias keys, empty by default
+     */
+    default String[] aliases() {
+        return new String[0];
+    }
+}
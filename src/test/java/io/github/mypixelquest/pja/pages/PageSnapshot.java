@@ -0,0 +1,54 @@
+package io.github.mypixelquest.pja.pages;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the state of several page elements, taken in one browser round trip
+ */
+public final class PageSnapshot {
+    private final Map<PageElement, ElementState> states;
+
+    PageSnapshot(Map<PageElement, ElementState> states) {
+        this.states = Collections.unmodifiableMap(new LinkedHashMap<>(states));
+    }
+
+    /**
+     * Get the captured state of an element
+     *
+     * @param element Element that was part of the snapshot
+     * @return ElementState of the element
+     * @throws IllegalArgumentException if the element was not part of the snapshot
+     */
+    public ElementState get(PageElement element) {
+        ElementState state = states.get(element);
+        if (state == null) {
+            throw new IllegalArgumentException("Element not part of snapshot: " + element.name());
+        }
+        return state;
+    }
+
+    /**
+     * Check if every element of the snapshot is visible
+     *
+     * @return true if all elements are visible
+     */
+    public boolean allVisible() {
+        return states.values().stream().allMatch(ElementState::isVisible);
+    }
+
+    /**
+     * Get all captured states
+     *
+     * @return Unmodifiable map of element to state, in the requested order
+     */
+    public Map<PageElement, ElementState> getStates() {
+        return states;
+    }
+
+    @Override
+    public String toString() {
+        return "PageSnapshot" + states;
+    }
+}
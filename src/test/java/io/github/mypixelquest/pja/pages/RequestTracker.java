@@ -0,0 +1,55 @@
+package io.github.mypixelquest.pja.pages;
+
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Requests in flight on a page, tracked from when the tracker is attached.
+ * Attached when the page is created, so waits started later still see the requests of earlier navigations.
+ * Playwright dispatches a page's events on the thread using it, the tracker needs no synchronization.
+ */
+public final class RequestTracker {
+    // Weak keys, a tracker does not reference its page and goes away with it
+    private static final Map<Page, RequestTracker> trackers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Set<Request> inFlight = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private RequestTracker() {
+    }
+
+    /**
+     * Get the tracker of a page, attaching one if the page has none yet
+     *
+     * @param page Page to track
+     * @return The page's tracker
+     */
+    public static RequestTracker of(Page page) {
+        RequestTracker existing = trackers.get(page);
+        if (existing != null) {
+            return existing;
+        }
+        RequestTracker tracker = new RequestTracker();
+        page.onRequest(tracker.inFlight::add);
+        page.onRequestFinished(tracker.inFlight::remove);
+        page.onRequestFailed(tracker.inFlight::remove);
+        trackers.put(page, tracker);
+        return tracker;
+    }
+
+    /**
+     * Get the requests that started since the tracker was attached and have not finished or failed
+     *
+     * @return Copy of the requests in flight
+     */
+    public List<Request> inFlight() {
+        return new ArrayList<>(inFlight);
+    }
+}
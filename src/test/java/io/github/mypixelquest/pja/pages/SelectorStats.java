@@ -0,0 +1,310 @@
+package io.github.mypixelquest.pja.pages;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persisted match statistics of fallback selector chains.
+ * For each chain (host, page class and chain name) it remembers which alternatives matched,
+ * so the historically winning selector is tried first. Scores decay with a configurable
+ * half-life so a site redesign is picked up quickly. Since lookups stop at the winner, the
+ * alternatives after it are only probed by an occasional audit, which keeps the dead selector
+ * report accurate. Parallel JVMs and CI shards sharing the stats file each add their own
+ * changes to it when saving.
+ */
+public final class SelectorStats {
+    private static final Logger log = LoggerFactory.getLogger(SelectorStats.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    // Every this many hits of a chain, the alternatives after the winner are probed too
+    static final int AUDIT_EVERY_HITS = 10;
+
+    private final Path file;
+    private final long halfLifeMs;
+    private final int deadAfterMisses;
+    private final Map<String, Map<String, Entry>> chains = new ConcurrentHashMap<>();
+    // Entries as loaded or last saved, so a save adds only the changes made since to the file
+    private Map<String, Map<String, Entry>> saved = Map.of();
+    // Hits per chain in this run, to schedule audits
+    private final Map<String, AtomicLong> chainHits = new ConcurrentHashMap<>();
+
+    SelectorStats(Path file, long halfLifeMs, int deadAfterMisses) {
+        this.file = file;
+        this.halfLifeMs = halfLifeMs;
+        this.deadAfterMisses = deadAfterMisses;
+        load();
+    }
+
+    /**
+     * Load the statistics of a stats file with settings of its own, instead of the configured instance
+     *
+     * @param file Stats file, read if it exists and written by {@link #save()}
+     * @param halfLifeMs Time after which a hit counts half as much
+     * @param deadAfterMisses Probes without a match after which a selector is reported dead
+     * @return SelectorStats instance
+     */
+    static SelectorStats open(Path file, long halfLifeMs, int deadAfterMisses) {
+        return new SelectorStats(file, halfLifeMs, deadAfterMisses);
+    }
+
+    /**
+     * Get the shared instance, loaded from the configured stats file on first use
+     *
+     * @return SelectorStats instance
+     */
+    public static SelectorStats getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Order the alternatives of a chain by their decayed score, best first
+     * Alternatives without history keep their declared order after the known winners
+     *
+     * @param chain Chain key
+     * @param selectors Alternatives in declared order
+     * @return Alternatives in the order they should be probed
+     */
+    public List<String> order(String chain, List<String> selectors) {
+        Map<String, Entry> entries = chains.get(chain);
+        if (entries == null) {
+            return selectors;
+        }
+
+        long now = System.currentTimeMillis();
+        List<String> ordered = new ArrayList<>(selectors);
+        // Negated scores would put alternatives that only missed (-0.0) before those without history
+        ordered.sort(Comparator.comparingDouble((String selector) -> {
+            Entry entry = entries.get(selector);
+            return entry == null ? 0 : decayedScore(entry, now);
+        }).reversed());
+        return ordered;
+    }
+
+    /**
+     * Record that an alternative matched
+     *
+     * @param chain Chain key
+     * @param selector Matching alternative
+     */
+    public void recordHit(String chain, String selector) {
+        Entry entry = entry(chain, selector);
+        long now = System.currentTimeMillis();
+        synchronized (entry) {
+            entry.setScore(decayedScore(entry, now) + 1);
+            entry.setUpdatedAt(now);
+            entry.setHits(entry.getHits() + 1);
+        }
+    }
+
+    /**
+     * Record that an alternative matched during an audit, without raising its rank
+     * Keeps an alternative that still works off the dead selector report
+     *
+     * @param chain Chain key
+     * @param selector Alternative that matched after the winner
+     */
+    public void recordMatch(String chain, String selector) {
+        Entry entry = entry(chain, selector);
+        synchronized (entry) {
+            entry.setHits(entry.getHits() + 1);
+        }
+    }
+
+    /**
+     * Check whether a lookup that just hit should also probe the alternatives after the winner
+     * Counts the hit, an audit is due every {@value #AUDIT_EVERY_HITS} hits of the chain in this run
+     *
+     * @param chain Chain key
+     * @return True if the remaining alternatives should be probed now
+     */
+    public boolean isAuditDue(String chain) {
+        return chainHits.computeIfAbsent(chain, c -> new AtomicLong()).incrementAndGet() % AUDIT_EVERY_HITS == 0;
+    }
+
+    /**
+     * Record that an alternative was probed while the element was expected but did not match
+     *
+     * @param chain Chain key
+     * @param selector Alternative that did not match
+     */
+    public void recordMiss(String chain, String selector) {
+        Entry entry = entry(chain, selector);
+        synchronized (entry) {
+            entry.setMisses(entry.getMisses() + 1);
+        }
+    }
+
+    /**
+     * Get alternatives that never matched although they were probed often
+     *
+     * @return Map of chain key to dead selectors, sorted by chain
+     */
+    public Map<String, List<String>> deadSelectors() {
+        Map<String, List<String>> dead = new TreeMap<>();
+        chains.forEach((chain, entries) -> entries.forEach((selector, entry) -> {
+            if (entry.getHits() == 0 && entry.getMisses() >= deadAfterMisses) {
+                dead.computeIfAbsent(chain, c -> new ArrayList<>()).add(selector);
+            }
+        }));
+        return dead;
+    }
+
+    /**
+     * Add the changes since loading or the last save to the stats file
+     * The file is read again and merged under a file lock, so JVMs saving the same file keep each other's changes
+     */
+    public synchronized void save() {
+        if (chains.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, Entry>> current = snapshot();
+        long now = System.currentTimeMillis();
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            // A JVM cannot lock the same file twice, instances on the same file take turns
+            synchronized (SelectorStats.class) {
+                try (FileChannel channel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock lock = channel.lock()) {
+                    Map<String, Map<String, Entry>> merged = new TreeMap<>();
+                    read().forEach((chain, entries) -> merged.put(chain, new TreeMap<>(entries)));
+                    current.forEach((chain, entries) -> entries.forEach((selector, entry) -> {
+                        Map<String, Entry> mergedEntries = merged.computeIfAbsent(chain, c -> new TreeMap<>());
+                        Entry base = saved.getOrDefault(chain, Map.of()).get(selector);
+                        mergedEntries.put(selector, merge(mergedEntries.get(selector), entry, base, now));
+                    }));
+
+                    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                    mapper.writeValue(temp.toFile(), merged);
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    saved = current;
+                    log.debug("Saved selector statistics of {} chains to {}", merged.size(), file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to save selector statistics to {}", file, e);
+        }
+    }
+
+    /**
+     * Add the change of an entry since the last save to the entry on disk
+     * Scores decay alike, so the decayed scores can be added at the same instant
+     */
+    private Entry merge(Entry onDisk, Entry current, Entry base, long now) {
+        Entry merged = new Entry();
+        merged.setScore(Math.max(0, score(onDisk, now) + score(current, now) - score(base, now)));
+        merged.setUpdatedAt(now);
+        merged.setHits((onDisk == null ? 0 : onDisk.getHits()) + current.getHits() - (base == null ? 0 : base.getHits()));
+        merged.setMisses((onDisk == null ? 0 : onDisk.getMisses()) + current.getMisses()
+                - (base == null ? 0 : base.getMisses()));
+        return merged;
+    }
+
+    private double score(Entry entry, long now) {
+        return entry == null ? 0 : decayedScore(entry, now);
+    }
+
+    /**
+     * Copy the entries, each consistently with the threads recording into it
+     */
+    private Map<String, Map<String, Entry>> snapshot() {
+        Map<String, Map<String, Entry>> snapshot = new HashMap<>();
+        chains.forEach((chain, entries) -> {
+            Map<String, Entry> copies = new HashMap<>();
+            entries.forEach((selector, entry) -> {
+                synchronized (entry) {
+                    copies.put(selector, copy(entry));
+                }
+            });
+            snapshot.put(chain, copies);
+        });
+        return snapshot;
+    }
+
+    private static Entry copy(Entry entry) {
+        Entry copy = new Entry();
+        copy.setScore(entry.getScore());
+        copy.setUpdatedAt(entry.getUpdatedAt());
+        copy.setHits(entry.getHits());
+        copy.setMisses(entry.getMisses());
+        return copy;
+    }
+
+    private Entry entry(String chain, String selector) {
+        return chains.computeIfAbsent(chain, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(selector, s -> new Entry());
+    }
+
+    private double decayedScore(Entry entry, long now) {
+        long age = Math.max(0, now - entry.getUpdatedAt());
+        return entry.getScore() * Math.pow(0.5, (double) age / halfLifeMs);
+    }
+
+    private void load() {
+        read().forEach((chain, entries) -> chains.put(chain, new ConcurrentHashMap<>(entries)));
+        saved = snapshot();
+        if (!chains.isEmpty()) {
+            log.debug("Loaded selector statistics of {} chains from {}", chains.size(), file);
+        }
+    }
+
+    private Map<String, Map<String, Entry>> read() {
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+
+        try {
+            return mapper.readValue(file.toFile(), new TypeReference<Map<String, Map<String, Entry>>>() { });
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable selector statistics file {}", file, e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Statistics of one alternative of a chain
+     */
+    @Data
+    public static class Entry {
+        private double score;
+        private long updatedAt;
+        private long hits;
+        private long misses;
+    }
+
+    private static final class Holder {
+        private static final SelectorStats INSTANCE = create();
+
+        private static SelectorStats create() {
+            ConfigModel.FallbackLocatorConfig config = Optional
+                    .ofNullable(ConfigReader.getInstance().copyConfig().getFallbackLocators())
+                    .orElseGet(ConfigModel.FallbackLocatorConfig::new);
+            return new SelectorStats(Paths.get(config.getStatsFile()),
+                    (long) (config.getHalfLifeDays() * 24 * 60 * 60 * 1000), config.getDeadAfterMisses());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.mypixelquest.pja.pages;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates how fallback selector chains learn their winning alternative
+ */
+public class SelectorStatsTest {
+    private static final String CHAIN = "example.com|ExamplePage|cookie-consent";
+    private static final List<String> SELECTORS = List.of("#accept", ".consent-accept", "button:has-text('OK')");
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    @Test(description = "The winning selector is probed first")
+    @Description("Alternatives are ordered by score, and those without history keep their declared order after the winners")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Fallback Locators")
+    public void testWinnerIsProbedFirst() throws Exception {
+        SelectorStats stats = SelectorStats.open(statsFile(), 7 * DAY_MS, 20);
+        assertThat(stats.order(CHAIN, SELECTORS)).as("no history").isEqualTo(SELECTORS);
+
+        stats.recordHit(CHAIN, "button:has-text('OK')");
+        stats.recordHit(CHAIN, "button:has-text('OK')");
+        stats.recordHit(CHAIN, ".consent-accept");
+
+        assertThat(stats.order(CHAIN, SELECTORS))
+                .containsExactly("button:has-text('OK')", ".consent-accept", "#accept");
+        assertThat(stats.order("other|ExamplePage|cookie-consent", SELECTORS)).isEqualTo(SELECTORS);
+    }
+
+    @Test(description = "Old hits decay")
+    @Description("With a short half-life, a recent hit outranks several old ones, so a redesigned site is picked up quickly")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Fallback Locators")
+    public void testOldHitsDecay() throws Exception {
+        SelectorStats stats = SelectorStats.open(statsFile(), 50, 20);
+        for (int i = 0; i < 3; i++) {
+            stats.recordHit(CHAIN, "#accept");
+        }
+        assertThat(stats.order(CHAIN, SELECTORS)).first().isEqualTo("#accept");
+
+        // Six half-lives later the three hits are worth less than 0.05
+        Thread.sleep(300);
+        stats.recordHit(CHAIN, ".consent-accept");
+
+        assertThat(stats.order(CHAIN, SELECTORS)).first().isEqualTo(".consent-accept");
+    }
+
+    @Test(description = "Selectors that never match are reported dead")
+    @Description("An alternative probed deadAfterMisses times without a match is reported, one that matched during an audit is not")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Fallback Locators")
+    public void testDeadSelectors() throws Exception {
+        SelectorStats stats = SelectorStats.open(statsFile(), 7 * DAY_MS, 5);
+        for (int i = 0; i < 5; i++) {
+            stats.recordMiss(CHAIN, "#accept");
+            stats.recordMiss(CHAIN, "button:has-text('OK')");
+        }
+        stats.recordMatch(CHAIN, "button:has-text('OK')");
+
+        assertThat(stats.deadSelectors()).containsOnlyKeys(CHAIN);
+        assertThat(stats.deadSelectors().get(CHAIN)).containsExactly("#accept");
+        assertThat(stats.order(CHAIN, SELECTORS)).as("an audit match does not raise the rank").isEqualTo(SELECTORS);
+    }
+
+    @Test(description = "Audits are due every few hits of a chain")
+    @Description("Lookups stop at the winner, so the alternatives after it are probed on every AUDIT_EVERY_HITS-th hit")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Fallback Locators")
+    public void testAuditsAreScheduled() throws Exception {
+        SelectorStats stats = SelectorStats.open(statsFile(), 7 * DAY_MS, 20);
+
+        List<Integer> due = IntStream.rangeClosed(1, 30)
+                .filter(hit -> stats.isAuditDue(CHAIN))
+                .boxed()
+                .toList();
+
+        assertThat(due).containsExactly(10, 20, 30);
+    }
+
+    @Test(description = "Statistics are kept across runs")
+    @Description("The stats file saved at the end of a run gives the next run the same order and dead selectors")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Fallback Locators")
+    public void testStatsArePersisted() throws Exception {
+        Path file = statsFile();
+        SelectorStats first = SelectorStats.open(file, 7 * DAY_MS, 2);
+        first.recordHit(CHAIN, ".consent-accept");
+        first.recordMiss(CHAIN, "#accept");
+        first.recordMiss(CHAIN, "#accept");
+        first.save();
+
+        SelectorStats next = SelectorStats.open(file, 7 * DAY_MS, 2);
+        assertThat(next.order(CHAIN, SELECTORS)).first().isEqualTo(".consent-accept");
+        assertThat(next.deadSelectors()).isEqualTo(first.deadSelectors()).containsOnlyKeys(CHAIN);
+    }
+
+    @Test(description = "Parallel runs keep each other's statistics")
+    @Description("JVMs or CI shards saving the same stats file add their changes to it instead of overwriting it")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Fallback Locators")
+    public void testParallelRunsAreMerged() throws Exception {
+        Path file = statsFile();
+        SelectorStats shard1 = SelectorStats.open(file, 7 * DAY_MS, 6);
+        SelectorStats shard2 = SelectorStats.open(file, 7 * DAY_MS, 6);
+        shard1.recordHit(CHAIN, ".consent-accept");
+        shard1.recordHit(CHAIN, ".consent-accept");
+        shard2.recordHit(CHAIN, "button:has-text('OK')");
+        for (int i = 0; i < 3; i++) {
+            shard1.recordMiss(CHAIN, "#accept");
+            shard2.recordMiss(CHAIN, "#accept");
+        }
+        shard1.save();
+        shard2.save();
+        // Saving again adds nothing that was already saved
+        shard1.save();
+
+        SelectorStats next = SelectorStats.open(file, 7 * DAY_MS, 6);
+        assertThat(next.order(CHAIN, SELECTORS)).containsExactly(".consent-accept", "button:has-text('OK')", "#accept");
+        assertThat(next.deadSelectors().get(CHAIN)).containsExactly("#accept");
+
+        shard1.recordMiss(CHAIN, "#accept");
+        shard1.save();
+        assertThat(SelectorStats.open(file, 7 * DAY_MS, 7).deadSelectors().get(CHAIN)).containsExactly("#accept");
+        assertThat(SelectorStats.open(file, 7 * DAY_MS, 8).deadSelectors()).isEmpty();
+    }
+
+    @Test(description = "Concurrent saves are not lost")
+    @Description("Instances saving the same stats file at the same time take turns on its lock, every miss is counted")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Fallback Locators")
+    public void testConcurrentSaves() throws Exception {
+        Path file = statsFile();
+        int shards = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(shards);
+        try {
+            List<Future<?>> saves = new ArrayList<>();
+            for (int i = 0; i < shards; i++) {
+                SelectorStats shard = SelectorStats.open(file, 7 * DAY_MS, shards);
+                shard.recordMiss(CHAIN, "#accept");
+                saves.add(executor.submit(shard::save));
+            }
+            for (Future<?> save : saves) {
+                save.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(SelectorStats.open(file, 7 * DAY_MS, shards).deadSelectors()).containsOnlyKeys(CHAIN);
+        assertThat(SelectorStats.open(file, 7 * DAY_MS, shards + 1).deadSelectors()).isEmpty();
+    }
+
+    private static Path statsFile() throws Exception {
+        return Files.createTempDirectory("pja-selectors").resolve("selector-stats.json");
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.mypixelquest.pja.pages;
+
+import com.microsoft.playwright.Locator;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.LoadState;
+import com.microsoft.playwright.options.WaitForSelectorState;
+import io.github.mypixelquest.pja.config.ConfigModel;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Readiness condition a page object waits for in {@link BasePage#waitForPageLoad()}.
+ * Page objects pick a strategy by overriding {@link BasePage#defaultWaitStrategy()},
+ * and the YAML "wait" block can override it globally or per page class.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Block until the page satisfies this strategy
+     *
+     * @param page Playwright Page object
+     */
+    void await(Page page);
+
+    /**
+     * Get a short name of the strategy, used for logging and timing statistics
+     *
+     * @return Strategy name
+     */
+    String name();
+
+    /**
+     * Wait for a document load state
+     *
+     * @param state Load state to wait for
+     * @return WaitStrategy for the load state
+     */
+    static WaitStrategy loadState(LoadState state) {
+        String name = state.name().toLowerCase(Locale.ROOT);
+        return new WaitStrategy() {
+            @Override
+            public void await(Page page) {
+                page.waitForLoadState(state);
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+        };
+    }
+
+    /**
+     * Wait until a specific element is visible, ignoring the rest of the page
+     *
+     * @param spec Spec of the element to wait for
+     * @return WaitStrategy for the element
+     */
+    static WaitStrategy elementVisible(LocatorSpec spec) {
+        String name = "element(" + spec + ")";
+        return new WaitStrategy() {
+            @Override
+            public void await(Page page) {
+                spec.locate(page).first()
+                        .waitFor(new Locator.WaitForOptions().setState(WaitForSelectorState.VISIBLE));
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+        };
+    }
+
+    /**
+     * Wait until no tracked request has been in flight for a quiet period.
+     * Requests whose URL matches one of the ignore patterns (analytics, long-polling, ...) are not tracked.
+     *
+     * @param quietPeriodMs Time without tracked requests that counts as quiet, in milliseconds
+     * @param timeoutMs Maximum time to wait, in milliseconds
+     * @param ignoreUrls Regular expressions matched against request URLs
+     * @return WaitStrategy for network quiet
+     */
+    static WaitStrategy networkQuiet(long quietPeriodMs, long timeoutMs, List<String> ignoreUrls) {
+        List<Pattern> patterns = ignoreUrls.stream().map(Pattern::compile).collect(Collectors.toList());
+        return new NetworkQuietWait(quietPeriodMs, timeoutMs, patterns);
+    }
+
+    /**
+     * Build a strategy from a YAML wait configuration
+     *
+     * @param config Wait configuration (strategy, selector, quietPeriod, ignoreUrls)
+     * @param timeoutMs Timeout used by strategies that poll, in milliseconds
+     * @return Optional containing the strategy, or empty if no strategy is configured
+     * @throws IllegalArgumentException if the strategy name is unknown
+     */
+    static Optional<WaitStrategy> fromConfig(ConfigModel.WaitConfig config, long timeoutMs) {
+        if (config == null || config.getStrategy() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(switch (config.getStrategy().toLowerCase(Locale.ROOT)) {
+            case "load" -> loadState(LoadState.LOAD);
+            case "domcontentloaded" -> loadState(LoadState.DOMCONTENTLOADED);
+            case "networkidle" -> loadState(LoadState.NETWORKIDLE);
+            case "networkquiet" -> networkQuiet(config.getQuietPeriod(), timeoutMs,
+                    Optional.ofNullable(config.getIgnoreUrls()).orElse(List.of()));
+            case "element" -> elementVisible(LocatorSpec.selector(Optional.ofNullable(config.getSelector())
+                    .orElseThrow(() -> new IllegalArgumentException("Wait strategy 'element' requires a selector"))));
+            default -> throw new IllegalArgumentException("Unsupported wait strategy: " + config.getStrategy());
+        });
+    }
+}
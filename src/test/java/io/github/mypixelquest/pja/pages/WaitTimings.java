@@ -0,0 +1,64 @@
+package io.github.mypixelquest.pja.pages;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Run-wide statistics of how long each wait strategy waited, keyed by page class and strategy
+ */
+public final class WaitTimings {
+    private static final Map<String, Timing> timings = new ConcurrentHashMap<>();
+
+    private WaitTimings() {
+    }
+
+    /**
+     * Record one completed wait
+     *
+     * @param key Page class and strategy, e.g. "ExamplePage/load"
+     * @param nanos Time spent waiting, in nanoseconds
+     */
+    static void record(String key, long nanos) {
+        timings.computeIfAbsent(key, k -> new Timing()).add(nanos);
+    }
+
+    /**
+     * Format the recorded timings, one line per key
+     *
+     * @return Human readable summary, empty if nothing was recorded
+     */
+    public static String summary() {
+        StringBuilder summary = new StringBuilder();
+        new TreeMap<>(timings).forEach((key, timing) -> summary.append(String.format(
+                "%s: count=%d, total=%dms, avg=%dms, max=%dms%n",
+                key, timing.count.sum(), timing.totalMs(), timing.totalMs() / Math.max(1, timing.count.sum()),
+                timing.maxNanos.get() / 1_000_000L)));
+        return summary.toString();
+    }
+
+    /**
+     * Clear all recorded timings
+     */
+    public static void reset() {
+        timings.clear();
+    }
+
+    private static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private long totalMs() {
+            return totalNanos.sum() / 1_000_000L;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.mypixelquest.pja.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.options.Cookie;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.mypixelquest.pja.api.ApiClient;
+import io.github.mypixelquest.pja.api.Order;
+import io.github.mypixelquest.pja.api.OrderApi;
+import io.github.mypixelquest.pja.api.UserApi;
+import io.github.mypixelquest.pja.data.TestDataManager;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Demonstrates API-based test setup against a local stub server
+ */
+@Slf4j
+public class ApiClientTest {
+    private static final String SESSION_COOKIE = "session=admin-token";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, byte[]> orders = new ConcurrentHashMap<>();
+    private final TestDataManager dataManager = new TestDataManager("qa");
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeClass(alwaysRun = true)
+    public void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/login", exchange -> {
+            Map<?, ?> credentials = mapper.readValue(exchange.getRequestBody(), Map.class);
+            boolean valid = "admin@example.com".equals(credentials.get("username"))
+                    && "admin123".equals(credentials.get("password"));
+            if (valid) {
+                exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "; Path=/; HttpOnly");
+            }
+            respond(exchange, valid ? 204 : 401, null);
+        });
+        server.createContext("/api/orders", exchange -> {
+            String cookies = Optional.ofNullable(exchange.getRequestHeaders().getFirst("Cookie")).orElse("");
+            if (!cookies.contains(SESSION_COOKIE)) {
+                respond(exchange, 401, null);
+                return;
+            }
+
+            String path = exchange.getRequestURI().getPath();
+            switch (exchange.getRequestMethod()) {
+                case "POST" -> {
+                    byte[] body = exchange.getRequestBody().readAllBytes();
+                    orders.put((String) mapper.readValue(body, Map.class).get("id"), body);
+                    respond(exchange, 201, body);
+                }
+                case "GET" -> {
+                    byte[] body = orders.get(path.substring(path.lastIndexOf('/') + 1));
+                    respond(exchange, body != null ? 200 : 404, body);
+                }
+                case "DELETE" -> respond(exchange, orders.remove(path.substring(path.lastIndexOf('/') + 1)) != null ? 204 : 404, null);
+                default -> respond(exchange, 405, null);
+            }
+        });
+        server.createContext("/", exchange -> {
+            byte[] body = "<html><body>Shop</body></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStubServer() {
+        server.stop(0);
+    }
+
+    @Test(description = "Set up an order through the API")
+    @Description("Logs in and creates an order from orders.json through the API instead of the UI")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("API Setup")
+    public void testOrderSetupThroughApi() {
+        try (Playwright playwright = createPlaywright();
+             ApiClient client = ApiClient.create(playwright, baseUrl, null)) {
+            UserApi users = new UserApi(client, dataManager);
+            OrderApi orderApi = new OrderApi(client, dataManager);
+
+            users.login("admin");
+            Order created = orderApi.createOrder("ORD-001");
+            log.info("Created order {} for {}", created.getId(), created.getCustomer().getEmail());
+
+            assertThat(created.getTotal()).isEqualTo(1299.99);
+            assertThat(orderApi.getOrder("ORD-001").getCustomer().getEmail()).isEqualTo("john@example.com");
+
+            orderApi.deleteOrder("ORD-001");
+            assertThatThrownBy(() -> orderApi.getOrder("ORD-001")).hasMessageContaining("404");
+        }
+    }
+
+    @Test(description = "Carry a session between API clients through storage state")
+    @Description("Seeds a new client from the storage state of a logged-in client, as done with browser contexts")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("API Setup")
+    public void testSessionSharedThroughStorageState() {
+        try (Playwright playwright = createPlaywright()) {
+            String storageState;
+            try (ApiClient client = ApiClient.create(playwright, baseUrl, null)) {
+                new UserApi(client, dataManager).login("admin");
+                storageState = client.storageState();
+            }
+            assertThat(storageState).contains("admin-token");
+
+            try (ApiClient anonymous = ApiClient.create(playwright, baseUrl, null);
+                 ApiClient seeded = ApiClient.create(playwright, baseUrl, storageState)) {
+                assertThatThrownBy(() -> new OrderApi(anonymous, dataManager).createOrder("ORD-002"))
+                        .hasMessageContaining("401");
+                assertThat(new OrderApi(seeded, dataManager).createOrder("ORD-002").getStatus())
+                        .isEqualTo("COMPLETED");
+            }
+        }
+    }
+
+    @Test(description = "Share the session of a browser context with its API client")
+    @Description("A login through forContext is visible in the context's storage state, and a cookie set on the context authenticates API calls")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("API Setup")
+    public void testSessionSharedWithBrowserContext() {
+        try (Playwright playwright = Playwright.create();
+             Browser browser = playwright.chromium().launch();
+             BrowserContext context = browser.newContext()) {
+            ApiClient api = ApiClient.forContext(context, baseUrl);
+
+            new UserApi(api, dataManager).login("admin");
+            assertThat(context.storageState()).contains("admin-token");
+            assertThat(context.cookies(baseUrl)).extracting(cookie -> cookie.name).containsExactly("session");
+
+            context.clearCookies();
+            assertThatThrownBy(() -> new OrderApi(api, dataManager).createOrder("ORD-001"))
+                    .hasMessageContaining("401");
+
+            context.addCookies(List.of(new Cookie("session", "admin-token").setUrl(baseUrl)));
+            assertThat(new OrderApi(api, dataManager).createOrder("ORD-001").getTotal()).isEqualTo(1299.99);
+        }
+    }
+
+    @Test(description = "Copy the storage state of a standalone client into a browser context")
+    @Description("Cookies and the local storage of each origin reach the page after applyStorageStateTo")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("API Setup")
+    public void testStorageStateAppliedToBrowserContext() {
+        String seed = "{\"cookies\": [], \"origins\": [{\"origin\": \"" + baseUrl
+                + "\", \"localStorage\": [{\"name\": \"cart\", \"value\": \"ORD-002\"}]}]}";
+        try (Playwright playwright = Playwright.create();
+             Browser browser = playwright.chromium().launch();
+             BrowserContext context = browser.newContext();
+             ApiClient client = ApiClient.create(playwright, baseUrl, seed)) {
+            new UserApi(client, dataManager).login("admin");
+
+            client.applyStorageStateTo(context);
+
+            assertThat(context.storageState()).contains("admin-token");
+            Page page = context.newPage();
+            page.navigate(baseUrl + "/");
+            assertThat(page.evaluate("() => localStorage.getItem('cart')")).isEqualTo("ORD-002");
+            assertThat(page.context().pages()).hasSize(1);
+        }
+    }
+
+    private static Playwright createPlaywright() {
+        // API-only tests do not need browser binaries
+        return Playwright.create(new Playwright.CreateOptions()
+                .setEnv(Map.of("PLAYWRIGHT_SKIP_BROWSER_DOWNLOAD", "1")));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.base.BaseTest;
+import io.github.mypixelquest.pja.base.BrowserLosses;
+import io.github.mypixelquest.pja.listeners.RetryAnalyzer;
+import io.github.mypixelquest.pja.listeners.WatchdogListener;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates how tests whose browser was lost are re-run, without launching a browser
+ */
+public class BrowserCrashRetryTest {
+    // Retries disabled, one crash retry by default
+    private static final Map<String, String> DEV = Map.of("environment", "dev");
+    // Two retries, without waiting in between
+    private static final Map<String, String> QA = Map.of("retry.delayBetweenRetries", "0");
+
+    @Test(description = "A test whose browser crashed is re-run")
+    @Description("A lost browser re-runs the test up to maxCrashRetries times, even with retries disabled")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Browser Crashes")
+    public void testCrashedTestIsRerun() {
+        assertThat(decisions(new RetryAnalyzer(config(DEV), () -> true), result(new BaseTest(), false)))
+                .containsExactly(true, false);
+
+        Map<String, String> twoCrashRetries = new HashMap<>(DEV);
+        twoCrashRetries.put("retry.maxCrashRetries", "2");
+        assertThat(decisions(new RetryAnalyzer(config(twoCrashRetries), () -> true), result(new BaseTest(), false)))
+                .containsExactly(true, true, false);
+    }
+
+    @Test(description = "A test stopped by the watchdog is not re-run as a crash")
+    @Description("The watchdog kills the browser of a hung test on purpose, only the regular retries apply")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Browser Crashes")
+    public void testStoppedTestIsNotRerunAsCrash() {
+        assertThat(decisions(new RetryAnalyzer(config(DEV), () -> true), result(new BaseTest(), true)))
+                .containsExactly(false);
+        assertThat(decisions(new RetryAnalyzer(config(QA), () -> true), result(new BaseTest(), true)))
+                .containsExactly(true, true, false);
+    }
+
+    @Test(description = "Crash re-runs do not use up the retries")
+    @Description("A crash re-run is counted separately, the test keeps its maxRetries for regular failures")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Browser Crashes")
+    public void testCrashRerunsAreNotRetries() {
+        AtomicBoolean lost = new AtomicBoolean(true);
+        RetryAnalyzer analyzer = new RetryAnalyzer(config(QA), lost::get);
+        ITestResult result = result(new BaseTest(), false);
+
+        assertThat(analyzer.retry(result)).as("crash re-run").isTrue();
+        lost.set(false);
+        assertThat(decisions(analyzer, result)).containsExactly(true, true, false);
+    }
+
+    @Test(description = "Only browser tests are re-run after a crash")
+    @Description("A test that does not extend BaseTest has no browser, a lost browser of its thread does not concern it")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Browser Crashes")
+    public void testOnlyBrowserTestsAreRerun() {
+        assertThat(decisions(new RetryAnalyzer(config(DEV), () -> true), result(new Object(), false)))
+                .containsExactly(false);
+    }
+
+    @Test(description = "Lost browsers are told apart from closed ones")
+    @Description("A browser closed on purpose is not lost, a killed one is lost without a crash, any other disconnect is a crash")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Browser Crashes")
+    public void testLossClassification() {
+        BrowserLosses losses = new BrowserLosses();
+        Object closed = new Object();
+        Object killed = new Object();
+        Object crashed = new Object();
+        Object closedWhileKilled = new Object();
+
+        losses.closing(closed);
+        losses.killing(killed);
+        losses.killing(closedWhileKilled);
+        losses.closing(closedWhileKilled);
+
+        assertThat(losses.disconnected(closed, "chromium")).isEqualTo(BrowserLosses.Loss.CLOSED);
+        assertThat(losses.disconnected(killed, "chromium")).isEqualTo(BrowserLosses.Loss.KILLED);
+        assertThat(losses.disconnected(crashed, "chromium")).isEqualTo(BrowserLosses.Loss.CRASHED);
+        assertThat(losses.disconnected(closedWhileKilled, "firefox")).isEqualTo(BrowserLosses.Loss.CLOSED);
+
+        assertThat(losses.isLost(closed)).isFalse();
+        assertThat(losses.isLost(closedWhileKilled)).isFalse();
+        assertThat(losses.isLost(killed)).isTrue();
+        assertThat(losses.isLost(crashed)).isTrue();
+        assertThat(losses.crashes()).containsExactly(Map.entry("chromium", 1));
+
+        // The worker relaunches and forgets its lost browser
+        assertThat(losses.forget(crashed)).isTrue();
+        assertThat(losses.forget(closed)).isFalse();
+        assertThat(losses.isLost(crashed)).isFalse();
+        assertThat(losses.countCrash("chromium")).as("unresponsive browser").isEqualTo(2);
+    }
+
+    private static ConfigReader config(Map<String, String> systemProperties) {
+        return ConfigReader.resolve(Map.of(), systemProperties);
+    }
+
+    /**
+     * Ask the analyzer until it declines, as TestNG does for a test that keeps failing
+     */
+    private static List<Boolean> decisions(RetryAnalyzer analyzer, ITestResult result) {
+        List<Boolean> decisions = new ArrayList<>();
+        boolean retry;
+        do {
+            retry = analyzer.retry(result);
+            decisions.add(retry);
+        } while (retry && decisions.size() < 10);
+        return decisions;
+    }
+
+    private static ITestResult result(Object instance, boolean stopped) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (stopped) {
+            attributes.put(WatchdogListener.STOPPED_ATTRIBUTE, true);
+        }
+        return (ITestResult) Proxy.newProxyInstance(ITestResult.class.getClassLoader(), new Class<?>[] {ITestResult.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getAttribute" -> attributes.get((String) args[0]);
+                    case "getInstance" -> instance;
+                    case "getName" -> "checkout";
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.listeners.ParallelExecutionListener;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates how a browser matrix splits a suite into concurrent per-browser tests
+ */
+public class BrowserMatrixTest {
+
+    @Test(description = "Browser tests are split per browser")
+    @Description("With three browser types, browser tests run once per browser with weighted worker pools and other tests run once")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Browser Matrix")
+    public void testMatrixSplitsBrowserTests() {
+        ConfigReader config = ConfigReader.resolve(Map.of(), Map.of(
+                "browser.types", "chromium, firefox, WebKit",
+                "browser.weights.webkit", "2"));
+        XmlSuite suite = suite();
+
+        new ParallelExecutionListener(config).alter(List.of(suite));
+
+        assertThat(suite.getParallel()).isEqualTo(XmlSuite.ParallelMode.TESTS);
+        assertThat(suite.getThreadCount()).isEqualTo(4);
+        assertThat(suite.getTests()).extracting(XmlTest::getName).containsExactly(
+                "Regression", "Regression [chromium]", "Regression [firefox]", "Regression [webkit]");
+
+        XmlTest other = suite.getTests().get(0);
+        assertThat(other.getXmlClasses()).extracting(XmlClass::getName).containsExactly(DataPathTest.class.getName());
+        assertThat(other.getThreadCount()).isEqualTo(3);
+
+        // 3 workers per browser, 9 in all, divided 1:1:2
+        assertThat(suite.getTests().subList(1, 4)).extracting(XmlTest::getThreadCount).containsExactly(2, 2, 5);
+        for (XmlTest browserTest : suite.getTests().subList(1, 4)) {
+            assertThat(browserTest.getParallel()).isEqualTo(XmlSuite.ParallelMode.METHODS);
+            assertThat(browserTest.getXmlClasses()).extracting(XmlClass::getName).containsExactly(ExampleTest.class.getName());
+            assertThat(browserTest.getParameter("browser")).isEqualTo(browserTest.getName().replaceAll(".*\\[(.*)]", "$1"));
+            assertThat(browserTest.getParameter("retries")).isEqualTo("2");
+        }
+    }
+
+    @Test(description = "A single browser leaves the suite as it is")
+    @Description("Without browser.types the suite keeps its tests and runs methods in parallel")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Browser Matrix")
+    public void testSingleBrowserKeepsSuite() {
+        XmlSuite suite = suite();
+
+        new ParallelExecutionListener(ConfigReader.resolve(Map.of(), Map.of())).alter(List.of(suite));
+
+        assertThat(suite.getParallel()).isEqualTo(XmlSuite.ParallelMode.METHODS);
+        assertThat(suite.getTests()).extracting(XmlTest::getName).containsExactly("Regression");
+    }
+
+    private static XmlSuite suite() {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Matrix");
+        XmlTest test = new XmlTest(suite);
+        test.setName("Regression");
+        test.setParameters(Map.of("retries", "2"));
+        test.setXmlClasses(List.of(new XmlClass(ExampleTest.class), new XmlClass(DataPathTest.class)));
+        return suite;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.mypixelquest.pja.tests;
+
+import com.microsoft.playwright.Playwright;
+import io.github.mypixelquest.pja.base.BrowserProcesses;
+import io.github.mypixelquest.pja.base.BrowserRecycling;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates the recycling policy of worker browsers
+ */
+public class BrowserRecyclingTest {
+
+    @Test(description = "A browser is recycled after maxContexts contexts")
+    @Description("The context threshold applies on every call, while memory is only sampled every sampleEveryContexts contexts")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Browser Recycling")
+    public void testContextThreshold() {
+        ConfigModel.BrowserRecyclingConfig config = new ConfigModel.BrowserRecyclingConfig();
+        assertThat(new BrowserRecycling(config).isEnabled()).isFalse();
+
+        config.setMaxContexts(50);
+        BrowserRecycling recycling = new BrowserRecycling(config);
+        assertThat(recycling.isEnabled()).isTrue();
+        assertThat(recycling.isDue(null, 49)).isFalse();
+        assertThat(recycling.isDue(null, 50)).isTrue();
+
+        // Without a known driver process memory cannot be sampled
+        config.setMaxContexts(0);
+        config.setMaxRssMegabytes(1);
+        assertThat(recycling.isDue(null, 10)).isFalse();
+    }
+
+    @Test(description = "Memory is sampled from the driver's browser processes")
+    @Description("The driver process of a Playwright instance is identified, its descendants other than node are its browsers")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Browser Recycling")
+    public void testMemorySampling() {
+        Playwright playwright = BrowserProcesses.create();
+        assertThat(BrowserProcesses.driver(playwright)).hasValueSatisfying(driver ->
+                assertThat(BrowserProcesses.browsers(driver)).isEmpty());
+        try {
+            if (Files.isDirectory(Path.of("/proc"))) {
+                // No browser launched yet, the driver has no browser processes
+                assertThat(BrowserRecycling.browserRssMegabytes(playwright)).hasValue(0);
+            } else {
+                assertThat(BrowserRecycling.browserRssMegabytes(playwright)).isEmpty();
+            }
+
+            ConfigModel.BrowserRecyclingConfig config = new ConfigModel.BrowserRecyclingConfig();
+            config.setMaxRssMegabytes(1);
+            config.setSampleEveryContexts(5);
+            BrowserRecycling recycling = new BrowserRecycling(config);
+            assertThat(recycling.isDue(playwright, 4)).isFalse();
+            assertThat(recycling.isDue(playwright, 5)).as("sampled, below the threshold").isFalse();
+        } finally {
+            BrowserRecycling.close(playwright);
+        }
+    }
+}
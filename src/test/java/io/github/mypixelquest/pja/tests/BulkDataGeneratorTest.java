@@ -0,0 +1,126 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.data.BulkDataGenerator;
+import io.github.mypixelquest.pja.data.DataSchema;
+import io.github.mypixelquest.pja.data.DataTable;
+import io.github.mypixelquest.pja.data.RowIterator;
+import io.github.mypixelquest.pja.data.TestDataManager;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+
+import static io.github.mypixelquest.pja.data.DataQuery.eq;
+import static io.github.mypixelquest.pja.data.DataQuery.gte;
+import static io.github.mypixelquest.pja.data.DataQuery.lte;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Demonstrates schema-driven bulk data generation
+ */
+public class BulkDataGeneratorTest {
+    private static final DataSchema schema = DataSchema.load(Paths.get("src/test/resources/schemas/shop.yaml"));
+
+    private final TestDataManager dataManager = new TestDataManager("qa");
+    private Path workDir;
+
+    @BeforeClass(alwaysRun = true)
+    public void createWorkDir() throws IOException {
+        workDir = Files.createTempDirectory("bulk-data");
+    }
+
+    @DataProvider(name = "customers", parallel = true)
+    public static Iterator<Object[]> customers() {
+        return new BulkDataGenerator(schema).rows("customers", 20, "id", "email");
+    }
+
+    @Test(description = "Generate the same data for a seed")
+    @Description("Output is identical for the same seed however the records are partitioned")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testOutputIsDeterministic() throws IOException {
+        Path coarse = workDir.resolve("orders-coarse.json");
+        Path fine = workDir.resolve("orders-fine.json");
+        Path reseeded = workDir.resolve("orders-reseeded.json");
+
+        new BulkDataGenerator(schema).write("orders", coarse, 20_000);
+        new BulkDataGenerator(schema).partitionSize(777).write("orders", fine, 20_000);
+        new BulkDataGenerator(schema, 7).write("orders", reseeded, 20_000);
+
+        assertThat(Files.mismatch(coarse, fine)).isEqualTo(-1L);
+        assertThat(Files.mismatch(coarse, reseeded)).isNotEqualTo(-1L);
+        try (RowIterator<Map<String, Object>> rows = dataManager.streamJsonRows(coarse.toString(), "orders", "id")) {
+            assertThat(rows.next()).containsExactly("ORD-0000001");
+        }
+    }
+
+    @Test(description = "Generate data that follows the schema")
+    @Description("Generated CSV products keep their ranges, unique ids and the references of orders resolve")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testGeneratedDataFollowsSchema() {
+        Path productsFile = workDir.resolve("products.csv");
+        Path ordersFile = workDir.resolve("orders.csv");
+        BulkDataGenerator generator = new BulkDataGenerator(schema).partitionSize(2_500);
+        generator.write("products", productsFile);
+        generator.write("orders", ordersFile, 5_000);
+
+        DataTable products = dataManager.loadTable(productsFile.toString());
+        assertThat(products.size()).isEqualTo(10_000);
+        assertThat(products.count(gte("rating", 1).and(lte("rating", 5)))).isEqualTo(10_000);
+        assertThat(products.count(eq("category", "Electronics"))).isBetween(3_700, 4_300);
+
+        DataTable orders = dataManager.loadTable(ordersFile.toString());
+        for (Map<String, Object> order : orders.select(gte("quantity", 1))) {
+            assertThat(products.count(eq("id", order.get("productId")))).isEqualTo(1);
+        }
+    }
+
+    @Test(dataProvider = "customers", description = "Feed generated records to a data-driven test")
+    @Description("A data provider streams generated customers without writing a file")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Test Data Management")
+    public void testGeneratedCustomers(String id, String email) {
+        assertThat(id).matches("CUST-\\d{6}");
+        assertThat(email).matches("[a-z]{8}\\.[0-9a-z]+@example\\.com");
+    }
+
+    @Test(description = "Reject invalid schemas")
+    @Description("Unique constraints that cannot hold and unknown references fail before generating")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Test Data Management")
+    public void testInvalidSchemas() {
+        DataSchema tooSmall = new DataSchema();
+        DataSchema.EntitySchema dice = new DataSchema.EntitySchema();
+        dice.setCount(10);
+        DataSchema.FieldSchema roll = new DataSchema.FieldSchema();
+        roll.setType("integer");
+        roll.setMin(1.0);
+        roll.setMax(6.0);
+        roll.setUnique(true);
+        dice.getFields().put("roll", roll);
+        tooSmall.getEntities().put("dice", dice);
+        assertThatThrownBy(() -> new BulkDataGenerator(tooSmall, 1))
+                .hasMessageContaining("cannot hold 10 unique values");
+
+        roll.setUnique(false);
+        DataSchema.FieldSchema owner = new DataSchema.FieldSchema();
+        owner.setType("reference");
+        owner.setEntity("players");
+        owner.setField("id");
+        dice.getFields().put("owner", owner);
+        assertThatThrownBy(() -> new BulkDataGenerator(tooSmall, 1))
+                .hasMessageContaining("unknown entity players");
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Demonstrates the layered configuration and the source of its values
+ */
+@Slf4j
+public class ConfigReaderTest {
+
+    @Test(description = "Environment files inherit from the files they extend")
+    @Description("dev.yaml extends qa.yaml, which builds on base.yaml, and each value remembers its file")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Configuration")
+    public void testEnvironmentInheritance() {
+        ConfigReader dev = ConfigReader.resolve(Map.of(), Map.of("environment", "dev"));
+        ConfigModel config = dev.copyConfig();
+
+        assertThat(dev.getEnvironment()).isEqualTo("dev");
+        assertThat(config.getEnvironment().getName()).isEqualTo("dev");
+        assertThat(dev.getBaseUrl()).isEqualTo("https://playwright.dev/");
+        assertThat(dev.isHeadless()).isFalse();
+        assertThat(dev.getBrowserType()).isEqualTo("chromium");
+        assertThat(config.getRetry().isEnabled()).isFalse();
+
+        assertThat(dev.getSource("environment.name")).isEqualTo("config/dev.yaml");
+        assertThat(dev.getSource("environment.baseUrl")).isEqualTo("config/qa.yaml");
+        assertThat(dev.getSource("browser.type")).isEqualTo("config/base.yaml");
+        assertThat(dev.getSource("browser.headless")).isEqualTo("config/dev.yaml");
+        assertThat(dev.getSource("linkCheck.concurrency")).isNull();
+
+        assertThatThrownBy(() -> ConfigReader.resolve(Map.of(), Map.of("env", "staging")))
+                .hasMessageContaining("Configuration file not found: /config/staging.yaml");
+    }
+
+    @Test(description = "Environment variables and system properties override the files")
+    @Description("PJA_ variables override YAML values and system properties override both, matched case-insensitively")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Configuration")
+    public void testOverrides() {
+        ConfigReader reader = ConfigReader.resolve(
+                Map.of("PJA_BROWSER_HEADLESS", "false",
+                        "PJA_TESTEXECUTION_THREADCOUNT", "8",
+                        "PJA_BROWSER_COLOUR", "blue",
+                        "PATH", "/usr/bin"),
+                Map.of("headless", "true",
+                        "cookieConsent.selectors", "#accept, .consent button",
+                        "wait.pages.HomePage.strategy", "networkidle",
+                        "browser.colour", "blue",
+                        "java.home", "/opt/java"));
+        ConfigModel config = reader.copyConfig();
+
+        assertThat(reader.isHeadless()).isTrue();
+        assertThat(reader.getSource("browser.headless")).isEqualTo("-Dheadless");
+        assertThat(config.getTestExecution().getThreadCount()).isEqualTo(8);
+        assertThat(reader.getSource("testExecution.threadCount")).isEqualTo("env PJA_TESTEXECUTION_THREADCOUNT");
+        assertThat(config.getTestExecution().isParallel()).isTrue();
+        assertThat(reader.getCookieConsentSelectors()).isEqualTo(List.of("#accept", ".consent button"));
+        assertThat(config.getWait().getPages().get("HomePage").getStrategy()).isEqualTo("networkidle");
+        assertThat(reader.getSources()).doesNotContainKeys("browser.colour", "java.home");
+
+        String dump = reader.describe();
+        log.info("Resolved configuration:\n{}", dump);
+        assertThat(dump)
+                .contains("browser.headless = true  (-Dheadless)")
+                .contains("environment.baseUrl = https://playwright.dev/  (config/qa.yaml)");
+    }
+
+    @Test(description = "The shared configuration is resolved once")
+    @Description("getInstance returns the same resolved snapshot to every caller and thread")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Configuration")
+    public void testSingleton() throws InterruptedException {
+        ConfigReader[] fromThread = new ConfigReader[1];
+        Thread thread = new Thread(() -> fromThread[0] = ConfigReader.getInstance());
+        thread.start();
+        thread.join();
+
+        assertThat(fromThread[0]).isSameAs(ConfigReader.getInstance());
+        assertThat(ConfigReader.getInstance().getSource("environment.name")).startsWith("config/");
+    }
+
+    @Test(description = "The resolved configuration cannot be changed")
+    @Description("copyConfig hands out copies, so a listener or test changing one does not affect anyone else")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Configuration")
+    public void testConfigCannotBeChanged() {
+        ConfigReader reader = ConfigReader.resolve(Map.of(), Map.of("environment", "dev"));
+        ConfigModel copy = reader.copyConfig();
+        copy.getBrowser().setHeadless(true);
+        copy.getBrowser().setTypes(List.of("webkit"));
+        copy.getEnvironment().setBaseUrl("https://example.com/");
+
+        assertThat(reader.isHeadless()).isFalse();
+        assertThat(reader.copyConfig().getBrowser().isHeadless()).isFalse();
+        assertThat(reader.getBrowserTypes()).containsExactly("chromium");
+        assertThat(reader.getBaseUrl()).isEqualTo("https://playwright.dev/");
+        assertThat(reader.copyConfig()).isNotSameAs(copy).isNotEqualTo(copy);
+    }
+
+    @Test(description = "Per-test values are read through typed getters")
+    @Description("The getters used on every test read the resolved snapshot without copying it")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Configuration")
+    public void testTypedGetters() {
+        ConfigReader qa = ConfigReader.resolve(Map.of(), Map.of());
+        assertThat(qa.getMaxRetries()).isEqualTo(2);
+        assertThat(qa.getRetryDelay()).isEqualTo(1000);
+        assertThat(qa.getMaxCrashRetries()).isEqualTo(1);
+        assertThat(qa.isFullPageScreenshot()).isTrue();
+        assertThat(qa.getSlowMo()).isZero();
+        assertThat(qa.isBrowserProfilesEnabled()).isFalse();
+
+        ConfigReader dev = ConfigReader.resolve(Map.of(), Map.of("environment", "dev", "browser.slowMo", "50"));
+        assertThat(dev.getMaxRetries()).as("retries disabled in dev").isZero();
+        assertThat(dev.getSlowMo()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.data.DataCache;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates the concurrent data cache behind TestDataManager
+ */
+public class DataCacheTest {
+    private Path dataDir;
+
+    @BeforeClass(alwaysRun = true)
+    public void createDataDir() throws IOException {
+        dataDir = Files.createTempDirectory("data-cache");
+    }
+
+    @Test(description = "Parse a file once for concurrent readers")
+    @Description("Sixteen threads request the same file at the same time and share a single load")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testConcurrentReadersShareOneLoad() throws Exception {
+        Path file = write("users.yaml", "admin: root");
+        DataCache cache = new DataCache(8, 1024 * 1024);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(new DataCache.Key("qa", "yaml", file), path -> {
+                        loads.incrementAndGet();
+                        sleep(200);
+                        return read(path);
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("admin: root");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(1);
+        assertThat(cache.stats().getHits()).isEqualTo(15);
+    }
+
+    @Test(description = "Reload a file changed on disk")
+    @Description("A new modification time invalidates the cached content")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testChangedFileIsReloaded() throws IOException {
+        Path file = write("orders.json", "{\"id\": 1}");
+        DataCache cache = new DataCache(8, 1024 * 1024);
+        DataCache.Key key = new DataCache.Key("qa", "json", file);
+
+        assertThat(cache.get(key, DataCacheTest::read)).isEqualTo("{\"id\": 1}");
+        write("orders.json", "{\"id\": 2}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertThat(cache.get(key, DataCacheTest::read)).isEqualTo("{\"id\": 2}");
+        assertThat(cache.stats().getInvalidations()).isEqualTo(1);
+    }
+
+    @Test(description = "Keep environments and bounds apart")
+    @Description("The same file is cached per environment and the least recently used entry is evicted")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testEntriesPerEnvironmentAreEvicted() throws IOException {
+        Path file = write("products.csv", "name\nlaptop");
+        DataCache cache = new DataCache(2, 1024 * 1024);
+        DataCache.Key qa = new DataCache.Key("qa", "csv", file);
+        DataCache.Key prod = new DataCache.Key("prod", "csv", file);
+        DataCache.Key dev = new DataCache.Key("dev", "csv", file);
+
+        cache.get(qa, path -> "qa");
+        cache.get(prod, path -> "prod");
+        assertThat(cache.<String>get(qa, path -> "reloaded")).isEqualTo("qa");
+
+        cache.get(dev, path -> "dev");
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+        assertThat(cache.<String>get(prod, path -> "reloaded")).isEqualTo("reloaded");
+        assertThat(cache.<String>get(qa, path -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dataDir.resolve(name), content);
+    }
+
+    private static String read(Path path) {
+        try {
+            return Files.readString(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
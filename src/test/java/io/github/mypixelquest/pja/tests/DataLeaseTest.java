@@ -0,0 +1,221 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.data.DataLease;
+import io.github.mypixelquest.pja.data.DataLeasePool;
+import io.github.mypixelquest.pja.data.TestDataManager;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Demonstrates exclusive leasing of pooled test data records
+ */
+@Slf4j
+public class DataLeaseTest {
+    private static final List<Map<String, Object>> ACCOUNTS = List.of(
+            Map.of("username", "a@example.com"), Map.of("username", "b@example.com"), Map.of("username", "c@example.com"));
+
+    private final TestDataManager dataManager = new TestDataManager("qa");
+
+    @Test(description = "Lease accounts from a YAML pool")
+    @Description("Each lease of the admins pool in test-data.yaml gets its own account until it is returned")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Test Data Management")
+    public void testLeaseFromYamlPool() {
+        DataLeasePool admins = dataManager.leasePool("test-data.yaml", "admins");
+        assertThat(dataManager.leasePool("test-data.yaml", "admins")).isSameAs(admins);
+        assertThat(admins.size()).isEqualTo(3);
+
+        List<DataLease> leases = new ArrayList<>();
+        for (int i = 0; i < admins.size(); i++) {
+            leases.add(dataManager.lease("test-data.yaml", "admins"));
+        }
+        assertThat(leases).extracting(lease -> lease.getString("username"))
+                .doesNotHaveDuplicates()
+                .allMatch(username -> username.startsWith("admin"));
+        assertThat(admins.tryLease()).isNull();
+
+        DataLease first = leases.get(0);
+        first.close();
+        first.close();
+        assertThat(first.isValid()).isFalse();
+        try (DataLease again = admins.tryLease()) {
+            assertThat(again).isNotNull();
+            assertThat(again.getSlot()).isEqualTo(first.getSlot());
+        }
+        leases.forEach(DataLease::close);
+        assertThat(admins.leased()).isZero();
+
+        assertThatThrownBy(() -> dataManager.lease("test-data.yaml", "operators"))
+                .hasMessageContaining("No pool operators");
+    }
+
+    @Test(description = "Pools of same-named data files are separate")
+    @Description("Data files with the same name in different directories get their own lock file, and pools sharing one skip each other's records")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testSameNamedPoolsAreSeparate() throws IOException {
+        Path dir = Files.createTempDirectory("data-leases");
+        String pools = "pools:\n  admins:\n    - username: admin1\n    - username: admin2\n";
+        Path shop = Files.writeString(Files.createDirectories(dir.resolve("shop")).resolve("accounts.yaml"), pools);
+        Path backOffice = Files.writeString(Files.createDirectories(dir.resolve("back-office")).resolve("accounts.yaml"), pools);
+
+        List<DataLease> leases = new ArrayList<>();
+        for (Path file : List.of(shop, backOffice)) {
+            DataLeasePool pool = dataManager.leasePool(file.toString(), "admins");
+            for (int i = 0; i < pool.size(); i++) {
+                leases.add(pool.lease());
+            }
+        }
+        assertThat(leases).hasSize(4);
+        leases.forEach(DataLease::close);
+
+        // Pools created directly on one lock file exclude each other like JVMs do
+        Path lockFile = lockFile("shared");
+        DataLeasePool first = new DataLeasePool("shared", ACCOUNTS, lockFile, 60_000, 0);
+        DataLeasePool second = new DataLeasePool("shared", ACCOUNTS, lockFile, 60_000, 0);
+        List<DataLease> held = new ArrayList<>();
+        for (DataLease lease = first.tryLease(); lease != null; lease = first.tryLease()) {
+            held.add(lease);
+        }
+        assertThat(second.tryLease()).isNull();
+        held.forEach(DataLease::close);
+        try (DataLease lease = second.tryLease()) {
+            assertThat(lease).isNotNull();
+        }
+    }
+
+    @Test(description = "Concurrent leases are exclusive")
+    @Description("16 threads lease and return 3 accounts 500 times each, no account is ever held twice")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Test Data Management")
+    public void testConcurrentLeasesAreExclusive() throws Exception {
+        DataLeasePool pool = new DataLeasePool("concurrent", ACCOUNTS, lockFile("concurrent"), 60_000, 30_000);
+        AtomicIntegerArray holders = new AtomicIntegerArray(ACCOUNTS.size());
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                results.add(executor.submit(() -> {
+                    int overlaps = 0;
+                    for (int i = 0; i < 500; i++) {
+                        try (DataLease lease = pool.lease()) {
+                            if (holders.incrementAndGet(lease.getSlot()) != 1) {
+                                overlaps++;
+                            }
+                            Thread.yield();
+                            holders.decrementAndGet(lease.getSlot());
+                        }
+                    }
+                    return overlaps;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get(60, TimeUnit.SECONDS)).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(pool.leased()).isZero();
+    }
+
+    @Test(description = "Expired leases are taken over")
+    @Description("A lease that is not returned in time goes to the next test, and the late owner learns it lost it")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testExpiredLeaseIsTakenOver() throws Exception {
+        DataLeasePool pool = new DataLeasePool("expiring", ACCOUNTS.subList(0, 1), lockFile("expiring"), 200, 0);
+        DataLease abandoned = pool.lease();
+        assertThat(abandoned.renew()).isTrue();
+        assertThat(pool.tryLease()).isNull();
+
+        Thread.sleep(300);
+        try (DataLease next = pool.lease()) {
+            assertThat(next.getString("username")).isEqualTo("a@example.com");
+            assertThat(abandoned.isValid()).isFalse();
+            assertThat(abandoned.renew()).isFalse();
+            abandoned.close();
+            assertThat(next.isValid()).isTrue();
+        }
+        assertThat(pool.leased()).isZero();
+    }
+
+    @Test(description = "Leases are exclusive across JVMs")
+    @Description("A record leased by another JVM is skipped, and is free again once that JVM crashes")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testLeasesAcrossJvms() throws Exception {
+        Path lockFile = lockFile("shards");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process shard = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                DataLeaseTest.class.getName(), lockFile.toString())
+                .redirectErrorStream(true)
+                .start();
+        try {
+            int shardSlot = awaitLease(shard);
+            DataLeasePool pool = new DataLeasePool("shards", ACCOUNTS, lockFile, 60_000, 0);
+            List<DataLease> leases = new ArrayList<>();
+            for (DataLease lease = pool.tryLease(); lease != null; lease = pool.tryLease()) {
+                leases.add(lease);
+            }
+            assertThat(leases).hasSize(ACCOUNTS.size() - 1)
+                    .extracting(DataLease::getSlot).doesNotContain(shardSlot);
+
+            // The OS drops the file locks of a killed JVM
+            shard.destroyForcibly().waitFor(30, TimeUnit.SECONDS);
+            try (DataLease freed = pool.lease()) {
+                assertThat(freed.getSlot()).isEqualTo(shardSlot);
+            }
+            leases.forEach(DataLease::close);
+        } finally {
+            shard.destroyForcibly();
+        }
+    }
+
+    /**
+     * Second JVM for {@link #testLeasesAcrossJvms()}, holds a lease until it is killed
+     */
+    public static void main(String[] args) throws IOException {
+        DataLease lease = new DataLeasePool("shards", ACCOUNTS, Paths.get(args[0]), 60_000, 0).lease();
+        System.out.println("leased " + lease.getSlot());
+        System.out.flush();
+        System.in.read();
+    }
+
+    private static int awaitLease(Process shard) throws IOException, InterruptedException {
+        BufferedReader output = new BufferedReader(new InputStreamReader(shard.getInputStream(), StandardCharsets.UTF_8));
+        for (String line = output.readLine(); line != null; line = output.readLine()) {
+            if (line.startsWith("leased ")) {
+                return Integer.parseInt(line.substring("leased ".length()));
+            }
+        }
+        throw new IllegalStateException("Shard JVM exited without leasing, exit code " + shard.waitFor());
+    }
+
+    private static Path lockFile(String pool) throws IOException {
+        Path dir = Files.createDirectories(Paths.get("target", "data-leases"));
+        return Files.createTempFile(dir, pool, ".lock");
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.data.DataPath;
+import io.github.mypixelquest.pja.data.DataSnapshot;
+import io.github.mypixelquest.pja.data.TestDataManager;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Demonstrates compiled data path expressions
+ */
+@Slf4j
+public class DataPathTest {
+    private final TestDataManager dataManager = new TestDataManager("qa");
+
+    @Test(description = "Read nested values with indexed paths")
+    @Description("Paths index into lists and convert values to the requested type")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testIndexedPaths() {
+        Map<String, Object> orders = dataManager.loadJsonData("orders.json");
+        Map<String, Object> products = dataManager.loadCsvData("products.csv");
+
+        assertThat(dataManager.getString(orders, "orders[1].customer.email")).isEqualTo("jane@example.com");
+        assertThat(DataPath.compile("orders[1].items[0].quantity").getInt(orders)).isEqualTo(2);
+        assertThat(DataPath.compile("orders[0].customer").getMap(orders)).containsEntry("name", "John Doe");
+        assertThat(dataManager.getDouble(products, "data[1].price")).isEqualTo(699.99);
+        assertThat(dataManager.getList(orders, "orders[0].items")).hasSize(1);
+    }
+
+    @Test(description = "Project list elements to arrays")
+    @Description("[*] paths collect one value per list element into primitive arrays")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testProjections() {
+        Map<String, Object> orders = dataManager.loadJsonData("orders.json");
+        Map<String, Object> products = dataManager.loadCsvData("products.csv");
+
+        double[] totals = DataPath.compile("orders[*].total").getDoubles(orders);
+        long[] stock = DataPath.compile("data[*].stock").getLongs(products);
+        String[] ids = DataPath.compile("orders[*].id").getStrings(orders);
+
+        log.info("Order totals: {}, product stock: {}", totals, stock);
+        assertThat(totals).startsWith(1299.99, 1399.98);
+        assertThat(stock).hasSize(dataManager.getList(products, "data").size()).startsWith(50L, 100L);
+        assertThat(ids).startsWith("ORD-001", "ORD-002");
+        assertThat(dataManager.getList(orders, "orders[*].status")).startsWith("PENDING", "COMPLETED");
+    }
+
+    @Test(description = "Report missing and invalid paths")
+    @Description("Missing keys and indexes resolve to null, type mismatches name the path")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testMissingAndInvalidPaths() {
+        Map<String, Object> orders = dataManager.loadJsonData("orders.json");
+
+        assertThat(dataManager.getValue(orders, "orders[99].id")).isNull();
+        assertThat(dataManager.getValue(orders, "orders[0].coupon.code")).isNull();
+        assertThatThrownBy(() -> dataManager.getValue(orders, "orders.id"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid path: orders.id");
+        assertThatThrownBy(() -> dataManager.getDouble(orders, "orders[0].status"))
+                .hasMessageContaining("is not a number");
+        assertThatThrownBy(() -> DataPath.compile("orders[-1]"))
+                .hasMessageContaining("Invalid index");
+    }
+
+    @Test(description = "Look up values without allocating")
+    @Description("Repeated numeric lookups of compiled paths on JSON and CSV data served from the data snapshot allocate no memory")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Test Data Management")
+    public void testLookupsDoNotAllocate() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            throw new SkipException("Thread allocation counters are not available");
+        }
+        if (DataSnapshot.shared().isEmpty()) {
+            // Parsed CSV text is converted on every lookup
+            throw new SkipException("No data snapshot, it is compiled by the Maven build");
+        }
+        Map<String, Object> orders = dataManager.loadJsonData("orders.json");
+        Map<String, Object> products = dataManager.loadCsvData("products.csv");
+        DataPath total = DataPath.compile("orders[1].total");
+        DataPath quantity = DataPath.compile("orders[1].items[0].quantity");
+        DataPath price = DataPath.compile("data[1].price");
+        DataPath stock = DataPath.compile("data[1].stock");
+
+        double sum = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sum += total.getDouble(orders) + quantity.getLong(orders) + price.getDouble(products) + stock.getLong(products);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            sum += total.getDouble(orders) + quantity.getLong(orders) + price.getDouble(products) + stock.getLong(products);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        log.info("100000 lookups allocated {} bytes (checksum {})", allocated, sum);
+        assertThat(allocated).isLessThan(4096);
+    }
+}
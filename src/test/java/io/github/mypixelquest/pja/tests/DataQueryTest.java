@@ -0,0 +1,116 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.data.DataQuery;
+import io.github.mypixelquest.pja.data.DataTable;
+import io.github.mypixelquest.pja.data.TestDataManager;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+
+import static io.github.mypixelquest.pja.data.DataQuery.between;
+import static io.github.mypixelquest.pja.data.DataQuery.eq;
+import static io.github.mypixelquest.pja.data.DataQuery.gt;
+import static io.github.mypixelquest.pja.data.DataQuery.gte;
+import static io.github.mypixelquest.pja.data.DataQuery.in;
+import static io.github.mypixelquest.pja.data.DataQuery.lt;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Demonstrates indexed queries over loaded test data
+ */
+@Slf4j
+public class DataQueryTest {
+    private final TestDataManager dataManager = new TestDataManager("qa");
+
+    @Test(description = "Query CSV rows with typed columns")
+    @Description("Finds in-stock Electronics products rated 4.6 or better without scanning rows by hand")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testProductQueries() {
+        DataTable products = dataManager.loadTable("products.csv");
+
+        assertThat(products.columnType("stock")).isEqualTo(DataTable.ColumnType.LONG);
+        assertThat(products.columnType("price")).isEqualTo(DataTable.ColumnType.DOUBLE);
+        assertThat(products.columnType("id")).isEqualTo(DataTable.ColumnType.STRING);
+
+        List<Map<String, Object>> rated = products.select(
+                eq("category", "Electronics").and(gte("rating", 4.6)).and(gt("stock", 0)), "price");
+        log.info("Top rated electronics: {}", rated);
+        assertThat(rated).extracting(row -> row.get("id")).containsExactly("PROD-004", "PROD-002", "PROD-001");
+        assertThat(rated.get(0).get("stock")).isEqualTo(30L);
+
+        assertThat(products.count(between("price", "100", 200).or(eq("name", "Tablet")))).isEqualTo(6);
+        assertThat(products.count(in("id", "PROD-001", "PROD-404").not())).isEqualTo(9);
+        assertThat(dataManager.loadTable("products.csv")).isSameAs(products);
+    }
+
+    @Test(description = "Query a JSON array")
+    @Description("Finds the first pending order and sorts orders by total")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testOrderQueries() {
+        DataTable orders = dataManager.loadTable("orders.json", "orders");
+
+        Map<String, Object> pending = orders.findFirst(eq("status", "PENDING")).orElseThrow();
+        assertThat(pending.get("id")).isEqualTo("ORD-001");
+        assertThat(((Map<?, ?>) pending.get("customer")).get("email")).isEqualTo("john@example.com");
+        assertThat(orders.findFirst(eq("status", "CANCELLED"))).isEmpty();
+        assertThat(orders.select(DataQuery.all(), "total")).extracting(row -> row.get("total"))
+                .isSortedAccordingTo((a, b) -> Double.compare((Double) a, (Double) b));
+
+        assertThatThrownBy(() -> orders.select(lt("customer", "x")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cannot be ordered");
+        assertThatThrownBy(() -> orders.count(eq("coupon", "SAVE10")))
+                .hasMessageContaining("Unknown column coupon");
+    }
+
+    @Test(description = "Indexed queries match a full scan")
+    @Description("Random queries over 100000 generated rows return the same rows as filtering each row")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testIndexedQueriesMatchScan() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Map<String, Object>> records = new ArrayList<>();
+        String[] categories = {"Electronics", "Accessories", "Books", "Garden"};
+        for (int i = 0; i < 100_000; i++) {
+            records.add(Map.of(
+                    "id", "ID-" + i,
+                    "category", categories[random.nextInt(categories.length)],
+                    "stock", String.valueOf(random.nextInt(200)),
+                    "price", String.valueOf(random.nextInt(100_000) / 100.0)));
+        }
+        DataTable table = DataTable.of("generated", records);
+
+        for (int i = 0; i < 50; i++) {
+            String category = categories[random.nextInt(categories.length)];
+            long minStock = random.nextInt(200);
+            double maxPrice = random.nextInt(100_000) / 100.0;
+            DataQuery query = eq("category", category).and(gte("stock", minStock)).and(lt("price", maxPrice));
+            Predicate<Map<String, Object>> scan = row -> row.get("category").equals(category)
+                    && Long.parseLong((String) row.get("stock")) >= minStock
+                    && Double.parseDouble((String) row.get("price")) < maxPrice;
+
+            List<Object> expected = records.stream().filter(scan).map(row -> row.get("id")).toList();
+            assertThat(table.select(query)).extracting(row -> row.get("id")).containsExactlyElementsOf(expected);
+        }
+
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < 10_000; i++) {
+            found += table.count(eq("id", "ID-" + random.nextInt(100_000)));
+        }
+        log.info("10000 indexed lookups over {} took {} ms", table, (System.nanoTime() - start) / 1_000_000);
+        assertThat(found).isEqualTo(10_000);
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.mypixelquest.pja.tests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.github.mypixelquest.pja.data.DataSnapshot;
+import io.github.mypixelquest.pja.data.DataSnapshotCompiler;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates the compiled, memory-mapped data snapshot
+ */
+public class DataSnapshotTest {
+    private static final Path DATA_DIR = Paths.get("src/test/resources/data");
+
+    private Path workDir;
+
+    @BeforeClass(alwaysRun = true)
+    public void createWorkDir() throws IOException {
+        workDir = Files.createTempDirectory("data-snapshot");
+    }
+
+    @Test(description = "Read the data directory from a snapshot")
+    @Description("Every data file read from the snapshot equals the data parsed by Jackson")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testSnapshotMatchesJackson() throws IOException {
+        Path snapshotFile = workDir.resolve("data.bin");
+        new DataSnapshotCompiler().compile(DATA_DIR, snapshotFile);
+        DataSnapshot snapshot = DataSnapshot.open(snapshotFile);
+
+        assertSameData(snapshot, DATA_DIR, "test-data.yaml", "yaml");
+        assertSameData(snapshot, DATA_DIR, "prod/test-data.yaml", "yaml");
+        assertSameData(snapshot, DATA_DIR, "orders.json", "json");
+        assertSameData(snapshot, DATA_DIR, "products.csv", "csv");
+    }
+
+    @Test(description = "Keep exact values of tricky data")
+    @Description("Numbers, nulls, unicode and CSV text that only looks numeric survive the snapshot unchanged")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testTrickyValuesAreExact() throws IOException {
+        Path dataDir = Files.createDirectories(workDir.resolve("tricky"));
+        Files.writeString(dataDir.resolve("values.yaml"), """
+                small: 42
+                large: 9876543210
+                huge: 123456789012345678901234567890
+                ratio: 0.1
+                enabled: false
+                missing: null
+                name: "Zoë – 東京"
+                nested:
+                  - [1, two, 3.5]
+                  - {key: value}
+                """);
+        Files.writeString(dataDir.resolve("codes.csv"), """
+                code,amount,price,note
+                007,10,1.50,
+                12,-3,2.5,"a, b"
+                """);
+        Path snapshotFile = workDir.resolve("tricky.bin");
+        new DataSnapshotCompiler().compile(dataDir, snapshotFile);
+        DataSnapshot snapshot = DataSnapshot.open(snapshotFile);
+
+        assertSameData(snapshot, dataDir, "values.yaml", "yaml");
+        assertSameData(snapshot, dataDir, "codes.csv", "csv");
+    }
+
+    @Test(description = "Look up keys of a wide map")
+    @Description("Keys are found by binary search over the sorted key index, while iteration keeps the document order")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testWideMapLookups() throws IOException {
+        Path dataDir = Files.createDirectories(workDir.resolve("wide"));
+        StringBuilder yaml = new StringBuilder();
+        for (int i = 500; i > 0; i--) {
+            yaml.append("key").append(i).append(": ").append(i).append('\n');
+        }
+        Files.writeString(dataDir.resolve("wide.yaml"), yaml);
+        Path snapshotFile = workDir.resolve("wide.bin");
+        new DataSnapshotCompiler().compile(dataDir, snapshotFile);
+        Map<String, Object> wide = DataSnapshot.open(snapshotFile).find(dataDir, dataDir.resolve("wide.yaml"))
+                .orElseThrow();
+
+        for (int i = 1; i <= 500; i++) {
+            assertThat(wide.get("key" + i)).isEqualTo(i);
+        }
+        assertThat(wide.containsKey("key0")).isFalse();
+        assertThat(wide.containsKey("key999")).isFalse();
+        assertThat(wide.containsKey(1)).isFalse();
+        assertThat(wide.keySet()).first().isEqualTo("key500");
+    }
+
+    @Test(description = "Ignore snapshot entries of changed files")
+    @Description("A data file edited after the snapshot was compiled is not served from the snapshot")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testChangedFileIsNotServed() throws IOException {
+        Path dataDir = Files.createDirectories(workDir.resolve("changed"));
+        Path file = Files.writeString(dataDir.resolve("users.json"), "{\"admin\": \"root\"}");
+        Path snapshotFile = workDir.resolve("changed.bin");
+        new DataSnapshotCompiler().compile(dataDir, snapshotFile);
+        DataSnapshot snapshot = DataSnapshot.open(snapshotFile);
+        assertThat(snapshot.find(dataDir, file)).hasValue(Map.of("admin", "root"));
+
+        Files.writeString(file, "{\"admin\": \"admin\"}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertThat(snapshot.find(dataDir, file)).isEmpty();
+    }
+
+    private static void assertSameData(DataSnapshot snapshot, Path dataDir, String fileName, String format)
+            throws IOException {
+        Path file = dataDir.resolve(fileName);
+        Map<String, Object> fromSnapshot = snapshot.find(dataDir, file).orElseThrow();
+        assertThat(fromSnapshot).as(fileName).isEqualTo(parse(file, format));
+        // Same iteration order and value types as the parsed maps
+        assertThat(fromSnapshot.toString()).as(fileName).isEqualTo(parse(file, format).toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(Path file, String format) throws IOException {
+        return switch (format) {
+            case "yaml" -> new ObjectMapper(new YAMLFactory()).readValue(file.toFile(), Map.class);
+            case "json" -> new ObjectMapper().readValue(file.toFile(), Map.class);
+            default -> {
+                List<Map<String, String>> rows = new CsvMapper().readerFor(Map.class)
+                        .with(CsvSchema.emptySchema().withHeader())
+                        .<Map<String, String>>readValues(file.toFile())
+                        .readAll();
+                yield Map.of("data", rows);
+            }
+        };
+    }
+}
@@ -30,11 +30,9 @@ public class ExampleTest extends BaseTest {
         log.info("Running test: Homepage navigation");
         
         getCurrentPage().ifPresent(page -> {
+            // BaseTest has already opened the homepage (baseUrl)
             ExamplePage examplePage = new ExamplePage(page);
             
-            // Navigate to homepage
-            examplePage.navigate();
-            
             // Verify page loaded successfully
             assertThat(examplePage.isLoaded())
                     .as("Homepage should be loaded")
@@ -61,11 +59,9 @@ public class ExampleTest extends BaseTest {
         log.info("Running test: Java documentation navigation");
         
         getCurrentPage().ifPresent(page -> {
+            // BaseTest has already opened the homepage (baseUrl)
             ExamplePage examplePage = new ExamplePage(page);
             
-            // Navigate to homepage
-            examplePage.navigate();
-            
             // Navigate to Java documentation
             examplePage.navigateToLanguage("java");
             
@@ -87,11 +83,9 @@ public class ExampleTest extends BaseTest {
         log.info("Running test: Search functionality");
         
         getCurrentPage().ifPresent(page -> {
+            // BaseTest has already opened the homepage (baseUrl)
             ExamplePage examplePage = new ExamplePage(page);
             
-            // Navigate to homepage
-            examplePage.navigate();
-            
             // Open search dialog
             examplePage.openSearch();
             
@@ -113,11 +107,9 @@ public class ExampleTest extends BaseTest {
         log.info("Running test: Tools navigation");
         
         getCurrentPage().ifPresent(page -> {
+            // BaseTest has already opened the homepage (baseUrl)
             ExamplePage examplePage = new ExamplePage(page);
             
-            // Navigate to homepage
-            examplePage.navigate();
-            
             // Navigate to Codegen tool
             examplePage.navigateToTool("codegen");
             
@@ -0,0 +1,159 @@
+package io.github.mypixelquest.pja.tests;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.mypixelquest.pja.utils.LinkCheckResult;
+import io.github.mypixelquest.pja.utils.LinkChecker;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates HTTP link verification against a local stub server
+ */
+@Slf4j
+public class LinkCheckerTest {
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeClass(alwaysRun = true)
+    public void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            int hit = hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            if ("/flaky".equals(path) && hit == 1) {
+                // Drops the first connection without a response, like a network failure
+                exchange.close();
+                return;
+            }
+            int status = switch (path) {
+                case "/ok", "/cached", "/flaky" -> 200;
+                case "/redirect" -> 301;
+                // Rejects HEAD but serves GET, like many CDNs
+                case "/no-head" -> "HEAD".equals(exchange.getRequestMethod()) ? 405 : 200;
+                case "/error" -> 500;
+                default -> 404;
+            };
+            if (status == 301) {
+                exchange.getResponseHeaders().add("Location", "/ok");
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        LinkChecker.clearCache();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStubServer() {
+        server.stop(0);
+        LinkChecker.clearCache();
+    }
+
+    @Test(description = "Report broken links with their status")
+    @Description("Checks a mix of working and broken links concurrently and reports the broken ones")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Link Verification")
+    public void testBrokenLinksAreReported() {
+        List<LinkCheckResult> results;
+        try (LinkChecker checker = new LinkChecker(4, 50, 5000)) {
+            results = checker.check(List.of(
+                    baseUrl + "/ok", baseUrl + "/redirect", baseUrl + "/no-head",
+                    baseUrl + "/missing", baseUrl + "/error"));
+        }
+
+        Map<String, Integer> broken = results.stream()
+                .filter(LinkCheckResult::isBroken)
+                .collect(Collectors.toMap(LinkCheckResult::getUrl, LinkCheckResult::getStatus));
+        log.info("Broken links: {}", broken);
+
+        assertThat(results).hasSize(5);
+        assertThat(broken).containsOnly(
+                Map.entry(baseUrl + "/missing", 404),
+                Map.entry(baseUrl + "/error", 500));
+    }
+
+    @Test(description = "Reuse cached link results")
+    @Description("Checks the same link twice and verifies the server is only hit once")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Link Verification")
+    public void testResultsAreCached() {
+        try (LinkChecker checker = new LinkChecker(2, 0, 5000)) {
+            checker.check(List.of(baseUrl + "/cached"));
+            List<LinkCheckResult> results = checker.check(List.of(baseUrl + "/cached"));
+
+            assertThat(results).singleElement().extracting(LinkCheckResult::getStatus).isEqualTo(200);
+            assertThat(hits.get("/cached")).hasValue(1);
+        }
+    }
+
+    @Test(description = "Check network failures again")
+    @Description("A link without a response is reported broken but not cached, the next sweep checks it again")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Link Verification")
+    public void testNetworkFailuresAreNotCached() {
+        try (LinkChecker checker = new LinkChecker(2, 0, 5000)) {
+            assertThat(checker.check(List.of(baseUrl + "/flaky"))).singleElement()
+                    .satisfies(result -> assertThat(result.getStatus()).isZero())
+                    .satisfies(result -> assertThat(result.getError()).isNotNull());
+
+            assertThat(checker.check(List.of(baseUrl + "/flaky"))).singleElement()
+                    .extracting(LinkCheckResult::getStatus).isEqualTo(200);
+        }
+    }
+
+    @Test(description = "Report malformed links without stopping the sweep")
+    @Description("A malformed href is reported broken on its own, the other links of the sweep are still checked")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Link Verification")
+    public void testMalformedLinksAreReported() {
+        try (LinkChecker checker = new LinkChecker(2, 50, 5000)) {
+            List<LinkCheckResult> results = checker.check(List.of(
+                    baseUrl + "/ok", "http://exa mple.com/a b", "/relative"));
+
+            assertThat(results).extracting(LinkCheckResult::getStatus).containsExactly(200, 0, 0);
+            assertThat(results.subList(1, 3)).allSatisfy(result ->
+                    assertThat(result.getError()).startsWith("Malformed URL"));
+        }
+    }
+
+    @Test(description = "Reuse the worker drivers across sweeps")
+    @Description("Consecutive sweeps of one checker run on the same worker threads and their Playwright drivers")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Link Verification")
+    public void testWorkersAreReused() {
+        try (LinkChecker checker = new LinkChecker(2, 0, 5000)) {
+            checker.check(List.of(baseUrl + "/reuse-1", baseUrl + "/reuse-2"));
+            Set<Thread> workers = linkCheckWorkers();
+            checker.check(List.of(baseUrl + "/reuse-3", baseUrl + "/reuse-4"));
+
+            // No new worker threads, those of closed checkers may still be exiting
+            assertThat(workers).isNotEmpty();
+            assertThat(linkCheckWorkers()).isNotEmpty().isSubsetOf(workers);
+        }
+    }
+
+    private static Set<Thread> linkCheckWorkers() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("pja-link-checker-"))
+                .collect(Collectors.toSet());
+    }
+}
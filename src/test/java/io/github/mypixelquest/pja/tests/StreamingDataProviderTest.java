@@ -0,0 +1,103 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.data.RowIterator;
+import io.github.mypixelquest.pja.data.TestDataManager;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Demonstrates lazy data providers that stream rows from CSV and JSON files
+ */
+@Slf4j
+public class StreamingDataProviderTest {
+    private static final TestDataManager dataManager = new TestDataManager("qa");
+
+    @DataProvider(name = "electronics", parallel = true)
+    public static Iterator<Object[]> electronics() {
+        return dataManager.streamCsvRows("products.csv",
+                row -> "Electronics".equals(row.get("category")), "id", "name", "category");
+    }
+
+    @DataProvider(name = "orders", parallel = true)
+    public static Iterator<Object[]> orders() {
+        return dataManager.streamJsonRows("orders.json", "orders");
+    }
+
+    @Test(description = "Drive a test from filtered, projected CSV rows", dataProvider = "electronics")
+    @Description("Streams products.csv, keeping only electronics and passing three columns as parameters")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    public void testElectronicsProduct(String id, String name, String category) {
+        log.info("Product {}: {}", id, name);
+        assertThat(id).startsWith("PROD-");
+        assertThat(category).isEqualTo("Electronics");
+    }
+
+    @Test(description = "Drive a test from streamed JSON array elements", dataProvider = "orders")
+    @Description("Streams the orders array of orders.json, passing each order as a Map")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Test Data Management")
+    @SuppressWarnings("unchecked")
+    public void testOrder(Map<String, Object> order) {
+        List<Map<String, Object>> items = (List<Map<String, Object>>) order.get("items");
+        log.info("Order {} with {} items", order.get("id"), items.size());
+        assertThat(order.get("id").toString()).startsWith("ORD-");
+        assertThat(items).isNotEmpty();
+    }
+
+    @Test(description = "Stream a large CSV file row by row")
+    @Description("Reads 200,000 generated rows through the lazy iterator without materializing them")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Test Data Management")
+    public void testLargeCsvIsStreamed() throws IOException {
+        Path file = Files.createTempFile("large-", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+                writer.write("id,value\n");
+                for (int i = 0; i < 200_000; i++) {
+                    writer.write(i + "," + (i % 10) + "\n");
+                }
+            }
+
+            long matching = 0;
+            try (RowIterator<Map<String, String>> rows = dataManager.streamCsvRows(file.toString(),
+                    row -> "7".equals(row.get("value")), "id")) {
+                while (rows.hasNext()) {
+                    rows.next();
+                    matching++;
+                }
+            }
+            assertThat(matching).isEqualTo(20_000);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(description = "Reject unknown projected columns")
+    @Description("A misspelled column fails on the first row instead of passing null parameters")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Test Data Management")
+    public void testUnknownColumnIsRejected() {
+        try (RowIterator<Map<String, String>> rows = dataManager.streamCsvRows("products.csv", "sku")) {
+            assertThatThrownBy(rows::next)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("sku");
+        }
+    }
+}
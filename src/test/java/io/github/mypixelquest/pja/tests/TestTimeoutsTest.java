@@ -0,0 +1,131 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.base.TestDeadline;
+import io.github.mypixelquest.pja.base.TestTimeouts;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates timeouts derived from the recorded durations of tests and steps
+ */
+public class TestTimeoutsTest {
+
+    @Test(description = "Timeouts follow the percentile of recorded durations")
+    @Description("A test or step with history gets its p99 times the factor, clamped to the bounds, and falls back to the configured timeouts without it")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Adaptive Timeouts")
+    public void testTimeoutsFromHistory() throws Exception {
+        TestTimeouts timeouts = new TestTimeouts(Files.createTempDirectory("pja-timeouts").resolve("durations.json"),
+                config(), 30000);
+        for (long millis = 1000; millis <= 5000; millis += 1000) {
+            timeouts.record("SlowTest.run", millis);
+            timeouts.record("FastTest.run", millis / 10);
+            timeouts.record("ExamplePage/load", millis / 5);
+        }
+        timeouts.record("NewTest.run", 1000);
+
+        assertThat(timeouts.percentile("SlowTest.run")).hasValue(5000);
+        assertThat(timeouts.testBudget("SlowTest.run")).isEqualTo(15000);
+        assertThat(timeouts.testBudget("FastTest.run")).as("clamped to minTestMillis").isEqualTo(10000);
+        assertThat(timeouts.testBudget("NewTest.run")).as("too few samples").isEqualTo(180000);
+        assertThat(timeouts.stepTimeout("ExamplePage/load")).isEqualTo(3000);
+        assertThat(timeouts.stepTimeout("OtherPage/load")).isEqualTo(30000);
+        assertThat(timeouts.stepTimeout(null)).isEqualTo(30000);
+
+        // Only the most recent maxSamples durations count
+        for (int i = 0; i < 50; i++) {
+            timeouts.record("SlowTest.run", 4000);
+        }
+        assertThat(timeouts.percentile("SlowTest.run")).hasValue(4000);
+    }
+
+    @Test(description = "Recorded durations are kept across runs")
+    @Description("The history file written at the end of a run is loaded by the next one")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Adaptive Timeouts")
+    public void testHistoryIsPersisted() throws Exception {
+        Path file = Files.createTempDirectory("pja-timeouts").resolve("durations.json");
+        TestTimeouts first = new TestTimeouts(file, config(), 30000);
+        for (int i = 0; i < 5; i++) {
+            first.record("ExampleTest.testSearch [chromium]", 2000 + i);
+        }
+        first.save();
+
+        TestTimeouts next = new TestTimeouts(file, config(), 30000);
+        assertThat(next.percentile("ExampleTest.testSearch [chromium]")).hasValue(2004);
+        assertThat(next.testBudget("ExampleTest.testSearch [chromium]")).isEqualTo(10000);
+    }
+
+    @Test(description = "Parallel runs keep each other's durations")
+    @Description("JVMs or CI shards saving the same history file append their durations to it instead of overwriting it")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Adaptive Timeouts")
+    public void testParallelRunsAreMerged() throws Exception {
+        Path file = Files.createTempDirectory("pja-timeouts").resolve("durations.json");
+        ConfigModel.TimeoutConfig config = config();
+        config.setMaxSamples(6);
+        config.setMinSamples(1);
+        // The lowest duration, to see which ones the history kept
+        config.setPercentile(1);
+        String test = "ExampleTest.testSearch [chromium]";
+
+        TestTimeouts shard1 = new TestTimeouts(file, config, 30000);
+        TestTimeouts shard2 = new TestTimeouts(file, config, 30000);
+        for (int i = 0; i < 3; i++) {
+            shard1.record(test, 1000 + i);
+            shard2.record(test, 5000 + i);
+        }
+        shard1.save();
+        shard2.save();
+        assertThat(new TestTimeouts(file, config, 30000).percentile(test)).hasValue(1000);
+
+        // Saving again adds nothing that was already saved, a new duration pushes out the oldest
+        shard1.save();
+        shard1.record(test, 9000);
+        shard1.save();
+        TestTimeouts next = new TestTimeouts(file, config, 30000);
+        assertThat(next.percentile(test)).hasValue(1001);
+        config.setPercentile(100);
+        assertThat(next.percentile(test)).hasValue(9000);
+    }
+
+    @Test(description = "Step timeouts shrink with the test deadline")
+    @Description("Each step gets its own timeout but never more than what is left of the test's budget")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Adaptive Timeouts")
+    public void testDeadlineShrinks() throws Exception {
+        ConfigModel.TimeoutConfig config = config();
+        config.setMaxTestMillis(300);
+        TestTimeouts timeouts = new TestTimeouts(Files.createTempDirectory("pja-timeouts").resolve("durations.json"),
+                config, 30000);
+        try {
+            TestDeadline deadline = timeouts.start("HangingTest.run");
+
+            assertThat(TestDeadline.current()).containsSame(deadline);
+            assertThat(deadline.getBudgetMillis()).isEqualTo(300);
+            assertThat(deadline.timeout(null)).isBetween(1L, 300L);
+
+            Thread.sleep(350);
+            assertThat(deadline.remainingMillis()).isNegative();
+            assertThat(deadline.timeout(null)).as("0 would disable the timeout").isEqualTo(1);
+        } finally {
+            TestDeadline.clear();
+        }
+        assertThat(TestDeadline.current()).isEmpty();
+    }
+
+    private static ConfigModel.TimeoutConfig config() {
+        ConfigModel.TimeoutConfig config = new ConfigModel.TimeoutConfig();
+        config.setAdaptive(true);
+        return config;
+    }
+}
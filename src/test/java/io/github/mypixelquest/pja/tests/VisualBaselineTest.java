@@ -0,0 +1,119 @@
+package io.github.mypixelquest.pja.tests;
+
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.visual.ImageComparator;
+import io.github.mypixelquest.pja.visual.VisualBaseline;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Demonstrates visual baseline assertions on generated images
+ */
+public class VisualBaselineTest {
+    private Path workDir;
+    private VisualBaseline baselines;
+    private VisualBaseline recorder;
+
+    @BeforeClass(alwaysRun = true)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("visual");
+        ConfigModel.VisualConfig config = new ConfigModel.VisualConfig();
+        config.setBaselineDir(workDir.resolve("baselines").toString());
+        config.setDiffDir(workDir.resolve("diffs").toString());
+        baselines = new VisualBaseline(config, "chromium", false);
+        recorder = new VisualBaseline(config, "chromium", true);
+    }
+
+    @Test(description = "Record a baseline and match it")
+    @Description("A run with updateBaselines records the capture, small rendering noise stays within the tolerance")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Visual Regression")
+    public void testBaselineRecordedAndMatched() {
+        recorder.assertMatches("home", render(Color.WHITE, null), List.of());
+        assertThat(workDir.resolve("baselines/chromium/home.png")).exists();
+
+        baselines.assertMatches("home", render(new Color(252, 253, 255), null), List.of());
+    }
+
+    @Test(description = "Fail on a changed region and write a diff image")
+    @Description("A new element fails the comparison unless its region is masked")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Visual Regression")
+    public void testChangedRegionFailsUnlessMasked() {
+        Rectangle banner = new Rectangle(20, 30, 120, 40);
+        recorder.assertMatches("banner", render(Color.WHITE, null), List.of());
+
+        assertThatThrownBy(() -> baselines.assertMatches("banner", render(Color.WHITE, banner), List.of()))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("pixels differ");
+        assertThat(workDir.resolve("diffs/chromium/banner_diff.png")).exists();
+
+        baselines.assertMatches("banner", render(Color.WHITE, banner), List.of(banner));
+    }
+
+    @Test(description = "Fail on a missing baseline")
+    @Description("Without updateBaselines a missing baseline fails the check instead of being recorded")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Visual Regression")
+    public void testMissingBaselineFails() {
+        assertThatThrownBy(() -> baselines.assertMatches("checkout", render(Color.WHITE, null), List.of()))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("No baseline")
+                .hasMessageContaining("-DupdateBaselines=true");
+        assertThat(workDir.resolve("baselines/chromium/checkout.png")).doesNotExist();
+        assertThat(workDir.resolve("diffs/chromium/checkout_actual.png")).exists();
+    }
+
+    @Test(description = "Decode PNG screenshots to ARGB pixels")
+    @Description("The fast raster conversion yields the same pixels as BufferedImage.getRGB")
+    @Severity(SeverityLevel.MINOR)
+    @Story("Visual Regression")
+    public void testDecodeMatchesImageIo() throws IOException {
+        byte[] png = render(new Color(10, 120, 240), new Rectangle(5, 5, 50, 50));
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+
+        assertThat(ImageComparator.decode(png).getPixels())
+                .isEqualTo(image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()));
+    }
+
+    private static byte[] render(Color background, Rectangle banner) {
+        BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(background);
+        graphics.fillRect(0, 0, 400, 300);
+        graphics.setColor(Color.DARK_GRAY);
+        graphics.fillRect(20, 200, 360, 20);
+        if (banner != null) {
+            graphics.setColor(Color.RED);
+            graphics.fill(banner);
+        }
+        graphics.dispose();
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.mypixelquest.pja.tests;
+
+import com.microsoft.playwright.Playwright;
+import io.github.mypixelquest.pja.base.BrowserProcesses;
+import io.github.mypixelquest.pja.base.BrowserRecycling;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.listeners.WatchdogListener;
+import io.qameta.allure.Description;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Demonstrates how the watchdog stops a hung test and lets its worker continue
+ */
+public class WatchdogTest {
+
+    @Test(description = "A hung test is stopped at its deadline")
+    @Description("A test sleeping past its deadline is interrupted, and a thread dump showing where it hung is saved. Its browser is only killed when the thread is blocked in Playwright")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Watchdog")
+    public void testHungTestIsStopped() throws Exception {
+        Path dumpDir = Files.createTempDirectory("pja-watchdog");
+        WatchdogListener watchdog = new WatchdogListener(config(dumpDir));
+
+        AtomicBoolean browserKilled = new AtomicBoolean();
+        long start = System.nanoTime();
+        WatchdogListener.Watch watch = watchdog.watch("HungTest.run", 200, () -> browserKilled.set(true), () -> null);
+        boolean interrupted = false;
+        try {
+            Thread.sleep(30000);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertThat(watch.finish()).isTrue();
+        assertThat(interrupted).isTrue();
+        assertThat(browserKilled).as("not hung in Playwright").isFalse();
+        assertThat(elapsedMs).isLessThan(10000);
+        assertThat(Thread.currentThread().isInterrupted()).as("the worker continues with a clean thread").isFalse();
+        assertThat(watch.getThreadDump()).hasValueSatisfying(dump -> assertThat(dump)
+                .startsWith("\"" + Thread.currentThread().getName() + "\"")
+                .contains("testHungTestIsStopped"));
+        try (Stream<Path> files = Files.list(dumpDir)) {
+            assertThat(files).singleElement().satisfies(file ->
+                    assertThat(file.getFileName().toString()).startsWith("HungTest.run_").endsWith("_threads.txt"));
+        }
+    }
+
+    @Test(description = "A test finishing in time is left alone")
+    @Description("Finishing before the deadline cancels the watch without a capture or an interrupt")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Watchdog")
+    public void testTestInTimeIsNotStopped() throws Exception {
+        Path dumpDir = Files.createTempDirectory("pja-watchdog");
+        WatchdogListener watchdog = new WatchdogListener(config(dumpDir));
+
+        WatchdogListener.Watch watch = watchdog.watch("FastTest.run", 1000, null, () -> null);
+        Thread.sleep(50);
+
+        assertThat(watch.finish()).isFalse();
+        assertThat(watch.getThreadDump()).isEmpty();
+        Thread.sleep(1200);
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+        try (Stream<Path> files = Files.list(dumpDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test(description = "The browsers of a hung test can be found")
+    @Description("The watchdog kills the browsers of a test hung in Playwright through the OS processes of its driver, so the driver must be identified")
+    @Severity(SeverityLevel.CRITICAL)
+    @Story("Watchdog")
+    public void testDriverProcessIsFound() {
+        Playwright playwright = BrowserProcesses.create();
+        try {
+            assertThat(BrowserProcesses.driver(playwright)).as("driver process").hasValueSatisfying(driver -> {
+                assertThat(driver.parent()).contains(ProcessHandle.current());
+                assertThat(BrowserProcesses.kill(driver)).as("no browser launched").isZero();
+                assertThat(driver.isAlive()).as("the driver keeps running").isTrue();
+            });
+        } finally {
+            BrowserRecycling.close(playwright);
+        }
+    }
+
+    private static ConfigModel.WatchdogConfig config(Path dumpDir) {
+        ConfigModel.WatchdogConfig config = new ConfigModel.WatchdogConfig();
+        config.setEnabled(true);
+        config.setDumpDir(dumpDir.toString());
+        return config;
+    }
+}
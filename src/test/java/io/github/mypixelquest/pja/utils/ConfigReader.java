@@ -1,6 +1,10 @@
 package io.github.mypixelquest.pja.utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import io.github.mypixelquest.pja.config.ConfigModel;
 import org.slf4j.Logger;
@@ -8,107 +12,501 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 /**
- * Singleton utility class for loading and accessing test configuration
+ * Singleton access to the test configuration, resolved once per JVM from these layers,
+ * each overriding the previous one:
+ * <ol>
+ *   <li>config/base.yaml, shared by all environments (optional)</li>
+ *   <li>config/&lt;environment&gt;.yaml, after the environments it names with {@code extends}</li>
+ *   <li>environment variables, e.g. {@code PJA_BROWSER_HEADLESS=false}</li>
+ *   <li>system properties, e.g. {@code -Dbrowser.headless=false}</li>
+ * </ol>
+ * The environment is selected with -Denvironment (or -Denv, PJA_ENVIRONMENT) and defaults to qa.
+ * The resolved configuration never changes afterwards, so reading it takes no lock, and the layer
+ * that supplied each value is kept for {@link #getSource(String)} and {@link #describe()}.
+ * The typed getters read the snapshot directly. {@link #copyConfig()} hands out a copy of the whole tree
+ * for callers that need a section no getter covers, the configuration beans stay mutable for sections built by hand.
  */
 public class ConfigReader {
     private static final Logger log = LoggerFactory.getLogger(ConfigReader.class);
-    private static ConfigReader instance;
-    private ConfigModel config;
-    
-    private ConfigReader() {
-        loadConfig();
+    private static final ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+    private static final String CONFIG_DIR = "/config/";
+    private static final String ENV_PREFIX = "PJA_";
+    // Short system properties kept from before the configuration was layered
+    private static final Map<String, String> ALIASES = Map.of(
+            "headless", "browser.headless",
+            "baseUrl", "environment.baseUrl",
+            "updateBaselines", "visual.updateBaselines");
+    private static final Pattern SECRET = Pattern.compile("(?i).*(password|secret|token|apikey).*");
+
+    private final String environment;
+    // Resolved values, never handed out
+    private final JsonNode tree;
+    private final ConfigModel config;
+    private final Map<String, String> values;
+    private final Map<String, String> sources;
+
+    private ConfigReader(String environment, JsonNode tree, ConfigModel config, Map<String, String> values,
+                         Map<String, String> sources) {
+        this.environment = environment;
+        this.tree = tree;
+        this.config = config;
+        this.values = Collections.unmodifiableMap(values);
+        this.sources = Collections.unmodifiableMap(sources);
     }
-    
+
+    /**
+     * Lazily resolved by the JVM's class initialization, which also publishes it safely to all threads
+     */
+    private static final class Holder {
+        private static final ConfigReader INSTANCE = create();
+
+        private static ConfigReader create() {
+            ConfigReader reader = resolve(System.getenv(), System.getProperties());
+            log.info("Resolved configuration for environment {}:\n{}", reader.environment, reader.describe());
+            return reader;
+        }
+    }
+
     /**
      * Get the singleton instance of ConfigReader
-     * 
+     *
      * @return ConfigReader instance
      */
-    public static synchronized ConfigReader getInstance() {
-        if (instance == null) {
-            instance = new ConfigReader();
-        }
-        return instance;
+    public static ConfigReader getInstance() {
+        return Holder.INSTANCE;
     }
-    
+
     /**
-     * Load configuration from the appropriate YAML file
+     * Resolve the configuration layers for the given environment variables and system properties
+     *
+     * @param environmentVariables Environment variables, PJA_ variables override configuration values
+     * @param systemProperties System properties, dotted names of configuration values override them
+     * @return A new ConfigReader, {@link #getInstance()} resolves the JVM's own once
      */
-    private void loadConfig() {
-        String environment = System.getProperty("environment", "qa");
-        String configFile = String.format("/config/%s.yaml", environment);
-        
-        log.info("Loading configuration from {}", configFile);
-        
-        try (InputStream inputStream = getClass().getResourceAsStream(configFile)) {
-            if (inputStream == null) {
-                throw new IOException("Configuration file not found: " + configFile);
+    public static ConfigReader resolve(Map<String, String> environmentVariables, Map<?, ?> systemProperties) {
+        String environment = Optional.ofNullable((String) systemProperties.get("environment"))
+                .or(() -> Optional.ofNullable((String) systemProperties.get("env")))
+                .or(() -> Optional.ofNullable(environmentVariables.get(ENV_PREFIX + "ENVIRONMENT")))
+                .orElse("qa");
+
+        ObjectNode tree = mapper.createObjectNode();
+        Map<String, String> sources = new TreeMap<>();
+        readYaml("base").ifPresent(base -> merge(tree, base, "", "config/base.yaml", sources));
+        inheritanceChain(environment).forEach((name, layer) ->
+                merge(tree, layer, "", "config/" + name + ".yaml", sources));
+
+        new TreeMap<>(environmentVariables).forEach((name, value) -> {
+            if (!name.startsWith(ENV_PREFIX) || name.equals(ENV_PREFIX + "ENVIRONMENT")) {
+                return;
+            }
+            Target target = target(name.substring(ENV_PREFIX.length()).split("_"));
+            if (target == null) {
+                log.warn("Ignoring environment variable {}, it names no configuration value", name);
+                return;
+            }
+            override(tree, target, value, "env " + name, sources);
+        });
+
+        new TreeMap<>(toStrings(systemProperties)).forEach((name, value) -> {
+            String path = ALIASES.getOrDefault(name, name);
+            if (!path.contains(".")) {
+                return;
             }
-            
-            ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-            config = mapper.readValue(inputStream, ConfigModel.class);
-            log.info("Configuration loaded successfully for environment: {}", environment);
+            String[] segments = path.split("\\.");
+            // Most system properties (java.*, user.*, allure.*) are not configuration
+            if (field(ConfigModel.class, segments[0]) == null) {
+                return;
+            }
+            Target target = target(segments);
+            if (target == null) {
+                log.warn("Ignoring system property {}, it names no configuration value", name);
+                return;
+            }
+            override(tree, target, value, "-D" + name, sources);
+        });
+
+        try {
+            ConfigModel config = mapper.treeToValue(tree, ConfigModel.class);
+            Map<String, String> values = new TreeMap<>();
+            flatten(tree, "", values);
+            return new ConfigReader(environment, tree, config, values, sources);
         } catch (IOException e) {
             log.error("Failed to load configuration", e);
-            throw new RuntimeException("Failed to load configuration", e);
+            throw new RuntimeException("Failed to load configuration for environment " + environment, e);
         }
     }
-    
+
     /**
-     * Get the loaded configuration
-     * 
+     * Get a copy of the resolved configuration
+     * Changes to the copy are seen by no one else, the resolved configuration stays as it was.
+     * Each call deep-copies the tree, read values needed per test through the typed getters instead.
+     *
      * @return ConfigModel containing all configuration settings
      */
-    public ConfigModel getConfig() {
-        return config;
+    public ConfigModel copyConfig() {
+        try {
+            return mapper.treeToValue(tree, ConfigModel.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to copy configuration for environment " + environment, e);
+        }
+    }
+
+    /**
+     * Get the name of the selected environment
+     *
+     * @return Environment whose YAML file was loaded (e.g. qa, dev)
+     */
+    public String getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * Get the layer that supplied a configuration value
+     *
+     * @param path Dotted path of the value (e.g. "browser.headless")
+     * @return The file, environment variable or system property, or null if the value is not configured
+     */
+    public String getSource(String path) {
+        return sources.get(path);
+    }
+
+    /**
+     * Get all configured values with the layer that supplied each of them
+     *
+     * @return Dotted value paths to their source, sorted by path
+     */
+    public Map<String, String> getSources() {
+        return sources;
     }
-    
+
+    /**
+     * Describe the resolved configuration, one value and its source per line, with secrets masked
+     *
+     * @return Printable configuration dump
+     */
+    public String describe() {
+        StringBuilder dump = new StringBuilder();
+        values.forEach((path, value) -> {
+            String shown = SECRET.matcher(path.substring(path.lastIndexOf('.') + 1)).matches() ? "****" : value;
+            dump.append("  ").append(path).append(" = ").append(shown)
+                    .append("  (").append(sources.getOrDefault(path, "default")).append(")\n");
+        });
+        return dump.toString();
+    }
+
     /**
      * Get base URL from configuration
-     * 
+     *
      * @return Base URL string
      */
     public String getBaseUrl() {
-        return Optional.ofNullable(config.getEnvironment().getBaseUrl())
+        return Optional.ofNullable(config.getEnvironment())
+                .map(ConfigModel.EnvironmentConfig::getBaseUrl)
                 .orElseThrow(() -> new RuntimeException("Base URL not configured"));
     }
-    
+
+    /**
+     * Get API base URL from configuration
+     *
+     * @return API base URL, or the base URL if no separate API URL is configured
+     */
+    public String getApiBaseUrl() {
+        return Optional.ofNullable(config.getEnvironment().getApiBaseUrl())
+                .orElseGet(this::getBaseUrl);
+    }
+
     /**
      * Get browser type from configuration
-     * 
+     *
      * @return Browser type string (chromium, firefox, webkit)
      */
     public String getBrowserType() {
         return Optional.ofNullable(config.getBrowser().getType())
                 .orElse("chromium");
     }
-    
+
+    /**
+     * Get the browsers every browser test runs on
+     *
+     * @return The browser.types matrix, or only the browser type when no matrix is configured
+     */
+    public List<String> getBrowserTypes() {
+        List<String> types = config.getBrowser().getTypes();
+        if (types == null || types.isEmpty()) {
+            return List.of(getBrowserType());
+        }
+        return types.stream().map(type -> type.trim().toLowerCase(Locale.ROOT)).distinct().toList();
+    }
+
+    /**
+     * Get the weight of a browser in the matrix, slower browsers get a larger share of the workers
+     *
+     * @param browserType Browser type (chromium, firefox, webkit)
+     * @return The configured weight, 1 by default
+     */
+    public double getBrowserWeight(String browserType) {
+        return Optional.ofNullable(config.getBrowser().getWeights())
+                .map(weights -> weights.get(browserType))
+                .orElse(1.0);
+    }
+
     /**
      * Check if browser should run in headless mode
-     * First checks if headless property is specified on command line,
-     * then falls back to configuration file
-     * 
+     * -Dheadless and -Dbrowser.headless are applied when the configuration is resolved
+     *
      * @return True if headless, false otherwise
      */
     public boolean isHeadless() {
-        String headlessProperty = System.getProperty("headless");
-        if (headlessProperty != null) {
-            boolean headless = Boolean.parseBoolean(headlessProperty);
-            log.info("Using command line headless mode: {}", headless);
-            return headless;
-        }
         return config.getBrowser().isHeadless();
     }
-    
+
     /**
      * Get default timeout for Playwright actions
-     * 
+     *
      * @return Timeout in milliseconds
      */
     public int getTimeout() {
         return config.getBrowser().getTimeout();
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the slow-motion delay of browser actions
+     *
+     * @return Delay in milliseconds, 0 for none
+     */
+    public int getSlowMo() {
+        return config.getBrowser().getSlowMo();
+    }
+
+    /**
+     * Check if screenshots capture the full scrollable page
+     *
+     * @return True if screenshot.fullPage is set
+     */
+    public boolean isFullPageScreenshot() {
+        return config.getScreenshot() != null && config.getScreenshot().isFullPage();
+    }
+
+    /**
+     * Get the number of retries of a failed test
+     *
+     * @return retry.maxRetries, 0 if retries are disabled
+     */
+    public int getMaxRetries() {
+        ConfigModel.RetryConfig retry = config.getRetry();
+        return retry != null && retry.isEnabled() ? retry.getMaxRetries() : 0;
+    }
+
+    /**
+     * Get the delay before a failed test is retried
+     *
+     * @return Delay in milliseconds
+     */
+    public long getRetryDelay() {
+        return config.getRetry() == null ? 0 : config.getRetry().getDelayBetweenRetries();
+    }
+
+    /**
+     * Get the number of re-runs of a test whose browser crashed, not counted in the retries
+     *
+     * @return retry.maxCrashRetries, 1 without a retry section
+     */
+    public int getMaxCrashRetries() {
+        return config.getRetry() == null ? 1 : config.getRetry().getMaxCrashRetries();
+    }
+
+    /**
+     * Check whether tests run in persistent worker profiles
+     *
+     * @return True if browserProfiles.enabled is set
+     */
+    public boolean isBrowserProfilesEnabled() {
+        return config.getBrowserProfiles() != null && config.getBrowserProfiles().isEnabled();
+    }
+
+    /**
+     * Get the cookie consent button selectors configured for the environment
+     *
+     * @return Selectors in priority order, or an empty list if none are configured
+     */
+    public List<String> getCookieConsentSelectors() {
+        return Optional.ofNullable(config.getCookieConsent())
+                .map(ConfigModel.CookieConsentConfig::getSelectors)
+                .orElse(List.of());
+    }
+
+    /**
+     * Files of an environment and the ones it extends, ancestors first
+     */
+    private static Map<String, ObjectNode> inheritanceChain(String environment) {
+        Map<String, ObjectNode> chain = new LinkedHashMap<>();
+        for (String name = environment; name != null; ) {
+            if (chain.containsKey(name)) {
+                throw new IllegalArgumentException("Circular extends in configuration: "
+                        + String.join(" -> ", chain.keySet()) + " -> " + name);
+            }
+            String configFile = CONFIG_DIR + name + ".yaml";
+            ObjectNode layer = readYaml(name)
+                    .orElseThrow(() -> new RuntimeException("Configuration file not found: " + configFile));
+            JsonNode parent = layer.remove("extends");
+            chain.put(name, layer);
+            name = parent == null || parent.isNull() ? null : parent.asText();
+        }
+        List<String> names = new ArrayList<>(chain.keySet());
+        Collections.reverse(names);
+        Map<String, ObjectNode> ordered = new LinkedHashMap<>();
+        names.forEach(name -> ordered.put(name, chain.get(name)));
+        return ordered;
+    }
+
+    private static Optional<ObjectNode> readYaml(String name) {
+        String configFile = CONFIG_DIR + name + ".yaml";
+        try (InputStream inputStream = ConfigReader.class.getResourceAsStream(configFile)) {
+            if (inputStream == null) {
+                return Optional.empty();
+            }
+            JsonNode node = mapper.readTree(inputStream);
+            if (node == null || node.isMissingNode() || node.isNull()) {
+                return Optional.of(mapper.createObjectNode());
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("Configuration file " + configFile + " is not a mapping");
+            }
+            return Optional.of((ObjectNode) node);
+        } catch (IOException e) {
+            log.error("Failed to read configuration file {}", configFile, e);
+            throw new RuntimeException("Failed to read configuration file " + configFile, e);
+        }
+    }
+
+    /**
+     * Deep merge a layer, mappings are merged key by key while lists and values are replaced
+     */
+    private static void merge(ObjectNode target, ObjectNode layer, String prefix, String source,
+                              Map<String, String> sources) {
+        Iterator<Map.Entry<String, JsonNode>> fields = layer.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String path = prefix + field.getKey();
+            JsonNode value = field.getValue();
+            if (value.isObject()) {
+                JsonNode existing = target.get(field.getKey());
+                if (existing == null || !existing.isObject()) {
+                    sources.remove(path);
+                    existing = target.putObject(field.getKey());
+                }
+                merge((ObjectNode) existing, (ObjectNode) value, path + ".", source, sources);
+            } else {
+                sources.keySet().removeIf(key -> key.startsWith(path + "."));
+                target.set(field.getKey(), value.deepCopy());
+                sources.put(path, source);
+            }
+        }
+    }
+
+    private static void override(ObjectNode tree, Target target, String value, String source,
+                                 Map<String, String> sources) {
+        String[] segments = target.path.split("\\.");
+        ObjectNode node = tree;
+        for (int i = 0; i < segments.length - 1; i++) {
+            JsonNode child = node.get(segments[i]);
+            node = child != null && child.isObject() ? (ObjectNode) child : node.putObject(segments[i]);
+        }
+        if (target.list) {
+            ArrayNode items = node.putArray(segments[segments.length - 1]);
+            for (String item : value.split(",")) {
+                if (!item.isBlank()) {
+                    items.add(item.trim());
+                }
+            }
+        } else {
+            // Jackson converts the text to the field's type
+            node.set(segments[segments.length - 1], TextNode.valueOf(value));
+        }
+        sources.put(target.path, source);
+    }
+
+    /**
+     * Find the configuration value named by case-insensitive path segments
+     *
+     * @return The value's path with the field names of ConfigModel, or null if it names no value
+     */
+    private static Target target(String[] segments) {
+        Type type = ConfigModel.class;
+        List<String> path = new ArrayList<>();
+        for (String segment : segments) {
+            if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Map.class) {
+                path.add(segment);
+                type = ((ParameterizedType) type).getActualTypeArguments()[1];
+                continue;
+            }
+            Field field = type instanceof Class ? field((Class<?>) type, segment) : null;
+            if (field == null) {
+                return null;
+            }
+            path.add(field.getName());
+            type = field.getGenericType();
+        }
+        Class<?> raw = type instanceof ParameterizedType
+                ? (Class<?>) ((ParameterizedType) type).getRawType() : (Class<?>) type;
+        // Whole sections and maps cannot be set from a single value
+        if (raw == Map.class || raw.getEnclosingClass() == ConfigModel.class) {
+            return null;
+        }
+        return new Target(String.join(".", path), raw == List.class);
+    }
+
+    private static Field field(Class<?> type, String name) {
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && field.getName().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private static void flatten(JsonNode node, String path, Map<String, String> values) {
+        if (node.isObject()) {
+            node.fields().forEachRemaining(field -> flatten(field.getValue(),
+                    path.isEmpty() ? field.getKey() : path + "." + field.getKey(), values));
+        } else {
+            values.put(path, node.isValueNode() ? node.asText() : node.toString());
+        }
+    }
+
+    private static Map<String, String> toStrings(Map<?, ?> properties) {
+        Map<String, String> strings = new LinkedHashMap<>();
+        properties.forEach((name, value) -> {
+            if (name instanceof String && value instanceof String) {
+                strings.put((String) name, (String) value);
+            }
+        });
+        return strings;
+    }
+
+    private static final class Target {
+        private final String path;
+        private final boolean list;
+
+        private Target(String path, boolean list) {
+            this.path = path;
+            this.list = list;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.mypixelquest.pja.utils;
+
+import lombok.Value;
+
+/**
+ * Outcome of checking one link with {@link LinkChecker}
+ */
+@Value
+public class LinkCheckResult {
+    String url;
+    int status;     // HTTP status, 0 if no response was received
+    String error;   // failure description, null when a response was received
+
+    /**
+     * Check if the link is broken
+     *
+     * @return true if there was no response or the status is 400 or above
+     */
+    public boolean isBroken() {
+        return status == 0 || status >= 400;
+    }
+}
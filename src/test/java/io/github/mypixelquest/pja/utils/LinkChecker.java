@@ -0,0 +1,275 @@
+package io.github.mypixelquest.pja.utils;
+
+import com.microsoft.playwright.APIRequestContext;
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.options.RequestOptions;
+import io.github.mypixelquest.pja.config.ConfigModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verifies links over HTTP instead of clicking through them in the browser.
+ * Links are checked concurrently by the checker's worker threads. Playwright objects must stay on
+ * the thread that created them, so each worker starts one Playwright driver and
+ * {@link APIRequestContext} on first use and keeps them for all sweeps until the checker is closed.
+ * Requests to the same host are spaced out by a per-host rate limit, and responses are cached
+ * for the lifetime of the JVM so repeated sweeps do not hit the same URL twice. Network failures
+ * are not cached, the next sweep checks the link again.
+ */
+public class LinkChecker implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LinkChecker.class);
+    private static final Map<String, LinkCheckResult> resultCache = new ConcurrentHashMap<>();
+    private static final AtomicInteger workerCounter = new AtomicInteger();
+
+    private final int concurrency;
+    private final long hostIntervalNanos;
+    private final int timeoutMs;
+    private final Map<String, AtomicLong> nextHostSlot = new ConcurrentHashMap<>();
+    // Started on demand, up to concurrency, guarded by this
+    private final List<Worker> workers = new ArrayList<>();
+
+    /**
+     * Creates a new LinkChecker
+     *
+     * @param concurrency Maximum number of links checked at the same time
+     * @param requestsPerSecondPerHost Maximum request rate per host, 0 or less for no limit
+     * @param timeoutMs Timeout of each request, in milliseconds
+     */
+    public LinkChecker(int concurrency, double requestsPerSecondPerHost, int timeoutMs) {
+        this.concurrency = Math.max(1, concurrency);
+        this.hostIntervalNanos = requestsPerSecondPerHost > 0 ? (long) (1_000_000_000L / requestsPerSecondPerHost) : 0;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Create a LinkChecker from the linkCheck section of the configuration
+     *
+     * @return LinkChecker using configured or default limits
+     */
+    public static LinkChecker fromConfig() {
+        ConfigModel.LinkCheckConfig config = Optional.ofNullable(ConfigReader.getInstance().copyConfig().getLinkCheck())
+                .orElseGet(ConfigModel.LinkCheckConfig::new);
+        return new LinkChecker(config.getConcurrency(), config.getRequestsPerSecondPerHost(), config.getTimeout());
+    }
+
+    /**
+     * Check a set of absolute URLs
+     * A malformed URL is reported as broken, the other links are still checked
+     *
+     * @param urls URLs to check, duplicates are checked once
+     * @return Results in the order the URLs were given
+     */
+    public synchronized List<LinkCheckResult> check(Collection<String> urls) {
+        Set<String> unique = new LinkedHashSet<>(urls);
+        Map<String, LinkCheckResult> checked = new ConcurrentHashMap<>();
+        Queue<String> pending = new ConcurrentLinkedQueue<>();
+        for (String url : unique) {
+            LinkCheckResult cached = resultCache.get(url);
+            if (cached != null) {
+                checked.put(url, cached);
+                continue;
+            }
+            String malformed = malformed(url);
+            if (malformed != null) {
+                checked.put(url, new LinkCheckResult(url, 0, malformed));
+            } else {
+                pending.add(url);
+            }
+        }
+
+        log.info("Checking {} links ({} cached)", unique.size(), unique.size() - pending.size());
+        if (!pending.isEmpty()) {
+            runWorkers(pending, checked);
+        }
+
+        List<LinkCheckResult> results = new ArrayList<>(unique.size());
+        for (String url : unique) {
+            LinkCheckResult result = checked.get(url);
+            if (result.isBroken()) {
+                log.warn("Broken link: {} (status: {}, error: {})", url, result.getStatus(), result.getError());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Clear the results cached by all LinkChecker instances
+     */
+    public static void clearCache() {
+        resultCache.clear();
+    }
+
+    /**
+     * Stop the worker threads and close their Playwright drivers
+     */
+    @Override
+    public synchronized void close() {
+        for (Worker worker : workers) {
+            worker.close();
+        }
+        workers.clear();
+    }
+
+    private void runWorkers(Queue<String> pending, Map<String, LinkCheckResult> checked) {
+        while (workers.size() < Math.min(concurrency, pending.size())) {
+            workers.add(new Worker());
+        }
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers.size());
+            for (Worker worker : workers) {
+                futures.add(worker.thread.submit(() -> drain(worker, pending, checked)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while checking links", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Link check worker failed", e.getCause());
+        }
+    }
+
+    private void drain(Worker worker, Queue<String> pending, Map<String, LinkCheckResult> checked) {
+        String url;
+        while ((url = pending.poll()) != null) {
+            awaitHostSlot(url);
+            LinkCheckResult result = fetch(worker.request(), url);
+            checked.put(url, result);
+            // A transient network failure is checked again by the next sweep
+            if (result.getStatus() != 0) {
+                resultCache.put(url, result);
+            }
+        }
+    }
+
+    /**
+     * Describe why a URL cannot be requested
+     *
+     * @return Error description, null if the URL is absolute with a host
+     */
+    private static String malformed(String url) {
+        try {
+            URI uri = new URI(url);
+            if (!uri.isAbsolute() || uri.getHost() == null) {
+                return "Malformed URL: not an absolute URL with a host";
+            }
+            return null;
+        } catch (URISyntaxException e) {
+            return "Malformed URL: " + e.getMessage();
+        }
+    }
+
+    private LinkCheckResult fetch(APIRequestContext request, String url) {
+        RequestOptions options = RequestOptions.create().setTimeout(timeoutMs).setMaxRedirects(10);
+        try {
+            int status = status(request.head(url, options));
+            // Many servers reject HEAD, confirm with GET before reporting the link as broken
+            if (status >= 400) {
+                awaitHostSlot(url);
+                status = status(request.get(url, options));
+            }
+            log.debug("Checked link {} - {}", url, status);
+            return new LinkCheckResult(url, status, null);
+        } catch (PlaywrightException e) {
+            log.debug("Failed to check link {}", url, e);
+            return new LinkCheckResult(url, 0, e.getMessage());
+        }
+    }
+
+    private static int status(APIResponse response) {
+        try {
+            return response.status();
+        } finally {
+            response.dispose();
+        }
+    }
+
+    /**
+     * Reserve the next request slot of the URL's host and sleep until it starts
+     */
+    private void awaitHostSlot(String url) {
+        if (hostIntervalNanos == 0) {
+            return;
+        }
+
+        // Checked by malformed before the URL was queued
+        String host = URI.create(url).getHost();
+        AtomicLong nextSlot = nextHostSlot.computeIfAbsent(host, h -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        long slot = nextSlot.getAndAccumulate(now, (next, current) -> Math.max(next, current) + hostIntervalNanos);
+        long waitNanos = Math.max(slot, now) - now;
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for rate limit of host: " + host, e);
+            }
+        }
+    }
+
+    /**
+     * A link check thread with its Playwright driver, created on the thread and used only there
+     */
+    private static final class Worker {
+        private final ExecutorService thread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread worker = new Thread(runnable, "pja-link-checker-" + workerCounter.incrementAndGet());
+            worker.setDaemon(true);
+            return worker;
+        });
+        private Playwright playwright;
+        private APIRequestContext request;
+
+        private APIRequestContext request() {
+            if (request == null) {
+                // Only the APIRequestContext is used, so the worker never needs browser binaries
+                playwright = Playwright.create(new Playwright.CreateOptions()
+                        .setEnv(Map.of("PLAYWRIGHT_SKIP_BROWSER_DOWNLOAD", "1")));
+                request = playwright.request().newContext();
+            }
+            return request;
+        }
+
+        private void close() {
+            Future<?> closed = thread.submit(() -> {
+                if (playwright != null) {
+                    request.dispose();
+                    playwright.close();
+                }
+            });
+            try {
+                closed.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                log.debug("Failed to close link check worker", e.getCause());
+            } finally {
+                thread.shutdown();
+            }
+        }
+    }
+}
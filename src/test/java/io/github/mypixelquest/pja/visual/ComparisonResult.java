@@ -0,0 +1,50 @@
+package io.github.mypixelquest.pja.visual;
+
+import lombok.Value;
+
+/**
+ * Outcome of comparing an image against its baseline with {@link ImageComparator}
+ */
+@Value
+public class ComparisonResult {
+    boolean matching;
+    long differingPixels;   // lower bound when the comparison stopped early
+    long comparedPixels;    // pixels outside masked regions
+    long allowedPixels;     // difference budget derived from the configured ratio
+    boolean stoppedEarly;   // true if tiles were skipped because the budget was exceeded
+    int width;
+    int height;
+
+    /**
+     * Create the result for images of different dimensions
+     *
+     * @param expected Baseline image
+     * @param actual Captured image
+     * @return Failed result without pixel counts
+     */
+    static ComparisonResult sizeMismatch(PixelImage expected, PixelImage actual) {
+        return new ComparisonResult(false, -1, 0, 0, false, actual.getWidth(), actual.getHeight());
+    }
+
+    /**
+     * Check if the images had different dimensions
+     *
+     * @return true if no pixels were compared because the sizes differ
+     */
+    public boolean isSizeMismatch() {
+        return differingPixels < 0;
+    }
+
+    /**
+     * Describe the result for assertion messages
+     *
+     * @return Human readable summary
+     */
+    public String describe() {
+        if (isSizeMismatch()) {
+            return "image size differs from baseline, actual is " + width + "x" + height;
+        }
+        return String.format("%s%d of %d pixels differ, %d allowed",
+                stoppedEarly ? "at least " : "", differingPixels, comparedPixels, allowedPixels);
+    }
+}
@@ -0,0 +1,285 @@
+package io.github.mypixelquest.pja.visual;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+
+/**
+ * Pixel comparison of two images decoded to ARGB int arrays.
+ * The image is split into square tiles that are compared in parallel on the common
+ * fork-join pool. All tiles share one difference counter, so the comparison stops as
+ * soon as the allowed number of differing pixels is exceeded.
+ */
+public class ImageComparator {
+    // Tiles handled by one fork-join leaf task
+    private static final int TILES_PER_TASK = 4;
+
+    private final int channelTolerance;
+    private final double maxDiffRatio;
+    private final int tileSize;
+
+    /**
+     * Creates a new ImageComparator
+     *
+     * @param channelTolerance Maximum difference per color channel (0-255) for pixels considered equal
+     * @param maxDiffRatio Maximum share of compared pixels allowed to differ (0.0-1.0)
+     * @param tileSize Edge length of the square tiles compared in parallel, in pixels
+     */
+    public ImageComparator(int channelTolerance, double maxDiffRatio, int tileSize) {
+        this.channelTolerance = channelTolerance;
+        this.maxDiffRatio = maxDiffRatio;
+        this.tileSize = Math.max(8, tileSize);
+    }
+
+    /**
+     * Decode a PNG (or any ImageIO format) into an image with ARGB int pixels
+     *
+     * @param bytes Encoded image
+     * @return Decoded image
+     */
+    public static PixelImage decode(byte[] bytes) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+            if (image == null) {
+                throw new IOException("Unsupported image format");
+            }
+            return new PixelImage(image.getWidth(), image.getHeight(), pixels(image));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode image", e);
+        }
+    }
+
+    /**
+     * Read the pixels of an image as ARGB ints
+     * PNG screenshots decode to byte rasters, which are converted directly instead of going
+     * through the per-pixel color model of BufferedImage.getRGB
+     */
+    private static int[] pixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int type = image.getType();
+        if (type != BufferedImage.TYPE_4BYTE_ABGR && type != BufferedImage.TYPE_3BYTE_BGR) {
+            return image.getRGB(0, 0, width, height, null, 0, width);
+        }
+
+        byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        int[] pixels = new int[width * height];
+        if (type == BufferedImage.TYPE_4BYTE_ABGR) {
+            for (int i = 0, j = 0; i < pixels.length; i++, j += 4) {
+                pixels[i] = (data[j] & 0xFF) << 24 | (data[j + 3] & 0xFF) << 16 | (data[j + 2] & 0xFF) << 8 | (data[j + 1] & 0xFF);
+            }
+        } else {
+            for (int i = 0, j = 0; i < pixels.length; i++, j += 3) {
+                pixels[i] = 0xFF000000 | (data[j + 2] & 0xFF) << 16 | (data[j + 1] & 0xFF) << 8 | (data[j] & 0xFF);
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Compare an image against its baseline
+     *
+     * @param expected Baseline image
+     * @param actual Captured image
+     * @param masks Regions excluded from the comparison
+     * @return Result of the comparison
+     */
+    public ComparisonResult compare(PixelImage expected, PixelImage actual, List<Rectangle> masks) {
+        if (expected.getWidth() != actual.getWidth() || expected.getHeight() != actual.getHeight()) {
+            return ComparisonResult.sizeMismatch(expected, actual);
+        }
+
+        int width = expected.getWidth();
+        int height = expected.getHeight();
+        long comparedPixels = (long) width * height - maskedPixels(masks, width, height);
+        long budget = (long) Math.floor(comparedPixels * maxDiffRatio);
+
+        int tilesX = (width + tileSize - 1) / tileSize;
+        int tilesY = (height + tileSize - 1) / tileSize;
+        AtomicLong differing = new AtomicLong();
+        TileTask task = new TileTask(expected.getPixels(), actual.getPixels(), width, height, tilesX,
+                0, tilesX * tilesY, masks, differing, budget);
+        ForkJoinPool.commonPool().invoke(task);
+
+        long diff = differing.get();
+        return new ComparisonResult(diff <= budget, diff, comparedPixels, budget, diff > budget, width, height);
+    }
+
+    /**
+     * Render a diff image: matching pixels are dimmed, differing pixels red, masks blue
+     * Only meant for failed comparisons, it scans the full image without early exit
+     *
+     * @param expected Baseline image
+     * @param actual Captured image of the same size
+     * @param masks Regions excluded from the comparison
+     * @return Diff image
+     */
+    public BufferedImage diffImage(PixelImage expected, PixelImage actual, List<Rectangle> masks) {
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int[] a = expected.getPixels();
+        int[] b = actual.getPixels();
+        int[] out = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                if (isMasked(masks, x, y)) {
+                    out[i] = 0xFF3060FF;
+                } else if (differs(a[i], b[i])) {
+                    out[i] = 0xFFFF0000;
+                } else {
+                    // Grey, faded copy of the actual pixel for orientation
+                    int gray = (((b[i] >> 16) & 0xFF) + ((b[i] >> 8) & 0xFF) + (b[i] & 0xFF)) / 3;
+                    int faded = 192 + gray / 4;
+                    out[i] = 0xFF000000 | faded << 16 | faded << 8 | faded;
+                }
+            }
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, out, 0, width);
+        return image;
+    }
+
+    private boolean differs(int p, int q) {
+        if (p == q) {
+            return false;
+        }
+        int tolerance = channelTolerance;
+        return Math.abs((p >>> 24) - (q >>> 24)) > tolerance
+                || Math.abs(((p >> 16) & 0xFF) - ((q >> 16) & 0xFF)) > tolerance
+                || Math.abs(((p >> 8) & 0xFF) - ((q >> 8) & 0xFF)) > tolerance
+                || Math.abs((p & 0xFF) - (q & 0xFF)) > tolerance;
+    }
+
+    private static boolean isMasked(List<Rectangle> masks, int x, int y) {
+        for (int i = 0; i < masks.size(); i++) {
+            if (masks.get(i).contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long maskedPixels(List<Rectangle> masks, int width, int height) {
+        if (masks.isEmpty()) {
+            return 0;
+        }
+        // Counted as merged spans per row so overlapping masks are not subtracted twice
+        Rectangle bounds = new Rectangle(0, 0, width, height);
+        List<Rectangle> clipped = new ArrayList<>();
+        for (Rectangle mask : masks) {
+            Rectangle visible = mask.intersection(bounds);
+            if (!visible.isEmpty()) {
+                clipped.add(visible);
+            }
+        }
+        clipped.sort(Comparator.comparingInt(mask -> mask.x));
+
+        long masked = 0;
+        for (int y = 0; y < height; y++) {
+            int end = 0;
+            for (Rectangle mask : clipped) {
+                if (y < mask.y || y >= mask.y + mask.height) {
+                    continue;
+                }
+                int from = Math.max(mask.x, end);
+                int to = mask.x + mask.width;
+                if (to > from) {
+                    masked += to - from;
+                    end = to;
+                }
+            }
+        }
+        return masked;
+    }
+
+    /**
+     * Compares a range of tiles, splitting the range until it is small enough
+     */
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] expected;
+        private final int[] actual;
+        private final int width;
+        private final int height;
+        private final int tilesX;
+        private final int fromTile;
+        private final int toTile;
+        private final List<Rectangle> masks;
+        private final AtomicLong differing;
+        private final long budget;
+
+        private TileTask(int[] expected, int[] actual, int width, int height, int tilesX, int fromTile, int toTile,
+                         List<Rectangle> masks, AtomicLong differing, long budget) {
+            this.expected = expected;
+            this.actual = actual;
+            this.width = width;
+            this.height = height;
+            this.tilesX = tilesX;
+            this.fromTile = fromTile;
+            this.toTile = toTile;
+            this.masks = masks;
+            this.differing = differing;
+            this.budget = budget;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTile - fromTile <= TILES_PER_TASK) {
+                for (int tile = fromTile; tile < toTile && differing.get() <= budget; tile++) {
+                    compareTile(tile);
+                }
+                return;
+            }
+
+            int middle = (fromTile + toTile) >>> 1;
+            invokeAll(
+                    new TileTask(expected, actual, width, height, tilesX, fromTile, middle, masks, differing, budget),
+                    new TileTask(expected, actual, width, height, tilesX, middle, toTile, masks, differing, budget));
+        }
+
+        private void compareTile(int tile) {
+            int x0 = (tile % tilesX) * tileSize;
+            int y0 = (tile / tilesX) * tileSize;
+            int x1 = Math.min(x0 + tileSize, width);
+            int y1 = Math.min(y0 + tileSize, height);
+
+            List<Rectangle> tileMasks = masksIntersecting(x0, y0, x1 - x0, y1 - y0);
+            long local = 0;
+            for (int y = y0; y < y1; y++) {
+                int row = y * width;
+                for (int x = x0; x < x1; x++) {
+                    if (differs(expected[row + x], actual[row + x]) && (tileMasks.isEmpty() || !isMasked(tileMasks, x, y))) {
+                        local++;
+                    }
+                }
+            }
+            if (local > 0) {
+                differing.addAndGet(local);
+            }
+        }
+
+        private List<Rectangle> masksIntersecting(int x, int y, int w, int h) {
+            if (masks.isEmpty()) {
+                return masks;
+            }
+            List<Rectangle> result = new ArrayList<>(masks.size());
+            for (Rectangle mask : masks) {
+                if (mask.intersects(x, y, w, h)) {
+                    result.add(mask);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.mypixelquest.pja.visual;
+
+import lombok.Value;
+
+/**
+ * Decoded image with one ARGB int per pixel, stored row by row
+ */
+@Value
+public class PixelImage {
+    int width;
+    int height;
+    int[] pixels;
+}
@@ -0,0 +1,157 @@
+package io.github.mypixelquest.pja.visual;
+
+import io.github.mypixelquest.pja.config.ConfigModel;
+import io.github.mypixelquest.pja.utils.ConfigReader;
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stored screenshot baselines and the assertion against them.
+ * Baselines live in one directory per browser type. A missing baseline fails the assertion,
+ * baselines are only recorded when updateBaselines is set. Byte-identical captures pass without decoding; otherwise both images are
+ * decoded concurrently and compared with {@link ImageComparator}. Diff images are only
+ * rendered for failed comparisons.
+ */
+public class VisualBaseline {
+    private static final Logger log = LoggerFactory.getLogger(VisualBaseline.class);
+
+    private final Path baselineDir;
+    private final Path diffDir;
+    private final ImageComparator comparator;
+    private final boolean updateBaselines;
+
+    /**
+     * Creates a new VisualBaseline
+     *
+     * @param config Visual regression settings
+     * @param browserType Browser type, baselines are kept separately per browser
+     * @param updateBaselines true to overwrite baselines with the captured screenshots
+     */
+    public VisualBaseline(ConfigModel.VisualConfig config, String browserType, boolean updateBaselines) {
+        this.baselineDir = Paths.get(config.getBaselineDir(), browserType);
+        this.diffDir = Paths.get(config.getDiffDir(), browserType);
+        this.comparator = new ImageComparator(config.getChannelTolerance(), config.getMaxDiffRatio(), config.getTileSize());
+        this.updateBaselines = updateBaselines;
+    }
+
+    /**
+     * Create a VisualBaseline from the YAML configuration
+     * -DupdateBaselines=true overrides visual.updateBaselines like any other configuration value
+     *
+     * @return VisualBaseline for the configured browser
+     */
+    public static VisualBaseline fromConfig() {
+        return fromConfig(ConfigReader.getInstance().getBrowserType());
+    }
+
+    /**
+     * Create a VisualBaseline from the YAML configuration for one browser of a browser matrix
+     *
+     * @param browserType Browser type the screenshots are taken with
+     * @return VisualBaseline for the browser
+     */
+    public static VisualBaseline fromConfig(String browserType) {
+        ConfigModel.VisualConfig config = Optional.ofNullable(ConfigReader.getInstance().copyConfig().getVisual())
+                .orElseGet(ConfigModel.VisualConfig::new);
+        return new VisualBaseline(config, browserType, config.isUpdateBaselines());
+    }
+
+    /**
+     * Assert that a screenshot matches its stored baseline
+     *
+     * @param name Baseline name, may contain '/' to group baselines in directories
+     * @param screenshot Captured PNG
+     * @param masks Regions excluded from the comparison
+     * @throws AssertionError if the baseline is missing or the screenshot differs more than allowed
+     */
+    public void assertMatches(String name, byte[] screenshot, List<Rectangle> masks) {
+        Path baselineFile = baselineDir.resolve(name + ".png");
+        if (updateBaselines) {
+            write(baselineFile, screenshot);
+            log.warn("Updated baseline {}", baselineFile);
+            attach(name + "_baseline", screenshot);
+            return;
+        }
+        if (!Files.exists(baselineFile)) {
+            // A fresh checkout must not pass by recording whatever it captured
+            attach(name + "_actual", screenshot);
+            write(diffDir.resolve(name + "_actual.png"), screenshot);
+            throw new AssertionError(String.format(
+                    "No baseline %s, run with -DupdateBaselines=true to record it", baselineFile));
+        }
+
+        byte[] baseline = read(baselineFile);
+        if (Arrays.equals(baseline, screenshot)) {
+            log.debug("Screenshot is identical to baseline {}", baselineFile);
+            return;
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<PixelImage> expectedImage = CompletableFuture.supplyAsync(() -> ImageComparator.decode(baseline));
+        PixelImage actual = ImageComparator.decode(screenshot);
+        PixelImage expected = expectedImage.join();
+        ComparisonResult result = comparator.compare(expected, actual, masks);
+        log.debug("Compared {} against baseline in {} ms: {}", name, (System.nanoTime() - start) / 1_000_000L,
+                result.describe());
+        if (result.isMatching()) {
+            return;
+        }
+
+        attach(name + "_expected", baseline);
+        attach(name + "_actual", screenshot);
+        write(diffDir.resolve(name + "_actual.png"), screenshot);
+        if (!result.isSizeMismatch()) {
+            byte[] diff = encode(comparator.diffImage(expected, actual, masks));
+            write(diffDir.resolve(name + "_diff.png"), diff);
+            attach(name + "_diff", diff);
+        }
+        throw new AssertionError(String.format("Screenshot does not match baseline %s (%dx%d): %s",
+                baselineFile, expected.getWidth(), expected.getHeight(), result.describe()));
+    }
+
+    private static void attach(String name, byte[] png) {
+        Allure.addAttachment(name, "image/png", new ByteArrayInputStream(png), "png");
+    }
+
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read baseline " + file, e);
+        }
+    }
+
+    private static void write(Path file, byte[] png) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, png);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write " + file, e);
+        }
+    }
+
+    private static byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode diff image", e);
+        }
+    }
+}